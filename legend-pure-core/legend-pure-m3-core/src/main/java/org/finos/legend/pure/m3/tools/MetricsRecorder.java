@@ -46,6 +46,12 @@ public class MetricsRecorder
             .labelNames("host", "type")
             .help("All Executions.").register();
 
+    static final Summary executionCancellationLatency = Summary.build()
+            .name("pure_execution_cancellation_latency_seconds")
+            .labelNames("host", "reason")
+            .quantile(0.5, 0.05).quantile(0.9, 0.01).quantile(0.99, 0.001)
+            .help("Time from an execution being cancelled (or reaching its deadline) until it stops.").register();
+
     public static MutableList<Collector> executionMetrics = Lists.mutable.empty();
 
     public static InetAddress localMachine;
@@ -107,6 +113,11 @@ public class MetricsRecorder
         currentExecutions.labels(localMachine.getCanonicalHostName(), type.name).dec();
     }
 
+    public static void recordExecutionCancellation(String reason, double latencyInSeconds)
+    {
+        executionCancellationLatency.labels(localMachine.getCanonicalHostName(), reason).observe(latencyInSeconds);
+    }
+
     public enum ExecutionMetricType
     {
         EXECUTE("execute"),
@@ -43,12 +43,13 @@ public class TestReactivate extends AbstractTestReactivate
         Throwable cause = ThrowableTools.findRootThrowable(e);
         Assert.assertEquals(PureJavaCompileException.class, cause.getClass());
 
-        String expected = Pattern.quote("1 error compiling /" + JavaPackageAndImportBuilder.rootPackageFolder() + "/DynaClass.java\n" +
-                "/" + JavaPackageAndImportBuilder.rootPackageFolder() + "/DynaClass.java:") + "\\d*" + Pattern.quote(": error: cannot find symbol\n" +
+        // The generated class is named after a hash of its code
+        String expected = Pattern.quote("1 error compiling /" + JavaPackageAndImportBuilder.rootPackageFolder() + "/DynaClass_") + "(\\p{XDigit}+)" + Pattern.quote(".java\n" +
+                "/" + JavaPackageAndImportBuilder.rootPackageFolder() + "/DynaClass_") + "\\1" + Pattern.quote(".java:") + "\\d*" + Pattern.quote(": error: cannot find symbol\n" +
                 "       return (long)CompiledSupport.plus(Lists.mutable.<java.lang.Long>with(_a,3l));\n" +
                 "                                                                            ^\n" +
                 "  symbol:   variable _a\n" +
-                "  location: class " + JavaPackageAndImportBuilder.rootPackage() + ".DynaClass\n");
+                "  location: class " + JavaPackageAndImportBuilder.rootPackage() + ".DynaClass_") + "\\1\n";
         Pattern expectedPattern = Pattern.compile(expected);
         Matcher matcher = expectedPattern.matcher(cause.getMessage());
         Assert.assertTrue("Failed to find pattern in message:\n" + cause.getMessage(), matcher.find());
@@ -0,0 +1,105 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generation of the CSV relations used by the benchmarks (seeded, so that every run works on the same data).
+ */
+final class BenchmarkData
+{
+    private static final long SEED = 42;
+
+    private BenchmarkData()
+    {
+    }
+
+    /**
+     * Relation of rowCount rows with a unique Integer id (in random order), a key of the given Pure type taking
+     * keyCardinality distinct values, and a Float amount.
+     */
+    static String relation(int rowCount, String keyType, int keyCardinality)
+    {
+        Random random = new Random(SEED);
+        int[] ids = shuffledIds(rowCount, random);
+        StringBuilder builder = new StringBuilder("id, key, amount\n");
+        for (int i = 0; i < rowCount; i++)
+        {
+            builder.append(ids[i]).append(", ");
+            appendKey(builder, keyType, random.nextInt(keyCardinality));
+            builder.append(", ").append(random.nextInt(1_000_000) / 100.0).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Relation with one row for each of the keyCardinality values of the key (named key2), joined to the relation
+     * above in the join benchmarks.
+     */
+    static String lookup(String keyType, int keyCardinality)
+    {
+        StringBuilder builder = new StringBuilder("key2, label\n");
+        for (int i = 0; i < keyCardinality; i++)
+        {
+            appendKey(builder, keyType, i);
+            builder.append(", label_").append(i).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static void appendKey(StringBuilder builder, String keyType, int key)
+    {
+        switch (keyType)
+        {
+            case "Integer":
+            {
+                builder.append(key);
+                break;
+            }
+            case "Float":
+            {
+                builder.append(key).append(".5");
+                break;
+            }
+            case "String":
+            {
+                builder.append("key_").append(key);
+                break;
+            }
+            default:
+            {
+                throw new IllegalArgumentException("Unsupported key type: " + keyType);
+            }
+        }
+    }
+
+    private static int[] shuffledIds(int rowCount, Random random)
+    {
+        int[] ids = new int[rowCount];
+        for (int i = 0; i < rowCount; i++)
+        {
+            ids[i] = i;
+        }
+        for (int i = rowCount - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            int id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+        }
+        return ids;
+    }
+}
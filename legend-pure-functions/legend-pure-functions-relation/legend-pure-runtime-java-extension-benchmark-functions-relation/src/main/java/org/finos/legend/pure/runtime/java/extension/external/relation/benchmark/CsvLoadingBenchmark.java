@@ -0,0 +1,65 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.benchmark;
+
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.TestTDS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of CSV text into a TestTDS, as done for the relation literals of Pure code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvLoadingBenchmark
+{
+    @Param({"1000", "100000"})
+    public int rowCount;
+
+    @Param({"Integer", "Float", "String"})
+    public String keyType;
+
+    @Param({"10", "1000"})
+    public int keyCardinality;
+
+    private String csv;
+
+    @Setup
+    public void setUp()
+    {
+        this.csv = BenchmarkData.relation(this.rowCount, this.keyType, this.keyCardinality);
+    }
+
+    @Benchmark
+    public TestTDS parse()
+    {
+        return new TestTDS(this.csv);
+    }
+}
@@ -0,0 +1,145 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.benchmark;
+
+import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.block.function.Function2;
+import org.eclipse.collections.api.block.function.Function3;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.tuple.Tuples;
+import org.finos.legend.pure.generated.Root_meta_pure_metamodel_relation_ColSpec_Impl;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.relation.ColSpec;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.relation.Relation;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.type.Enum;
+import org.finos.legend.pure.m3.execution.ExecutionSupport;
+import org.finos.legend.pure.runtime.java.compiled.execution.CompiledExecutionSupport;
+import org.finos.legend.pure.runtime.java.compiled.testHelper.PureTestBuilderCompiled;
+import org.finos.legend.pure.runtime.java.extension.external.relation.compiled.RelationNativeImplementation;
+import org.finos.legend.pure.runtime.java.extension.external.relation.compiled.RelationNativeImplementation.AggColSpecTrans;
+import org.finos.legend.pure.runtime.java.extension.external.relation.compiled.RelationNativeImplementation.ColFuncSpecTrans;
+import org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives.shared.RowContainer;
+import org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives.shared.TDSContainer;
+import org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives.shared.TestTDSCompiled;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.AggregateFunction;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.TestTDS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relation natives of the compiled mode, as called by the generated code. The Pure lambdas are replaced by Java
+ * functions doing the same work on the rows, so the measures are those of the natives rather than of Pure code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RelationNativeBenchmark
+{
+    @Param({"1000", "100000"})
+    public int rowCount;
+
+    @Param({"Integer", "Float", "String"})
+    public String keyType;
+
+    // Distinct values of the key, as a fraction of the row count
+    @Param({"0.01"})
+    public double keyRatio;
+
+    private ExecutionSupport executionSupport;
+    private Relation<?> relation;
+    private Relation<?> lookup;
+    private Enum innerJoin;
+    private RichIterable<Pair<Enum, String>> sortInfos;
+    private ColSpec<?> keyColumn;
+
+    private final Function2<RowContainer, ExecutionSupport, Boolean> evenIds = (row, es) -> (Long) row.apply("id") % 2 == 0;
+    private final Function2<RowContainer, ExecutionSupport, Double> doubleAmount = (row, es) -> (Double) row.apply("amount") * 2;
+    private final Function2<RowContainer, ExecutionSupport, Object> amount = (row, es) -> row.apply("amount");
+    private final Function2<MutableList<Object>, ExecutionSupport, Double> sum = (values, es) -> values.sumOfDouble(v -> (Double) v);
+    private final Function3<RowContainer, RowContainer, ExecutionSupport, Boolean> always = (row1, row2, es) -> true;
+
+    @Setup
+    public void setUp()
+    {
+        CompiledExecutionSupport compiledExecutionSupport = PureTestBuilderCompiled.getClassLoaderExecutionSupport();
+        int keyCardinality = Math.max(1, (int) (this.rowCount * this.keyRatio));
+        this.executionSupport = compiledExecutionSupport;
+        this.relation = new TDSContainer(new TestTDSCompiled(TestTDS.readCsv(BenchmarkData.relation(this.rowCount, this.keyType, keyCardinality))), compiledExecutionSupport.getProcessorSupport());
+        this.lookup = new TDSContainer(new TestTDSCompiled(TestTDS.readCsv(BenchmarkData.lookup(this.keyType, keyCardinality))), compiledExecutionSupport.getProcessorSupport());
+        this.innerJoin = compiledExecutionSupport.getMetadataAccessor().getEnum("meta::pure::functions::relation::JoinKind", "INNER");
+        this.sortInfos = Lists.mutable.with(Tuples.pair(compiledExecutionSupport.getMetadataAccessor().getEnum("meta::pure::functions::relation::SortType", "ASC"), "key"));
+        this.keyColumn = new Root_meta_pure_metamodel_relation_ColSpec_Impl<>("")._name("key");
+    }
+
+    @Benchmark
+    public Relation<?> filter()
+    {
+        return RelationNativeImplementation.filter(this.relation, this.evenIds, true, this.executionSupport);
+    }
+
+    @Benchmark
+    public Relation<?> extend()
+    {
+        return RelationNativeImplementation.extend(this.relation, Lists.mutable.with(new ColFuncSpecTrans("doubled", this.doubleAmount, "Float")), true, this.executionSupport);
+    }
+
+    @Benchmark
+    public Relation<?> sort()
+    {
+        return RelationNativeImplementation.sort(this.relation, this.sortInfos, this.executionSupport);
+    }
+
+    /**
+     * Sum of a column, as recognised by the compiled groupBy and computed by primitive accumulators.
+     */
+    @Benchmark
+    public Relation<?> groupBySum()
+    {
+        AggColSpecTrans aggColSpecTrans = new AggColSpecTrans("total", this.amount, this.sum, "Float");
+        aggColSpecTrans.mapColumn = "amount";
+        aggColSpecTrans.aggregateFunction = AggregateFunction.SUM;
+        return RelationNativeImplementation.groupBy(this.relation, this.keyColumn, Lists.mutable.with(aggColSpecTrans), this.executionSupport);
+    }
+
+    /**
+     * Same sum, through the generic map and reduce functions.
+     */
+    @Benchmark
+    public Relation<?> groupByMapReduce()
+    {
+        return RelationNativeImplementation.groupBy(this.relation, this.keyColumn, Lists.mutable.with(new AggColSpecTrans("total", this.amount, this.sum, "Float")), this.executionSupport);
+    }
+
+    @Benchmark
+    public Relation<?> join()
+    {
+        return RelationNativeImplementation.join(this.relation, this.lookup, this.innerJoin, Lists.mutable.with("key"), Lists.mutable.with("key2"), this.always, this.executionSupport);
+    }
+}
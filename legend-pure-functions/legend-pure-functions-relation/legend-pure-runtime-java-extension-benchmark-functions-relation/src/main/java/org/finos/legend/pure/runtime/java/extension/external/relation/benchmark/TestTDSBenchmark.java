@@ -0,0 +1,99 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.benchmark;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.SortDirection;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.SortInfo;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.TestTDS;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations of TestTDS on their own, keyed on a column of each of the Pure types a relation column can have.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestTDSBenchmark
+{
+    @Param({"1000", "100000"})
+    public int rowCount;
+
+    @Param({"Integer", "Float", "String"})
+    public String keyType;
+
+    // Distinct values of the key, as a fraction of the row count
+    @Param({"0.01"})
+    public double keyRatio;
+
+    private TestTDS tds;
+    private TestTDS lookup;
+    private MutableList<SortInfo> sortInfos;
+
+    @Setup
+    public void setUp()
+    {
+        int keyCardinality = Math.max(1, (int) (this.rowCount * this.keyRatio));
+        this.tds = new TestTDS(BenchmarkData.relation(this.rowCount, this.keyType, keyCardinality));
+        this.lookup = new TestTDS(BenchmarkData.lookup(this.keyType, keyCardinality));
+        this.sortInfos = Lists.mutable.with(new SortInfo("key", SortDirection.ASC), new SortInfo("id", SortDirection.DESC));
+    }
+
+    @Benchmark
+    public TestTDS sort()
+    {
+        return this.tds.sort(this.sortInfos).getOne();
+    }
+
+    @Benchmark
+    public TestTDS distinct()
+    {
+        return this.tds.distinct(Lists.mutable.with("key"));
+    }
+
+    @Benchmark
+    public TestTDS join()
+    {
+        return this.tds.join(this.lookup, Lists.mutable.with("key"), Lists.mutable.with("key2"), (i, j) -> true, false);
+    }
+
+    @Benchmark
+    public TestTDS concatenate()
+    {
+        return this.tds.concatenate(this.tds);
+    }
+
+    @Benchmark
+    public TestTDS slice()
+    {
+        return this.tds.slice(this.rowCount / 4, this.rowCount - this.rowCount / 4);
+    }
+}
@@ -0,0 +1,105 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.compiled;
+
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.impl.list.Interval;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Opt-in parallel execution of the relation natives. It is disabled unless a fork join pool is configured, either with
+ * the legend.pure.relation.parallelism system property or programmatically (see configure). Relations with fewer rows
+ * than the threshold are always processed sequentially; larger ones are split in morsels of morselSize rows.
+ */
+public class ParallelExecution
+{
+    public static final String PARALLELISM_PROPERTY = "legend.pure.relation.parallelism";
+    public static final String THRESHOLD_PROPERTY = "legend.pure.relation.parallel.threshold";
+    public static final String MORSEL_SIZE_PROPERTY = "legend.pure.relation.parallel.morselSize";
+
+    private static final int DEFAULT_THRESHOLD = 100_000;
+    private static final int DEFAULT_MORSEL_SIZE = 16_384;
+
+    private static volatile Settings settings = Settings.fromSystemProperties();
+
+    private ParallelExecution()
+    {
+        // Utility class
+    }
+
+    /**
+     * Use the given pool (null to disable parallel execution) for relations of at least threshold rows.
+     */
+    public static void configure(ForkJoinPool forkJoinPool, int threshold, int morselSize)
+    {
+        if (threshold < 1)
+        {
+            throw new IllegalArgumentException("threshold must be positive");
+        }
+        if (morselSize < 1)
+        {
+            throw new IllegalArgumentException("morsel size must be positive");
+        }
+        settings = new Settings(forkJoinPool, threshold, morselSize);
+    }
+
+    public static void disable()
+    {
+        settings = new Settings(null, DEFAULT_THRESHOLD, DEFAULT_MORSEL_SIZE);
+    }
+
+    /**
+     * The pool to process a relation of rowCount rows with, null when it should be processed sequentially.
+     */
+    static ForkJoinPool getForkJoinPool(long rowCount)
+    {
+        Settings current = settings;
+        return (rowCount >= current.threshold) ? current.forkJoinPool : null;
+    }
+
+    static int getMorselSize()
+    {
+        return settings.morselSize;
+    }
+
+    /**
+     * Start index of each morsel of [0, size).
+     */
+    static ListIterable<Integer> getMorsels(int size, int morselSize)
+    {
+        return Interval.fromToBy(0, size - 1, morselSize).toList();
+    }
+
+    private static class Settings
+    {
+        private final ForkJoinPool forkJoinPool;
+        private final int threshold;
+        private final int morselSize;
+
+        private Settings(ForkJoinPool forkJoinPool, int threshold, int morselSize)
+        {
+            this.forkJoinPool = forkJoinPool;
+            this.threshold = threshold;
+            this.morselSize = morselSize;
+        }
+
+        private static Settings fromSystemProperties()
+        {
+            int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, 0);
+            return new Settings((parallelism > 1) ? new ForkJoinPool(parallelism) : null, Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD), Integer.getInteger(MORSEL_SIZE_PROPERTY, DEFAULT_MORSEL_SIZE));
+        }
+    }
+}
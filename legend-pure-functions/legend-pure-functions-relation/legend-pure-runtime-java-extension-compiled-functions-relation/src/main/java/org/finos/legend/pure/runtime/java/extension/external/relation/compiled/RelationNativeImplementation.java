@@ -19,27 +19,35 @@ import org.eclipse.collections.api.RichIterable;
 import org.eclipse.collections.api.block.function.Function2;
 import org.eclipse.collections.api.block.function.Function3;
 import org.eclipse.collections.api.factory.Lists;
-import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
-import org.eclipse.collections.api.set.MutableSet;
-import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
 import org.eclipse.collections.api.tuple.Pair;
-import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.LambdaFunction;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.relation.*;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.type.Enum;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.valuespecification.FunctionExpression;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.valuespecification.ValueSpecification;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.valuespecification.VariableExpression;
 import org.finos.legend.pure.m3.execution.ExecutionSupport;
 import org.finos.legend.pure.m3.navigation.M3Properties;
 import org.finos.legend.pure.m3.navigation.ProcessorSupport;
+import org.finos.legend.pure.m3.tools.forkjoin.ForkJoinTools;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.runtime.java.compiled.execution.CompiledExecutionSupport;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.CompiledSupport;
 import org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives.shared.RowContainer;
 import org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives.shared.TDSContainer;
 import org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives.shared.TestTDSCompiled;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.AggregateFunction;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.ColumnVector;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.GroupAccumulator;
 import org.finos.legend.pure.runtime.java.extension.external.relation.shared.SortDirection;
 import org.finos.legend.pure.runtime.java.extension.external.relation.shared.SortInfo;
-import org.finos.legend.pure.runtime.java.extension.external.relation.shared.TestTDS;
+
+import java.util.concurrent.ForkJoinPool;
 
 import static org.finos.legend.pure.runtime.java.extension.external.relation.shared.TestTDS.readCsv;
 
@@ -48,10 +56,27 @@ public class RelationNativeImplementation
     public static TestTDSCompiled getTDS(Object value)
     {
         return value instanceof TDSContainer ?
-                ((TDSContainer) value).tds :
+                ((TDSContainer) value).getTDS() :
                 new TestTDSCompiled(readCsv((((CoreInstance) value).getValueForMetaPropertyToOne("csv")).getName()), ((CoreInstance) value).getValueForMetaPropertyToOne(M3Properties.classifierGenericType));
     }
 
+    // The TDS holding the rows of the relation, without materializing its selection (see getSelection)
+    private static TestTDSCompiled getSourceTDS(Object value)
+    {
+        return value instanceof TDSContainer ? ((TDSContainer) value).tds : getTDS(value);
+    }
+
+    // The rows of the source TDS selected by the relation, null when all of them are
+    private static IntList getSelection(Object value)
+    {
+        return value instanceof TDSContainer ? ((TDSContainer) value).getSelection() : null;
+    }
+
+    private static int getRow(IntList selection, int i)
+    {
+        return selection == null ? i : selection.get(i);
+    }
+
 
     public static <T> RichIterable<Column<?, ?>> columns(Relation<? extends T> t)
     {
@@ -60,11 +85,14 @@ public class RelationNativeImplementation
 
     public static <T, V> RichIterable<V> map(Relation<? extends T> rel, Function2<RowContainer, ExecutionSupport, RichIterable<V>> pureFunction, ExecutionSupport es)
     {
-        TestTDSCompiled tds = RelationNativeImplementation.getTDS(rel);
+        TestTDSCompiled tds = RelationNativeImplementation.getSourceTDS(rel);
+        IntList selection = RelationNativeImplementation.getSelection(rel);
         MutableList list = Lists.mutable.empty();
-        for (int i = 0; i < tds.getRowCount(); i++)
+        long size = selection == null ? tds.getRowCount() : selection.size();
+        for (int i = 0; i < size; i++)
         {
-            list.add(pureFunction.value(new RowContainer(tds, i), es));
+            CompiledSupport.checkCancelled(es);
+            list.add(pureFunction.value(new RowContainer(tds, getRow(selection, i)), es));
         }
         return list;
     }
@@ -77,44 +105,57 @@ public class RelationNativeImplementation
 
     public static <T> Long size(Relation<? extends T> res)
     {
-        return RelationNativeImplementation.getTDS(res).getRowCount();
+        IntList selection = RelationNativeImplementation.getSelection(res);
+        return selection == null ? RelationNativeImplementation.getSourceTDS(res).getRowCount() : selection.size();
     }
 
     public static <T> Relation<? extends T> limit(Relation<? extends T> rel, long size, ExecutionSupport es)
     {
         ProcessorSupport ps = ((CompiledExecutionSupport) es).getProcessorSupport();
-        return new TDSContainer((TestTDSCompiled) RelationNativeImplementation.getTDS(rel).slice(0, (int) size), ps);
+        return slice(rel, 0, size, ps);
     }
 
     public static <T> Relation<? extends T> slice(Relation<? extends T> rel, long start, long stop, ExecutionSupport es)
     {
         ProcessorSupport ps = ((CompiledExecutionSupport) es).getProcessorSupport();
-        return new TDSContainer((TestTDSCompiled) RelationNativeImplementation.getTDS(rel).slice((int) start, (int) stop), ps);
+        return slice(rel, start, stop, ps);
     }
 
     public static <T> Relation<? extends T> drop(Relation<? extends T> relation, Long aLong, ExecutionSupport es)
     {
         ProcessorSupport ps = ((CompiledExecutionSupport) es).getProcessorSupport();
-        TestTDSCompiled tds = RelationNativeImplementation.getTDS(relation);
-        return new TDSContainer((TestTDSCompiled) tds.slice(aLong.intValue(), (int) tds.getRowCount()), ps);
+        return slice(relation, aLong, Long.MAX_VALUE, ps);
+    }
+
+    // Slicing only narrows the selected rows of the source TDS: no column is copied
+    private static <T> Relation<? extends T> slice(Relation<? extends T> rel, long start, long stop, ProcessorSupport ps)
+    {
+        TestTDSCompiled tds = RelationNativeImplementation.getSourceTDS(rel);
+        return new TDSContainer(tds, tds.sliceRows(RelationNativeImplementation.getSelection(rel), start, stop), ps);
     }
 
     public static <T> Relation<? extends Object> rename(Relation<? extends T> r, ColSpec<?> old, ColSpec<?> aNew, ExecutionSupport es)
     {
         ProcessorSupport ps = ((CompiledExecutionSupport) es).getProcessorSupport();
-        return new TDSContainer((TestTDSCompiled) RelationNativeImplementation.getTDS(r).rename(old._name(), aNew._name()), ps);
+        return new TDSContainer((TestTDSCompiled) RelationNativeImplementation.getSourceTDS(r).rename(old._name(), aNew._name()), RelationNativeImplementation.getSelection(r), ps);
     }
 
     public static <T> Relation<? extends Object> select(Relation<? extends T> r, ColSpec<?> col, ExecutionSupport es)
     {
         ProcessorSupport ps = ((CompiledExecutionSupport) es).getProcessorSupport();
-        return new TDSContainer((TestTDSCompiled) RelationNativeImplementation.getTDS(r).select(Sets.mutable.with(col._name())), ps);
+        return select(r, Lists.mutable.with(col._name()), ps);
     }
 
     public static <T> Relation<? extends Object> select(Relation<? extends T> r, ColSpecArray<?> cols, ExecutionSupport es)
     {
         ProcessorSupport ps = ((CompiledExecutionSupport) es).getProcessorSupport();
-        return new TDSContainer((TestTDSCompiled) RelationNativeImplementation.getTDS(r).select(Sets.mutable.withAll(cols._names())), ps);
+        return select(r, Lists.mutable.withAll(cols._names()), ps);
+    }
+
+    // Projection keeps the selection: the remaining columns are only copied if the relation gets materialized
+    private static <T> Relation<? extends Object> select(Relation<? extends T> r, MutableList<String> cols, ProcessorSupport ps)
+    {
+        return new TDSContainer((TestTDSCompiled) RelationNativeImplementation.getSourceTDS(r).select(cols.toSet()), RelationNativeImplementation.getSelection(r), ps);
     }
 
     public static <T> Relation<? extends T> concatenate(Relation<? extends T> rel1, Relation<? extends T> rel2, ExecutionSupport es)
@@ -124,18 +165,44 @@ public class RelationNativeImplementation
     }
 
     public static <T> Relation<? extends T> filter(Relation<? extends T> rel, Function2 pureFunction, ExecutionSupport es)
+    {
+        return filter(rel, pureFunction, false, es);
+    }
+
+    // A side effect free predicate can be evaluated on morsels of rows in parallel (see ParallelExecution)
+    public static <T> Relation<? extends T> filter(Relation<? extends T> rel, Function2 pureFunction, boolean sideEffectFree, ExecutionSupport es)
     {
         ProcessorSupport ps = ((CompiledExecutionSupport) es).getProcessorSupport();
-        TestTDSCompiled tds = RelationNativeImplementation.getTDS(rel);
-        MutableIntSet list = new IntHashSet();
-        for (int i = 0; i < tds.getRowCount(); i++)
+        TestTDSCompiled tds = RelationNativeImplementation.getSourceTDS(rel);
+        IntList selection = RelationNativeImplementation.getSelection(rel);
+        // The result only selects the matching rows of the source TDS: they are copied when (and if) needed
+        int size = selection == null ? (int) tds.getRowCount() : selection.size();
+        ForkJoinPool forkJoinPool = sideEffectFree ? ParallelExecution.getForkJoinPool(size) : null;
+        MutableIntList selected;
+        if (forkJoinPool == null)
+        {
+            selected = filterRows(tds, selection, pureFunction, es, 0, size);
+        }
+        else
         {
-            if (!(boolean) pureFunction.value(new RowContainer(tds, i), es))
+            int morselSize = ParallelExecution.getMorselSize();
+            selected = IntLists.mutable.empty();
+            for (MutableIntList morsel : ForkJoinTools.collect(forkJoinPool, ParallelExecution.getMorsels(size, morselSize), start -> filterRows(tds, selection, pureFunction, es, start, Math.min(start + morselSize, size)), 1))
             {
-                list.add(i);
+                selected.addAll(morsel);
             }
         }
-        return new TDSContainer((TestTDSCompiled) tds.drop(list), ps);
+        return new TDSContainer(tds, selected.size() == tds.getRowCount() ? null : selected, ps);
+    }
+
+    private static MutableIntList filterRows(TestTDSCompiled tds, IntList selection, Function2 pureFunction, ExecutionSupport es, int start, int end)
+    {
+        RowContainer cursor = new RowContainer(tds, 0);
+        return tds.selectRows(selection, row ->
+        {
+            CompiledSupport.checkCancelled(es);
+            return (boolean) pureFunction.value(cursor.moveTo(row), es);
+        }, start, end);
     }
 
     public static class ColFuncSpecTrans
@@ -153,72 +220,124 @@ public class RelationNativeImplementation
     }
 
     public static <T> Relation<? extends Object> extend(Relation<? extends T> rel, MutableList<ColFuncSpecTrans> colFuncSpecTrans, ExecutionSupport es)
+    {
+        return extend(rel, colFuncSpecTrans, false, es);
+    }
+
+    // Side effect free functions can be evaluated on morsels of rows in parallel (see ParallelExecution)
+    public static <T> Relation<? extends Object> extend(Relation<? extends T> rel, MutableList<ColFuncSpecTrans> colFuncSpecTrans, boolean sideEffectFree, ExecutionSupport es)
     {
         ProcessorSupport ps = ((CompiledExecutionSupport) es).getProcessorSupport();
-        TestTDSCompiled tds = RelationNativeImplementation.getTDS(rel);
-        TestTDSCompiled t = colFuncSpecTrans.injectInto(tds, (a, b) -> performExtend(b, es, a, ps));
-        return new TDSContainer(t, ps);
+        TestTDSCompiled tds = RelationNativeImplementation.getSourceTDS(rel);
+        IntList selection = RelationNativeImplementation.getSelection(rel);
+        ForkJoinPool forkJoinPool = sideEffectFree ? ParallelExecution.getForkJoinPool(selection == null ? tds.getRowCount() : selection.size()) : null;
+        // New columns are added to a view of the source TDS (which may be shared with other relations), keeping its selection
+        TestTDSCompiled t = colFuncSpecTrans.injectInto((TestTDSCompiled) tds.shallowCopy(), (a, b) -> performExtend(b, es, a, selection, forkJoinPool));
+        return new TDSContainer(t, selection, ps);
     }
 
-    private static TestTDSCompiled performExtend(ColFuncSpecTrans colFuncSpecTrans, ExecutionSupport es, TestTDSCompiled tds, ProcessorSupport ps)
+    // Only the selected rows are computed: the values of the other rows are never read
+    private static TestTDSCompiled performExtend(ColFuncSpecTrans colFuncSpecTrans, ExecutionSupport es, TestTDSCompiled tds, IntList selection, ForkJoinPool forkJoinPool)
     {
         switch (colFuncSpecTrans.columnType)
         {
             case "String":
-                MutableList<String> res = Lists.mutable.empty();
-                for (int i = 0; i < tds.getRowCount(); i++)
-                {
-                    res.add((String) colFuncSpecTrans.func.value(new RowContainer(tds, i), es));
-                }
-                return (TestTDSCompiled) tds.addColumn(colFuncSpecTrans.newColName, DataType.STRING, res.toArray(new String[0]));
+                String[] res = new String[(int) tds.getRowCount()];
+                forEachRow(tds, selection, forkJoinPool, es, (row, cursor) -> res[row] = (String) colFuncSpecTrans.func.value(cursor, es));
+                return (TestTDSCompiled) tds.addColumn(colFuncSpecTrans.newColName, ColumnVector.ofStrings(res));
             case "Integer":
-                int[] resultInt = new int[(int) tds.getRowCount()];
-                for (int i = 0; i < tds.getRowCount(); i++)
+            {
+                long[] resultLong = new long[(int) tds.getRowCount()];
+                boolean[] isNull = new boolean[resultLong.length];
+                forEachRow(tds, selection, forkJoinPool, es, (row, cursor) ->
                 {
-                    resultInt[i] = (int) (long) colFuncSpecTrans.func.value(new RowContainer(tds, i), es);
-                }
-                return (TestTDSCompiled) tds.addColumn(colFuncSpecTrans.newColName, DataType.INT, resultInt);
+                    Object value = colFuncSpecTrans.func.value(cursor, es);
+                    if (value == null)
+                    {
+                        isNull[row] = true;
+                    }
+                    else
+                    {
+                        resultLong[row] = (long) value;
+                    }
+                });
+                return (TestTDSCompiled) tds.addColumn(colFuncSpecTrans.newColName, ColumnVector.ofLongs(resultLong, isNull));
+            }
             case "Float":
+            {
                 double[] resultDouble = new double[(int) tds.getRowCount()];
-                for (int i = 0; i < tds.getRowCount(); i++)
+                boolean[] isNull = new boolean[resultDouble.length];
+                forEachRow(tds, selection, forkJoinPool, es, (row, cursor) ->
                 {
-                    resultDouble[i] = (double) colFuncSpecTrans.func.value(new RowContainer(tds, i), es);
-                }
-                return (TestTDSCompiled) tds.addColumn(colFuncSpecTrans.newColName, DataType.DOUBLE, resultDouble);
+                    Object value = colFuncSpecTrans.func.value(cursor, es);
+                    if (value == null)
+                    {
+                        isNull[row] = true;
+                    }
+                    else
+                    {
+                        resultDouble[row] = (double) value;
+                    }
+                });
+                return (TestTDSCompiled) tds.addColumn(colFuncSpecTrans.newColName, ColumnVector.ofDoubles(resultDouble, isNull));
+            }
         }
         throw new RuntimeException(colFuncSpecTrans.columnType + " not supported yet");
     }
 
+    // Morsels write disjoint rows of the result, each with its own cursor
+    private static void forEachRow(TestTDSCompiled tds, IntList selection, ForkJoinPool forkJoinPool, ExecutionSupport es, RowProcedure procedure)
+    {
+        int size = selection == null ? (int) tds.getRowCount() : selection.size();
+        if (forkJoinPool == null)
+        {
+            forEachRow(tds, selection, es, procedure, 0, size);
+        }
+        else
+        {
+            int morselSize = ParallelExecution.getMorselSize();
+            ForkJoinTools.forEach(forkJoinPool, ParallelExecution.getMorsels(size, morselSize), start -> forEachRow(tds, selection, es, procedure, start, Math.min(start + morselSize, size)), 1);
+        }
+    }
+
+    private static void forEachRow(TestTDSCompiled tds, IntList selection, ExecutionSupport es, RowProcedure procedure, int start, int end)
+    {
+        RowContainer cursor = new RowContainer(tds, 0);
+        for (int i = start; i < end; i++)
+        {
+            CompiledSupport.checkCancelled(es);
+            int row = getRow(selection, i);
+            procedure.value(row, cursor.moveTo(row));
+        }
+    }
+
+    private interface RowProcedure
+    {
+        void value(int row, RowContainer cursor);
+    }
+
     public static <T, V> Relation<? extends Object> join(Relation<? extends T> rel1, Relation<? extends V> rel2, Enum joinKind, Function3 pureFunction, ExecutionSupport es)
+    {
+        return join(rel1, rel2, joinKind, Lists.fixedSize.empty(), Lists.fixedSize.empty(), pureFunction, es);
+    }
+
+    public static <T, V> Relation<? extends Object> join(Relation<? extends T> rel1, Relation<? extends V> rel2, Enum joinKind, ListIterable<String> leftKeys, ListIterable<String> rightKeys, Function3 pureFunction, ExecutionSupport es)
     {
         ProcessorSupport ps = ((CompiledExecutionSupport) es).getProcessorSupport();
 
         TestTDSCompiled tds1 = RelationNativeImplementation.getTDS(rel1);
         TestTDSCompiled tds2 = RelationNativeImplementation.getTDS(rel2);
-        TestTDSCompiled tds = (TestTDSCompiled) tds1.join(tds2);
+        TestTDSCompiled tds = (TestTDSCompiled) tds1.join(tds2, leftKeys, rightKeys, (i, j) -> (boolean) pureFunction.value(new RowContainer(tds1, i), new RowContainer(tds2, j), es), joinKind.getName().equals("LEFT"));
 
-        MutableIntSet list = new IntHashSet();
-        for (int i = 0; i < tds.getRowCount(); i++)
-        {
-            if (!(boolean) pureFunction.value(new RowContainer(tds, i), new RowContainer(tds, i), es))
-            {
-                list.add(i);
-            }
-        }
-        TestTDSCompiled filtered = (TestTDSCompiled) tds.drop(list);
-        if (joinKind.getName().equals("LEFT"))
-        {
-            filtered = (TestTDSCompiled) tds1.compensateLeft(filtered);
-        }
-
-        return new TDSContainer(filtered, ps);
+        return new TDSContainer(tds, ps);
     }
 
     public static <T> Relation<? extends T> sort(Relation<? extends T> rel, RichIterable<Pair<Enum, String>> collect, ExecutionSupport es)
     {
         ProcessorSupport ps = ((CompiledExecutionSupport) es).getProcessorSupport();
         TestTDSCompiled tds1 = RelationNativeImplementation.getTDS(rel);
-        return new TDSContainer((TestTDSCompiled) tds1.sort(collect.collect(c -> new SortInfo(c.getTwo(), SortDirection.valueOf(c.getOne()._name()))).toList()).getOne(), ps);
+        ForkJoinPool forkJoinPool = ParallelExecution.getForkJoinPool(tds1.getRowCount());
+        return new TDSContainer((TestTDSCompiled) tds1.sort(collect.collect(c -> new SortInfo(c.getTwo(), SortDirection.valueOf(c.getOne()._name()))).toList(), forkJoinPool, ParallelExecution.getMorselSize()).getOne(), ps);
     }
 
     public static class AggColSpecTrans
@@ -227,6 +346,8 @@ public class RelationNativeImplementation
         public Function2 map;
         public Function2 reduce;
         public String reduceType;
+        public String mapColumn;
+        public AggregateFunction aggregateFunction;
 
         public AggColSpecTrans(String newColName, Function2 map, Function2 reduce, String reduceType)
         {
@@ -235,6 +356,79 @@ public class RelationNativeImplementation
             this.reduce = reduce;
             this.reduceType = reduceType;
         }
+
+        public AggColSpecTrans(String newColName, Function2 map, Function2 reduce, String reduceType, AggColSpec<?, ?, ?> aggColSpec)
+        {
+            this(newColName, map, reduce, reduceType);
+            this.mapColumn = getMapColumn(aggColSpec._map());
+            this.aggregateFunction = getAggregateFunction(aggColSpec._reduce(), reduceType);
+        }
+    }
+
+    // Returns the column name when the map function is of the form {x | $x.column}, null otherwise
+    private static String getMapColumn(Object map)
+    {
+        ValueSpecification expression = getSingleExpression(map);
+        if (expression instanceof FunctionExpression && ((FunctionExpression) expression)._func() instanceof Column)
+        {
+            FunctionExpression fe = (FunctionExpression) expression;
+            return (fe._parametersValues().size() == 1 && fe._parametersValues().getFirst() instanceof VariableExpression) ? ((Column<?, ?>) fe._func())._name() : null;
+        }
+        return null;
+    }
+
+    // Returns the aggregate function when the reduce function is of the form {y | $y->plus()} (or sum, count, ...), null otherwise
+    private static AggregateFunction getAggregateFunction(Object reduce, String reduceType)
+    {
+        ValueSpecification expression = getSingleExpression(reduce);
+        if (!(expression instanceof FunctionExpression) || ((FunctionExpression) expression)._parametersValues().size() != 1 || !(((FunctionExpression) expression)._parametersValues().getFirst() instanceof VariableExpression))
+        {
+            return null;
+        }
+        switch (((FunctionExpression) expression)._func()._name())
+        {
+            case "plus_Integer_MANY__Integer_1_":
+            case "sum_Integer_MANY__Integer_1_":
+            case "plus_Float_MANY__Float_1_":
+            case "sum_Float_MANY__Float_1_":
+            {
+                return ("Integer".equals(reduceType) || "Float".equals(reduceType)) ? AggregateFunction.SUM : null;
+            }
+            case "min_Integer_MANY__Integer_1_":
+            case "min_Float_MANY__Float_1_":
+            {
+                return ("Integer".equals(reduceType) || "Float".equals(reduceType)) ? AggregateFunction.MIN : null;
+            }
+            case "max_Integer_MANY__Integer_1_":
+            case "max_Float_MANY__Float_1_":
+            {
+                return ("Integer".equals(reduceType) || "Float".equals(reduceType)) ? AggregateFunction.MAX : null;
+            }
+            case "average_Integer_MANY__Float_1_":
+            case "average_Float_MANY__Float_1_":
+            {
+                return "Float".equals(reduceType) ? AggregateFunction.AVG : null;
+            }
+            case "size_Any_MANY__Integer_1_":
+            case "count_Any_MANY__Integer_1_":
+            {
+                return "Integer".equals(reduceType) ? AggregateFunction.COUNT : null;
+            }
+            default:
+            {
+                return null;
+            }
+        }
+    }
+
+    private static ValueSpecification getSingleExpression(Object function)
+    {
+        if (function instanceof LambdaFunction)
+        {
+            RichIterable<? extends ValueSpecification> expressions = ((LambdaFunction<?>) function)._expressionSequence();
+            return expressions.size() == 1 ? expressions.getFirst() : null;
+        }
+        return null;
     }
 
     public static <T> Relation<? extends Object> groupBy(Relation<? extends T> rel, ColSpec<?> cols, MutableList<AggColSpecTrans> aggColSpecTrans, ExecutionSupport es)
@@ -252,49 +446,133 @@ public class RelationNativeImplementation
         ProcessorSupport ps = ((CompiledExecutionSupport) es).getProcessorSupport();
         TestTDSCompiled tds = RelationNativeImplementation.getTDS(rel);
 
-        Pair<TestTDS, MutableList<Pair<Integer, Integer>>> sortRes = tds.sort(cols.collect(name -> new SortInfo(name, SortDirection.ASC)).toList());
-
-        int size = sortRes.getTwo().size();
+        Pair<int[], MutableIntList> groups = tds.groupRows(cols);
+        int[] groupByRow = groups.getOne();
+        int size = groups.getTwo().size();
 
-        MutableSet<String> columnsToRemove = tds.getColumnNames().clone().toSet();
-        columnsToRemove.removeAll(cols.toSet());
-
-        TestTDSCompiled finalTDS = (TestTDSCompiled) sortRes.getOne()._distinct(sortRes.getTwo()).removeColumns(columnsToRemove);
+        TestTDSCompiled finalTDS = (TestTDSCompiled) tds.gatherRows(cols, groups.getTwo());
 
+        int[][] rowsByGroup = null;
         for (AggColSpecTrans aggColSpecTrans : aggColSpecTransAll)
         {
-            switch ((String) aggColSpecTrans.reduceType)
+            if (aggColSpecTrans.aggregateFunction != null)
+            {
+                GroupAccumulator accumulator = new GroupAccumulator(aggColSpecTrans.aggregateFunction, size);
+                if (aggColSpecTrans.mapColumn != null)
+                {
+                    accumulate(tds, aggColSpecTrans, groupByRow, accumulator);
+                }
+                else
+                {
+                    for (int i = 0; i < tds.getRowCount(); i++)
+                    {
+                        CompiledSupport.checkCancelled(es);
+                        accumulate(accumulator, groupByRow[i], aggColSpecTrans.map.value(new RowContainer(tds, i), es));
+                    }
+                }
+                finalTDS.addColumn(aggColSpecTrans.newColName, accumulator.getResult("Integer".equals(aggColSpecTrans.reduceType) ? DataType.LONG : DataType.DOUBLE));
+            }
+            else
             {
-                case "String":
-                    String[] finalRes = new String[size];
-                    performMapReduce(aggColSpecTrans.map, aggColSpecTrans.reduce, es, size, sortRes, (o, j) -> finalRes[j] = (String) o);
-                    finalTDS.addColumn(aggColSpecTrans.newColName, DataType.STRING, finalRes);
-                    break;
-                case "Integer":
-                    int[] finalResInt = new int[size];
-                    performMapReduce(aggColSpecTrans.map, aggColSpecTrans.reduce, es, size, sortRes, (o, j) -> finalResInt[j] = (int) (long) o);
-                    finalTDS.addColumn(aggColSpecTrans.newColName, DataType.INT, finalResInt);
-                    break;
-                case "Float":
-                    double[] finalResDouble = new double[size];
-                    performMapReduce(aggColSpecTrans.map, aggColSpecTrans.reduce, es, size, sortRes, (o, j) -> finalResDouble[j] = (double) o);
-                    finalTDS.addColumn(aggColSpecTrans.newColName, DataType.FLOAT, finalResDouble);
-                    break;
+                if (rowsByGroup == null)
+                {
+                    rowsByGroup = getRowsByGroup(groupByRow, size);
+                }
+                switch (aggColSpecTrans.reduceType)
+                {
+                    case "String":
+                        String[] finalRes = new String[size];
+                        performMapReduce(aggColSpecTrans.map, aggColSpecTrans.reduce, es, tds, rowsByGroup, (o, j) -> finalRes[j] = (String) o);
+                        finalTDS.addColumn(aggColSpecTrans.newColName, ColumnVector.ofStrings(finalRes));
+                        break;
+                    case "Integer":
+                        long[] finalResLong = new long[size];
+                        performMapReduce(aggColSpecTrans.map, aggColSpecTrans.reduce, es, tds, rowsByGroup, (o, j) -> finalResLong[j] = (long) o);
+                        finalTDS.addColumn(aggColSpecTrans.newColName, ColumnVector.ofLongs(finalResLong, null));
+                        break;
+                    case "Float":
+                        double[] finalResDouble = new double[size];
+                        performMapReduce(aggColSpecTrans.map, aggColSpecTrans.reduce, es, tds, rowsByGroup, (o, j) -> finalResDouble[j] = (double) o);
+                        finalTDS.addColumn(aggColSpecTrans.newColName, ColumnVector.ofDoubles(finalResDouble, null));
+                        break;
+                }
             }
         }
 
+        // Groups are produced in order of first appearance: only the (small) grouped result is sorted to return the groups ordered by key
+        if (size > 1)
+        {
+            finalTDS = (TestTDSCompiled) finalTDS.sort(cols.collect(name -> new SortInfo(name, SortDirection.ASC)).toList()).getOne();
+        }
         return new TDSContainer(finalTDS, ps);
     }
 
-    private static void performMapReduce(Function2 map, Function2 reduce, ExecutionSupport es, int size, Pair<TestTDS, MutableList<Pair<Integer, Integer>>> sortRes, Function2<Object, Integer, Object> val)
+    // Column values are accumulated on morsels of rows in parallel when possible, the partial results being merged
+    private static void accumulate(TestTDSCompiled tds, AggColSpecTrans aggColSpecTrans, int[] groupByRow, GroupAccumulator accumulator)
     {
+        ForkJoinPool forkJoinPool = ParallelExecution.getForkJoinPool(groupByRow.length);
+        if (forkJoinPool == null)
+        {
+            tds.accumulate(aggColSpecTrans.mapColumn, groupByRow, accumulator);
+            return;
+        }
+        int morselSize = ParallelExecution.getMorselSize();
+        int groupCount = accumulator.getGroupCount();
+        ForkJoinTools.collect(forkJoinPool, ParallelExecution.getMorsels(groupByRow.length, morselSize), start ->
+        {
+            GroupAccumulator partial = new GroupAccumulator(aggColSpecTrans.aggregateFunction, groupCount);
+            tds.accumulate(aggColSpecTrans.mapColumn, groupByRow, partial, start, Math.min(start + morselSize, groupByRow.length));
+            return partial;
+        }, 1).forEach(accumulator::merge);
+    }
+
+    private static void accumulate(GroupAccumulator accumulator, int group, Object value)
+    {
+        if (value instanceof Double)
+        {
+            accumulator.add(group, (double) value);
+        }
+        else if (value instanceof Long)
+        {
+            accumulator.add(group, (long) value);
+        }
+        else if (value != null)
+        {
+            accumulator.count(group);
+        }
+    }
+
+    // Rows of each group, in ascending order (counting sort on the group of each row)
+    private static int[][] getRowsByGroup(int[] groupByRow, int size)
+    {
+        int[] counts = new int[size];
+        for (int group : groupByRow)
+        {
+            counts[group]++;
+        }
+        int[][] rowsByGroup = new int[size][];
         for (int j = 0; j < size; j++)
         {
-            Pair<Integer, Integer> r = sortRes.getTwo().get(j);
+            rowsByGroup[j] = new int[counts[j]];
+            counts[j] = 0;
+        }
+        for (int i = 0; i < groupByRow.length; i++)
+        {
+            int group = groupByRow[i];
+            rowsByGroup[group][counts[group]++] = i;
+        }
+        return rowsByGroup;
+    }
+
+    private static void performMapReduce(Function2 map, Function2 reduce, ExecutionSupport es, TestTDSCompiled tds, int[][] rowsByGroup, Function2<Object, Integer, Object> val)
+    {
+        for (int j = 0; j < rowsByGroup.length; j++)
+        {
             MutableList<Object> subList = org.eclipse.collections.impl.factory.Lists.mutable.empty();
-            for (int i = r.getOne(); i < r.getTwo(); i++)
+            for (int i : rowsByGroup[j])
             {
-                subList.add(map.value(new RowContainer((TestTDSCompiled) sortRes.getOne(), i), es));
+                CompiledSupport.checkCancelled(es);
+                subList.add(map.value(new RowContainer(tds, i), es));
             }
             val.apply(reduce.value(subList, es), j);
         }
@@ -308,6 +586,7 @@ public class RelationNativeImplementation
         MutableList<? extends String> namesL = colFuncs.collect(c -> c.newColName).toList();
         ListIterable<TestTDSCompiled> pre = objects.collect(o ->
         {
+            CompiledSupport.checkCancelled(es);
             int i = 0;
             MutableList<TestTDSCompiled> subList = Lists.mutable.empty();
             for (Function2 f : colFuncs.collect(c -> c.func))
@@ -317,13 +596,13 @@ public class RelationNativeImplementation
                 switch ((String) typesL.get(i))
                 {
                     case "String":
-                        one.addColumn(namesL.get(i), DataType.STRING, li.toArray(new String[0]));
+                        one.addColumn(namesL.get(i), ColumnVector.ofStrings(li.toArray(new String[0])));
                         break;
                     case "Integer":
-                        one.addColumn(namesL.get(i), DataType.INT, toInt(li));
+                        one.addColumn(namesL.get(i), toInt(li));
                         break;
                     case "Float":
-                        one.addColumn(namesL.get(i), DataType.DOUBLE, toDouble(li));
+                        one.addColumn(namesL.get(i), toDouble(li));
                         break;
                 }
                 if (li.isEmpty())
@@ -338,18 +617,18 @@ public class RelationNativeImplementation
         return new TDSContainer(pre.drop(1).injectInto(pre.get(0), (a, b) -> (TestTDSCompiled) a.concatenate(b)), ps);
     }
 
-    public static Object toInt(RichIterable<?> li)
+    public static ColumnVector toInt(RichIterable<?> li)
     {
-        int[] result = new int[li.size()];
+        long[] result = new long[li.size()];
         int i = 0;
         for (Object o : li)
         {
-            result[i++] = (int) (long) o;
+            result[i++] = (long) o;
         }
-        return result;
+        return ColumnVector.ofLongs(result, null);
     }
 
-    public static Object toDouble(RichIterable<?> li)
+    public static ColumnVector toDouble(RichIterable<?> li)
     {
         double[] result = new double[li.size()];
         int i = 0;
@@ -357,6 +636,6 @@ public class RelationNativeImplementation
         {
             result[i++] = (double) o;
         }
-        return result;
+        return ColumnVector.ofDoubles(result, null);
     }
 }
@@ -16,6 +16,9 @@ package org.finos.legend.pure.runtime.java.extension.external.relation.compiled.
 
 import org.eclipse.collections.api.block.function.Function;
 import org.eclipse.collections.api.list.ListIterable;
+import org.finos.legend.pure.m3.navigation.Instance;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.runtime.java.compiled.generation.ProcessorContext;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.natives.AbstractNative;
@@ -31,16 +34,25 @@ public class Extend extends AbstractNative implements Native
     @Override
     public String build(CoreInstance topLevelElement, CoreInstance functionExpression, ListIterable<String> transformedParams, ProcessorContext processorContext)
     {
-        StringBuilder result = buildCode(transformedParams, s -> "Lists.mutable.with(" + transformedParams.get(1) + ")");
+        StringBuilder result = buildCode(transformedParams, s -> "Lists.mutable.with(" + transformedParams.get(1) + ")", isSideEffectFree(functionExpression, false, processorContext));
         return result.toString();
     }
 
-    static StringBuilder buildCode(ListIterable<String> transformedParams, Function<String, String> collection)
+    static boolean isSideEffectFree(CoreInstance functionExpression, boolean isArray, ProcessorContext processorContext)
+    {
+        ProcessorSupport processorSupport = processorContext.getSupport();
+        CoreInstance funcColSpec = Instance.getValueForMetaPropertyToManyResolved(functionExpression, M3Properties.parametersValues, processorSupport).get(1);
+        return SideEffectAnalysis.isSideEffectFreeFuncColSpec(funcColSpec, isArray, processorSupport);
+    }
+
+    static StringBuilder buildCode(ListIterable<String> transformedParams, Function<String, String> collection, boolean sideEffectFree)
     {
         StringBuilder result = new StringBuilder("org.finos.legend.pure.runtime.java.extension.external.relation.compiled.RelationNativeImplementation.extend(");
         result.append(transformedParams.get(0) + ", ");
         result.append(collection.valueOf(transformedParams.get(1)));
         buildCollectFuncSpec(result);
+        result.append(", ");
+        result.append(sideEffectFree);
         result.append(", es)");
         return result;
     }
@@ -21,6 +21,7 @@ import org.finos.legend.pure.runtime.java.compiled.generation.processors.natives
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.natives.Native;
 
 import static org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives.Extend.buildCode;
+import static org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives.Extend.isSideEffectFree;
 
 public class ExtendArray extends AbstractNative implements Native
 {
@@ -32,7 +33,7 @@ public class ExtendArray extends AbstractNative implements Native
     @Override
     public String build(CoreInstance topLevelElement, CoreInstance functionExpression, ListIterable<String> transformedParams, ProcessorContext processorContext)
     {
-        StringBuilder result = buildCode(transformedParams, s -> "Lists.mutable.withAll(" + transformedParams.get(1) + "._funcSpecs())");
+        StringBuilder result = buildCode(transformedParams, s -> "Lists.mutable.withAll(" + transformedParams.get(1) + "._funcSpecs())", isSideEffectFree(functionExpression, true, processorContext));
         return result.toString();
     }
 }
@@ -15,6 +15,9 @@
 package org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives;
 
 import org.eclipse.collections.api.list.ListIterable;
+import org.finos.legend.pure.m3.navigation.Instance;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.runtime.java.compiled.generation.ProcessorContext;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.natives.AbstractNative;
@@ -30,13 +33,18 @@ public class Filter extends AbstractNative implements Native
     @Override
     public String build(CoreInstance topLevelElement, CoreInstance functionExpression, ListIterable<String> transformedParams, ProcessorContext processorContext)
     {
+        ProcessorSupport processorSupport = processorContext.getSupport();
+        CoreInstance function = Instance.getValueForMetaPropertyToManyResolved(functionExpression, M3Properties.parametersValues, processorSupport).get(1);
+
         StringBuilder result = new StringBuilder("org.finos.legend.pure.runtime.java.extension.external.relation.compiled.RelationNativeImplementation.filter");
         result.append('(');
         result.append(transformedParams.get(0));
         result.append(", (org.eclipse.collections.api.block.function.Function2");
         result.append(")(PureCompiledLambda.getPureFunction(");
         result.append(transformedParams.get(1));
-        result.append(", es)), es)\n");
+        result.append(", es)), ");
+        result.append(SideEffectAnalysis.isSideEffectFreeLambda(function, processorSupport));
+        result.append(", es)\n");
         return result.toString();
     }
 }
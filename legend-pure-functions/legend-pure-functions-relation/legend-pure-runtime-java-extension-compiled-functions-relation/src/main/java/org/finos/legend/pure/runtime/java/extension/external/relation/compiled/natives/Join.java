@@ -14,7 +14,13 @@
 
 package org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives;
 
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.finos.legend.pure.m3.navigation.Instance;
+import org.finos.legend.pure.m3.navigation.M3Paths;
+import org.finos.legend.pure.m3.navigation.M3Properties;
 import org.finos.legend.pure.m3.navigation.ProcessorSupport;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.runtime.java.compiled.generation.ProcessorContext;
@@ -31,6 +37,10 @@ public class Join extends AbstractNative implements Native
     @Override
     public String build(CoreInstance topLevelElement, CoreInstance functionExpression, ListIterable<String> transformedParams, ProcessorContext processorContext)
     {
+        MutableList<String> leftKeys = Lists.mutable.empty();
+        MutableList<String> rightKeys = Lists.mutable.empty();
+        collectEquiJoinKeys(functionExpression, leftKeys, rightKeys, processorContext.getSupport());
+
         StringBuilder result = new StringBuilder("org.finos.legend.pure.runtime.java.extension.external.relation.compiled.RelationNativeImplementation.join");
         result.append('(');
         result.append(transformedParams.get(0));
@@ -39,9 +49,102 @@ public class Join extends AbstractNative implements Native
         result.append(", ");
         result.append(transformedParams.get(2));
         result.append(", ");
+        appendKeys(leftKeys, result);
+        result.append(", ");
+        appendKeys(rightKeys, result);
+        result.append(", ");
         result.append("(org.eclipse.collections.api.block.function.Function3)PureCompiledLambda.getPureFunction(");
         result.append(transformedParams.get(3));
         result.append(",es), es)\n");
         return result.toString();
     }
+
+    private static void appendKeys(ListIterable<String> keys, StringBuilder result)
+    {
+        result.append("org.eclipse.collections.api.factory.Lists.mutable.<String>with(");
+        result.append(keys.collect(k -> "\"" + StringEscapeUtils.escapeJava(k) + "\"").makeString(", "));
+        result.append(')');
+    }
+
+    /**
+     * Collect the column pairs compared for equality in the join condition (when it is a lambda literal), so that the
+     * join can use a hash table on those columns instead of evaluating the condition on the full cross product. Only
+     * equalities reachable through "and" are collected: each of them has to hold for the condition to be true.
+     */
+    private static void collectEquiJoinKeys(CoreInstance functionExpression, MutableList<String> leftKeys, MutableList<String> rightKeys, ProcessorSupport processorSupport)
+    {
+        CoreInstance lambdaParam = Instance.getValueForMetaPropertyToManyResolved(functionExpression, M3Properties.parametersValues, processorSupport).get(3);
+        if (!Instance.instanceOf(lambdaParam, M3Paths.InstanceValue, processorSupport))
+        {
+            return;
+        }
+        CoreInstance lambda = Instance.getValueForMetaPropertyToOneResolved(lambdaParam, M3Properties.values, processorSupport);
+        if (lambda == null || !Instance.instanceOf(lambda, M3Paths.LambdaFunction, processorSupport))
+        {
+            return;
+        }
+        ListIterable<? extends CoreInstance> parameters = Instance.getValueForMetaPropertyToManyResolved(processorSupport.function_getFunctionType(lambda), M3Properties.parameters, processorSupport);
+        ListIterable<? extends CoreInstance> expressions = Instance.getValueForMetaPropertyToManyResolved(lambda, M3Properties.expressionSequence, processorSupport);
+        if (parameters.size() == 2 && expressions.size() == 1)
+        {
+            String leftVar = Instance.getValueForMetaPropertyToOneResolved(parameters.get(0), M3Properties.name, processorSupport).getName();
+            String rightVar = Instance.getValueForMetaPropertyToOneResolved(parameters.get(1), M3Properties.name, processorSupport).getName();
+            collectEquiJoinKeys(expressions.get(0), leftVar, rightVar, leftKeys, rightKeys, processorSupport);
+        }
+    }
+
+    private static void collectEquiJoinKeys(CoreInstance expression, String leftVar, String rightVar, MutableList<String> leftKeys, MutableList<String> rightKeys, ProcessorSupport processorSupport)
+    {
+        if (!Instance.instanceOf(expression, M3Paths.FunctionExpression, processorSupport))
+        {
+            return;
+        }
+        String funcName = Instance.getValueForMetaPropertyToOneResolved(expression, M3Properties.func, processorSupport).getName();
+        ListIterable<? extends CoreInstance> params = Instance.getValueForMetaPropertyToManyResolved(expression, M3Properties.parametersValues, processorSupport);
+        if ("and_Boolean_1__Boolean_1__Boolean_1_".equals(funcName))
+        {
+            params.forEach(p -> collectEquiJoinKeys(p, leftVar, rightVar, leftKeys, rightKeys, processorSupport));
+        }
+        else if ("equal_Any_MANY__Any_MANY__Boolean_1_".equals(funcName) || "eq_Any_1__Any_1__Boolean_1_".equals(funcName))
+        {
+            String[] first = getColumnAccess(params.get(0), processorSupport);
+            String[] second = getColumnAccess(params.get(1), processorSupport);
+            if (first != null && second != null)
+            {
+                if (leftVar.equals(first[0]) && rightVar.equals(second[0]))
+                {
+                    leftKeys.add(first[1]);
+                    rightKeys.add(second[1]);
+                }
+                else if (rightVar.equals(first[0]) && leftVar.equals(second[0]))
+                {
+                    leftKeys.add(second[1]);
+                    rightKeys.add(first[1]);
+                }
+            }
+        }
+    }
+
+    // Returns [variable name, column name] for an expression of the form $var.column, null otherwise
+    private static String[] getColumnAccess(CoreInstance expression, ProcessorSupport processorSupport)
+    {
+        if (!Instance.instanceOf(expression, M3Paths.FunctionExpression, processorSupport))
+        {
+            return null;
+        }
+        CoreInstance func = Instance.getValueForMetaPropertyToOneResolved(expression, M3Properties.func, processorSupport);
+        if (!Instance.instanceOf(func, M3Paths.Column, processorSupport))
+        {
+            return null;
+        }
+        CoreInstance owner = Instance.getValueForMetaPropertyToManyResolved(expression, M3Properties.parametersValues, processorSupport).getFirst();
+        if (!Instance.instanceOf(owner, M3Paths.VariableExpression, processorSupport))
+        {
+            return null;
+        }
+        return new String[]{
+                Instance.getValueForMetaPropertyToOneResolved(owner, M3Properties.name, processorSupport).getName(),
+                Instance.getValueForMetaPropertyToOneResolved(func, M3Properties.name, processorSupport).getName()
+        };
+    }
 }
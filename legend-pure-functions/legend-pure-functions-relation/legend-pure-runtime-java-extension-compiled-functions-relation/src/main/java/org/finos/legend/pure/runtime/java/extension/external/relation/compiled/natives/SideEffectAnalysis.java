@@ -0,0 +1,169 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives;
+
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.map.ImmutableMap;
+import org.eclipse.collections.api.set.ImmutableSet;
+import org.eclipse.collections.api.set.MutableSet;
+import org.finos.legend.pure.m3.navigation.Instance;
+import org.finos.legend.pure.m3.navigation.M3Paths;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m3.navigation.PackageableElement.PackageableElement;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
+import org.finos.legend.pure.m3.navigation.type.Type;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+
+/**
+ * Conservative check that the lambdas given to the relation natives have no side effect, so that they can be evaluated
+ * on several rows in parallel. A lambda qualifies when all the functions it (transitively) applies are column or
+ * property accesses, functions defined in Pure that qualify themselves, or natives known to be free of side effects
+ * and deterministic. A function held by a variable could be anything: evaluating one disqualifies the lambda.
+ */
+class SideEffectAnalysis
+{
+    // Natives known to be free of side effects and deterministic, by package. Natives reading the clock (now, today),
+    // the graph (getAll) or mutating state (getIfAbsentPutWithKey, mutateAdd) are left out on purpose, as are those
+    // evaluating functions which cannot be checked (eval, evaluate, dynamicNew).
+    private static final ImmutableMap<String, ImmutableSet<String>> SIDE_EFFECT_FREE_NATIVES = Maps.mutable.<String, ImmutableSet<String>>empty()
+            .withKeyValue("meta::pure::functions::boolean", Sets.immutable.with(
+                    "and", "eq", "equal", "equalJsonStrings", "is", "lessThan", "lessThanEqual", "not", "or"))
+            .withKeyValue("meta::pure::functions::collection", Sets.immutable.with(
+                    "add", "at", "concatenate", "drop", "exists", "filter", "find", "first", "fold", "forAll", "get",
+                    "groupBy", "indexOf", "init", "isEmpty", "keyValues", "keys", "last", "map", "newMap", "put",
+                    "putAll", "range", "removeDuplicates", "repeat", "reverse", "size", "slice", "sort", "tail", "take",
+                    "values", "zip"))
+            .withKeyValue("meta::pure::functions::date", Sets.immutable.with(
+                    "adjust", "date", "dateDiff", "datePart", "dayOfMonth", "dayOfWeekNumber", "dayOfYear", "hasDay",
+                    "hasHour", "hasMinute", "hasMonth", "hasSecond", "hasSubsecond", "hasSubsecondWithAtLeastPrecision",
+                    "hour", "minute", "monthNumber", "second", "weekOfYear", "year"))
+            .withKeyValue("meta::pure::functions::lang", Sets.immutable.with(
+                    "cast", "compare", "copy", "extractEnumValue", "if", "letFunction", "match", "new"))
+            .withKeyValue("meta::pure::functions::math", Sets.immutable.with(
+                    "abs", "acos", "asin", "atan", "atan2", "cbrt", "ceiling", "cos", "cot", "divide", "exp", "floor",
+                    "log", "log10", "minus", "mod", "plus", "pow", "rem", "round", "sign", "sin", "sqrt", "stdDev", "tan",
+                    "times", "toDecimal", "toFloat"))
+            .withKeyValue("meta::pure::functions::multiplicity", Sets.immutable.with(
+                    "toOne", "toOneMany"))
+            .withKeyValue("meta::pure::functions::string", Sets.immutable.with(
+                    "ascii", "char", "chunk", "contains", "decodeBase64", "decodeUrl", "encodeBase64", "encodeUrl",
+                    "endsWith", "format", "indexOf", "joinStrings", "length", "ltrim", "matches", "parseBoolean",
+                    "parseDate", "parseDecimal", "parseFloat", "parseInteger", "replace", "reverseString", "rtrim",
+                    "split", "startsWith", "substring", "toLower", "toString", "toUpper", "trim"))
+            .toImmutable();
+
+    private SideEffectAnalysis()
+    {
+    }
+
+    /**
+     * Whether the value specification (a parameter of the native) is a lambda literal without side effect.
+     */
+    static boolean isSideEffectFreeLambda(CoreInstance valueSpecification, ProcessorSupport processorSupport)
+    {
+        if (!Instance.instanceOf(valueSpecification, M3Paths.InstanceValue, processorSupport))
+        {
+            return false;
+        }
+        ListIterable<? extends CoreInstance> values = Instance.getValueForMetaPropertyToManyResolved(valueSpecification, M3Properties.values, processorSupport);
+        return values.notEmpty() && values.allSatisfy(v -> Instance.instanceOf(v, M3Paths.LambdaFunction, processorSupport) && isSideEffectFree(v, Sets.mutable.empty(), processorSupport));
+    }
+
+    /**
+     * Whether the functions of the value specification (a FuncColSpec parameter, or a FuncColSpecArray one when
+     * isArray) are all lambdas without side effect.
+     */
+    static boolean isSideEffectFreeFuncColSpec(CoreInstance valueSpecification, boolean isArray, ProcessorSupport processorSupport)
+    {
+        if (!Instance.instanceOf(valueSpecification, M3Paths.InstanceValue, processorSupport))
+        {
+            return false;
+        }
+        ListIterable<? extends CoreInstance> values = Instance.getValueForMetaPropertyToManyResolved(valueSpecification, M3Properties.values, processorSupport);
+        ListIterable<? extends CoreInstance> funcSpecs = isArray ? values.flatCollect(v -> Instance.getValueForMetaPropertyToManyResolved(v, "funcSpecs", processorSupport)).toList() : values;
+        return funcSpecs.notEmpty() && funcSpecs.allSatisfy(spec ->
+        {
+            CoreInstance function = Instance.getValueForMetaPropertyToOneResolved(spec, M3Properties.function, processorSupport);
+            return (function != null) && Instance.instanceOf(function, M3Paths.LambdaFunction, processorSupport) && isSideEffectFree(function, Sets.mutable.empty(), processorSupport);
+        });
+    }
+
+    private static boolean isSideEffectFree(CoreInstance function, MutableSet<CoreInstance> visited, ProcessorSupport processorSupport)
+    {
+        if (!visited.add(function))
+        {
+            // Recursive call: the function is being checked already
+            return true;
+        }
+        return Instance.getValueForMetaPropertyToManyResolved(function, M3Properties.expressionSequence, processorSupport).allSatisfy(e -> isSideEffectFreeExpression(e, visited, processorSupport));
+    }
+
+    private static boolean isSideEffectFreeExpression(CoreInstance expression, MutableSet<CoreInstance> visited, ProcessorSupport processorSupport)
+    {
+        if (Instance.instanceOf(expression, M3Paths.VariableExpression, processorSupport))
+        {
+            CoreInstance genericType = Instance.getValueForMetaPropertyToOneResolved(expression, M3Properties.genericType, processorSupport);
+            CoreInstance rawType = (genericType == null) ? null : Instance.getValueForMetaPropertyToOneResolved(genericType, M3Properties.rawType, processorSupport);
+            return (rawType == null) || !(Instance.instanceOf(rawType, M3Paths.FunctionType, processorSupport) || Type.subTypeOf(rawType, processorSupport.package_getByUserPath(M3Paths.Function), processorSupport));
+        }
+        if (Instance.instanceOf(expression, M3Paths.InstanceValue, processorSupport))
+        {
+            return Instance.getValueForMetaPropertyToManyResolved(expression, M3Properties.values, processorSupport).allSatisfy(v -> isSideEffectFreeValue(v, visited, processorSupport));
+        }
+        if (!Instance.instanceOf(expression, M3Paths.FunctionExpression, processorSupport))
+        {
+            return false;
+        }
+        CoreInstance func = Instance.getValueForMetaPropertyToOneResolved(expression, M3Properties.func, processorSupport);
+        return isSideEffectFreeFunction(func, visited, processorSupport) &&
+                Instance.getValueForMetaPropertyToManyResolved(expression, M3Properties.parametersValues, processorSupport).allSatisfy(p -> isSideEffectFreeExpression(p, visited, processorSupport));
+    }
+
+    private static boolean isSideEffectFreeValue(CoreInstance value, MutableSet<CoreInstance> visited, ProcessorSupport processorSupport)
+    {
+        if (Instance.instanceOf(value, M3Paths.LambdaFunction, processorSupport))
+        {
+            return isSideEffectFree(value, visited, processorSupport);
+        }
+        if (Instance.instanceOf(value, M3Paths.ValueSpecification, processorSupport))
+        {
+            return isSideEffectFreeExpression(value, visited, processorSupport);
+        }
+        // A function reference may be evaluated by the function it is given to
+        return !Instance.instanceOf(value, M3Paths.Function, processorSupport) || isSideEffectFreeFunction(value, visited, processorSupport);
+    }
+
+    private static boolean isSideEffectFreeFunction(CoreInstance func, MutableSet<CoreInstance> visited, ProcessorSupport processorSupport)
+    {
+        if (Instance.instanceOf(func, M3Paths.Column, processorSupport) || Instance.instanceOf(func, M3Paths.Property, processorSupport))
+        {
+            return true;
+        }
+        if (Instance.instanceOf(func, M3Paths.QualifiedProperty, processorSupport) || Instance.instanceOf(func, M3Paths.ConcreteFunctionDefinition, processorSupport))
+        {
+            return isSideEffectFree(func, visited, processorSupport);
+        }
+        if (Instance.instanceOf(func, M3Paths.NativeFunction, processorSupport))
+        {
+            CoreInstance pkg = Instance.getValueForMetaPropertyToOneResolved(func, M3Properties._package, processorSupport);
+            String packagePath = (pkg == null) ? null : PackageableElement.getUserPathForPackageableElement(pkg);
+            ImmutableSet<String> functionNames = (packagePath == null) ? null : SIDE_EFFECT_FREE_NATIVES.get(packagePath);
+            return (functionNames != null) && functionNames.contains(Instance.getValueForMetaPropertyToOneResolved(func, M3Properties.functionName, processorSupport).getName());
+        }
+        return false;
+    }
+}
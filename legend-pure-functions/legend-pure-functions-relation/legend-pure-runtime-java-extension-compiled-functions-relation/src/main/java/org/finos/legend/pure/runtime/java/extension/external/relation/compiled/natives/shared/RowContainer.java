@@ -29,6 +29,15 @@ public class RowContainer implements Function<String, Object>
         this.row = row;
     }
 
+    /**
+     * Move to another row, so that a single container can be used as a cursor over the rows of the TDS.
+     */
+    public RowContainer moveTo(int row)
+    {
+        this.row = row;
+        return this;
+    }
+
     @Override
     public Object apply(String s)
     {
@@ -14,21 +14,43 @@
 
 package org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives.shared;
 
+import org.eclipse.collections.api.list.primitive.IntList;
 import org.finos.legend.pure.generated.Root_meta_pure_metamodel_relation_Relation_Impl;
 import org.finos.legend.pure.m3.navigation.ProcessorSupport;
 
 public class TDSContainer extends Root_meta_pure_metamodel_relation_Relation_Impl
 {
     public TestTDSCompiled tds;
+    private final IntList selection;
 
     public TDSContainer(TestTDSCompiled tds, ProcessorSupport ps)
+    {
+        this(tds, null, ps);
+    }
+
+    /**
+     * Relation made of the selected rows of the TDS (all of them when the selection is null). The rows are only copied
+     * into a new TDS when an operator needs them materialized (see getTDS).
+     */
+    public TDSContainer(TestTDSCompiled tds, IntList selection, ProcessorSupport ps)
     {
         super("TDS Container");
         this.tds = tds.updateColumns(ps);
+        this.selection = selection;
         if (tds.getClassifierGenericType() == null)
         {
             throw new RuntimeException("");
         }
         this._classifierGenericType(tds.getClassifierGenericType());
     }
+
+    public IntList getSelection()
+    {
+        return this.selection;
+    }
+
+    public TestTDSCompiled getTDS()
+    {
+        return this.selection == null ? this.tds : (TestTDSCompiled) this.tds.gatherRows(this.selection);
+    }
 }
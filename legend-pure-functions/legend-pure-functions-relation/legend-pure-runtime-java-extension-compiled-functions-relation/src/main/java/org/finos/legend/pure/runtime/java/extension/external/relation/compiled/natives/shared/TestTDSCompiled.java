@@ -14,11 +14,9 @@
 
 package org.finos.legend.pure.runtime.java.extension.external.relation.compiled.natives.shared;
 
-import io.deephaven.csv.parsers.DataType;
 import io.deephaven.csv.reading.CsvReader;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.list.MutableList;
-import org.eclipse.collections.api.map.MutableMap;
 import org.finos.legend.pure.m2.inlinedsl.tds.M2TDSPaths;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.type.Class;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.type.generics.GenericType;
@@ -27,11 +25,9 @@ import org.finos.legend.pure.m3.navigation._package._Package;
 import org.finos.legend.pure.m3.navigation.relation._Column;
 import org.finos.legend.pure.m3.navigation.relation._RelationType;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.ColumnVector;
 import org.finos.legend.pure.runtime.java.extension.external.relation.shared.TestTDS;
 
-import java.math.BigDecimal;
-import java.util.Arrays;
-
 public class TestTDSCompiled extends TestTDS
 {
     private CoreInstance classifierGenericType;
@@ -46,11 +42,6 @@ public class TestTDSCompiled extends TestTDS
         super(result);
     }
 
-    public TestTDSCompiled(MutableList<String> columnOrdered, MutableMap<String, DataType> columnType, int rows)
-    {
-        super(columnOrdered, columnType, rows);
-    }
-
     public TestTDSCompiled(CsvReader.Result result, CoreInstance classifierGenericType)
     {
         super(result);
@@ -63,48 +54,14 @@ public class TestTDSCompiled extends TestTDS
         return new TestTDSCompiled();
     }
 
-    @Override
-    public TestTDS newTDS(MutableList<String> columnOrdered, MutableMap<String, DataType> columnType, int rows)
-    {
-        return new TestTDSCompiled(columnOrdered, columnType, rows);
-    }
-
     public Object getValueAsCoreInstance(String columnName, int rowNum)
     {
-        Object dataAsObject = dataByColumnName.get(columnName);
-        boolean[] isNull = (boolean[]) isNullByColumn.get(columnName);
-        Object result;
-        switch (columnType.get(columnName))
+        ColumnVector column = getColumn(columnName);
+        if (column == null)
         {
-            case INT:
-            {
-                int[] data = (int[]) dataAsObject;
-                int value = data[rowNum];
-                result = !isNull[rowNum] ? (long) value : null;
-                break;
-            }
-            case CHAR:
-            {
-                char[] data = (char[]) dataAsObject;
-                result = !isNull[rowNum] ? "" + data[rowNum] : null;
-                break;
-            }
-            case STRING:
-            {
-                String[] data = (String[]) dataAsObject;
-                result = data[rowNum];
-                break;
-            }
-            case DOUBLE:
-            {
-                double[] data = (double[]) dataAsObject;
-                result = !isNull[rowNum] ? Double.valueOf(data[rowNum]) : null;
-                break;
-            }
-            default:
-                throw new RuntimeException("ERROR " + columnType.get(columnName) + " not supported in getValue");
+            throw new RuntimeException("The column " + columnName + " can't be found in the TDS");
         }
-        return result;
+        return column.getValue(rowNum);
     }
 
     public GenericType getClassifierGenericType()
@@ -120,6 +77,14 @@ public class TestTDSCompiled extends TestTDS
         return res;
     }
 
+    @Override
+    public TestTDS shallowCopy()
+    {
+        TestTDSCompiled res = (TestTDSCompiled) super.shallowCopy();
+        res.classifierGenericType = this.classifierGenericType;
+        return res;
+    }
+
     @Override
     public TestTDS concatenate(TestTDS tds2)
     {
@@ -138,25 +103,10 @@ public class TestTDSCompiled extends TestTDS
         Class<?> relationDatabaseAccessorType = (Class<?>) processorSupport.package_getByUserPath(M2TDSPaths.TDS);
         GenericType genericType = (GenericType) processorSupport.type_wrapGenericType(relationDatabaseAccessorType);
         GenericType typeParam = (GenericType) processorSupport.newGenericType(null, relationDatabaseAccessorType, false);
-        MutableList<CoreInstance> columns = columnsOrdered.collect(c -> (CoreInstance) _Column.getColumnInstance(c,false, typeParam, (GenericType) processorSupport.type_wrapGenericType(_Package.getByUserPath(convert(columnType.get(c)), processorSupport)), null, processorSupport)).toList();
+        MutableList<CoreInstance> columns = columnsOrdered.collect(c -> (CoreInstance) _Column.getColumnInstance(c,false, typeParam, (GenericType) processorSupport.type_wrapGenericType(_Package.getByUserPath(getColumn(c).getPureType(), processorSupport)), null, processorSupport)).toList();
         typeParam._rawType(_RelationType.build(columns, null, processorSupport));
         genericType._typeArguments(Lists.mutable.with(typeParam));
         this.classifierGenericType = genericType;
         return this;
     }
-
-    public String convert(DataType dataType)
-    {
-        switch (dataType)
-        {
-            case INT:
-                return "Integer";
-            case STRING:
-            case CHAR:
-                return "String";
-            case DOUBLE:
-                return "Float";
-        }
-        throw new RuntimeException("To Handle " + dataType);
-    }
 }
@@ -14,7 +14,6 @@
 
 package org.finos.legend.pure.runtime.java.extension.external.relation.interpreted.natives;
 
-import io.deephaven.csv.parsers.DataType;
 import org.eclipse.collections.api.list.FixedSizeList;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.map.MutableMap;
@@ -35,6 +34,7 @@ import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.runtime.java.extension.external.relation.interpreted.natives.shared.Shared;
 import org.finos.legend.pure.runtime.java.extension.external.relation.interpreted.natives.shared.TDSCoreInstance;
 import org.finos.legend.pure.runtime.java.extension.external.relation.interpreted.natives.shared.TDSWithCursorCoreInstance;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.ColumnVector;
 import org.finos.legend.pure.runtime.java.extension.external.relation.shared.TestTDS;
 import org.finos.legend.pure.runtime.java.interpreted.ExecutionSupport;
 import org.finos.legend.pure.runtime.java.interpreted.FunctionExecutionInterpreted;
@@ -95,8 +95,7 @@ public class Extend extends Shared
         FixedSizeList<CoreInstance> parameters = Lists.fixedSize.with((CoreInstance) null);
         Type type = ((FunctionType) lambdaFunction._classifierGenericType()._typeArguments().getFirst()._rawType())._returnType()._rawType();
 
-        Object res = null;
-        DataType resType = null;
+        ColumnVector res = null;
         if (type == _Package.getByUserPath("String", processorSupport))
         {
             String[] resStr = new String[(int) tds.getRowCount()];
@@ -106,20 +105,18 @@ public class Extend extends Shared
                 CoreInstance newValue = this.functionExecution.executeFunction(false, lambdaFunction, parameters, resolvedTypeParameters, resolvedMultiplicityParameters, evalVarContext, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport);
                 resStr[i] = PrimitiveUtilities.getStringValue(newValue.getValueForMetaPropertyToOne("values"));
             }
-            res = resStr;
-            resType = DataType.STRING;
+            res = ColumnVector.ofStrings(resStr);
         }
         else if (type == _Package.getByUserPath("Integer", processorSupport))
         {
-            int[] resInt = new int[(int) tds.getRowCount()];
+            long[] resLong = new long[(int) tds.getRowCount()];
             for (int i = 0; i < tds.getRowCount(); i++)
             {
                 parameters.set(0, ValueSpecificationBootstrap.wrapValueSpecification(new TDSWithCursorCoreInstance(tds, i, "", null, relationType, -1, repository, false), true, processorSupport));
                 CoreInstance newValue = this.functionExecution.executeFunction(false, lambdaFunction, parameters, resolvedTypeParameters, resolvedMultiplicityParameters, evalVarContext, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport);
-                resInt[i] = PrimitiveUtilities.getIntegerValue(newValue.getValueForMetaPropertyToOne("values")).intValue();
+                resLong[i] = PrimitiveUtilities.getIntegerValue(newValue.getValueForMetaPropertyToOne("values")).longValue();
             }
-            res = resInt;
-            resType = DataType.INT;
+            res = ColumnVector.ofLongs(resLong, null);
         }
         else if (type == _Package.getByUserPath("Float", processorSupport))
         {
@@ -130,9 +127,8 @@ public class Extend extends Shared
                 CoreInstance newValue = this.functionExecution.executeFunction(false, lambdaFunction, parameters, resolvedTypeParameters, resolvedMultiplicityParameters, evalVarContext, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport);
                 resDouble[i] = PrimitiveUtilities.getFloatValue(newValue.getValueForMetaPropertyToOne("values")).doubleValue();
             }
-            res = resDouble;
-            resType = DataType.DOUBLE;
+            res = ColumnVector.ofDoubles(resDouble, null);
         }
-        return tds.addColumn(name, resType, res);
+        return tds.addColumn(name, res);
     }
 }
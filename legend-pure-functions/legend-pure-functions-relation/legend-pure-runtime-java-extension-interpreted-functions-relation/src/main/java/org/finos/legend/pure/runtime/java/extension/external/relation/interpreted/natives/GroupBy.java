@@ -14,7 +14,6 @@
 
 package org.finos.legend.pure.runtime.java.extension.external.relation.interpreted.natives;
 
-import io.deephaven.csv.parsers.DataType;
 import org.eclipse.collections.api.block.procedure.Procedure2;
 import org.eclipse.collections.api.list.FixedSizeList;
 import org.eclipse.collections.api.list.ListIterable;
@@ -38,6 +37,7 @@ import org.finos.legend.pure.runtime.java.extension.external.relation.interprete
 import org.finos.legend.pure.runtime.java.extension.external.relation.interpreted.natives.shared.TDSWithCursorCoreInstance;
 import org.finos.legend.pure.runtime.java.extension.external.relation.shared.SortDirection;
 import org.finos.legend.pure.runtime.java.extension.external.relation.shared.SortInfo;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.ColumnVector;
 import org.finos.legend.pure.runtime.java.extension.external.relation.shared.TestTDS;
 import org.finos.legend.pure.runtime.java.interpreted.ExecutionSupport;
 import org.finos.legend.pure.runtime.java.interpreted.FunctionExecutionInterpreted;
@@ -112,32 +112,28 @@ public class GroupBy extends Shared
         FixedSizeList<CoreInstance> parameters = Lists.fixedSize.with((CoreInstance) null);
 
         int size = res.getTwo().size();
-        DataType resType = null;
-        Object _finalRes = null;
+        ColumnVector _finalRes = null;
         if (type == _Package.getByUserPath("String", processorSupport))
         {
             String[] finalRes = new String[size];
             performAggregation(res, mapF, reduceF, (j, val) -> finalRes[j] = PrimitiveUtilities.getStringValue(val), resolvedTypeParameters, resolvedMultiplicityParameters, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport, processorSupport, relationType, size, parameters, mapFVarContext, reduceFVarContext);
-            resType = DataType.STRING;
-            _finalRes = finalRes;
+            _finalRes = ColumnVector.ofStrings(finalRes);
         }
 
         if (type == _Package.getByUserPath("Integer", processorSupport))
         {
-            int[] finalRes = new int[size];
-            performAggregation(res, mapF, reduceF, (j, val) -> finalRes[j] = PrimitiveUtilities.getIntegerValue(val).intValue(), resolvedTypeParameters, resolvedMultiplicityParameters, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport, processorSupport, relationType, size, parameters, mapFVarContext, reduceFVarContext);
-            resType = DataType.INT;
-            _finalRes = finalRes;
+            long[] finalRes = new long[size];
+            performAggregation(res, mapF, reduceF, (j, val) -> finalRes[j] = PrimitiveUtilities.getIntegerValue(val).longValue(), resolvedTypeParameters, resolvedMultiplicityParameters, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport, processorSupport, relationType, size, parameters, mapFVarContext, reduceFVarContext);
+            _finalRes = ColumnVector.ofLongs(finalRes, null);
         }
 
         if (type == _Package.getByUserPath("Float", processorSupport))
         {
             double[] finalRes = new double[size];
             performAggregation(res, mapF, reduceF, (j, val) -> finalRes[j] = PrimitiveUtilities.getFloatValue(val).doubleValue(), resolvedTypeParameters, resolvedMultiplicityParameters, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport, processorSupport, relationType, size, parameters, mapFVarContext, reduceFVarContext);
-            resType = DataType.FLOAT;
-            _finalRes = finalRes;
+            _finalRes = ColumnVector.ofDoubles(finalRes, null);
         }
-        return existing == null ? res.getOne()._distinct(res.getTwo()).addColumn(name, resType, _finalRes) : existing.addColumn(name, resType, _finalRes);
+        return existing == null ? res.getOne()._distinct(res.getTwo()).addColumn(name, _finalRes) : existing.addColumn(name, _finalRes);
     }
 
     private void performAggregation(Pair<TestTDS, MutableList<Pair<Integer, Integer>>> res, LambdaFunction<CoreInstance> mapF, LambdaFunction<CoreInstance> reduceF, Procedure2<Integer, CoreInstance> setter, Stack<MutableMap<String, CoreInstance>> resolvedTypeParameters, Stack<MutableMap<String, CoreInstance>> resolvedMultiplicityParameters, CoreInstance functionExpressionToUseInStack, Profiler profiler, InstantiationContext instantiationContext, ExecutionSupport executionSupport, ProcessorSupport processorSupport, RelationType<?> relationType, int size, FixedSizeList<CoreInstance> parameters, VariableContext mapFVarContext, VariableContext reduceFVarContext)
@@ -14,7 +14,6 @@
 
 package org.finos.legend.pure.runtime.java.extension.external.relation.interpreted.natives;
 
-import io.deephaven.csv.parsers.DataType;
 import org.eclipse.collections.api.list.FixedSizeList;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
@@ -37,6 +36,7 @@ import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.runtime.java.extension.external.relation.interpreted.natives.shared.Shared;
 import org.finos.legend.pure.runtime.java.extension.external.relation.interpreted.natives.shared.TDSCoreInstance;
 import org.finos.legend.pure.runtime.java.extension.external.relation.interpreted.natives.shared.TestTDSInterpreted;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.ColumnVector;
 import org.finos.legend.pure.runtime.java.extension.external.relation.shared.TestTDS;
 import org.finos.legend.pure.runtime.java.interpreted.ExecutionSupport;
 import org.finos.legend.pure.runtime.java.interpreted.FunctionExecutionInterpreted;
@@ -81,8 +81,7 @@ public class Project extends Shared
             {
                 Type type = ((FunctionType) fInfo.getOne()._classifierGenericType()._typeArguments().getFirst()._rawType())._returnType()._rawType();
                 TestTDS tds = new TestTDSInterpreted(this.repository, processorSupport);
-                Object colRes = null;
-                DataType colResType = null;
+                ColumnVector colRes = null;
 
                 MutableList<Object> vals = Lists.mutable.empty();
 
@@ -93,21 +92,18 @@ public class Project extends Shared
 
                 if (type == _Package.getByUserPath("String", processorSupport))
                 {
-                    colResType = DataType.STRING;
-                    colRes = vals.toArray(new String[0]);
+                    colRes = ColumnVector.ofStrings(vals.toArray(new String[0]));
                 }
                 if (type == _Package.getByUserPath("Integer", processorSupport))
                 {
-                    colResType = DataType.INT;
-                    colRes = vals.stream().mapToInt(x -> (Integer) x).toArray();
+                    colRes = ColumnVector.ofLongs(vals.stream().mapToLong(x -> ((Number) x).longValue()).toArray(), null);
                 }
                 if (type == _Package.getByUserPath("Float", processorSupport))
                 {
-                    colResType = DataType.DOUBLE;
-                    colRes = vals.stream().mapToDouble(x -> (Double) x).toArray();
+                    colRes = ColumnVector.ofDoubles(vals.stream().mapToDouble(x -> (Double) x).toArray(), null);
                 }
 
-                TestTDS resTDS = tds.addColumn(names.get(i++), colResType, colRes);
+                TestTDS resTDS = tds.addColumn(names.get(i++), colRes);
                 if (vals.isEmpty())
                 {
                     resTDS = resTDS.setNull();
@@ -14,9 +14,7 @@
 
 package org.finos.legend.pure.runtime.java.extension.external.relation.interpreted.natives.shared;
 
-import io.deephaven.csv.CsvSpecs;
 import io.deephaven.csv.reading.CsvReader;
-import io.deephaven.csv.sinks.SinkFactory;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.map.MutableMap;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.relation.RelationType;
@@ -28,7 +26,6 @@ import org.finos.legend.pure.runtime.java.extension.external.relation.shared.Tes
 import org.finos.legend.pure.runtime.java.interpreted.FunctionExecutionInterpreted;
 import org.finos.legend.pure.runtime.java.interpreted.natives.NativeFunction;
 
-import java.io.ByteArrayInputStream;
 import java.util.Stack;
 
 public abstract class Shared extends NativeFunction
@@ -67,13 +64,6 @@ public abstract class Shared extends NativeFunction
 
     public static CsvReader.Result readCsv(String csv)
     {
-        try
-        {
-            return CsvReader.read(CsvSpecs.csv(), new ByteArrayInputStream(csv.getBytes()), SinkFactory.arrays());
-        }
-        catch (Exception e)
-        {
-            throw new RuntimeException(e);
-        }
+        return TestTDS.readCsv(csv);
     }
 }
\ No newline at end of file
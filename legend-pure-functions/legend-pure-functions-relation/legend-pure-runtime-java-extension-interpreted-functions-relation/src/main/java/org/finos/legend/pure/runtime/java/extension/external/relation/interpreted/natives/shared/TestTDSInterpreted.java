@@ -14,18 +14,15 @@
 
 package org.finos.legend.pure.runtime.java.extension.external.relation.interpreted.natives.shared;
 
-import io.deephaven.csv.parsers.DataType;
 import io.deephaven.csv.reading.CsvReader;
-import org.eclipse.collections.api.list.MutableList;
-import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.impl.factory.Lists;
-import org.finos.legend.pure.m3.navigation.M3Paths;
 import org.finos.legend.pure.m3.navigation.ProcessorSupport;
 import org.finos.legend.pure.m3.navigation.ValueSpecificationBootstrap;
 import org.finos.legend.pure.m3.navigation._package._Package;
 import org.finos.legend.pure.m3.navigation.type.Type;
 import org.finos.legend.pure.m4.ModelRepository;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.ColumnVector;
 import org.finos.legend.pure.runtime.java.extension.external.relation.shared.TestTDS;
 
 import java.math.BigDecimal;
@@ -51,14 +48,6 @@ public class TestTDSInterpreted extends TestTDS
         this.processorSupport = processorSupport;
     }
 
-    private TestTDSInterpreted(MutableList<String> columnOrdered, MutableMap<String, DataType> columnType, int rows, ModelRepository repository, ProcessorSupport processorSupport)
-    {
-        super(columnOrdered, columnType, rows);
-        this.modelRepository = repository;
-        this.processorSupport = processorSupport;
-
-    }
-
     public TestTDSInterpreted(ModelRepository repository, ProcessorSupport processorSupport)
     {
         this.modelRepository = repository;
@@ -71,52 +60,30 @@ public class TestTDSInterpreted extends TestTDS
         return new TestTDSInterpreted(this.modelRepository, this.processorSupport);
     }
 
-    @Override
-    public TestTDS newTDS(MutableList<String> columnOrdered, MutableMap<String, DataType> columnType, int rows)
-    {
-        return new TestTDSInterpreted(columnOrdered, columnType, rows, this.modelRepository, this.processorSupport);
-    }
-
     public CoreInstance getValueAsCoreInstance(String columnName, int rowNum)
     {
-        Object dataAsObject = dataByColumnName.get(columnName);
-        if (dataAsObject == null)
+        ColumnVector column = getColumn(columnName);
+        if (column == null)
         {
             throw new RuntimeException("The column " + columnName + " can't be found in the TDS");
         }
-        boolean[] isNull = (boolean[]) isNullByColumn.get(columnName);
-        CoreInstance result;
-        switch (columnType.get(columnName))
+        Object value = column.getValue(rowNum);
+        if (value == null)
+        {
+            return ValueSpecificationBootstrap.wrapValueSpecification_ResultGenericTypeIsKnown(Lists.mutable.empty(), Type.wrapGenericType(_Package.getByUserPath(column.getPureType(), processorSupport), processorSupport), true, processorSupport);
+        }
+        if (value instanceof Long)
+        {
+            return newIntegerLiteral(modelRepository, (Long) value, processorSupport);
+        }
+        if (value instanceof Double)
+        {
+            return newFloatLiteral(modelRepository, BigDecimal.valueOf((Double) value), processorSupport);
+        }
+        if (value instanceof Boolean)
         {
-            case INT:
-            {
-                int[] data = (int[]) dataAsObject;
-                int value = data[rowNum];
-                result = !isNull[rowNum] ? newIntegerLiteral(modelRepository, value, processorSupport) : ValueSpecificationBootstrap.wrapValueSpecification_ResultGenericTypeIsKnown(Lists.mutable.empty(), Type.wrapGenericType(_Package.getByUserPath(M3Paths.Integer, processorSupport), processorSupport), true, processorSupport);
-                break;
-            }
-            case CHAR:
-            {
-                char[] data = (char[]) dataAsObject;
-                result = !isNull[rowNum] ? newStringLiteral(modelRepository, "" + data[rowNum], processorSupport) : ValueSpecificationBootstrap.wrapValueSpecification_ResultGenericTypeIsKnown(Lists.mutable.empty(), Type.wrapGenericType(_Package.getByUserPath(M3Paths.String, processorSupport), processorSupport), true, processorSupport);
-                break;
-            }
-            case STRING:
-            {
-                String[] data = (String[]) dataAsObject;
-                String value = data[rowNum];
-                result = value != null ? newStringLiteral(modelRepository, value, processorSupport) : ValueSpecificationBootstrap.wrapValueSpecification_ResultGenericTypeIsKnown(Lists.mutable.empty(), Type.wrapGenericType(_Package.getByUserPath(M3Paths.String, processorSupport), processorSupport), true, processorSupport);
-                break;
-            }
-            case DOUBLE:
-            {
-                double[] data = (double[]) dataAsObject;
-                result = !isNull[rowNum] ? newFloatLiteral(modelRepository, BigDecimal.valueOf(data[rowNum]), processorSupport) : ValueSpecificationBootstrap.wrapValueSpecification_ResultGenericTypeIsKnown(Lists.mutable.empty(), Type.wrapGenericType(_Package.getByUserPath(M3Paths.Float, processorSupport), processorSupport), true, processorSupport);
-                break;
-            }
-            default:
-                throw new RuntimeException("ERROR " + columnType.get(columnName) + " not supported in getValue");
+            return newBooleanLiteral(modelRepository, (Boolean) value, processorSupport);
         }
-        return result;
+        return newStringLiteral(modelRepository, (String) value, processorSupport);
     }
 }
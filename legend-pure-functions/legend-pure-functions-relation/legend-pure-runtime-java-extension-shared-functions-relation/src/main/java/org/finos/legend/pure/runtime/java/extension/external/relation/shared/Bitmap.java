@@ -0,0 +1,136 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
+
+import org.eclipse.collections.api.list.primitive.IntList;
+
+/**
+ * Fixed size set of bits packed in longs, holding the null flags and the boolean values of the column vectors. Bits are
+ * only set while the vector owning the bitmap is built.
+ */
+final class Bitmap
+{
+    private final long[] words;
+    private final int size;
+
+    Bitmap(int size)
+    {
+        this.words = new long[(size + 63) >>> 6];
+        this.size = size;
+    }
+
+    Bitmap(long[] words, int size)
+    {
+        this.words = words;
+        this.size = size;
+    }
+
+    static Bitmap fromBooleans(boolean[] values)
+    {
+        Bitmap result = new Bitmap(values.length);
+        for (int i = 0; i < values.length; i++)
+        {
+            if (values[i])
+            {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    int size()
+    {
+        return this.size;
+    }
+
+    boolean get(int index)
+    {
+        return (this.words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    void set(int index)
+    {
+        this.words[index >>> 6] |= 1L << index;
+    }
+
+    boolean isEmpty()
+    {
+        for (long word : this.words)
+        {
+            if (word != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bits of the given indexes (an index of -1 gives the value of missing).
+     */
+    Bitmap gather(IntList indexes, boolean missing)
+    {
+        Bitmap result = new Bitmap(indexes.size());
+        for (int i = 0; i < indexes.size(); i++)
+        {
+            int index = indexes.get(i);
+            if ((index == -1) ? missing : this.get(index))
+            {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    Bitmap slice(int from, int to)
+    {
+        Bitmap result = new Bitmap(to - from);
+        for (int i = from; i < to; i++)
+        {
+            if (this.get(i))
+            {
+                result.set(i - from);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Bits of this bitmap followed by those of the other one (a null bitmap standing for size bits all unset).
+     */
+    static Bitmap concatenate(Bitmap first, int firstSize, Bitmap second, int secondSize)
+    {
+        if (first == null && second == null)
+        {
+            return null;
+        }
+        Bitmap result = new Bitmap(firstSize + secondSize);
+        if (first != null)
+        {
+            System.arraycopy(first.words, 0, result.words, 0, first.words.length);
+        }
+        if (second != null)
+        {
+            for (int i = 0; i < secondSize; i++)
+            {
+                if (second.get(i))
+                {
+                    result.set(firstSize + i);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
+
+import io.deephaven.csv.parsers.DataType;
+import org.eclipse.collections.api.list.primitive.IntList;
+
+/**
+ * Pure Boolean values, packed in a bitmap.
+ */
+final class BooleanColumnVector extends ColumnVector
+{
+    private final Bitmap values;
+
+    BooleanColumnVector(Bitmap values, Bitmap nulls)
+    {
+        super(nulls);
+        this.values = values;
+    }
+
+    @Override
+    public DataType getDataType()
+    {
+        return DataType.BOOLEAN_AS_BYTE;
+    }
+
+    @Override
+    public String getPureType()
+    {
+        return "Boolean";
+    }
+
+    @Override
+    public int size()
+    {
+        return this.values.size();
+    }
+
+    @Override
+    public Object getValue(int row)
+    {
+        return this.isNull(row) ? null : this.values.get(row);
+    }
+
+    @Override
+    ColumnVector gather(IntList rows)
+    {
+        return new BooleanColumnVector(this.values.gather(rows, false), this.gatherNulls(rows));
+    }
+
+    @Override
+    ColumnVector slice(int from, int to)
+    {
+        return new BooleanColumnVector(this.values.slice(from, to), this.sliceNulls(from, to));
+    }
+
+    @Override
+    ColumnVector concatenate(ColumnVector other)
+    {
+        if (!(other instanceof BooleanColumnVector))
+        {
+            throw this.notCompatible(other);
+        }
+        return new BooleanColumnVector(Bitmap.concatenate(this.values, this.size(), ((BooleanColumnVector) other).values, other.size()), this.concatenateNulls(other));
+    }
+
+    @Override
+    int compare(int row1, int row2)
+    {
+        boolean isNull1 = this.isNull(row1);
+        boolean isNull2 = this.isNull(row2);
+        return (isNull1 || isNull2) ? Boolean.compare(!isNull1, !isNull2) : Boolean.compare(this.values.get(row1), this.values.get(row2));
+    }
+}
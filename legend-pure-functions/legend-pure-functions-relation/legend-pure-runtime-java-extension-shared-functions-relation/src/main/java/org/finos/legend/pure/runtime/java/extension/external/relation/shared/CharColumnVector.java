@@ -0,0 +1,122 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
+
+import io.deephaven.csv.parsers.DataType;
+import org.eclipse.collections.api.list.primitive.IntList;
+
+import java.util.Arrays;
+
+/**
+ * Pure String values of one character each (as parsed from CSV).
+ */
+final class CharColumnVector extends ColumnVector
+{
+    private final char[] values;
+
+    CharColumnVector(char[] values, Bitmap nulls)
+    {
+        super(nulls);
+        this.values = values;
+    }
+
+    @Override
+    public DataType getDataType()
+    {
+        return DataType.CHAR;
+    }
+
+    @Override
+    public String getPureType()
+    {
+        return "String";
+    }
+
+    @Override
+    public int size()
+    {
+        return this.values.length;
+    }
+
+    @Override
+    public Object getValue(int row)
+    {
+        return this.isNull(row) ? null : String.valueOf(this.values[row]);
+    }
+
+    @Override
+    ColumnVector gather(IntList rows)
+    {
+        char[] result = new char[rows.size()];
+        for (int i = 0; i < result.length; i++)
+        {
+            int row = rows.get(i);
+            if (row != -1)
+            {
+                result[i] = this.values[row];
+            }
+        }
+        return new CharColumnVector(result, this.gatherNulls(rows));
+    }
+
+    @Override
+    ColumnVector slice(int from, int to)
+    {
+        return new CharColumnVector(Arrays.copyOfRange(this.values, from, to), this.sliceNulls(from, to));
+    }
+
+    @Override
+    ColumnVector concatenate(ColumnVector other)
+    {
+        if (other instanceof CharColumnVector)
+        {
+            char[] otherValues = ((CharColumnVector) other).values;
+            char[] result = Arrays.copyOf(this.values, this.values.length + otherValues.length);
+            System.arraycopy(otherValues, 0, result, this.values.length, otherValues.length);
+            return new CharColumnVector(result, this.concatenateNulls(other));
+        }
+        if ("String".equals(other.getPureType()))
+        {
+            return StringColumnVector.concatenate(this, other);
+        }
+        throw this.notCompatible(other);
+    }
+
+    @Override
+    int compare(int row1, int row2)
+    {
+        boolean isNull1 = this.isNull(row1);
+        boolean isNull2 = this.isNull(row2);
+        return (isNull1 || isNull2) ? Boolean.compare(!isNull1, !isNull2) : Character.compare(this.values[row1], this.values[row2]);
+    }
+
+    @Override
+    int hash(int row)
+    {
+        // same as the hash of the String of the character
+        return this.isNull(row) ? 0 : this.values[row];
+    }
+
+    @Override
+    boolean valueEquals(int row, ColumnVector other, int otherRow)
+    {
+        if (!(other instanceof CharColumnVector))
+        {
+            return super.valueEquals(row, other, otherRow);
+        }
+        boolean isNull = this.isNull(row);
+        return (isNull || other.isNull(otherRow)) ? (isNull == other.isNull(otherRow)) : (this.values[row] == ((CharColumnVector) other).values[otherRow]);
+    }
+}
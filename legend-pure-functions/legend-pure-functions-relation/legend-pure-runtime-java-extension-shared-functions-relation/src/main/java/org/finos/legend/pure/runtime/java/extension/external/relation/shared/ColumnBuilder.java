@@ -0,0 +1,232 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
+
+import io.deephaven.csv.parsers.DataType;
+import io.deephaven.csv.sinks.Sink;
+import io.deephaven.csv.sinks.SinkFactory;
+import io.deephaven.csv.sinks.Source;
+
+import java.util.Arrays;
+
+/**
+ * Growable primitive array (with its null flags) the CSV reader writes the parsed cells of a column to, chunk by chunk,
+ * as it streams through the input. The values are turned into a ColumnVector once the whole column has been read.
+ * <p>
+ * Builders are also sources, so that when the reader widens the inferred type of a column (byte to short to int to
+ * long) it can copy the values parsed so far rather than parse their text again.
+ */
+abstract class ColumnBuilder<TARRAY> implements Sink<TARRAY>, Source<TARRAY>
+{
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final DataType dataType;
+    private TARRAY values;
+    private long[] nullWords;
+    private int capacity;
+
+    private ColumnBuilder(DataType dataType, TARRAY values)
+    {
+        this.dataType = dataType;
+        this.values = values;
+        this.nullWords = new long[INITIAL_CAPACITY >>> 6];
+        this.capacity = INITIAL_CAPACITY;
+    }
+
+    static SinkFactory sinkFactory()
+    {
+        return SinkFactory.of(
+                i -> new ByteValues(DataType.BYTE),
+                i -> new ShortValues(),
+                i -> new IntValues(),
+                i -> new LongValues(DataType.LONG),
+                i -> new FloatValues(),
+                i -> new DoubleValues(),
+                i -> new ByteValues(DataType.BOOLEAN_AS_BYTE),
+                i -> new CharValues(),
+                i -> new StringValues(),
+                i -> new LongValues(DataType.DATETIME_AS_LONG),
+                i -> new LongValues(DataType.TIMESTAMP_AS_LONG));
+    }
+
+    @Override
+    public void write(TARRAY src, boolean[] isNull, long destBegin, long destEnd, boolean appending)
+    {
+        int begin = Math.toIntExact(destBegin);
+        int length = Math.toIntExact(destEnd - destBegin);
+        if (destEnd > this.capacity)
+        {
+            this.capacity = Math.max(this.capacity * 2, Math.toIntExact(destEnd));
+            this.values = this.grow(this.values, this.capacity);
+            this.nullWords = Arrays.copyOf(this.nullWords, (this.capacity + 63) >>> 6);
+        }
+        System.arraycopy(src, 0, this.values, begin, length);
+        for (int i = 0; i < length; i++)
+        {
+            int row = begin + i;
+            if (isNull[i])
+            {
+                this.nullWords[row >>> 6] |= 1L << row;
+            }
+            else
+            {
+                this.nullWords[row >>> 6] &= ~(1L << row);
+            }
+        }
+    }
+
+    @Override
+    public void read(TARRAY dest, boolean[] isNull, long srcBegin, long srcEnd)
+    {
+        int begin = Math.toIntExact(srcBegin);
+        int length = Math.toIntExact(srcEnd - srcBegin);
+        System.arraycopy(this.values, begin, dest, 0, length);
+        for (int i = 0; i < length; i++)
+        {
+            int row = begin + i;
+            isNull[i] = (this.nullWords[row >>> 6] & (1L << row)) != 0;
+        }
+    }
+
+    @Override
+    public Object getUnderlying()
+    {
+        return this;
+    }
+
+    /**
+     * Vector of the first rowCount values. Values equal to the null sentinel of their type are also null (see
+     * ColumnVector.fromCsv).
+     */
+    ColumnVector build(int rowCount)
+    {
+        Bitmap nulls = new Bitmap(Arrays.copyOf(this.nullWords, (rowCount + 63) >>> 6), rowCount);
+        return ColumnVector.fromCsv(this.dataType, this.values, nulls, rowCount);
+    }
+
+    abstract TARRAY grow(TARRAY array, int newCapacity);
+
+    private static class ByteValues extends ColumnBuilder<byte[]>
+    {
+        private ByteValues(DataType dataType)
+        {
+            super(dataType, new byte[INITIAL_CAPACITY]);
+        }
+
+        @Override
+        byte[] grow(byte[] array, int newCapacity)
+        {
+            return Arrays.copyOf(array, newCapacity);
+        }
+    }
+
+    private static class ShortValues extends ColumnBuilder<short[]>
+    {
+        private ShortValues()
+        {
+            super(DataType.SHORT, new short[INITIAL_CAPACITY]);
+        }
+
+        @Override
+        short[] grow(short[] array, int newCapacity)
+        {
+            return Arrays.copyOf(array, newCapacity);
+        }
+    }
+
+    private static class IntValues extends ColumnBuilder<int[]>
+    {
+        private IntValues()
+        {
+            super(DataType.INT, new int[INITIAL_CAPACITY]);
+        }
+
+        @Override
+        int[] grow(int[] array, int newCapacity)
+        {
+            return Arrays.copyOf(array, newCapacity);
+        }
+    }
+
+    private static class LongValues extends ColumnBuilder<long[]>
+    {
+        private LongValues(DataType dataType)
+        {
+            super(dataType, new long[INITIAL_CAPACITY]);
+        }
+
+        @Override
+        long[] grow(long[] array, int newCapacity)
+        {
+            return Arrays.copyOf(array, newCapacity);
+        }
+    }
+
+    private static class FloatValues extends ColumnBuilder<float[]>
+    {
+        private FloatValues()
+        {
+            super(DataType.FLOAT, new float[INITIAL_CAPACITY]);
+        }
+
+        @Override
+        float[] grow(float[] array, int newCapacity)
+        {
+            return Arrays.copyOf(array, newCapacity);
+        }
+    }
+
+    private static class DoubleValues extends ColumnBuilder<double[]>
+    {
+        private DoubleValues()
+        {
+            super(DataType.DOUBLE, new double[INITIAL_CAPACITY]);
+        }
+
+        @Override
+        double[] grow(double[] array, int newCapacity)
+        {
+            return Arrays.copyOf(array, newCapacity);
+        }
+    }
+
+    private static class CharValues extends ColumnBuilder<char[]>
+    {
+        private CharValues()
+        {
+            super(DataType.CHAR, new char[INITIAL_CAPACITY]);
+        }
+
+        @Override
+        char[] grow(char[] array, int newCapacity)
+        {
+            return Arrays.copyOf(array, newCapacity);
+        }
+    }
+
+    private static class StringValues extends ColumnBuilder<String[]>
+    {
+        private StringValues()
+        {
+            super(DataType.STRING, new String[INITIAL_CAPACITY]);
+        }
+
+        @Override
+        String[] grow(String[] array, int newCapacity)
+        {
+            return Arrays.copyOf(array, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
+
+import io.deephaven.csv.parsers.DataType;
+import io.deephaven.csv.reading.CsvReader;
+import org.eclipse.collections.api.list.primitive.IntList;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Values of a TDS column, held in a primitive array of the type of the column with a packed bitmap flagging the null
+ * values. Each type of column implements the operations of TestTDS with its own typed loops. Vectors are never modified
+ * once built, so they can be shared by several TDS.
+ */
+public abstract class ColumnVector
+{
+    // null when no value is null
+    final Bitmap nulls;
+
+    ColumnVector(Bitmap nulls)
+    {
+        this.nulls = (nulls == null || nulls.isEmpty()) ? null : nulls;
+    }
+
+    public abstract DataType getDataType();
+
+    /**
+     * Path of the Pure type of the values.
+     */
+    public abstract String getPureType();
+
+    public abstract int size();
+
+    public boolean isNull(int row)
+    {
+        return this.nulls != null && this.nulls.get(row);
+    }
+
+    /**
+     * Value of the row as an instance of the Java class used for its Pure type (Long, Double, Boolean or String), null
+     * when the value is null.
+     */
+    public abstract Object getValue(int row);
+
+    /**
+     * Values of the given rows (a row of -1 giving a null value).
+     */
+    abstract ColumnVector gather(IntList rows);
+
+    abstract ColumnVector slice(int from, int to);
+
+    abstract ColumnVector concatenate(ColumnVector other);
+
+    /**
+     * Null values come first.
+     */
+    abstract int compare(int row1, int row2);
+
+    /**
+     * Hash of the value of the row, consistent with valueEquals (including between vectors of the same Pure type).
+     */
+    int hash(int row)
+    {
+        return Objects.hashCode(this.getValue(row));
+    }
+
+    /**
+     * Whether the rows hold the same value, null values being equal to each other.
+     */
+    boolean valueEquals(int row, ColumnVector other, int otherRow)
+    {
+        return Objects.equals(this.getValue(row), other.getValue(otherRow));
+    }
+
+    boolean isCompatibleWith(ColumnVector other)
+    {
+        return this.getPureType().equals(other.getPureType());
+    }
+
+    /**
+     * Feed the non null values of the rows in [start, end) to the accumulator, each row contributing to its group.
+     */
+    void accumulate(int[] groupByRow, GroupAccumulator accumulator, int start, int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            if (!this.isNull(i))
+            {
+                accumulator.count(groupByRow[i]);
+            }
+        }
+    }
+
+    String toString(int row)
+    {
+        Object value = this.getValue(row);
+        return value == null ? "NULL" : value.toString();
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < this.size(); i++)
+        {
+            builder.append(i == 0 ? "" : ", ").append(this.toString(i));
+        }
+        return builder.append(']').toString();
+    }
+
+    Bitmap gatherNulls(IntList rows)
+    {
+        if (this.nulls != null)
+        {
+            return this.nulls.gather(rows, true);
+        }
+        if (!rows.contains(-1))
+        {
+            return null;
+        }
+        Bitmap result = new Bitmap(rows.size());
+        for (int i = 0; i < rows.size(); i++)
+        {
+            if (rows.get(i) == -1)
+            {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    Bitmap sliceNulls(int from, int to)
+    {
+        return this.nulls == null ? null : this.nulls.slice(from, to);
+    }
+
+    Bitmap concatenateNulls(ColumnVector other)
+    {
+        return Bitmap.concatenate(this.nulls, this.size(), other.nulls, other.size());
+    }
+
+    RuntimeException notCompatible(ColumnVector other)
+    {
+        return new RuntimeException("ERROR " + other.getDataType() + " can't be concatenated to " + this.getDataType());
+    }
+
+    public static ColumnVector ofStrings(String[] values)
+    {
+        return new StringColumnVector(values);
+    }
+
+    /**
+     * Integer values (isNull being null when no value is null), held as int when they all fit in 32 bits.
+     */
+    public static ColumnVector ofLongs(long[] values, boolean[] isNull)
+    {
+        Bitmap nulls = isNull == null ? null : Bitmap.fromBooleans(isNull);
+        int[] intValues = new int[values.length];
+        for (int i = 0; i < values.length; i++)
+        {
+            intValues[i] = (int) values[i];
+            if (intValues[i] != values[i] && (isNull == null || !isNull[i]))
+            {
+                return new LongColumnVector(values, nulls);
+            }
+        }
+        return new IntColumnVector(intValues, nulls);
+    }
+
+    public static ColumnVector ofDoubles(double[] values, boolean[] isNull)
+    {
+        return new DoubleColumnVector(values, isNull == null ? null : Bitmap.fromBooleans(isNull));
+    }
+
+    public static ColumnVector ofBooleans(boolean[] values, boolean[] isNull)
+    {
+        return new BooleanColumnVector(Bitmap.fromBooleans(values), isNull == null ? null : Bitmap.fromBooleans(isNull));
+    }
+
+    /**
+     * Column parsed from a CSV. Values equal to the null sentinel of their type (the minimum value, or "null" for
+     * strings) are null. Narrow integer and float columns are widened to int and double, and string columns with few
+     * distinct values are dictionary encoded.
+     */
+    public static ColumnVector fromCsv(CsvReader.ResultColumn column, int rowCount)
+    {
+        Object data = column.data();
+        return (data instanceof ColumnBuilder) ? ((ColumnBuilder<?>) data).build(rowCount) : fromCsv(column.dataType(), data, new Bitmap(rowCount), rowCount);
+    }
+
+    /**
+     * Vector of the first rowCount values of the array, the rows flagged in nulls (or holding the null sentinel) being
+     * null.
+     */
+    static ColumnVector fromCsv(DataType dataType, Object data, Bitmap nulls, int rowCount)
+    {
+        switch (dataType)
+        {
+            case BOOLEAN_AS_BYTE:
+            {
+                byte[] src = (byte[]) data;
+                Bitmap values = new Bitmap(rowCount);
+                for (int i = 0; i < rowCount; i++)
+                {
+                    if (src[i] == Byte.MIN_VALUE)
+                    {
+                        nulls.set(i);
+                    }
+                    else if (src[i] != 0)
+                    {
+                        values.set(i);
+                    }
+                }
+                return new BooleanColumnVector(values, nulls);
+            }
+            case BYTE:
+            {
+                byte[] src = (byte[]) data;
+                int[] values = new int[rowCount];
+                for (int i = 0; i < rowCount; i++)
+                {
+                    values[i] = src[i];
+                    if (src[i] == Byte.MIN_VALUE)
+                    {
+                        nulls.set(i);
+                    }
+                }
+                return new IntColumnVector(values, nulls);
+            }
+            case SHORT:
+            {
+                short[] src = (short[]) data;
+                int[] values = new int[rowCount];
+                for (int i = 0; i < rowCount; i++)
+                {
+                    values[i] = src[i];
+                    if (src[i] == Short.MIN_VALUE)
+                    {
+                        nulls.set(i);
+                    }
+                }
+                return new IntColumnVector(values, nulls);
+            }
+            case INT:
+            {
+                int[] values = Arrays.copyOf((int[]) data, rowCount);
+                for (int i = 0; i < rowCount; i++)
+                {
+                    if (values[i] == Integer.MIN_VALUE)
+                    {
+                        nulls.set(i);
+                    }
+                }
+                return new IntColumnVector(values, nulls);
+            }
+            case LONG:
+            case DATETIME_AS_LONG:
+            case TIMESTAMP_AS_LONG:
+            {
+                // Dates are typed as Integer (epoch nanoseconds) by the TDS grammar
+                long[] values = Arrays.copyOf((long[]) data, rowCount);
+                for (int i = 0; i < rowCount; i++)
+                {
+                    if (values[i] == Long.MIN_VALUE)
+                    {
+                        nulls.set(i);
+                    }
+                }
+                return new LongColumnVector(values, nulls);
+            }
+            case FLOAT:
+            {
+                float[] src = (float[]) data;
+                double[] values = new double[rowCount];
+                for (int i = 0; i < rowCount; i++)
+                {
+                    values[i] = src[i];
+                    if (src[i] == -Float.MAX_VALUE)
+                    {
+                        nulls.set(i);
+                    }
+                }
+                return new DoubleColumnVector(values, nulls);
+            }
+            case DOUBLE:
+            {
+                double[] values = Arrays.copyOf((double[]) data, rowCount);
+                for (int i = 0; i < rowCount; i++)
+                {
+                    if (values[i] == -Double.MAX_VALUE)
+                    {
+                        nulls.set(i);
+                    }
+                }
+                return new DoubleColumnVector(values, nulls);
+            }
+            case CHAR:
+            {
+                char[] values = Arrays.copyOf((char[]) data, rowCount);
+                for (int i = 0; i < rowCount; i++)
+                {
+                    if (values[i] == Character.MIN_VALUE)
+                    {
+                        nulls.set(i);
+                    }
+                }
+                return new CharColumnVector(values, nulls);
+            }
+            case STRING:
+            {
+                String[] values = Arrays.copyOf((String[]) data, rowCount);
+                for (int i = 0; i < rowCount; i++)
+                {
+                    if (nulls.get(i) || "null".equals(values[i]))
+                    {
+                        values[i] = null;
+                    }
+                }
+                ColumnVector encoded = DictionaryColumnVector.encode(values);
+                return encoded == null ? new StringColumnVector(values) : encoded;
+            }
+            default:
+                throw new RuntimeException("ERROR " + dataType + " not supported!");
+        }
+    }
+}
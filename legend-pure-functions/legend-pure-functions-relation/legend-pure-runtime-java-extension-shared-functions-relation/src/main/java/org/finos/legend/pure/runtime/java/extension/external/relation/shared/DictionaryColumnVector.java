@@ -0,0 +1,232 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
+
+import io.deephaven.csv.parsers.DataType;
+import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Pure String values of a low cardinality column, encoded as int codes into a sorted dictionary of the distinct values
+ * (a code of -1 standing for null). As the dictionary is sorted, codes compare like the values they stand for, and two
+ * vectors sharing a dictionary (as the vectors gathered or sliced from one another do) compare their rows on the codes.
+ */
+final class DictionaryColumnVector extends ColumnVector
+{
+    private static final int NULL_CODE = -1;
+
+    private final String[] dictionary;
+    // hash of each value of the dictionary, so that rows hash like the strings they stand for
+    private final int[] hashes;
+    private final int[] codes;
+
+    private DictionaryColumnVector(String[] dictionary, int[] hashes, int[] codes)
+    {
+        super(null);
+        this.dictionary = dictionary;
+        this.hashes = hashes;
+        this.codes = codes;
+    }
+
+    private DictionaryColumnVector(String[] dictionary, int[] codes)
+    {
+        this(dictionary, hashes(dictionary), codes);
+    }
+
+    /**
+     * Dictionary encoding of the values, or null when they have more distinct values than half the number of rows
+     * (encoding them would then save neither memory nor comparisons).
+     */
+    static ColumnVector encode(String[] values)
+    {
+        int maxDistinct = values.length / 2;
+        MutableObjectIntMap<String> codeByValue = ObjectIntHashMap.newMap();
+        int[] codes = new int[values.length];
+        for (int i = 0; i < values.length; i++)
+        {
+            String value = values[i];
+            if (value == null)
+            {
+                codes[i] = NULL_CODE;
+            }
+            else
+            {
+                int code = codeByValue.getIfAbsentPut(value, codeByValue.size());
+                if (code >= maxDistinct)
+                {
+                    return null;
+                }
+                codes[i] = code;
+            }
+        }
+
+        // Codes are given in order of first appearance: remap them to the order of the sorted dictionary
+        String[] dictionary = codeByValue.keySet().toArray(new String[0]);
+        Arrays.sort(dictionary);
+        int[] remap = new int[dictionary.length];
+        for (int i = 0; i < dictionary.length; i++)
+        {
+            remap[codeByValue.get(dictionary[i])] = i;
+        }
+        for (int i = 0; i < codes.length; i++)
+        {
+            if (codes[i] != NULL_CODE)
+            {
+                codes[i] = remap[codes[i]];
+            }
+        }
+        return new DictionaryColumnVector(dictionary, codes);
+    }
+
+    private static int[] hashes(String[] dictionary)
+    {
+        int[] result = new int[dictionary.length];
+        for (int i = 0; i < dictionary.length; i++)
+        {
+            result[i] = dictionary[i].hashCode();
+        }
+        return result;
+    }
+
+    @Override
+    public DataType getDataType()
+    {
+        return DataType.STRING;
+    }
+
+    @Override
+    public String getPureType()
+    {
+        return "String";
+    }
+
+    @Override
+    public int size()
+    {
+        return this.codes.length;
+    }
+
+    @Override
+    public boolean isNull(int row)
+    {
+        return this.codes[row] == NULL_CODE;
+    }
+
+    @Override
+    public Object getValue(int row)
+    {
+        int code = this.codes[row];
+        return code == NULL_CODE ? null : this.dictionary[code];
+    }
+
+    @Override
+    ColumnVector gather(IntList rows)
+    {
+        int[] result = new int[rows.size()];
+        for (int i = 0; i < result.length; i++)
+        {
+            int row = rows.get(i);
+            result[i] = row == -1 ? NULL_CODE : this.codes[row];
+        }
+        return new DictionaryColumnVector(this.dictionary, this.hashes, result);
+    }
+
+    @Override
+    ColumnVector slice(int from, int to)
+    {
+        return new DictionaryColumnVector(this.dictionary, this.hashes, Arrays.copyOfRange(this.codes, from, to));
+    }
+
+    @Override
+    ColumnVector concatenate(ColumnVector other)
+    {
+        if (!(other instanceof DictionaryColumnVector))
+        {
+            if (!"String".equals(other.getPureType()))
+            {
+                throw this.notCompatible(other);
+            }
+            return StringColumnVector.concatenate(this, other);
+        }
+        DictionaryColumnVector otherDictionary = (DictionaryColumnVector) other;
+        int[] result = new int[this.codes.length + otherDictionary.codes.length];
+        if (this.dictionary == otherDictionary.dictionary)
+        {
+            System.arraycopy(this.codes, 0, result, 0, this.codes.length);
+            System.arraycopy(otherDictionary.codes, 0, result, this.codes.length, otherDictionary.codes.length);
+            return new DictionaryColumnVector(this.dictionary, this.hashes, result);
+        }
+
+        // Merge the two sorted dictionaries, recording where each of their values ends up
+        String[] merged = new String[this.dictionary.length + otherDictionary.dictionary.length];
+        int[] remap = new int[this.dictionary.length];
+        int[] otherRemap = new int[otherDictionary.dictionary.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < remap.length || j < otherRemap.length)
+        {
+            int comparison = (i == remap.length) ? 1 : (j == otherRemap.length) ? -1 : this.dictionary[i].compareTo(otherDictionary.dictionary[j]);
+            merged[size] = comparison <= 0 ? this.dictionary[i] : otherDictionary.dictionary[j];
+            if (comparison <= 0)
+            {
+                remap[i++] = size;
+            }
+            if (comparison >= 0)
+            {
+                otherRemap[j++] = size;
+            }
+            size++;
+        }
+        for (int k = 0; k < this.codes.length; k++)
+        {
+            int code = this.codes[k];
+            result[k] = code == NULL_CODE ? NULL_CODE : remap[code];
+        }
+        for (int k = 0; k < otherDictionary.codes.length; k++)
+        {
+            int code = otherDictionary.codes[k];
+            result[this.codes.length + k] = code == NULL_CODE ? NULL_CODE : otherRemap[code];
+        }
+        return new DictionaryColumnVector(Arrays.copyOf(merged, size), result);
+    }
+
+    @Override
+    int compare(int row1, int row2)
+    {
+        // null values (-1) come first
+        return Integer.compare(this.codes[row1], this.codes[row2]);
+    }
+
+    @Override
+    int hash(int row)
+    {
+        int code = this.codes[row];
+        return code == NULL_CODE ? 0 : this.hashes[code];
+    }
+
+    @Override
+    boolean valueEquals(int row, ColumnVector other, int otherRow)
+    {
+        if (other instanceof DictionaryColumnVector && ((DictionaryColumnVector) other).dictionary == this.dictionary)
+        {
+            return this.codes[row] == ((DictionaryColumnVector) other).codes[otherRow];
+        }
+        return super.valueEquals(row, other, otherRow);
+    }
+}
@@ -0,0 +1,136 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
+
+import io.deephaven.csv.parsers.DataType;
+import org.eclipse.collections.api.list.primitive.IntList;
+
+import java.util.Arrays;
+
+/**
+ * Pure Float values.
+ */
+final class DoubleColumnVector extends ColumnVector
+{
+    private final double[] values;
+
+    DoubleColumnVector(double[] values, Bitmap nulls)
+    {
+        super(nulls);
+        this.values = values;
+    }
+
+    @Override
+    public DataType getDataType()
+    {
+        return DataType.DOUBLE;
+    }
+
+    @Override
+    public String getPureType()
+    {
+        return "Float";
+    }
+
+    @Override
+    public int size()
+    {
+        return this.values.length;
+    }
+
+    @Override
+    public Object getValue(int row)
+    {
+        return this.isNull(row) ? null : this.values[row];
+    }
+
+    @Override
+    ColumnVector gather(IntList rows)
+    {
+        double[] result = new double[rows.size()];
+        for (int i = 0; i < result.length; i++)
+        {
+            int row = rows.get(i);
+            if (row != -1)
+            {
+                result[i] = this.values[row];
+            }
+        }
+        return new DoubleColumnVector(result, this.gatherNulls(rows));
+    }
+
+    @Override
+    ColumnVector slice(int from, int to)
+    {
+        return new DoubleColumnVector(Arrays.copyOfRange(this.values, from, to), this.sliceNulls(from, to));
+    }
+
+    @Override
+    ColumnVector concatenate(ColumnVector other)
+    {
+        if (!(other instanceof DoubleColumnVector))
+        {
+            throw this.notCompatible(other);
+        }
+        double[] otherValues = ((DoubleColumnVector) other).values;
+        double[] result = Arrays.copyOf(this.values, this.values.length + otherValues.length);
+        System.arraycopy(otherValues, 0, result, this.values.length, otherValues.length);
+        return new DoubleColumnVector(result, this.concatenateNulls(other));
+    }
+
+    @Override
+    int compare(int row1, int row2)
+    {
+        boolean isNull1 = this.isNull(row1);
+        boolean isNull2 = this.isNull(row2);
+        return (isNull1 || isNull2) ? Boolean.compare(!isNull1, !isNull2) : Double.compare(normalize(this.values[row1]), normalize(this.values[row2]));
+    }
+
+    @Override
+    int hash(int row)
+    {
+        return this.isNull(row) ? 0 : Double.hashCode(normalize(this.values[row]));
+    }
+
+    @Override
+    boolean valueEquals(int row, ColumnVector other, int otherRow)
+    {
+        if (!(other instanceof DoubleColumnVector))
+        {
+            return super.valueEquals(row, other, otherRow);
+        }
+        // consistent with compare and hash: -0.0 equals 0.0, as for Pure equality, and NaN equals NaN
+        boolean isNull = this.isNull(row);
+        return (isNull || other.isNull(otherRow)) ? (isNull == other.isNull(otherRow)) : (Double.compare(normalize(this.values[row]), normalize(((DoubleColumnVector) other).values[otherRow])) == 0);
+    }
+
+    private static double normalize(double value)
+    {
+        // adding 0.0 turns -0.0 into 0.0 and leaves every other value unchanged
+        return value + 0.0;
+    }
+
+    @Override
+    void accumulate(int[] groupByRow, GroupAccumulator accumulator, int start, int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            if (!this.isNull(i))
+            {
+                accumulator.add(groupByRow[i], this.values[i]);
+            }
+        }
+    }
+}
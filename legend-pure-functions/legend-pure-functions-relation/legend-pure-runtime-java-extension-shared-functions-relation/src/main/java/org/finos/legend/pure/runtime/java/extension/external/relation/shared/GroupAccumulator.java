@@ -0,0 +1,217 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
+
+import io.deephaven.csv.parsers.DataType;
+
+/**
+ * Streaming accumulator computing one aggregate value per group, without collecting the values of the groups.
+ * Integer values are accumulated both as long (for Integer results) and as double (for Float results).
+ */
+public class GroupAccumulator
+{
+    private final AggregateFunction function;
+    private final long[] counts;
+    private final long[] longValues;
+    private final double[] doubleValues;
+
+    public GroupAccumulator(AggregateFunction function, int groupCount)
+    {
+        this.function = function;
+        this.counts = new long[groupCount];
+        this.longValues = new long[groupCount];
+        this.doubleValues = new double[groupCount];
+    }
+
+    public int getGroupCount()
+    {
+        return this.counts.length;
+    }
+
+    public void add(int group, long value)
+    {
+        switch (this.function)
+        {
+            case SUM:
+            {
+                this.longValues[group] += value;
+                this.doubleValues[group] += value;
+                break;
+            }
+            case MIN:
+            {
+                if (this.counts[group] == 0 || value < this.longValues[group])
+                {
+                    this.longValues[group] = value;
+                    this.doubleValues[group] = value;
+                }
+                break;
+            }
+            case MAX:
+            {
+                if (this.counts[group] == 0 || value > this.longValues[group])
+                {
+                    this.longValues[group] = value;
+                    this.doubleValues[group] = value;
+                }
+                break;
+            }
+            case AVG:
+            {
+                this.doubleValues[group] += value;
+                break;
+            }
+        }
+        this.counts[group]++;
+    }
+
+    public void add(int group, double value)
+    {
+        switch (this.function)
+        {
+            case SUM:
+            case AVG:
+            {
+                this.doubleValues[group] += value;
+                break;
+            }
+            case MIN:
+            {
+                if (this.counts[group] == 0 || value < this.doubleValues[group])
+                {
+                    this.doubleValues[group] = value;
+                }
+                break;
+            }
+            case MAX:
+            {
+                if (this.counts[group] == 0 || value > this.doubleValues[group])
+                {
+                    this.doubleValues[group] = value;
+                }
+                break;
+            }
+        }
+        this.counts[group]++;
+    }
+
+    public void count(int group)
+    {
+        this.counts[group]++;
+    }
+
+    /**
+     * Add the partial results of another accumulator (computed on other rows, for the same groups) to this one.
+     */
+    public void merge(GroupAccumulator other)
+    {
+        for (int group = 0; group < this.counts.length; group++)
+        {
+            if (other.counts[group] == 0)
+            {
+                continue;
+            }
+            switch (this.function)
+            {
+                case SUM:
+                case AVG:
+                {
+                    this.longValues[group] += other.longValues[group];
+                    this.doubleValues[group] += other.doubleValues[group];
+                    break;
+                }
+                case MIN:
+                {
+                    // Integer values are tracked both as long and double: the long comparison is the exact one for them
+                    if (this.counts[group] == 0 || other.longValues[group] < this.longValues[group] || other.doubleValues[group] < this.doubleValues[group])
+                    {
+                        this.longValues[group] = other.longValues[group];
+                        this.doubleValues[group] = other.doubleValues[group];
+                    }
+                    break;
+                }
+                case MAX:
+                {
+                    if (this.counts[group] == 0 || other.longValues[group] > this.longValues[group] || other.doubleValues[group] > this.doubleValues[group])
+                    {
+                        this.longValues[group] = other.longValues[group];
+                        this.doubleValues[group] = other.doubleValues[group];
+                    }
+                    break;
+                }
+            }
+            this.counts[group] += other.counts[group];
+        }
+    }
+
+    /**
+     * Aggregated value of each group, as Integer (INT or LONG) or Float (DOUBLE) values.
+     */
+    public ColumnVector getResult(DataType dataType)
+    {
+        boolean[] isNull = this.getIsNull();
+        switch (dataType)
+        {
+            case INT:
+            case LONG:
+            {
+                return ColumnVector.ofLongs((this.function == AggregateFunction.COUNT ? this.counts : this.longValues).clone(), isNull);
+            }
+            case DOUBLE:
+            {
+                double[] result = new double[this.counts.length];
+                for (int i = 0; i < result.length; i++)
+                {
+                    switch (this.function)
+                    {
+                        case COUNT:
+                        {
+                            result[i] = this.counts[i];
+                            break;
+                        }
+                        case AVG:
+                        {
+                            result[i] = this.doubleValues[i] / this.counts[i];
+                            break;
+                        }
+                        default:
+                        {
+                            result[i] = this.doubleValues[i];
+                        }
+                    }
+                }
+                return ColumnVector.ofDoubles(result, isNull);
+            }
+            default:
+                throw new RuntimeException("ERROR " + dataType + " not supported in aggregation!");
+        }
+    }
+
+    /**
+     * Groups without any value have no minimum, maximum or average.
+     */
+    public boolean[] getIsNull()
+    {
+        boolean[] result = new boolean[this.counts.length];
+        if (this.function == AggregateFunction.MIN || this.function == AggregateFunction.MAX || this.function == AggregateFunction.AVG)
+        {
+            for (int i = 0; i < result.length; i++)
+            {
+                result[i] = this.counts[i] == 0;
+            }
+        }
+        return result;
+    }
+}
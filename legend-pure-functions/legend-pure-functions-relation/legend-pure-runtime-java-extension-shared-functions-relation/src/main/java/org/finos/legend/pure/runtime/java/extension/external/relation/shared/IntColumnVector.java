@@ -0,0 +1,106 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
+
+import io.deephaven.csv.parsers.DataType;
+import org.eclipse.collections.api.list.primitive.IntList;
+
+import java.util.Arrays;
+
+/**
+ * Pure Integer values which all fit in 32 bits.
+ */
+final class IntColumnVector extends IntegralColumnVector
+{
+    private final int[] values;
+
+    IntColumnVector(int[] values, Bitmap nulls)
+    {
+        super(nulls);
+        this.values = values;
+    }
+
+    @Override
+    public DataType getDataType()
+    {
+        return DataType.INT;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.values.length;
+    }
+
+    @Override
+    long getLong(int row)
+    {
+        return this.values[row];
+    }
+
+    @Override
+    ColumnVector gather(IntList rows)
+    {
+        int[] result = new int[rows.size()];
+        for (int i = 0; i < result.length; i++)
+        {
+            int row = rows.get(i);
+            if (row != -1)
+            {
+                result[i] = this.values[row];
+            }
+        }
+        return new IntColumnVector(result, this.gatherNulls(rows));
+    }
+
+    @Override
+    ColumnVector slice(int from, int to)
+    {
+        return new IntColumnVector(Arrays.copyOfRange(this.values, from, to), this.sliceNulls(from, to));
+    }
+
+    @Override
+    ColumnVector concatenate(ColumnVector other)
+    {
+        if (other instanceof IntColumnVector)
+        {
+            int[] otherValues = ((IntColumnVector) other).values;
+            int[] result = Arrays.copyOf(this.values, this.values.length + otherValues.length);
+            System.arraycopy(otherValues, 0, result, this.values.length, otherValues.length);
+            return new IntColumnVector(result, this.concatenateNulls(other));
+        }
+        return super.concatenate(other);
+    }
+
+    @Override
+    int compare(int row1, int row2)
+    {
+        boolean isNull1 = this.isNull(row1);
+        boolean isNull2 = this.isNull(row2);
+        return (isNull1 || isNull2) ? Boolean.compare(!isNull1, !isNull2) : Integer.compare(this.values[row1], this.values[row2]);
+    }
+
+    @Override
+    void accumulate(int[] groupByRow, GroupAccumulator accumulator, int start, int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            if (!this.isNull(i))
+            {
+                accumulator.add(groupByRow[i], (long) this.values[i]);
+            }
+        }
+    }
+}
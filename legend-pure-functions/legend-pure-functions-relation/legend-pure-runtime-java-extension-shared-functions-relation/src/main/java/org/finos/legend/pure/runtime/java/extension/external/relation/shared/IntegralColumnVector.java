@@ -0,0 +1,86 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
+
+/**
+ * Pure Integer values, held as int or long: vectors of both sizes can be compared, joined and concatenated together.
+ */
+abstract class IntegralColumnVector extends ColumnVector
+{
+    IntegralColumnVector(Bitmap nulls)
+    {
+        super(nulls);
+    }
+
+    abstract long getLong(int row);
+
+    @Override
+    public String getPureType()
+    {
+        return "Integer";
+    }
+
+    @Override
+    public Object getValue(int row)
+    {
+        return this.isNull(row) ? null : this.getLong(row);
+    }
+
+    @Override
+    ColumnVector concatenate(ColumnVector other)
+    {
+        if (!(other instanceof IntegralColumnVector))
+        {
+            throw this.notCompatible(other);
+        }
+        IntegralColumnVector integral = (IntegralColumnVector) other;
+        int size = this.size();
+        long[] result = new long[size + integral.size()];
+        for (int i = 0; i < size; i++)
+        {
+            result[i] = this.getLong(i);
+        }
+        for (int i = 0; i < integral.size(); i++)
+        {
+            result[size + i] = integral.getLong(i);
+        }
+        return new LongColumnVector(result, this.concatenateNulls(other));
+    }
+
+    @Override
+    int compare(int row1, int row2)
+    {
+        boolean isNull1 = this.isNull(row1);
+        boolean isNull2 = this.isNull(row2);
+        return (isNull1 || isNull2) ? Boolean.compare(!isNull1, !isNull2) : Long.compare(this.getLong(row1), this.getLong(row2));
+    }
+
+    @Override
+    int hash(int row)
+    {
+        return this.isNull(row) ? 0 : Long.hashCode(this.getLong(row));
+    }
+
+    @Override
+    boolean valueEquals(int row, ColumnVector other, int otherRow)
+    {
+        if (!(other instanceof IntegralColumnVector))
+        {
+            return super.valueEquals(row, other, otherRow);
+        }
+        boolean isNull = this.isNull(row);
+        return (isNull || other.isNull(otherRow)) ? (isNull == other.isNull(otherRow)) : (this.getLong(row) == ((IntegralColumnVector) other).getLong(otherRow));
+    }
+}
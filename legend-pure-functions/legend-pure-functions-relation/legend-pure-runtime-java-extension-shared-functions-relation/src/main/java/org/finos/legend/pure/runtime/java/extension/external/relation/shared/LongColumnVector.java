@@ -0,0 +1,93 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
+
+import io.deephaven.csv.parsers.DataType;
+import org.eclipse.collections.api.list.primitive.IntList;
+
+import java.util.Arrays;
+
+/**
+ * Pure Integer values, some of which do not fit in 32 bits.
+ */
+final class LongColumnVector extends IntegralColumnVector
+{
+    private final long[] values;
+
+    LongColumnVector(long[] values, Bitmap nulls)
+    {
+        super(nulls);
+        this.values = values;
+    }
+
+    @Override
+    public DataType getDataType()
+    {
+        return DataType.LONG;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.values.length;
+    }
+
+    @Override
+    long getLong(int row)
+    {
+        return this.values[row];
+    }
+
+    @Override
+    ColumnVector gather(IntList rows)
+    {
+        long[] result = new long[rows.size()];
+        for (int i = 0; i < result.length; i++)
+        {
+            int row = rows.get(i);
+            if (row != -1)
+            {
+                result[i] = this.values[row];
+            }
+        }
+        return new LongColumnVector(result, this.gatherNulls(rows));
+    }
+
+    @Override
+    ColumnVector slice(int from, int to)
+    {
+        return new LongColumnVector(Arrays.copyOfRange(this.values, from, to), this.sliceNulls(from, to));
+    }
+
+    @Override
+    int compare(int row1, int row2)
+    {
+        boolean isNull1 = this.isNull(row1);
+        boolean isNull2 = this.isNull(row2);
+        return (isNull1 || isNull2) ? Boolean.compare(!isNull1, !isNull2) : Long.compare(this.values[row1], this.values[row2]);
+    }
+
+    @Override
+    void accumulate(int[] groupByRow, GroupAccumulator accumulator, int start, int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            if (!this.isNull(i))
+            {
+                accumulator.add(groupByRow[i], this.values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+// Copyright 2023 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
+
+import io.deephaven.csv.parsers.DataType;
+import org.eclipse.collections.api.list.primitive.IntList;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Pure String values, null values being held as Java nulls (no bitmap).
+ */
+final class StringColumnVector extends ColumnVector
+{
+    private final String[] values;
+
+    StringColumnVector(String[] values)
+    {
+        super(null);
+        this.values = values;
+    }
+
+    @Override
+    public DataType getDataType()
+    {
+        return DataType.STRING;
+    }
+
+    @Override
+    public String getPureType()
+    {
+        return "String";
+    }
+
+    @Override
+    public int size()
+    {
+        return this.values.length;
+    }
+
+    @Override
+    public boolean isNull(int row)
+    {
+        return this.values[row] == null;
+    }
+
+    @Override
+    public Object getValue(int row)
+    {
+        return this.values[row];
+    }
+
+    @Override
+    ColumnVector gather(IntList rows)
+    {
+        String[] result = new String[rows.size()];
+        for (int i = 0; i < result.length; i++)
+        {
+            int row = rows.get(i);
+            if (row != -1)
+            {
+                result[i] = this.values[row];
+            }
+        }
+        return new StringColumnVector(result);
+    }
+
+    @Override
+    ColumnVector slice(int from, int to)
+    {
+        return new StringColumnVector(Arrays.copyOfRange(this.values, from, to));
+    }
+
+    @Override
+    ColumnVector concatenate(ColumnVector other)
+    {
+        if (!"String".equals(other.getPureType()))
+        {
+            throw this.notCompatible(other);
+        }
+        return concatenate(this, other);
+    }
+
+    static ColumnVector concatenate(ColumnVector first, ColumnVector second)
+    {
+        String[] result = new String[first.size() + second.size()];
+        for (int i = 0; i < first.size(); i++)
+        {
+            result[i] = (String) first.getValue(i);
+        }
+        for (int i = 0; i < second.size(); i++)
+        {
+            result[first.size() + i] = (String) second.getValue(i);
+        }
+        return new StringColumnVector(result);
+    }
+
+    @Override
+    int compare(int row1, int row2)
+    {
+        String value1 = this.values[row1];
+        String value2 = this.values[row2];
+        return (value1 == null || value2 == null) ? Boolean.compare(value1 != null, value2 != null) : value1.compareTo(value2);
+    }
+
+    @Override
+    int hash(int row)
+    {
+        return Objects.hashCode(this.values[row]);
+    }
+}
@@ -15,35 +15,41 @@
 package org.finos.legend.pure.runtime.java.extension.external.relation.shared;
 
 import io.deephaven.csv.CsvSpecs;
-import io.deephaven.csv.parsers.DataType;
 import io.deephaven.csv.reading.CsvReader;
-import io.deephaven.csv.sinks.SinkFactory;
+import io.deephaven.csv.util.CsvReaderException;
 import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.block.predicate.primitive.IntIntPredicate;
+import org.eclipse.collections.api.block.predicate.primitive.IntPredicate;
 import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.set.MutableSet;
 import org.eclipse.collections.api.set.primitive.IntSet;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
 import org.eclipse.collections.api.tuple.Pair;
 import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.eclipse.collections.impl.list.primitive.IntInterval;
 import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
 import org.eclipse.collections.impl.tuple.Tuples;
 import org.eclipse.collections.impl.utility.ArrayIterate;
 
 import java.io.ByteArrayInputStream;
-import java.lang.reflect.Array;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class TestTDS
 {
-    protected MutableMap<String, Object> dataByColumnName = Maps.mutable.empty();
-    protected MutableMap<String, Object> isNullByColumn = Maps.mutable.empty();
-    protected MutableMap<String, DataType> columnType = Maps.mutable.empty();
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    protected MutableMap<String, ColumnVector> columnsByName = Maps.mutable.empty();
     protected MutableList<String> columnsOrdered = Lists.mutable.empty();
     protected long rowCount;
 
@@ -56,14 +62,14 @@ public class TestTDS
         return new TestTDS();
     }
 
-    public TestTDS newTDS(MutableList<String> columnOrdered, MutableMap<String, DataType> columnType, int rows)
+    public TestTDS(String csv)
     {
-        return new TestTDS(columnOrdered, columnType, rows);
+        this(readCsv(csv));
     }
 
-    public TestTDS(String csv)
+    public TestTDS(InputStream stream) throws CsvReaderException
     {
-        this(readCsv(csv));
+        this(readCsv(stream));
     }
 
     public TestTDS(CsvReader.Result result)
@@ -73,139 +79,22 @@ public class TestTDS
         ArrayIterate.forEach(result.columns(), c ->
         {
             columnsOrdered.add(c.name());
-            columnType.put(c.name(), c.dataType());
-            dataByColumnName.put(c.name(), c.data());
-            boolean[] array = new boolean[(int) this.rowCount];
-            isNullByColumn.put(c.name(), array);
-            switch (c.dataType())
-            {
-                case INT:
-                    for (int i = 0; i < this.rowCount; i++)
-                    {
-                        array[i] = ((int[]) c.data())[i] == Integer.MIN_VALUE;
-                    }
-                    break;
-                case CHAR:
-                    for (int i = 0; i < this.rowCount; i++)
-                    {
-                        array[i] = ((char[]) c.data())[i] == Character.MIN_VALUE;
-                    }
-                    break;
-                case DOUBLE:
-                    for (int i = 0; i < this.rowCount; i++)
-                    {
-                        array[i] = ((double[]) c.data())[i] == -Double.MAX_VALUE;
-                    }
-                    break;
-                case STRING:
-                    for (int i = 0; i < this.rowCount; i++)
-                    {
-                        if ("null".equals(((String[]) c.data())[i]))
-                        {
-                            ((String[]) c.data())[i] = null;
-                        }
-                    }
-            }
-        });
-    }
-
-    protected TestTDS(MutableList<String> columnOrdered, MutableMap<String, DataType> columnType, int rows)
-    {
-        this.columnsOrdered = columnOrdered;
-        this.columnType = columnType;
-        this.rowCount = rows;
-        this.columnType.keyValuesView().forEach(p ->
-        {
-            switch (p.getTwo())
-            {
-                case INT:
-                {
-                    this.dataByColumnName.put(p.getOne(), new int[(int) this.rowCount]);
-                    boolean[] array = new boolean[(int) this.rowCount];
-                    Arrays.fill(array, Boolean.TRUE);
-                    this.isNullByColumn.put(p.getOne(), array);
-                    break;
-                }
-                case CHAR:
-                {
-                    this.dataByColumnName.put(p.getOne(), new char[(int) this.rowCount]);
-                    boolean[] array = new boolean[(int) this.rowCount];
-                    Arrays.fill(array, Boolean.TRUE);
-                    this.isNullByColumn.put(p.getOne(), array);
-                    break;
-                }
-                case STRING:
-                {
-                    this.dataByColumnName.put(p.getOne(), new String[(int) this.rowCount]);
-                    boolean[] array = new boolean[(int) this.rowCount];
-                    Arrays.fill(array, Boolean.TRUE);
-                    this.isNullByColumn.put(p.getOne(), array);
-                    break;
-                }
-                case DOUBLE:
-                {
-                    this.dataByColumnName.put(p.getOne(), new double[(int) this.rowCount]);
-                    boolean[] array = new boolean[(int) this.rowCount];
-                    Arrays.fill(array, Boolean.TRUE);
-                    this.isNullByColumn.put(p.getOne(), array);
-                    break;
-                }
-                default:
-                    throw new RuntimeException("ERROR " + columnType.get(p.getOne()) + " not supported in copy!");
-            }
+            columnsByName.put(c.name(), ColumnVector.fromCsv(c, (int) this.rowCount));
         });
     }
 
     public TestTDS setNull()
     {
-        TestTDS res = this.copy();
+        TestTDS res = this.gatherRows(IntLists.mutable.with(-1));
         res.rowCount = 1;
-        boolean[] array = new boolean[(int) res.rowCount];
-        Arrays.fill(array, Boolean.TRUE);
-        res.columnType.keyValuesView().forEach(c ->
-        {
-            switch (c.getTwo())
-            {
-                case INT:
-                    res.dataByColumnName.put(c.getOne(), new int[1]);
-                    res.isNullByColumn.put(c.getOne(), array);
-                    break;
-                case CHAR:
-                    res.dataByColumnName.put(c.getOne(), new char[1]);
-                    res.isNullByColumn.put(c.getOne(), array);
-                    break;
-                case DOUBLE:
-                    res.dataByColumnName.put(c.getOne(), new double[1]);
-                    res.isNullByColumn.put(c.getOne(), array);
-                    break;
-                case STRING:
-                    res.dataByColumnName.put(c.getOne(), new String[1]);
-            }
-        });
         return res;
     }
 
-    private static SinkFactory makeMySinkFactory()
-    {
-        return SinkFactory.arrays(
-                Byte.MIN_VALUE,
-                Short.MIN_VALUE,
-                Integer.MIN_VALUE,
-                Long.MIN_VALUE,
-                -Float.MAX_VALUE,
-                -Double.MAX_VALUE,
-                Byte.MIN_VALUE,
-                Character.MIN_VALUE,
-                "null",
-                Long.MIN_VALUE,
-                Long.MIN_VALUE);
-    }
-
     public static CsvReader.Result readCsv(String csv)
     {
         try
         {
-            return CsvReader.read(CsvSpecs.csv(), new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), SinkFactory.arrays());
+            return readCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
         }
         catch (Exception e)
         {
@@ -213,276 +102,414 @@ public class TestTDS
         }
     }
 
-    public TestTDS join(TestTDS otherTDS)
+    /**
+     * Parse the CSV as it is read from the stream: cells are written to the growable columns of the result chunk by
+     * chunk, so the whole input never needs to be held in memory.
+     */
+    public static CsvReader.Result readCsv(InputStream stream) throws CsvReaderException
     {
-        MutableMap<String, DataType> columnTypes = Maps.mutable.empty();
-        columnTypes.putAll(this.columnType);
-        columnTypes.putAll(otherTDS.columnType);
-        MutableList<String> columnOrdered = Lists.mutable.empty();
-        columnOrdered.addAll(this.columnsOrdered);
-        columnOrdered.addAll(otherTDS.columnsOrdered);
-        TestTDS res = newTDS(columnOrdered, columnTypes, (int) (rowCount * otherTDS.rowCount));
+        return CsvReader.read(CsvSpecs.csv(), stream, ColumnBuilder.sinkFactory());
+    }
 
+    public TestTDS join(TestTDS otherTDS)
+    {
+        MutableIntList leftRows = IntLists.mutable.empty();
+        MutableIntList rightRows = IntLists.mutable.empty();
         for (int i = 0; i < this.rowCount; i++)
         {
             for (int j = 0; j < otherTDS.rowCount; j++)
             {
-                for (String column : this.dataByColumnName.keysView())
+                leftRows.add(i);
+                rightRows.add(j);
+            }
+        }
+        return this.joinResult(otherTDS, leftRows, rightRows);
+    }
+
+    /**
+     * Join with another TDS without materializing the cross product. When equality keys are provided (and the key
+     * columns have matching types), a hash table is built on the key columns of the smaller side and probed with the
+     * rows of the other side. Otherwise, pairs are enumerated with a nested loop. In both cases, the predicate is
+     * evaluated on the candidate pairs (left row, right row) to decide which ones are kept.
+     * <p>
+     * Rows are produced in left-major order. When keepUnmatchedLeft is true (LEFT join), left rows without any match
+     * are kept with null values for the columns of the other TDS.
+     */
+    public TestTDS join(TestTDS otherTDS, ListIterable<String> leftKeys, ListIterable<String> rightKeys, IntIntPredicate predicate, boolean keepUnmatchedLeft)
+    {
+        MutableIntList leftRows = IntLists.mutable.empty();
+        MutableIntList rightRows = IntLists.mutable.empty();
+        if (leftKeys.notEmpty() && leftKeys.corresponds(rightKeys, (l, r) -> this.getColumn(l).isCompatibleWith(otherTDS.getColumn(r))))
+        {
+            KeyColumns left = new KeyColumns(this, leftKeys);
+            KeyColumns right = new KeyColumns(otherTDS, rightKeys);
+            if (this.rowCount < otherTDS.rowCount)
+            {
+                this.hashJoinBuildLeft(left, right, predicate, keepUnmatchedLeft, leftRows, rightRows);
+            }
+            else
+            {
+                this.hashJoinBuildRight(left, right, predicate, keepUnmatchedLeft, leftRows, rightRows);
+            }
+        }
+        else
+        {
+            for (int i = 0; i < this.rowCount; i++)
+            {
+                boolean matched = false;
+                for (int j = 0; j < otherTDS.rowCount; j++)
                 {
-                    res.setValue(column, i * (int) otherTDS.rowCount + j, this, i);
+                    if (predicate.accept(i, j))
+                    {
+                        leftRows.add(i);
+                        rightRows.add(j);
+                        matched = true;
+                    }
                 }
-                for (String column : otherTDS.dataByColumnName.keysView())
+                if (!matched && keepUnmatchedLeft)
                 {
-                    res.setValue(column, i * (int) otherTDS.rowCount + j, otherTDS, j);
+                    leftRows.add(i);
+                    rightRows.add(-1);
                 }
             }
         }
-        return res;
+        return this.joinResult(otherTDS, leftRows, rightRows);
     }
 
-    public void setValue(String columnName, int row, TestTDS srcTDS, int srcRow)
+    private void hashJoinBuildRight(KeyColumns left, KeyColumns right, IntIntPredicate predicate, boolean keepUnmatchedLeft, MutableIntList leftRows, MutableIntList rightRows)
     {
-        Object dataAsObject = dataByColumnName.get(columnName);
-        boolean[] nullAsObject = (boolean[]) isNullByColumn.get(columnName);
-        boolean[] nullAsObjectSrc = (boolean[]) srcTDS.isNullByColumn.get(columnName);
-        switch (columnType.get(columnName))
+        JoinHashTable table = new JoinHashTable(right);
+        for (int i = 0; i < left.rowCount; i++)
         {
-            case INT:
+            boolean matched = false;
+            for (int j = table.first(left, i); j != -1; j = table.next(j))
             {
-                ((int[]) dataAsObject)[row] = ((int[]) srcTDS.dataByColumnName.get(columnName))[srcRow];
-                nullAsObject[row] = nullAsObjectSrc[srcRow];
-                break;
+                if (right.keyEquals(j, left, i) && predicate.accept(i, j))
+                {
+                    leftRows.add(i);
+                    rightRows.add(j);
+                    matched = true;
+                }
             }
-            case CHAR:
+            if (!matched && keepUnmatchedLeft)
             {
-                ((char[]) dataAsObject)[row] = ((char[]) srcTDS.dataByColumnName.get(columnName))[srcRow];
-                nullAsObject[row] = nullAsObjectSrc[srcRow];
-                break;
+                leftRows.add(i);
+                rightRows.add(-1);
             }
-            case STRING:
+        }
+    }
+
+    private void hashJoinBuildLeft(KeyColumns left, KeyColumns right, IntIntPredicate predicate, boolean keepUnmatchedLeft, MutableIntList leftRows, MutableIntList rightRows)
+    {
+        JoinHashTable table = new JoinHashTable(left);
+        MutableIntList matchedLeft = IntLists.mutable.empty();
+        MutableIntList matchedRight = IntLists.mutable.empty();
+        int[] matchCount = new int[left.rowCount];
+        for (int j = 0; j < right.rowCount; j++)
+        {
+            for (int i = table.first(right, j); i != -1; i = table.next(i))
             {
-                ((String[]) dataAsObject)[row] = ((String[]) srcTDS.dataByColumnName.get(columnName))[srcRow];
-                break;
+                if (left.keyEquals(i, right, j) && predicate.accept(i, j))
+                {
+                    matchedLeft.add(i);
+                    matchedRight.add(j);
+                    matchCount[i]++;
+                }
             }
-            case DOUBLE:
+        }
+
+        // Restore the left-major order (right rows are already ascending within each left row) with a counting sort
+        int[] offsets = new int[left.rowCount + 1];
+        for (int i = 0; i < left.rowCount; i++)
+        {
+            offsets[i + 1] = offsets[i] + ((matchCount[i] == 0 && keepUnmatchedLeft) ? 1 : matchCount[i]);
+        }
+        int[] sortedLeft = new int[offsets[left.rowCount]];
+        int[] sortedRight = new int[offsets[left.rowCount]];
+        for (int i = 0; i < left.rowCount; i++)
+        {
+            if (matchCount[i] == 0 && keepUnmatchedLeft)
             {
-                ((double[]) dataAsObject)[row] = ((double[]) srcTDS.dataByColumnName.get(columnName))[srcRow];
-                nullAsObject[row] = nullAsObjectSrc[srcRow];
-                break;
+                sortedLeft[offsets[i]] = i;
+                sortedRight[offsets[i]++] = -1;
             }
-            default:
-                throw new RuntimeException("ERROR " + columnType.get(columnName) + " not supported in copy!");
         }
+        for (int k = 0; k < matchedLeft.size(); k++)
+        {
+            int i = matchedLeft.get(k);
+            sortedLeft[offsets[i]] = i;
+            sortedRight[offsets[i]++] = matchedRight.get(k);
+        }
+        leftRows.addAll(sortedLeft);
+        rightRows.addAll(sortedRight);
     }
 
-    public TestTDS copy()
+    private TestTDS joinResult(TestTDS otherTDS, IntList leftRows, IntList rightRows)
     {
-        TestTDS result = newTDS();
-        result.rowCount = rowCount;
-        result.columnsOrdered = Lists.mutable.withAll(columnsOrdered);
-        result.columnType = Maps.mutable.withMap(columnType);
-        result.dataByColumnName = Maps.mutable.empty();
-        result.isNullByColumn = Maps.mutable.empty();
-        dataByColumnName.forEachKey(columnName ->
-        {
-            Object dataAsObject = dataByColumnName.get(columnName);
-            Object copy;
-            Object copyIsNull = null;
-            switch (columnType.get(columnName))
+        TestTDS res = newTDS();
+        res.rowCount = leftRows.size();
+        res.columnsOrdered.addAll(this.columnsOrdered);
+        res.columnsOrdered.addAll(otherTDS.columnsOrdered);
+        this.columnsByName.forEachKeyValue((name, column) -> res.columnsByName.put(name, column.gather(leftRows)));
+        otherTDS.columnsByName.forEachKeyValue((name, column) -> res.columnsByName.put(name, column.gather(rightRows)));
+        return res;
+    }
+
+    /**
+     * Assign each row to the group of rows sharing the same values for the given columns, using a hash table on those
+     * columns (no sorting involved). Groups are numbered in order of first appearance. The result holds the group of
+     * each row and the first row of each group.
+     */
+    public Pair<int[], MutableIntList> groupRows(ListIterable<String> columns)
+    {
+        KeyColumns keys = new KeyColumns(this, columns);
+        int[] groupByRow = new int[keys.rowCount];
+        MutableIntList firstRows = IntLists.mutable.empty();
+        int[] table = new int[tableCapacity(keys.rowCount)];
+        int mask = table.length - 1;
+        Arrays.fill(table, -1);
+        for (int row = 0; row < keys.rowCount; row++)
+        {
+            int slot = keys.hash(row) & mask;
+            while (table[slot] != -1 && !keys.keyEquals(firstRows.get(table[slot]), keys, row))
             {
-                case INT:
-                {
-                    copy = Arrays.copyOf((int[]) dataAsObject, (int) rowCount);
-                    copyIsNull = Arrays.copyOf((boolean[]) this.isNullByColumn.get(columnName), (int) rowCount);
-                    break;
-                }
-                case CHAR:
-                {
-                    copy = Arrays.copyOf((char[]) dataAsObject, (int) rowCount);
-                    copyIsNull = Arrays.copyOf((boolean[]) isNullByColumn.get(columnName), (int) rowCount);
-                    break;
-                }
-                case STRING:
-                {
-                    copy = Arrays.copyOf((String[]) dataAsObject, (int) rowCount);
-                    break;
-                }
-                case DOUBLE:
-                {
-                    copy = Arrays.copyOf((double[]) dataAsObject, (int) rowCount);
-                    copyIsNull = Arrays.copyOf((boolean[]) isNullByColumn.get(columnName), (int) rowCount);
-                    break;
-                }
-                default:
-                    throw new RuntimeException("ERROR " + columnType.get(columnName) + " not supported in copy!");
+                slot = (slot + 1) & mask;
             }
-            result.dataByColumnName.put(columnName, copy);
-            if (copyIsNull != null)
+            if (table[slot] == -1)
             {
-                result.isNullByColumn.put(columnName, copyIsNull);
+                table[slot] = firstRows.size();
+                firstRows.add(row);
             }
-        });
-        return result;
+            groupByRow[row] = table[slot];
+        }
+        return Tuples.pair(groupByRow, firstRows);
     }
 
-    public TestTDS drop(IntSet rows)
+    /**
+     * Build a new TDS taking the values of the given rows.
+     */
+    public TestTDS gatherRows(IntList rows)
+    {
+        return this.gatherRows(this.columnsOrdered, rows);
+    }
+
+    /**
+     * Build a new TDS with the given columns, taking the values of the given rows.
+     */
+    public TestTDS gatherRows(ListIterable<String> columns, IntList rows)
+    {
+        TestTDS res = newTDS();
+        res.rowCount = rows.size();
+        res.columnsOrdered = this.columnsOrdered.select(columns::contains);
+        res.columnsOrdered.forEach(column -> res.columnsByName.put(column, this.getColumn(column).gather(rows)));
+        return res;
+    }
+
+    /**
+     * Number of rows in a selection of rows of this TDS (all of them when the selection is null).
+     */
+    public int getSelectionSize(IntList selection)
+    {
+        return selection == null ? (int) this.rowCount : selection.size();
+    }
+
+    /**
+     * Rows of the selection (all rows when it is null) which satisfy the predicate. The result is itself a selection
+     * of rows of this TDS, so selections can be chained without copying any column.
+     */
+    public MutableIntList selectRows(IntList selection, IntPredicate predicate)
     {
-        TestTDS copy = this.copy();
-        int size = rows.size();
-        copy.dataByColumnName.forEachKey(columnName ->
+        return selectRows(selection, predicate, 0, getSelectionSize(selection));
+    }
+
+    /**
+     * Rows at positions start (inclusive) to end (exclusive) of the selection (all rows when it is null) which satisfy
+     * the predicate.
+     */
+    public MutableIntList selectRows(IntList selection, IntPredicate predicate, int start, int end)
+    {
+        MutableIntList selected = IntLists.mutable.empty();
+        for (int i = start; i < end; i++)
         {
-            Object dataAsObject = copy.dataByColumnName.get(columnName);
-            boolean[] isNull = (boolean[]) copy.isNullByColumn.get(columnName);
-            boolean[] isNullTarget = new boolean[(int) copy.rowCount - size];
-            switch (copy.columnType.get(columnName))
+            int row = selection == null ? i : selection.get(i);
+            if (predicate.accept(row))
             {
-                case INT:
-                {
-                    int[] src = (int[]) dataAsObject;
-                    int[] target = new int[(int) copy.rowCount - size];
-                    int j = 0;
-                    for (int i = 0; i < copy.rowCount; i++)
-                    {
-                        if (!rows.contains(i))
-                        {
-                            target[j] = src[i];
-                            isNullTarget[j++] = isNull[i];
-                        }
-                    }
-                    copy.dataByColumnName.put(columnName, target);
-                    copy.isNullByColumn.put(columnName, isNullTarget);
-                    break;
-                }
-                case CHAR:
-                {
-                    char[] src = (char[]) dataAsObject;
-                    char[] target = new char[(int) copy.rowCount - size];
-                    int j = 0;
-                    for (int i = 0; i < copy.rowCount; i++)
-                    {
-                        if (!rows.contains(i))
-                        {
-                            target[j] = src[i];
-                            isNullTarget[j++] = isNull[i];
-                        }
-                    }
-                    copy.dataByColumnName.put(columnName, target);
-                    copy.isNullByColumn.put(columnName, isNullTarget);
-                    break;
-                }
-                case STRING:
-                {
-                    String[] src = (String[]) dataAsObject;
-                    String[] target = new String[(int) copy.rowCount - size];
-                    int j = 0;
-                    for (int i = 0; i < copy.rowCount; i++)
-                    {
-                        if (!rows.contains(i))
-                        {
-                            target[j++] = src[i];
-                        }
-                    }
-                    copy.dataByColumnName.put(columnName, target);
-                    break;
-                }
-                case DOUBLE:
-                {
-                    double[] src = (double[]) dataAsObject;
-                    double[] target = new double[(int) copy.rowCount - size];
-                    int j = 0;
-                    for (int i = 0; i < copy.rowCount; i++)
-                    {
-                        if (!rows.contains(i))
-                        {
-                            target[j] = src[i];
-                            isNullTarget[j++] = isNull[i];
-                        }
-                    }
-                    copy.dataByColumnName.put(columnName, target);
-                    copy.isNullByColumn.put(columnName, isNullTarget);
-                    break;
-                }
-                default:
-                    throw new RuntimeException("ERROR " + copy.columnType.get(columnName) + " not supported in drop!");
+                selected.add(row);
             }
-        });
-        copy.rowCount = copy.rowCount - size;
-        return copy;
+        }
+        return selected;
     }
 
-    public long getRowCount()
+    /**
+     * Rows at positions start (inclusive) to stop (exclusive) of the selection (all rows when it is null). Bounds are
+     * clamped to the size of the selection. Slicing all the rows does not allocate an index array.
+     */
+    public IntList sliceRows(IntList selection, long start, long stop)
     {
-        return rowCount;
+        int size = getSelectionSize(selection);
+        int from = (int) Math.min(Math.max(start, 0), size);
+        int to = (int) Math.min(Math.max(stop, from), size);
+        if (from == to)
+        {
+            return IntLists.immutable.empty();
+        }
+        if (selection == null)
+        {
+            return IntInterval.fromTo(from, to - 1);
+        }
+        MutableIntList rows = IntLists.mutable.withInitialCapacity(to - from);
+        for (int i = from; i < to; i++)
+        {
+            rows.add(selection.get(i));
+        }
+        return rows;
     }
 
-    public TestTDS concatenate(TestTDS tds2)
+    /**
+     * Feed the non null values of a column to an accumulator, each row contributing to its group.
+     */
+    public void accumulate(String columnName, int[] groupByRow, GroupAccumulator accumulator)
     {
-        TestTDS result = newTDS();
-        result.rowCount = this.rowCount + tds2.rowCount;
-        result.columnType = Maps.mutable.withMap(columnType);
-        result.columnsOrdered = Lists.mutable.withAll(columnsOrdered);
+        this.accumulate(columnName, groupByRow, accumulator, 0, (int) this.rowCount);
+    }
+
+    /**
+     * Accumulate the rows in [start, end) only: partial accumulators of disjoint ranges can be merged (see
+     * GroupAccumulator.merge).
+     */
+    public void accumulate(String columnName, int[] groupByRow, GroupAccumulator accumulator, int start, int end)
+    {
+        this.getColumn(columnName).accumulate(groupByRow, accumulator, start, end);
+    }
+
+    private static int tableCapacity(int size)
+    {
+        int capacity = 1;
+        while (capacity < size * 2)
+        {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static class KeyColumns
+    {
+        private final int rowCount;
+        private final ColumnVector[] columns;
 
-        dataByColumnName.forEachKey(columnName ->
+        private KeyColumns(TestTDS tds, ListIterable<String> keys)
         {
-            Object dataAsObject1 = dataByColumnName.get(columnName);
-            Object dataAsObject2 = tds2.dataByColumnName.get(columnName);
-            Object copy;
-            boolean[] newIsNull = null;
-            switch (columnType.get(columnName))
+            this.rowCount = (int) tds.rowCount;
+            this.columns = keys.collect(tds::getColumn).toArray(new ColumnVector[keys.size()]);
+        }
+
+        private int hash(int row)
+        {
+            int hash = 0;
+            for (ColumnVector column : this.columns)
             {
-                case INT:
-                {
-                    int[] _copy = Arrays.copyOf((int[]) dataAsObject1, (int) result.rowCount);
-                    System.arraycopy((int[]) dataAsObject2, 0, _copy, (int) rowCount, (int) tds2.rowCount);
-                    copy = _copy;
-                    newIsNull = concatenate((boolean[]) isNullByColumn.get(columnName), (boolean[]) tds2.isNullByColumn.get(columnName));
-                    break;
-                }
-                case CHAR:
-                {
-                    char[] _copy = Arrays.copyOf((char[]) dataAsObject1, (int) result.rowCount);
-                    System.arraycopy((char[]) dataAsObject2, 0, _copy, (int) rowCount, (int) tds2.rowCount);
-                    copy = _copy;
-                    newIsNull = concatenate((boolean[]) isNullByColumn.get(columnName), (boolean[]) tds2.isNullByColumn.get(columnName));
-                    break;
-                }
-                case STRING:
-                {
-                    String[] _copy = Arrays.copyOf((String[]) dataAsObject1, (int) result.rowCount);
-                    System.arraycopy((String[]) dataAsObject2, 0, _copy, (int) rowCount, (int) tds2.rowCount);
-                    copy = _copy;
-                    break;
-                }
-                case DOUBLE:
+                hash = 31 * hash + column.hash(row);
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        private boolean keyEquals(int row, KeyColumns other, int otherRow)
+        {
+            for (int k = 0; k < this.columns.length; k++)
+            {
+                if (!this.columns[k].valueEquals(row, other.columns[k], otherRow))
                 {
-                    double[] _copy = Arrays.copyOf((double[]) dataAsObject1, (int) result.rowCount);
-                    System.arraycopy((double[]) dataAsObject2, 0, _copy, (int) rowCount, (int) tds2.rowCount);
-                    copy = _copy;
-                    newIsNull = concatenate((boolean[]) isNullByColumn.get(columnName), (boolean[]) tds2.isNullByColumn.get(columnName));
-                    break;
+                    return false;
                 }
-                default:
-                    throw new RuntimeException("ERROR " + columnType.get(columnName) + " not supported in copy!");
             }
-            result.dataByColumnName.put(columnName, copy);
-            if (newIsNull != null)
+            return true;
+        }
+    }
+
+    /**
+     * Chained hash table over the rows of one side of a join: heads holds the first row of each bucket and next links
+     * the rows of a bucket in ascending order.
+     */
+    private static class JoinHashTable
+    {
+        private final int[] heads;
+        private final int[] next;
+        private final int mask;
+
+        private JoinHashTable(KeyColumns keys)
+        {
+            int capacity = tableCapacity(keys.rowCount);
+            this.heads = new int[capacity];
+            this.next = new int[keys.rowCount];
+            this.mask = capacity - 1;
+            Arrays.fill(this.heads, -1);
+            for (int row = keys.rowCount - 1; row >= 0; row--)
             {
-                result.isNullByColumn.put(columnName, newIsNull);
+                int bucket = keys.hash(row) & this.mask;
+                this.next[row] = this.heads[bucket];
+                this.heads[bucket] = row;
             }
-        });
+        }
+
+        private int first(KeyColumns probe, int probeRow)
+        {
+            return this.heads[probe.hash(probeRow) & this.mask];
+        }
+
+        private int next(int row)
+        {
+            return this.next[row];
+        }
+    }
+
+    /**
+     * New TDS sharing the column vectors of this one (they are never modified once built): columns can then be added or
+     * removed without copying the others.
+     */
+    public TestTDS shallowCopy()
+    {
+        TestTDS result = newTDS();
+        result.rowCount = rowCount;
+        result.columnsOrdered = Lists.mutable.withAll(columnsOrdered);
+        result.columnsByName = Maps.mutable.withMap(columnsByName);
         return result;
     }
 
-    private boolean[] concatenate(boolean[] set1, boolean[] set2)
+    public TestTDS copy()
+    {
+        return this.shallowCopy();
+    }
+
+    public TestTDS drop(IntSet rows)
     {
-        boolean[] _copy = Arrays.copyOf(set1, set1.length + set2.length);
-        System.arraycopy(set2, 0, _copy, set1.length, set2.length);
-        return _copy;
+        MutableIntList kept = IntLists.mutable.empty();
+        for (int i = 0; i < this.rowCount; i++)
+        {
+            if (!rows.contains(i))
+            {
+                kept.add(i);
+            }
+        }
+        return this.gatherRows(kept);
     }
 
-    public TestTDS addColumn(String name, DataType dataType, Object res)
+    public long getRowCount()
     {
-        int size = Array.getLength(res);
+        return rowCount;
+    }
+
+    public TestTDS concatenate(TestTDS tds2)
+    {
+        TestTDS result = newTDS();
+        result.rowCount = this.rowCount + tds2.rowCount;
+        result.columnsOrdered = Lists.mutable.withAll(columnsOrdered);
+        columnsByName.forEachKeyValue((columnName, column) -> result.columnsByName.put(columnName, column.concatenate(tds2.getColumn(columnName))));
+        return result;
+    }
+
+    public TestTDS addColumn(String name, ColumnVector column)
+    {
+        int size = column.size();
         if (this.rowCount == 0)
         {
             this.rowCount = size;
@@ -491,28 +518,16 @@ public class TestTDS
         {
             throw new RuntimeException("Error!");
         }
-        this.dataByColumnName.put(name, res);
+        this.columnsByName.put(name, column);
         this.columnsOrdered.add(name);
-        this.columnType.put(name, dataType);
-        switch (dataType)
-        {
-            case INT:
-            case CHAR:
-            case DOUBLE:
-                boolean[] array = new boolean[(int) this.rowCount];
-                Arrays.fill(array, Boolean.FALSE);
-                isNullByColumn.put(name, array);
-        }
         return this;
     }
 
     public TestTDS removeColumns(MutableSet<? extends String> columns)
     {
-        TestTDS copy = this.copy();
+        TestTDS copy = this.shallowCopy();
         copy.columnsOrdered.removeAll(columns);
-        copy.columnType.removeAllKeys(columns);
-        copy.isNullByColumn.removeAllKeys(columns);
-        copy.dataByColumnName.removeAllKeys(columns);
+        copy.columnsByName.removeAllKeys(columns);
         return copy;
     }
 
@@ -525,57 +540,17 @@ public class TestTDS
 
     public TestTDS rename(String oldName, String newName)
     {
-        TestTDS copy = this.copy();
-        DataType type = copy.columnType.get(oldName);
-        Object data = copy.dataByColumnName.get(oldName);
-        Object oldIsNull = copy.isNullByColumn.get(oldName);
-        copy.columnType.put(newName, type);
-        copy.dataByColumnName.put(newName, data);
-        copy.isNullByColumn.put(newName, oldIsNull);
+        TestTDS copy = this.shallowCopy();
+        copy.columnsByName.put(newName, copy.columnsByName.remove(oldName));
         copy.columnsOrdered.add(newName);
-        copy.columnType.remove(oldName);
-        copy.dataByColumnName.remove(oldName);
-        copy.isNullByColumn.remove(oldName);
         copy.columnsOrdered.remove(oldName);
         return copy;
     }
 
     public TestTDS slice(int from, int to)
     {
-        TestTDS copy = this.copy();
-        copy.dataByColumnName.forEachKey(columnName ->
-        {
-            Object dataAsObject = copy.dataByColumnName.get(columnName);
-            boolean[] isNull = (boolean[]) copy.isNullByColumn.get(columnName);
-            switch (copy.columnType.get(columnName))
-            {
-                case INT:
-                {
-                    copy.dataByColumnName.put(columnName, Arrays.copyOfRange((int[]) dataAsObject, from, to));
-                    copy.isNullByColumn.put(columnName, Arrays.copyOfRange(isNull, from, to));
-                    break;
-                }
-                case CHAR:
-                {
-                    copy.dataByColumnName.put(columnName, Arrays.copyOfRange((char[]) dataAsObject, from, to));
-                    copy.isNullByColumn.put(columnName, Arrays.copyOfRange(isNull, from, to));
-                    break;
-                }
-                case STRING:
-                {
-                    copy.dataByColumnName.put(columnName, Arrays.copyOfRange((String[]) dataAsObject, from, to));
-                    break;
-                }
-                case DOUBLE:
-                {
-                    copy.dataByColumnName.put(columnName, Arrays.copyOfRange((double[]) dataAsObject, from, to));
-                    copy.isNullByColumn.put(columnName, Arrays.copyOfRange(isNull, from, to));
-                    break;
-                }
-                default:
-                    throw new RuntimeException("ERROR " + copy.columnType.get(columnName) + " not supported in drop!");
-            }
-        });
+        TestTDS copy = this.shallowCopy();
+        copy.columnsByName.forEachKeyValue((columnName, column) -> copy.columnsByName.put(columnName, column.slice(from, to)));
         copy.rowCount = to - from;
         return copy;
     }
@@ -587,10 +562,42 @@ public class TestTDS
 
     public Pair<TestTDS, MutableList<Pair<Integer, Integer>>> sort(ListIterable<SortInfo> sortInfos)
     {
-        TestTDS copy = this.copy();
+        return this.sort(sortInfos, null, 0);
+    }
+
+    /**
+     * Sort using the fork join pool (when not null) for relations larger than the threshold: ranges of the threshold
+     * size are sorted in parallel, then merged pairwise in parallel.
+     */
+    public Pair<TestTDS, MutableList<Pair<Integer, Integer>>> sort(ListIterable<SortInfo> sortInfos, ForkJoinPool forkJoinPool, int threshold)
+    {
+        int size = (int) this.rowCount;
+        RowComparator comparator = this.rowComparator(sortInfos);
+        int[] permutation = new int[size];
+        for (int i = 0; i < size; i++)
+        {
+            permutation[i] = i;
+        }
+        if (forkJoinPool != null && size > threshold)
+        {
+            forkJoinPool.invoke(new ParallelMergeSort(permutation, new int[size], 0, size, comparator, Math.max(threshold, INSERTION_SORT_THRESHOLD)));
+        }
+        else
+        {
+            mergeSort(permutation, new int[size], 0, size, comparator);
+        }
+
         MutableList<Pair<Integer, Integer>> ranges = Lists.mutable.empty();
-        this.sort(copy, sortInfos, 0, (int) rowCount, ranges);
-        return Tuples.pair(copy, ranges);
+        int start = 0;
+        for (int i = 1; i <= size; i++)
+        {
+            if (i == size || comparator.compare(permutation[i - 1], permutation[i]) != 0)
+            {
+                ranges.add(Tuples.pair(start, i));
+                start = i;
+            }
+        }
+        return Tuples.pair(this.gatherRows(this.columnsOrdered, IntLists.mutable.with(permutation)), ranges);
     }
 
     public TestTDS distinct(MutableList<String> columns)
@@ -612,304 +619,129 @@ public class TestTDS
         return this.drop(drop);
     }
 
-
-    private void sort(TestTDS copy, ListIterable<SortInfo> sortInfos, int start, int end, MutableList<Pair<Integer, Integer>> ranges)
+    private RowComparator rowComparator(ListIterable<SortInfo> sortInfos)
     {
-        SortInfo currentSort = sortInfos.getFirst();
-        this.sortOneLevel(copy, currentSort, start, end);
-        if (!sortInfos.isEmpty())
+        RowComparator[] comparators = sortInfos.collect(this::columnComparator).toArray(new RowComparator[sortInfos.size()]);
+        if (comparators.length == 1)
         {
-            String columnName = currentSort.columnName;
-            Object dataAsObject = copy.dataByColumnName.get(columnName);
-            switch (copy.columnType.get(columnName))
-            {
-                case INT:
-                {
-                    int[] src = (int[]) dataAsObject;
-                    int val = src[start];
-                    int subStart = start;
-
-                    for (int i = start; i < end; i++)
-                    {
-                        if (src[i] != val || (src[i] == val && i == end - 1))
-                        {
-                            int realEnd = (src[i] == val && i == end - 1) ? end : i;
-                            if (sortInfos.size() > 1)
-                            {
-                                sort(copy, sortInfos.subList(1, sortInfos.size()), subStart, realEnd, ranges);
-                            }
-                            else
-                            {
-                                ranges.add(Tuples.pair(subStart, realEnd));
-                            }
-                            val = src[i];
-                            subStart = i;
-                        }
-                    }
-                    break;
-                }
-                case CHAR:
-                {
-                    char[] src = (char[]) dataAsObject;
-                    char val = src[start];
-                    int subStart = start;
-
-                    for (int i = start; i < end; i++)
-                    {
-                        if (src[i] != val || (src[i] == val && i == end - 1))
-                        {
-                            int realEnd = (src[i] == val && i == end - 1) ? end : i;
-                            if (sortInfos.size() > 1)
-                            {
-                                sort(copy, sortInfos.subList(1, sortInfos.size()), subStart, realEnd, ranges);
-                            }
-                            else
-                            {
-                                ranges.add(Tuples.pair(subStart, realEnd));
-                            }
-                            val = src[i];
-                            subStart = i;
-                        }
-                    }
-                    break;
-                }
-                case STRING:
-                {
-                    String[] src = (String[]) dataAsObject;
-                    String val = src[start];
-                    int subStart = start;
-                    for (int i = start; i < end; i++)
-                    {
-                        if (!Objects.equals(src[i], val) || (Objects.equals(src[i], val) && i == end - 1))
-                        {
-                            int realEnd = (Objects.equals(src[i], val) && i == end - 1) ? end : i;
-                            if (sortInfos.size() > 1)
-                            {
-                                sort(copy, sortInfos.subList(1, sortInfos.size()), subStart, realEnd, ranges);
-                            }
-                            else
-                            {
-                                ranges.add(Tuples.pair(subStart, realEnd));
-                            }
-                            val = src[i];
-                            subStart = i;
-                        }
-                    }
-                    break;
-                }
-                case DOUBLE:
-                {
-                    double[] src = (double[]) dataAsObject;
-                    double val = src[start];
-                    int subStart = start;
-                    for (int i = start; i < end; i++)
-                    {
-                        if (src[i] != val || (src[i] == val && i == end - 1))
-                        {
-                            int realEnd = (src[i] == val && i == end - 1) ? end : i;
-                            if (sortInfos.size() > 1)
-                            {
-                                sort(copy, sortInfos.subList(1, sortInfos.size()), subStart, realEnd, ranges);
-                            }
-                            else
-                            {
-                                ranges.add(Tuples.pair(subStart, realEnd));
-                            }
-                            val = src[i];
-                            subStart = i;
-                        }
-                    }
-                    break;
-                }
-            }
+            return comparators[0];
         }
-        if (ranges.getLast() != null)
+        return (row1, row2) ->
         {
-            int lastVal = ranges.getLast().getTwo();
-            if (lastVal < end)
+            for (RowComparator comparator : comparators)
             {
-                ranges.add(Tuples.pair(lastVal, end));
+                int result = comparator.compare(row1, row2);
+                if (result != 0)
+                {
+                    return result;
+                }
             }
-        }
+            return 0;
+        };
+    }
+
+    /**
+     * Null values come first in ascending order (and last in descending order).
+     */
+    private RowComparator columnComparator(SortInfo sortInfo)
+    {
+        ColumnVector column = this.getColumn(sortInfo.columnName);
+        return sortInfo.direction == SortDirection.DESC ? (row1, row2) -> column.compare(row2, row1) : column::compare;
     }
 
-    private void sortOneLevel(TestTDS copy, SortInfo sortInfo, int start, int end)
+    /**
+     * Stable merge sort of the rows in [from, to), using buffer as scratch space for the merges.
+     */
+    private static void mergeSort(int[] rows, int[] buffer, int from, int to, RowComparator comparator)
     {
-        String columnName = sortInfo.columnName;
-        Object dataAsObject = copy.dataByColumnName.get(columnName);
-        switch (copy.columnType.get(columnName))
+        if (to - from <= INSERTION_SORT_THRESHOLD)
         {
-            case INT:
+            for (int i = from + 1; i < to; i++)
             {
-                int[] src = (int[]) dataAsObject;
-                MutableList<Pair<Integer, Integer>> list = Lists.mutable.empty();
-                for (int i = start; i < end; i++)
+                int row = rows[i];
+                int j = i;
+                while (j > from && comparator.compare(rows[j - 1], row) > 0)
                 {
-                    list.add(Tuples.pair(i, src[i]));
+                    rows[j] = rows[j - 1];
+                    j--;
                 }
-                list.sortThisBy(Pair::getTwo);
-                if (sortInfo.direction == SortDirection.DESC)
-                {
-                    list.reverseThis();
-                }
-                this.reorder(copy, list.collect(Pair::getOne), start, end);
-                break;
-            }
-            case CHAR:
-            {
-                char[] src = (char[]) dataAsObject;
-                MutableList<Pair<Integer, Character>> list = Lists.mutable.empty();
-                for (int i = start; i < end; i++)
-                {
-                    list.add(Tuples.pair(i, src[i]));
-                }
-                list.sortThisBy(Pair::getTwo);
-                if (sortInfo.direction == SortDirection.DESC)
-                {
-                    list.reverseThis();
-                }
-                this.reorder(copy, list.collect(Pair::getOne), start, end);
-                break;
-            }
-            case STRING:
-            {
-                String[] src = (String[]) dataAsObject;
-                MutableList<Pair<Integer, String>> list = Lists.mutable.empty();
-                for (int i = start; i < end; i++)
-                {
-                    list.add(Tuples.pair(i, src[i]));
-                }
-                list.sortThisBy(Pair::getTwo);
-                if (sortInfo.direction == SortDirection.DESC)
-                {
-                    list.reverseThis();
-                }
-                this.reorder(copy, list.collect(Pair::getOne), start, end);
-                break;
+                rows[j] = row;
             }
-            case DOUBLE:
-            {
-                double[] src = (double[]) dataAsObject;
-                MutableList<Pair<Integer, Double>> list = Lists.mutable.empty();
-                for (int i = start; i < end; i++)
-                {
-                    list.add(Tuples.pair(i, src[i]));
-                }
-                list.sortThisBy(Pair::getTwo);
-                if (sortInfo.direction == SortDirection.DESC)
-                {
-                    list.reverseThis();
-                }
-                this.reorder(copy, list.collect(Pair::getOne), start, end);
-                break;
-            }
-            default:
-                throw new RuntimeException("ERROR " + columnType.get(columnName) + " not supported in drop!");
+            return;
         }
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, mid, comparator);
+        mergeSort(rows, buffer, mid, to, comparator);
+        merge(rows, buffer, from, mid, to, comparator);
     }
 
-    private void reorder(TestTDS copy, MutableList<Integer> indices, int start, int end)
+    // Merge the sorted ranges [from, mid) and [mid, to), preferring the left range on ties to keep the sort stable
+    private static void merge(int[] rows, int[] buffer, int from, int mid, int to, RowComparator comparator)
     {
-        for (String columnName : copy.dataByColumnName.keysView())
+        if (comparator.compare(rows[mid - 1], rows[mid]) <= 0)
+        {
+            return;
+        }
+        // Merge back into rows from a copy of the left half: the remaining right half is already in place
+        System.arraycopy(rows, from, buffer, from, mid - from);
+        int i = from;
+        int j = mid;
+        int k = from;
+        while (i < mid && j < to)
         {
-            Object dataAsObject = copy.dataByColumnName.get(columnName);
-            boolean[] isNull = (boolean[]) copy.isNullByColumn.get(columnName);
-            switch (copy.columnType.get(columnName))
+            rows[k++] = comparator.compare(rows[j], buffer[i]) < 0 ? rows[j++] : buffer[i++];
+        }
+        System.arraycopy(buffer, i, rows, k, mid - i);
+    }
+
+    private interface RowComparator
+    {
+        int compare(int row1, int row2);
+    }
+
+    private static class ParallelMergeSort extends RecursiveAction
+    {
+        private final int[] rows;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+        private final RowComparator comparator;
+        private final int threshold;
+
+        private ParallelMergeSort(int[] rows, int[] buffer, int from, int to, RowComparator comparator, int threshold)
+        {
+            this.rows = rows;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (this.to - this.from <= this.threshold)
             {
-                case INT:
-                {
-                    int[] src = (int[]) dataAsObject;
-                    boolean[] isNullResult = new boolean[(int) copy.rowCount];
-                    int[] result = new int[(int) copy.rowCount];
-                    for (int i = 0; i < indices.size(); i++)
-                    {
-                        result[i] = src[indices.get(i)];
-                        isNullResult[i] = isNull[indices.get(i)];
-                    }
-                    System.arraycopy(result, 0, src, start, end - start);
-                    System.arraycopy(isNullResult, 0, isNull, start, end - start);
-                    break;
-                }
-                case CHAR:
-                {
-                    char[] src = (char[]) dataAsObject;
-                    boolean[] isNullResult = new boolean[(int) copy.rowCount];
-                    char[] result = new char[(int) copy.rowCount];
-                    for (int i = 0; i < indices.size(); i++)
-                    {
-                        result[i] = src[indices.get(i)];
-                        isNullResult[i] = isNull[indices.get(i)];
-                    }
-                    System.arraycopy(result, 0, src, start, end - start);
-                    System.arraycopy(isNullResult, 0, isNull, start, end - start);
-                    break;
-                }
-                case STRING:
-                {
-                    String[] src = (String[]) dataAsObject;
-                    String[] result = new String[(int) copy.rowCount];
-                    for (int i = 0; i < indices.size(); i++)
-                    {
-                        result[i] = src[indices.get(i)];
-                    }
-                    System.arraycopy(result, 0, src, start, end - start);
-                    break;
-                }
-                case DOUBLE:
-                {
-                    double[] src = (double[]) dataAsObject;
-                    boolean[] isNullResult = new boolean[(int) copy.rowCount];
-                    double[] result = new double[(int) copy.rowCount];
-                    for (int i = 0; i < indices.size(); i++)
-                    {
-                        result[i] = src[indices.get(i)];
-                        isNullResult[i] = isNull[indices.get(i)];
-                    }
-                    System.arraycopy(result, 0, src, start, end - start);
-                    System.arraycopy(isNullResult, 0, isNull, start, end - start);
-                    break;
-                }
-                default:
-                    throw new RuntimeException("ERROR " + copy.columnType.get(columnName) + " not supported in drop!");
+                mergeSort(this.rows, this.buffer, this.from, this.to, this.comparator);
+            }
+            else
+            {
+                int mid = (this.from + this.to) >>> 1;
+                invokeAll(new ParallelMergeSort(this.rows, this.buffer, this.from, mid, this.comparator, this.threshold), new ParallelMergeSort(this.rows, this.buffer, mid, this.to, this.comparator, this.threshold));
+                merge(this.rows, this.buffer, this.from, mid, this.to, this.comparator);
             }
         }
     }
 
     public String toString()
     {
-        RichIterable<String> columns = this.dataByColumnName.keysView();
+        RichIterable<String> columns = this.columnsByName.keysView();
         MutableList<String> rows = Lists.mutable.empty();
         for (int i = 0; i < rowCount; i++)
         {
             int finalI = i;
-            rows.add(columns.collect(columnName ->
-            {
-                Object dataAsObject = dataByColumnName.get(columnName);
-                boolean[] isNull = (boolean[]) isNullByColumn.get(columnName);
-
-                switch (columnType.get(columnName))
-                {
-                    case INT:
-                    {
-                        return isNull[finalI] ? "NULL" : ((int[]) dataAsObject)[finalI];
-                    }
-                    case CHAR:
-                    {
-                        return isNull[finalI] ? "NULL" : ((char[]) dataAsObject)[finalI];
-                    }
-                    case STRING:
-                    {
-                        String res = ((String[]) dataAsObject)[finalI];
-                        return res == null ? "NULL" : res;
-                    }
-                    case DOUBLE:
-                    {
-                        return isNull[finalI] ? "NULL" : ((double[]) dataAsObject)[finalI];
-                    }
-                    default:
-                        return "";
-                }
-            }).makeString(", "));
+            rows.add(columns.collect(columnName -> this.getColumn(columnName).toString(finalI)).makeString(", "));
         }
         return columns.makeString(", ") + "\n" + rows.makeString("\n");
     }
@@ -917,15 +749,15 @@ public class TestTDS
 
     public TestTDS compensateLeft(TestTDS res)
     {
-        MutableList<SortInfo> sortInfos = this.dataByColumnName.keysView().collect(c -> new SortInfo(c, SortDirection.ASC)).toList();
-        MutableList<String> cols = this.dataByColumnName.keysView().toList();
+        MutableList<SortInfo> sortInfos = this.columnsByName.keysView().collect(c -> new SortInfo(c, SortDirection.ASC)).toList();
+        MutableList<String> cols = this.columnsByName.keysView().toList();
 
         int rowLeftCurs = 0;
         int rowResCurs = 0;
         TestTDS leftS = this.sort(sortInfos).getOne();
         TestTDS resS = res.sort(sortInfos).getOne();
 
-        MutableList<Integer> missings = Lists.mutable.empty();
+        MutableIntList missings = IntLists.mutable.empty();
         while (rowLeftCurs < leftS.rowCount)
         {
             if (!leftS.fullMatch(cols, resS, rowLeftCurs, rowResCurs))
@@ -944,58 +776,28 @@ public class TestTDS
             }
         }
 
-        TestTDS missingTDS = newTDS(res.columnsOrdered.clone(), res.columnType.clone(), missings.size());
-
-        int cursor = 0;
-        for (Integer missing : missings)
-        {
-            for (String col : columnType.keysView())
-            {
-                missingTDS.setValue(col, cursor, leftS, missing);
-            }
-            cursor++;
-        }
+        // The missing left rows, with null values for the columns of the other TDS
+        TestTDS missingTDS = newTDS();
+        missingTDS.rowCount = missings.size();
+        missingTDS.columnsOrdered = res.columnsOrdered.clone();
+        int[] noRows = new int[missings.size()];
+        Arrays.fill(noRows, -1);
+        res.columnsByName.forEachKeyValue((col, column) -> missingTDS.columnsByName.put(col, leftS.columnsByName.containsKey(col) ? leftS.getColumn(col).gather(missings) : column.gather(IntLists.mutable.with(noRows))));
         return res.concatenate(missingTDS);
     }
 
     public boolean fullMatch(MutableList<String> cols, TestTDS second, int rowFirst, int rowSecond)
     {
-        boolean valid = true;
-        for (String col : cols)
-        {
-            Object firstDataAsObject = dataByColumnName.get(col);
-            Object secondDataAsObject = second.dataByColumnName.get(col);
-            switch (columnType.get(col))
-            {
-                case INT:
-                {
-                    valid = valid && ((int[]) firstDataAsObject)[rowFirst] == ((int[]) secondDataAsObject)[rowSecond];
-                    break;
-                }
-                case CHAR:
-                {
-                    valid = valid && ((char[]) firstDataAsObject)[rowFirst] == ((char[]) secondDataAsObject)[rowSecond];
-                    break;
-                }
-                case STRING:
-                {
-                    valid = valid && Objects.equals(((String[]) firstDataAsObject)[rowFirst], (((String[]) secondDataAsObject)[rowSecond]));
-                    break;
-                }
-                case DOUBLE:
-                {
-                    valid = valid && ((double[]) firstDataAsObject)[rowFirst] == ((double[]) secondDataAsObject)[rowSecond];
-                    break;
-                }
-                default:
-                    throw new RuntimeException("ERROR");
-            }
-        }
-        return valid;
+        return cols.allSatisfy(col -> this.getColumn(col).valueEquals(rowFirst, second.getColumn(col), rowSecond));
     }
 
     public MutableList<String> getColumnNames()
     {
         return this.columnsOrdered;
     }
+
+    public ColumnVector getColumn(String columnName)
+    {
+        return this.columnsByName.get(columnName);
+    }
 }
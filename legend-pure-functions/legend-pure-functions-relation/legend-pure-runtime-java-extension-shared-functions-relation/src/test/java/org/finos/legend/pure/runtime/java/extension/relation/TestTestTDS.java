@@ -14,12 +14,27 @@
 
 package org.finos.legend.pure.runtime.java.extension.relation;
 
+import io.deephaven.csv.parsers.DataType;
 import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.AggregateFunction;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.ColumnVector;
+import org.finos.legend.pure.runtime.java.extension.external.relation.shared.GroupAccumulator;
 import org.finos.legend.pure.runtime.java.extension.external.relation.shared.SortDirection;
 import org.finos.legend.pure.runtime.java.extension.external.relation.shared.SortInfo;
 import org.finos.legend.pure.runtime.java.extension.external.relation.shared.TestTDS;
 import org.junit.Assert;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
 public class TestTestTDS
 {
     @org.junit.Test
@@ -90,6 +105,39 @@ public class TestTestTDS
         Assert.assertEquals("[0:1, 1:2, 2:3, 3:4, 4:5, 5:6, 6:8]", tds.sort(Lists.mutable.with(new SortInfo("id", SortDirection.ASC), new SortInfo("name", SortDirection.ASC))).getTwo().toString());
     }
 
+    @org.junit.Test
+    public void testSortStableWithNulls()
+    {
+        String initialTDS = "id, name\n" +
+                "2, George\n" +
+                "1, null\n" +
+                "2, Pierre\n" +
+                "1, Sachin\n" +
+                "3, null";
+        TestTDS tds = new TestTDS(initialTDS);
+
+        Pair<TestTDS, MutableList<Pair<Integer, Integer>>> byName = tds.sort(new SortInfo("name", SortDirection.ASC));
+        Assert.assertEquals("id, name\n" +
+                "1, NULL\n" +
+                "3, NULL\n" +
+                "2, George\n" +
+                "2, Pierre\n" +
+                "1, Sachin", byName.getOne().toString());
+        Assert.assertEquals("[0:2, 2:3, 3:4, 4:5]", byName.getTwo().toString());
+
+        Pair<TestTDS, MutableList<Pair<Integer, Integer>>> byIdDesc = tds.sort(new SortInfo("id", SortDirection.DESC));
+        Assert.assertEquals("id, name\n" +
+                "3, NULL\n" +
+                "2, George\n" +
+                "2, Pierre\n" +
+                "1, NULL\n" +
+                "1, Sachin", byIdDesc.getOne().toString());
+        Assert.assertEquals("[0:1, 1:3, 3:5]", byIdDesc.getTwo().toString());
+
+        Assert.assertEquals("[]", tds.slice(0, 0).sort(new SortInfo("id", SortDirection.ASC)).getTwo().toString());
+        Assert.assertEquals(initialTDS.replace("null", "NULL"), tds.toString());
+    }
+
     @org.junit.Test
     public void testDistinct()
     {
@@ -130,6 +178,124 @@ public class TestTestTDS
                 "1, Pierre, F", tds.toString());
     }
 
+    @org.junit.Test
+    public void testGroupRows()
+    {
+        String initialTDS = "id, name, otherOne\n" +
+                "4, Simple, D\n" +
+                "4, Simple, A\n" +
+                "3, Ephrim, C\n" +
+                "2, Bla, B\n" +
+                "3, Ok, D\n" +
+                "3, Nop, E\n" +
+                "2, Neema, F\n" +
+                "1, Pierre, F";
+        TestTDS tds = new TestTDS(initialTDS);
+
+        Pair<int[], MutableIntList> groups = tds.groupRows(Lists.mutable.with("id"));
+        Assert.assertEquals("[0, 0, 1, 2, 1, 1, 2, 3]", Arrays.toString(groups.getOne()));
+        Assert.assertEquals("[0, 2, 3, 7]", groups.getTwo().toString());
+        Assert.assertEquals("id\n" +
+                "4\n" +
+                "3\n" +
+                "2\n" +
+                "1", tds.gatherRows(Lists.mutable.with("id"), groups.getTwo()).toString());
+
+        Pair<int[], MutableIntList> multiGroups = tds.groupRows(Lists.mutable.with("id", "otherOne"));
+        Assert.assertEquals("[0, 1, 2, 3, 4, 5, 6, 7]", Arrays.toString(multiGroups.getOne()));
+        Assert.assertEquals("[0, 1, 2, 3, 0, 4, 5, 5]", Arrays.toString(tds.groupRows(Lists.mutable.with("otherOne")).getOne()));
+
+        Assert.assertEquals(initialTDS, tds.toString());
+    }
+
+    @org.junit.Test
+    public void testAccumulate()
+    {
+        TestTDS tds = new TestTDS("grp, val, amount\n" +
+                "1, 10, 1.5\n" +
+                "2, 20, 2.5\n" +
+                "1, 30, -1.7976931348623157E308\n" +
+                "2, -2147483648, 3.5\n" +
+                "3, -2147483648, -1.7976931348623157E308");
+        int[] groupByRow = tds.groupRows(Lists.mutable.with("grp")).getOne();
+
+        GroupAccumulator sum = new GroupAccumulator(AggregateFunction.SUM, 3);
+        tds.accumulate("val", groupByRow, sum);
+        Assert.assertEquals("[40, 20, 0]", sum.getResult(DataType.INT).toString());
+        Assert.assertEquals("[false, false, false]", Arrays.toString(sum.getIsNull()));
+
+        GroupAccumulator count = new GroupAccumulator(AggregateFunction.COUNT, 3);
+        tds.accumulate("amount", groupByRow, count);
+        Assert.assertEquals("[1, 2, 0]", count.getResult(DataType.INT).toString());
+
+        GroupAccumulator max = new GroupAccumulator(AggregateFunction.MAX, 3);
+        tds.accumulate("amount", groupByRow, max);
+        Assert.assertEquals("[1.5, 3.5, NULL]", max.getResult(DataType.DOUBLE).toString());
+        Assert.assertEquals("[false, false, true]", Arrays.toString(max.getIsNull()));
+
+        GroupAccumulator avg = new GroupAccumulator(AggregateFunction.AVG, 3);
+        tds.accumulate("val", groupByRow, avg);
+        Assert.assertEquals("[20.0, 20.0, NULL]", avg.getResult(DataType.DOUBLE).toString());
+        Assert.assertEquals("[false, false, true]", Arrays.toString(avg.getIsNull()));
+    }
+
+    @org.junit.Test
+    public void testMergeAccumulators()
+    {
+        TestTDS tds = new TestTDS("grp, val\n" +
+                "1, 10\n" +
+                "2, 20\n" +
+                "1, 30\n" +
+                "2, 5\n" +
+                "1, -4\n" +
+                "3, -2147483648");
+        int[] groupByRow = tds.groupRows(Lists.mutable.with("grp")).getOne();
+
+        for (AggregateFunction function : AggregateFunction.values())
+        {
+            GroupAccumulator expected = new GroupAccumulator(function, 3);
+            tds.accumulate("val", groupByRow, expected);
+
+            GroupAccumulator first = new GroupAccumulator(function, 3);
+            tds.accumulate("val", groupByRow, first, 0, 3);
+            GroupAccumulator second = new GroupAccumulator(function, 3);
+            tds.accumulate("val", groupByRow, second, 3, 6);
+            first.merge(second);
+
+            Assert.assertEquals(function.name(), expected.getResult(DataType.INT).toString(), first.getResult(DataType.INT).toString());
+            Assert.assertEquals(function.name(), expected.getResult(DataType.DOUBLE).toString(), first.getResult(DataType.DOUBLE).toString());
+            Assert.assertEquals(function.name(), Arrays.toString(expected.getIsNull()), Arrays.toString(first.getIsNull()));
+        }
+    }
+
+    @org.junit.Test
+    public void testParallelSort()
+    {
+        TestTDS tds = new TestTDS("id, name, otherOne\n" +
+                "4, Simple, D\n" +
+                "4, Simple, A\n" +
+                "3, Ephrim, C\n" +
+                "2, Bla, B\n" +
+                "3, Ok, D\n" +
+                "3, Nop, E\n" +
+                "2, Neema, F\n" +
+                "1, Pierre, F");
+        MutableList<SortInfo> sortInfos = Lists.mutable.with(new SortInfo("otherOne", SortDirection.DESC), new SortInfo("id", SortDirection.ASC));
+        Pair<TestTDS, MutableList<Pair<Integer, Integer>>> expected = tds.sort(sortInfos);
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try
+        {
+            Pair<TestTDS, MutableList<Pair<Integer, Integer>>> result = tds.sort(sortInfos, forkJoinPool, 2);
+            Assert.assertEquals(expected.getOne().toString(), result.getOne().toString());
+            Assert.assertEquals(expected.getTwo(), result.getTwo());
+        }
+        finally
+        {
+            forkJoinPool.shutdown();
+        }
+    }
+
     @org.junit.Test
     public void testSortWithNull()
     {
@@ -347,6 +513,71 @@ public class TestTestTDS
         Assert.assertEquals(initialThird, third.toString());
     }
 
+    @org.junit.Test
+    public void testHashJoin()
+    {
+        String initialTds1 = "id, name\n" +
+                "1, George\n" +
+                "2, Pierre\n" +
+                "3, Sachin\n" +
+                "4, David";
+
+        String initialTds2 = "col, id2\n" +
+                "More George 1, 1\n" +
+                "More George 2, 1\n" +
+                "More David, 4";
+
+        TestTDS tds1 = new TestTDS(initialTds1);
+        TestTDS tds2 = new TestTDS(initialTds2);
+
+        Assert.assertEquals("id, col, id2, name\n" +
+                "1, More George 1, 1, George\n" +
+                "1, More George 2, 1, George\n" +
+                "4, More David, 4, David", tds1.join(tds2, Lists.mutable.with("id"), Lists.mutable.with("id2"), (i, j) -> true, false).toString());
+
+        Assert.assertEquals("id, col, id2, name\n" +
+                "1, More George 1, 1, George\n" +
+                "1, More George 2, 1, George\n" +
+                "2, NULL, NULL, Pierre\n" +
+                "3, NULL, NULL, Sachin\n" +
+                "4, More David, 4, David", tds1.join(tds2, Lists.mutable.with("id"), Lists.mutable.with("id2"), (i, j) -> true, true).toString());
+
+        Assert.assertEquals("id, col, id2, name\n" +
+                "1, More George 1, 1, George\n" +
+                "1, More George 2, 1, George\n" +
+                "4, More David, 4, David", tds2.join(tds1, Lists.mutable.with("id2"), Lists.mutable.with("id"), (i, j) -> true, true).toString());
+
+        Assert.assertEquals("id, col, id2, name\n" +
+                "1, More George 2, 1, George\n" +
+                "2, NULL, NULL, Pierre\n" +
+                "3, NULL, NULL, Sachin\n" +
+                "4, NULL, NULL, David", tds1.join(tds2, Lists.mutable.with("id"), Lists.mutable.with("id2"), (i, j) -> j == 1, true).toString());
+
+        Assert.assertEquals(initialTds1, tds1.toString());
+        Assert.assertEquals(initialTds2, tds2.toString());
+    }
+
+    @org.junit.Test
+    public void testNestedLoopJoin()
+    {
+        String initialTds1 = "id, name\n" +
+                "1, A\n" +
+                "2, B\n" +
+                "3, C";
+
+        String initialTds2 = "id2, extra\n" +
+                "2, X\n" +
+                "3, Y";
+
+        TestTDS tds1 = new TestTDS(initialTds1);
+        TestTDS tds2 = new TestTDS(initialTds2);
+
+        Assert.assertEquals("id, id2, extra, name\n" +
+                "1, NULL, NULL, A\n" +
+                "2, NULL, NULL, B\n" +
+                "3, 2, X, C", tds1.join(tds2, Lists.mutable.empty(), Lists.mutable.empty(), (i, j) -> i > j + 1, true).toString());
+    }
+
     @org.junit.Test
     public void testCompensateLeft()
     {
@@ -396,4 +627,221 @@ public class TestTestTDS
                 "3, NULL, NULL, NULL, Sachin\n" +
                 "4, More David, 1, 4, David", res.toString());
     }
-}
\ No newline at end of file
+
+    @org.junit.Test
+    public void testLongAndBooleanColumns()
+    {
+        TestTDS tds = new TestTDS("id, big, flag\n" +
+                "1, 5000000000, true\n" +
+                "2, -3, false\n" +
+                "3, 2147483648, true");
+        Assert.assertEquals(DataType.LONG, tds.getColumn("big").getDataType());
+        Assert.assertEquals(DataType.BOOLEAN_AS_BYTE, tds.getColumn("flag").getDataType());
+        Assert.assertEquals(5000000000L, tds.getColumn("big").getValue(0));
+        Assert.assertEquals(false, tds.getColumn("flag").getValue(1));
+
+        TestTDS sorted = tds.sort(Lists.mutable.with(new SortInfo("flag", SortDirection.DESC), new SortInfo("big", SortDirection.ASC))).getOne();
+        Assert.assertEquals("[2147483648, 5000000000, -3]", sorted.getColumn("big").toString());
+
+        // Integer columns of different sizes are concatenated and joined on their values
+        TestTDS small = new TestTDS("id, big, flag\n" +
+                "4, 7, false");
+        Assert.assertEquals(DataType.INT, small.getColumn("big").getDataType());
+        Assert.assertEquals("[5000000000, -3, 2147483648, 7]", tds.concatenate(small).getColumn("big").toString());
+        Assert.assertEquals("[1, 3]", tds.join(new TestTDS("key\n2147483648\n5000000000"), Lists.mutable.with("big"), Lists.mutable.with("key"), (i, j) -> true, false).getColumn("id").toString());
+    }
+
+    @org.junit.Test
+    public void testIntegerValuesAreNotTruncated()
+    {
+        Assert.assertEquals(DataType.INT, ColumnVector.ofLongs(new long[]{1, Integer.MAX_VALUE, 0}, new boolean[]{false, false, true}).getDataType());
+        Assert.assertEquals("[1, 2147483648, NULL]", ColumnVector.ofLongs(new long[]{1, Integer.MAX_VALUE + 1L, 0}, new boolean[]{false, false, true}).toString());
+
+        TestTDS tds = new TestTDS("grp, val\n" +
+                "1, 2147483647\n" +
+                "1, 2147483647\n" +
+                "2, 1");
+        int[] groupByRow = tds.groupRows(Lists.mutable.with("grp")).getOne();
+        GroupAccumulator sum = new GroupAccumulator(AggregateFunction.SUM, 2);
+        tds.accumulate("val", groupByRow, sum);
+        Assert.assertEquals(DataType.LONG, sum.getResult(DataType.INT).getDataType());
+        Assert.assertEquals("[4294967294, 1]", sum.getResult(DataType.INT).toString());
+    }
+
+    @org.junit.Test
+    public void testDictionaryEncodedStrings()
+    {
+        TestTDS tds = new TestTDS("city, val\n" +
+                "London, 1\n" +
+                "Paris, 2\n" +
+                "London, 3\n" +
+                "null, 4\n" +
+                "Paris, 5\n" +
+                "London, 6");
+        Assert.assertEquals("DictionaryColumnVector", tds.getColumn("city").getClass().getSimpleName());
+
+        Assert.assertEquals("val, city\n" +
+                "4, NULL\n" +
+                "6, London\n" +
+                "3, London\n" +
+                "1, London\n" +
+                "5, Paris\n" +
+                "2, Paris", tds.sort(Lists.mutable.with(new SortInfo("city", SortDirection.ASC), new SortInfo("val", SortDirection.DESC))).getOne().toString());
+
+        Assert.assertEquals("val, city\n" +
+                "4, NULL\n" +
+                "1, London\n" +
+                "2, Paris", tds.distinct(Lists.mutable.with("city")).toString());
+
+        Pair<int[], MutableIntList> groups = tds.groupRows(Lists.mutable.with("city"));
+        Assert.assertArrayEquals(new int[]{0, 1, 0, 2, 1, 0}, groups.getOne());
+
+        // Different dictionaries are merged on concatenation and compared on values by joins
+        TestTDS other = new TestTDS("city, country\n" +
+                "Paris, France\n" +
+                "Berlin, Germany\n" +
+                "Paris, France\n" +
+                "Berlin, Germany");
+        Assert.assertEquals("[London, Paris, London, NULL, Paris, London, Paris, Berlin, Paris, Berlin]", tds.select(Sets.mutable.with("city")).concatenate(other.select(Sets.mutable.with("city"))).getColumn("city").toString());
+
+        TestTDS joined = tds.join(other.rename("city", "city2"), Lists.mutable.with("city"), Lists.mutable.with("city2"), (i, j) -> true, false);
+        Assert.assertEquals(4, joined.getRowCount());
+    }
+
+    @org.junit.Test
+    public void testReadCsvFromStream() throws Exception
+    {
+        // Enough rows to grow the columns, with values widening the inferred types along the way
+        StringBuilder csv = new StringBuilder("id, amount, label\n");
+        for (int i = 0; i < 5000; i++)
+        {
+            csv.append(i).append(", ").append(i == 4000 ? "" : String.valueOf(i * 1_000_000L)).append(", ").append(i % 3 == 0 ? "fizz" : "other").append('\n');
+        }
+        TestTDS tds = new TestTDS(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(5000, tds.getRowCount());
+        Assert.assertEquals(DataType.INT, tds.getColumn("id").getDataType());
+        Assert.assertEquals(DataType.LONG, tds.getColumn("amount").getDataType());
+        Assert.assertEquals(4999_000_000L, tds.getColumn("amount").getValue(4999));
+        Assert.assertTrue(tds.getColumn("amount").isNull(4000));
+        Assert.assertFalse(tds.getColumn("amount").isNull(3999));
+        Assert.assertEquals("fizz", tds.getColumn("label").getValue(2997));
+        Assert.assertEquals("other", tds.getColumn("label").getValue(2998));
+    }
+
+    @org.junit.Test
+    public void testChainedSelections()
+    {
+        TestTDS tds = new TestTDS("id, name\n" +
+                "1, George\n" +
+                "2, Pierre\n" +
+                "3, Sachin\n" +
+                "4, David\n" +
+                "5, Neema\n" +
+                "6, Mark");
+
+        MutableIntList even = tds.selectRows(null, row -> (Long) tds.getColumn("id").getValue(row) % 2 == 0);
+        Assert.assertEquals(IntLists.mutable.with(1, 3, 5), even);
+
+        // The second selection is expressed in rows of the source TDS, not in positions of the first one
+        MutableIntList evenAbove2 = tds.selectRows(even, row -> (Long) tds.getColumn("id").getValue(row) > 2);
+        Assert.assertEquals(IntLists.mutable.with(3, 5), evenAbove2);
+        Assert.assertEquals("[David, Mark]", tds.gatherRows(evenAbove2).getColumn("name").toString());
+
+        // Only the positions in range of the selection are considered
+        Assert.assertEquals(IntLists.mutable.with(3), tds.selectRows(even, row -> true, 1, 2));
+
+        // Selecting does not modify the source TDS
+        Assert.assertEquals(6, tds.getRowCount());
+        Assert.assertEquals("[George, Pierre, Sachin, David, Neema, Mark]", tds.getColumn("name").toString());
+    }
+
+    @org.junit.Test
+    public void testEmptySelection()
+    {
+        TestTDS tds = new TestTDS("id, name\n" +
+                "1, George\n" +
+                "2, Pierre");
+
+        MutableIntList none = tds.selectRows(null, row -> false);
+        Assert.assertEquals(IntLists.mutable.empty(), none);
+        Assert.assertEquals(0, tds.getSelectionSize(none));
+        Assert.assertEquals(IntLists.mutable.empty(), tds.selectRows(none, row -> true));
+        Assert.assertEquals(IntLists.mutable.empty(), tds.sliceRows(none, 0, 10));
+
+        TestTDS empty = tds.gatherRows(none);
+        Assert.assertEquals(0, empty.getRowCount());
+        Assert.assertEquals(Lists.mutable.with("id", "name"), empty.getColumnNames());
+        Assert.assertEquals("[]", empty.getColumn("name").toString());
+    }
+
+    @org.junit.Test
+    public void testSliceOfSelection()
+    {
+        TestTDS tds = new TestTDS("id, name\n" +
+                "1, George\n" +
+                "2, Pierre\n" +
+                "3, Sachin\n" +
+                "4, David\n" +
+                "5, Neema\n" +
+                "6, Mark");
+
+        // Slicing all the rows
+        IntList all = tds.sliceRows(null, 1, 4);
+        Assert.assertEquals(IntLists.mutable.with(1, 2, 3), all);
+        Assert.assertEquals(IntLists.mutable.with(4, 5), tds.sliceRows(null, 4, Long.MAX_VALUE));
+        Assert.assertEquals(6, tds.getSelectionSize(tds.sliceRows(null, -3, 100)));
+
+        // Slicing a selection takes the positions in the selection, and gives rows of the source TDS
+        MutableIntList odd = tds.selectRows(null, row -> (Long) tds.getColumn("id").getValue(row) % 2 == 1);
+        Assert.assertEquals(IntLists.mutable.with(0, 2, 4), odd);
+        IntList sliced = tds.sliceRows(odd, 1, 3);
+        Assert.assertEquals(IntLists.mutable.with(2, 4), sliced);
+        Assert.assertEquals("[Sachin, Neema]", tds.gatherRows(sliced).getColumn("name").toString());
+
+        // Bounds are clamped to the size of the selection
+        Assert.assertEquals(IntLists.mutable.with(4), tds.sliceRows(odd, 2, 100));
+        Assert.assertEquals(IntLists.mutable.empty(), tds.sliceRows(odd, 3, 100));
+        Assert.assertEquals(IntLists.mutable.empty(), tds.sliceRows(odd, 2, 1));
+
+        // A selection of a slice of a selection
+        Assert.assertEquals(IntLists.mutable.with(4), tds.selectRows(sliced, row -> (Long) tds.getColumn("id").getValue(row) > 3));
+    }
+
+    @org.junit.Test
+    public void testDoubleEqualityConsistentWithCompare()
+    {
+        TestTDS tds = new TestTDS("id, val\n" +
+                "1, 0.0\n" +
+                "2, -0.0\n" +
+                "3, 1.5");
+        Assert.assertEquals(DataType.DOUBLE, tds.getColumn("val").getDataType());
+
+        // -0.0 equals 0.0, as with Pure equality
+        MutableList<String> cols = Lists.mutable.with("val");
+        Assert.assertTrue(tds.fullMatch(cols, tds, 0, 0));
+        Assert.assertTrue(tds.fullMatch(cols, tds, 0, 1));
+        Assert.assertFalse(tds.fullMatch(cols, tds, 0, 2));
+        Assert.assertTrue(tds.fullMatch(cols, new TestTDS("id, val\n4, 1.5"), 2, 0));
+
+        // so they sort together (stably) and fall in the same group
+        Assert.assertEquals("[1, 2, 3]", tds.sort(Lists.mutable.with(new SortInfo("val", SortDirection.ASC))).getOne().getColumn("id").toString());
+        Assert.assertEquals(2, tds.groupRows(cols).getTwo().size());
+    }
+
+    @org.junit.Test
+    public void testHashJoinOnZeroAndNegativeZero()
+    {
+        TestTDS tds = new TestTDS("id, val\n" +
+                "1, 0.0\n" +
+                "2, -0.0\n" +
+                "3, 1.5");
+        Assert.assertEquals("[1, 2, 3]", tds.join(new TestTDS("key\n0.0\n1.5"), Lists.mutable.with("val"), Lists.mutable.with("key"), (i, j) -> true, false).getColumn("id").toString());
+        Assert.assertEquals("[1, 2]", tds.join(new TestTDS("key\n-0.0"), Lists.mutable.with("val"), Lists.mutable.with("key"), (i, j) -> true, false).getColumn("id").toString());
+
+        // Left join: both zeros match -0.0, only 1.5 is kept unmatched
+        TestTDS outer = tds.join(new TestTDS("key\n-0.0"), Lists.mutable.with("val"), Lists.mutable.with("key"), (i, j) -> true, true);
+        Assert.assertEquals(3, outer.getRowCount());
+        Assert.assertEquals("[1, 2, 3]", outer.getColumn("id").toString());
+    }
+}
@@ -31,6 +31,7 @@ import java.net.URLClassLoader;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.finos.legend.pure.runtime.java.compiled.generation.orchestrator.JavaCodeGeneration.durationSinceInSeconds;
 
@@ -79,6 +80,9 @@ public class PureCompiledJarMojo extends AbstractMojo
     @Parameter(defaultValue = "false")
     private boolean preventJavaCompilation;
 
+    @Parameter(defaultValue = "1")
+    private int generationParallelism;
+
     @Override
     public void execute() throws MojoExecutionException
     {
@@ -111,10 +115,13 @@ public class PureCompiledJarMojo extends AbstractMojo
 
         ClassLoader savedClassLoader = Thread.currentThread().getContextClassLoader();
         long start = System.nanoTime();
+        ForkJoinPool forkJoinPool = null;
         try
         {
             Thread.currentThread().setContextClassLoader(buildClassLoader(this.project, savedClassLoader, log));
-            JavaCodeGeneration.doIt(repositories, excludedRepositories, extraRepositories, generationType, skip, addExternalAPI, externalAPIPackage, generateMetadata, useSingleDir, generateSources, false, preventJavaCompilation, classesDirectory, targetDirectory, log);
+            // Created after setting the context class loader, so that worker threads inherit it
+            forkJoinPool = (this.generationParallelism > 1) ? new ForkJoinPool(this.generationParallelism) : null;
+            JavaCodeGeneration.doIt(repositories, excludedRepositories, extraRepositories, generationType, skip, addExternalAPI, externalAPIPackage, generateMetadata, useSingleDir, generateSources, false, preventJavaCompilation, classesDirectory, targetDirectory, forkJoinPool, log);
         }
         catch (Exception e)
         {
@@ -124,6 +131,10 @@ public class PureCompiledJarMojo extends AbstractMojo
         }
         finally
         {
+            if (forkJoinPool != null)
+            {
+                forkJoinPool.shutdown();
+            }
             Thread.currentThread().setContextClassLoader(savedClassLoader);
         }
     }
@@ -0,0 +1,224 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.compiler;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.impl.list.fixed.ArrayAdapter;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of the classes compiled at execution time (e.g., to evaluate a value specification being reactivated),
+ * keyed by their Java source. The generated source only depends on the structure of what is compiled and on the types
+ * of its open variables (per-call values are passed as arguments to the generated method), so structurally identical
+ * requests share a single compilation. The least recently used classes are evicted once the cache is full.
+ * <p>
+ * Compiled classes are only valid for the class loader they were compiled against: requests for any other class loader
+ * are compiled without being cached.
+ */
+public class DynamicClassCache
+{
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private final ClassLoader classLoader;
+    private final Cache<String, Method> methodsBySource;
+    private final LongAdder batchCompileTime = new LongAdder();
+
+    public DynamicClassCache(ClassLoader classLoader, int maximumSize)
+    {
+        this.classLoader = classLoader;
+        this.methodsBySource = CacheBuilder.newBuilder().recordStats().maximumSize(maximumSize).build();
+    }
+
+    public DynamicClassCache(ClassLoader classLoader)
+    {
+        this(classLoader, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Get the static method of the class compiled from the given source, compiling and loading the class (in a child of
+     * the given class loader) if it is not cached.
+     */
+    public Method getIfAbsentCompileMethod(MemoryFileManager fileManager, ClassLoader classLoader, String packageName, String className, String code, String methodName, Class<?>... parameterTypes) throws PureJavaCompileException, ReflectiveOperationException
+    {
+        if ((classLoader == null) || (classLoader != this.classLoader))
+        {
+            return compileMethod(fileManager, classLoader, packageName, className, code, methodName, parameterTypes);
+        }
+        try
+        {
+            return this.methodsBySource.get(new ClassSource(packageName, className, code).getKey(), () -> compileMethod(fileManager, classLoader, packageName, className, code, methodName, parameterTypes));
+        }
+        catch (ExecutionException | UncheckedExecutionException | ExecutionError e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof PureJavaCompileException)
+            {
+                throw (PureJavaCompileException) cause;
+            }
+            if (cause instanceof ReflectiveOperationException)
+            {
+                throw (ReflectiveOperationException) cause;
+            }
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Get the static methods of the classes compiled from the given sources, compiling all the classes which are not
+     * cached in a single javac invocation, and loading them in a single class loader (child of the given one). Classes
+     * must have distinct names, unless their sources are identical.
+     */
+    public ListIterable<Method> getIfAbsentCompileMethods(MemoryFileManager fileManager, ClassLoader classLoader, ListIterable<ClassSource> sources, String methodName, Class<?>... parameterTypes) throws PureJavaCompileException, ReflectiveOperationException
+    {
+        boolean cacheable = (classLoader != null) && (classLoader == this.classLoader);
+        Method[] methods = new Method[sources.size()];
+        MutableMap<String, MutableList<Integer>> indexesToCompileByKey = Maps.mutable.empty();
+        MutableList<ClassSource> toCompile = Lists.mutable.empty();
+        sources.forEachWithIndex((source, i) ->
+        {
+            String key = source.getKey();
+            Method cached = cacheable ? this.methodsBySource.getIfPresent(key) : null;
+            if (cached != null)
+            {
+                methods[i] = cached;
+            }
+            else
+            {
+                MutableList<Integer> indexes = indexesToCompileByKey.get(key);
+                if (indexes == null)
+                {
+                    toCompile.add(source);
+                    indexesToCompileByKey.put(key, indexes = Lists.mutable.empty());
+                }
+                indexes.add(i);
+            }
+        });
+
+        if (toCompile.notEmpty())
+        {
+            long start = System.nanoTime();
+            ListIterable<Method> compiled = compileMethods(fileManager, classLoader, toCompile, methodName, parameterTypes);
+            toCompile.forEachWithIndex((source, i) ->
+            {
+                Method method = compiled.get(i);
+                indexesToCompileByKey.get(source.getKey()).forEach(index -> methods[index] = method);
+                if (cacheable)
+                {
+                    this.methodsBySource.put(source.getKey(), method);
+                }
+            });
+            this.batchCompileTime.add(System.nanoTime() - start);
+        }
+        return ArrayAdapter.adapt(methods);
+    }
+
+    public int size()
+    {
+        return (int) this.methodsBySource.size();
+    }
+
+    public void clear()
+    {
+        this.methodsBySource.invalidateAll();
+    }
+
+    public long getHitCount()
+    {
+        return getStats().hitCount();
+    }
+
+    public long getMissCount()
+    {
+        return getStats().missCount();
+    }
+
+    public long getEvictionCount()
+    {
+        return getStats().evictionCount();
+    }
+
+    /**
+     * Total time spent compiling and loading the cached classes, in nanoseconds.
+     */
+    public long getTotalCompileTime()
+    {
+        return getStats().totalLoadTime() + this.batchCompileTime.sum();
+    }
+
+    private CacheStats getStats()
+    {
+        return this.methodsBySource.stats();
+    }
+
+    private static Method compileMethod(MemoryFileManager fileManager, ClassLoader classLoader, String packageName, String className, String code, String methodName, Class<?>... parameterTypes) throws PureJavaCompileException, ReflectiveOperationException
+    {
+        return compileMethods(fileManager, classLoader, Lists.immutable.with(new ClassSource(packageName, className, code)), methodName, parameterTypes).get(0);
+    }
+
+    private static ListIterable<Method> compileMethods(MemoryFileManager fileManager, ClassLoader classLoader, ListIterable<ClassSource> sources, String methodName, Class<?>... parameterTypes) throws PureJavaCompileException, ReflectiveOperationException
+    {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        MemoryFileManager manager = new MemoryFileManager(compiler, fileManager, null);
+        PureJavaCompiler.compile(compiler, sources.collect(s -> StringJavaSource.newStringJavaSource(s.packageName, s.className, s.code)), manager);
+        MemoryClassLoader memoryClassLoader = new MemoryClassLoader(manager, classLoader);
+        MutableList<Method> methods = Lists.mutable.ofInitialCapacity(sources.size());
+        for (ClassSource source : sources)
+        {
+            methods.add(memoryClassLoader.loadClass(source.packageName + "." + source.className).getMethod(methodName, parameterTypes));
+        }
+        return methods;
+    }
+
+    public static class ClassSource
+    {
+        private final String packageName;
+        private final String className;
+        private final String code;
+
+        public ClassSource(String packageName, String className, String code)
+        {
+            this.packageName = packageName;
+            this.className = className;
+            this.code = code;
+        }
+
+        private String getKey()
+        {
+            return this.packageName + '.' + this.className + '\n' + this.code;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.finos.legend.pure.m3.serialization.runtime.SourceRegistry;
 import org.finos.legend.pure.m3.statelistener.ExecutionActivityListener;
 import org.finos.legend.pure.m3.statelistener.VoidExecutionActivityListener;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.coreinstance.SourceInformation;
 import org.finos.legend.pure.runtime.java.compiled.compiler.JavaCompilerState;
 import org.finos.legend.pure.runtime.java.compiled.compiler.MemoryFileManager;
 import org.finos.legend.pure.runtime.java.compiled.delta.MetadataProvider;
@@ -51,6 +52,8 @@ public class CompiledExecutionSupport implements ExecutionSupport
 
     private final ExecutionListeners executionListeners = new ExecutionListeners();
 
+    private final ExecutionCancellation cancellation = new ExecutionCancellation();
+
     private final CompiledProcessorSupport processorSupport;
 
     private final FunctionCache functionCache;
@@ -201,6 +204,21 @@ public class CompiledExecutionSupport implements ExecutionSupport
         return this.executionListeners;
     }
 
+    public ExecutionCancellation getCancellation()
+    {
+        return this.cancellation;
+    }
+
+    /**
+     * Safe point for cooperative cancellation: throw if the execution has been cancelled or has passed its deadline.
+     *
+     * @param sourceInformation source information for the error, may be null
+     */
+    public void checkCancelled(SourceInformation sourceInformation)
+    {
+        this.cancellation.check(sourceInformation);
+    }
+
     public MetadataProvider getMetadataProvider()
     {
         return this.metadataProvider;
@@ -0,0 +1,150 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.execution;
+
+import org.finos.legend.pure.m3.exception.PureExecutionException;
+import org.finos.legend.pure.m3.tools.MetricsRecorder;
+import org.finos.legend.pure.m4.coreinstance.SourceInformation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cooperative cancellation and deadline of one compiled execution. The execution checks it at safe points (the
+ * iterations of collection and relation loops, Pure.evaluate, result set iteration) and stops with a
+ * {@link PureExecutionException} once it has been cancelled or its deadline has passed. Until either is requested, a
+ * check is a single volatile read. The time from cancellation (or the deadline) until the
+ * execution stops is recorded by {@link MetricsRecorder}.
+ */
+public class ExecutionCancellation
+{
+    // Whether cancellation or a deadline has been requested: the fast path of check
+    private volatile boolean armed = false;
+
+    private volatile boolean cancelled = false;
+    private volatile long cancelledAtNanos;
+
+    private volatile boolean hasDeadline = false;
+    private volatile long deadlineNanos;
+
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+    private volatile long stopLatencyNanos = -1L;
+
+    /**
+     * Cancel the execution. It stops at its next safe point.
+     */
+    public synchronized void cancel()
+    {
+        if (!this.cancelled)
+        {
+            this.cancelledAtNanos = System.nanoTime();
+            this.cancelled = true;
+            this.armed = true;
+        }
+    }
+
+    public boolean isCancelled()
+    {
+        return this.cancelled;
+    }
+
+    /**
+     * Set the deadline of the execution, as a timeout from now.
+     *
+     * @param timeout timeout
+     * @param unit    timeout unit
+     */
+    public synchronized void setTimeout(long timeout, TimeUnit unit)
+    {
+        if (timeout < 0)
+        {
+            throw new IllegalArgumentException("Timeout must be non-negative: " + timeout);
+        }
+        this.deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        this.hasDeadline = true;
+        this.armed = true;
+    }
+
+    public boolean hasDeadline()
+    {
+        return this.hasDeadline;
+    }
+
+    public boolean isDeadlineExceeded()
+    {
+        return this.hasDeadline && ((System.nanoTime() - this.deadlineNanos) >= 0);
+    }
+
+    /**
+     * Get the time remaining until the deadline, for bounding blocking operations such as database queries.
+     *
+     * @param unit time unit
+     * @return time remaining (at least 0), or Long.MAX_VALUE if there is no deadline
+     */
+    public long getRemainingTime(TimeUnit unit)
+    {
+        if (!this.hasDeadline)
+        {
+            return Long.MAX_VALUE;
+        }
+        return unit.convert(Math.max(0L, this.deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Safe point: throw if the execution has been cancelled or has passed its deadline.
+     *
+     * @param sourceInformation source information for the error, may be null
+     */
+    public void check(SourceInformation sourceInformation)
+    {
+        if (!this.armed)
+        {
+            return;
+        }
+        if (this.cancelled)
+        {
+            stop(sourceInformation, "cancelled", this.cancelledAtNanos, "Execution cancelled!");
+        }
+        if (this.hasDeadline)
+        {
+            long deadline = this.deadlineNanos;
+            if ((System.nanoTime() - deadline) >= 0)
+            {
+                stop(sourceInformation, "deadline", deadline, "Execution deadline exceeded!");
+            }
+        }
+    }
+
+    /**
+     * Get the time the execution took to stop after it was cancelled or passed its deadline.
+     *
+     * @return stop latency in nanoseconds, or -1 if the execution has not been stopped
+     */
+    public long getStopLatencyNanos()
+    {
+        return this.stopLatencyNanos;
+    }
+
+    private void stop(SourceInformation sourceInformation, String reason, long requestedAtNanos, String message)
+    {
+        if (this.stopped.compareAndSet(false, true))
+        {
+            long latency = Math.max(0L, System.nanoTime() - requestedAtNanos);
+            this.stopLatencyNanos = latency;
+            MetricsRecorder.recordExecutionCancellation(reason, latency / 1_000_000_000.0);
+        }
+        throw new PureExecutionException(sourceInformation, message);
+    }
+}
@@ -59,6 +59,7 @@ import org.finos.legend.pure.runtime.java.compiled.compiler.MemoryClassLoader;
 import org.finos.legend.pure.runtime.java.compiled.compiler.PureJavaCompiler;
 import org.finos.legend.pure.runtime.java.compiled.delta.CompilerEventHandlerMetadataProvider;
 import org.finos.legend.pure.runtime.java.compiled.delta.MetadataEagerCompilerEventHandler;
+import org.finos.legend.pure.runtime.java.compiled.execution.sourceInformation.CompiledPureStackSampler;
 import org.finos.legend.pure.runtime.java.compiled.extension.CompiledExtension;
 import org.finos.legend.pure.runtime.java.compiled.extension.CompiledExtensionLoader;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.CompiledSupport;
@@ -71,12 +72,16 @@ import org.finos.legend.pure.runtime.java.compiled.serialization.GraphSerializer
 import org.finos.legend.pure.runtime.java.compiled.serialization.PreCompiledPureGraphCache;
 import org.finos.legend.pure.runtime.java.compiled.statelistener.JavaCompilerEventObserver;
 import org.finos.legend.pure.runtime.java.compiled.statelistener.VoidJavaCompilerEventObserver;
+import org.finos.legend.pure.runtime.java.shared.profiler.SamplingProfiler;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @ExecutionPlatform(name = "Java compiled")
 public class FunctionExecutionCompiled implements FunctionExecution, PureRuntimeEventHandler
@@ -101,6 +106,11 @@ public class FunctionExecutionCompiled implements FunctionExecution, PureRuntime
 
     private Metadata providedMetadata = null;
 
+    private SamplingProfiler samplingProfiler;
+
+    private final Set<ExecutionCancellation> runningExecutions = ConcurrentHashMap.newKeySet();
+    private volatile long executionTimeoutMillis = 0L;
+
     private FunctionExecutionCompiled(ExecutionActivityListener executionActivityListener, JavaCompilerEventObserver javaCompilerEventObserver, boolean includePureStackTrace, MutableList<CompiledExtension> extensions)
     {
         this.executionActivityListener = executionActivityListener;
@@ -232,6 +242,13 @@ public class FunctionExecutionCompiled implements FunctionExecution, PureRuntime
     {
         ProcessorSupport processorSupport = new M3ProcessorSupport(this.context, this.repository);
 
+        ExecutionCancellation cancellation = executionSupport.getCancellation();
+        long timeoutMillis = this.executionTimeoutMillis;
+        if (timeoutMillis > 0L)
+        {
+            cancellation.setTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        this.runningExecutions.add(cancellation);
         try
         {
             Object result = executeFunction(functionDefinition, arguments, executionSupport, this.javaCompilerEventHandler.getJavaCompiler().getClassLoader(), processorSupport);
@@ -261,6 +278,32 @@ public class FunctionExecutionCompiled implements FunctionExecution, PureRuntime
             }
             throw new RuntimeException(builder.toString(), e);
         }
+        finally
+        {
+            this.runningExecutions.remove(cancellation);
+        }
+    }
+
+    /**
+     * Cancel all running executions. Each stops with a PureExecutionException at its next safe point.
+     */
+    public void cancelExecution()
+    {
+        this.runningExecutions.forEach(ExecutionCancellation::cancel);
+    }
+
+    /**
+     * Set the deadline of subsequent executions, as a timeout from their start.
+     *
+     * @param timeoutMillis timeout in milliseconds, or 0 for no timeout
+     */
+    public void setExecutionTimeout(long timeoutMillis)
+    {
+        if (timeoutMillis < 0L)
+        {
+            throw new IllegalArgumentException("Timeout must be non-negative: " + timeoutMillis);
+        }
+        this.executionTimeoutMillis = timeoutMillis;
     }
 
     private static CoreInstance convertResult(Object result, ClassLoader classLoader, Metadata metadata, MutableSet<String> extraSupportedTypes)
@@ -450,6 +493,38 @@ public class FunctionExecutionCompiled implements FunctionExecution, PureRuntime
         // -----------------------------------------------
     }
 
+    /**
+     * Start sampling the Pure functions executed by the given thread.
+     *
+     * @param thread         thread to profile
+     * @param intervalMillis sampling interval in milliseconds
+     */
+    public synchronized void startSamplingProfiler(Thread thread, long intervalMillis)
+    {
+        if (this.samplingProfiler != null)
+        {
+            throw new IllegalStateException("Sampling profiler already started");
+        }
+        this.samplingProfiler = new SamplingProfiler(thread, new CompiledPureStackSampler(), intervalMillis);
+        this.samplingProfiler.start();
+    }
+
+    /**
+     * Stop the sampling profiler, if started, and return it with the samples collected.
+     *
+     * @return stopped profiler, or null if it was not started
+     */
+    public synchronized SamplingProfiler stopSamplingProfiler()
+    {
+        SamplingProfiler profiler = this.samplingProfiler;
+        if (profiler != null)
+        {
+            profiler.stop();
+            this.samplingProfiler = null;
+        }
+        return profiler;
+    }
+
     @Override
     public void resetEventHandlers()
     {
@@ -0,0 +1,61 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.execution.sourceInformation;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.finos.legend.pure.runtime.java.compiled.generation.JavaPackageAndImportBuilder;
+import org.finos.legend.pure.runtime.java.shared.profiler.PureStackSampler;
+
+/**
+ * Samples the Pure functions executing on a thread from its Java stack. Each Pure function is generated as a static
+ * method of the class for its source (see {@link org.finos.legend.pure.runtime.java.compiled.generation.processors.IdBuilder#sourceToId}),
+ * named after the function's system path (see {@link org.finos.legend.pure.runtime.java.compiled.generation.processors.FunctionProcessor#functionNameToJava}).
+ * Frames of such methods are reported by that name; all other frames are skipped.
+ */
+public class CompiledPureStackSampler implements PureStackSampler
+{
+    private static final String FUNCTION_PREFIX = "Root_";
+
+    private final String generatedClassPrefix = JavaPackageAndImportBuilder.rootPackage() + ".";
+
+    @Override
+    public ListIterable<String> sample(Thread thread)
+    {
+        return sample(thread.getStackTrace());
+    }
+
+    ListIterable<String> sample(StackTraceElement[] stackTrace)
+    {
+        MutableList<String> names = Lists.mutable.empty();
+        // The stack trace is innermost first
+        for (int i = stackTrace.length - 1; i >= 0; i--)
+        {
+            String name = getFunctionName(stackTrace[i]);
+            if (name != null)
+            {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private String getFunctionName(StackTraceElement element)
+    {
+        String methodName = element.getMethodName();
+        return (methodName.startsWith(FUNCTION_PREFIX) && element.getClassName().startsWith(this.generatedClassPrefix)) ? methodName : null;
+    }
+}
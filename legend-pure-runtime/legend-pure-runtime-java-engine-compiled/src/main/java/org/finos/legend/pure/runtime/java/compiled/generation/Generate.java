@@ -26,6 +26,7 @@ import org.eclipse.collections.impl.Counter;
 import org.eclipse.collections.impl.map.ordered.mutable.OrderedMapAdapter;
 import org.finos.legend.pure.m3.serialization.runtime.Message;
 import org.finos.legend.pure.m3.serialization.runtime.Source;
+import org.finos.legend.pure.m3.tools.forkjoin.ForkJoinTools;
 import org.finos.legend.pure.runtime.java.compiled.compiler.StringJavaSource;
 import org.finos.legend.pure.runtime.java.compiled.generation.orchestrator.Log;
 import org.finos.legend.pure.runtime.java.compiled.generation.orchestrator.VoidLog;
@@ -35,19 +36,33 @@ import org.finos.legend.pure.runtime.java.compiled.statelistener.VoidJavaCompile
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.SortedMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 public class Generate
 {
+    private static final int GENERATE_SOURCES_THRESHOLD = 4;
+
     private final Message message;
     private final JavaCompilerEventObserver observer;
+    private final ForkJoinPool forkJoinPool;
     private final MutableOrderedMap<String, ImmutableList<StringJavaSource>> javaSourcesByGroup = OrderedMapAdapter.adapt(new LinkedHashMap<>());
     private ImmutableList<StringJavaSource> externalizableSources = Lists.immutable.empty();
 
-    public Generate(Message message, JavaCompilerEventObserver observer)
+    /**
+     * If forkJoinPool is not null, the Java sources for the Pure sources of a compile group are generated in parallel
+     * in it. The generated sources are the same, and in the same order, as when generating serially.
+     */
+    public Generate(Message message, JavaCompilerEventObserver observer, ForkJoinPool forkJoinPool)
     {
         this.message = message;
         this.observer = (observer == null) ? VoidJavaCompilerEventObserver.VOID_JAVA_COMPILER_EVENT_OBSERVER : observer;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    public Generate(Message message, JavaCompilerEventObserver observer)
+    {
+        this(message, observer, null);
     }
 
     public Generate(Message message)
@@ -78,20 +93,39 @@ public class Generate
         javaSources.addAll(extras);
         sourceCounter.add(extras.size());
 
-        sources.forEach(source ->
+        Function<Source, ListIterable<StringJavaSource>> generateCode = source ->
         {
-            javaSources.addAllIterable(javaSourceCodeGenerator.generateCode(source, null));
-            sourceCounter.increment();
-            if (this.message != null)
+            ListIterable<StringJavaSource> sourceJavaSources = javaSourceCodeGenerator.generateCode(source, null);
+            synchronized (sourceCounter)
             {
-                this.message.setMessage("Generating Java sources (" + sourceCounter.getCount() + "/" + totalSourceCount + ")");
+                sourceCounter.increment();
+                if (this.message != null)
+                {
+                    this.message.setMessage("Generating Java sources (" + sourceCounter.getCount() + "/" + totalSourceCount + ")");
+                }
             }
-        });
+            return sourceJavaSources;
+        };
+        if (shouldParallelize(sources.size()))
+        {
+            // Each source is generated with its own ProcessorContext; results are collected in source order
+            ListIterable<ListIterable<StringJavaSource>> results = ForkJoinTools.collect(this.forkJoinPool, Lists.mutable.<Source>withAll(sources), generateCode, GENERATE_SOURCES_THRESHOLD);
+            results.forEach(javaSources::addAllIterable);
+        }
+        else
+        {
+            sources.forEach(source -> javaSources.addAllIterable(generateCode.apply(source)));
+        }
         this.observer.endGeneratingJavaFiles(compileGroup, javaSources);
 
         return javaSources;
     }
 
+    private boolean shouldParallelize(int size)
+    {
+        return (this.forkJoinPool != null) && (size > GENERATE_SOURCES_THRESHOLD);
+    }
+
     void generateJavaCodeForSources(SortedMap<String, ? extends RichIterable<? extends Source>> compiledSourcesByRepo, Function<? super String, ? extends JavaSourceCodeGenerator> sourceCodeGeneratorFn, Log log)
     {
         if (this.message != null)
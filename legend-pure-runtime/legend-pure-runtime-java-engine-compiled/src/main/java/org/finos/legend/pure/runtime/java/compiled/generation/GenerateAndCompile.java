@@ -27,6 +27,7 @@ import org.finos.legend.pure.runtime.java.compiled.generation.orchestrator.VoidL
 import org.finos.legend.pure.runtime.java.compiled.statelistener.JavaCompilerEventObserver;
 
 import java.util.SortedMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 /**
@@ -39,14 +40,22 @@ public class GenerateAndCompile
     private final Generate generate;
     private final Compile compile;
 
-    public GenerateAndCompile(Message message, JavaCompilerEventObserver observer)
+    /**
+     * If forkJoinPool is not null, Java sources are generated in parallel in it (see {@link Generate}).
+     */
+    public GenerateAndCompile(Message message, JavaCompilerEventObserver observer, ForkJoinPool forkJoinPool)
     {
         this.message = message;
         this.pureJavaCompiler = new PureJavaCompiler(this.message);
-        this.generate = new Generate(message, observer);
+        this.generate = new Generate(message, observer, forkJoinPool);
         this.compile = new Compile(this.pureJavaCompiler, observer);
     }
 
+    public GenerateAndCompile(Message message, JavaCompilerEventObserver observer)
+    {
+        this(message, observer, null);
+    }
+
     public GenerateAndCompile(Message message)
     {
         this(message, null);
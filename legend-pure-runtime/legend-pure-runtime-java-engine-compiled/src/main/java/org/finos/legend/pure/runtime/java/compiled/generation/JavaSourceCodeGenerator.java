@@ -145,10 +145,11 @@ public final class JavaSourceCodeGenerator
     private final String externalAPIPackage;
 
     private final boolean includePureStackTrace;
-    private final MutableSet<CoreInstance> processedClasses = Sets.mutable.empty();
-    private final MutableSet<CoreInstance> platformEnumerations = Sets.mutable.empty();
-    private final MutableSet<CoreInstance> processedMeasures = Sets.mutable.empty();
-    private final MutableSet<CoreInstance> processedUnits = Sets.mutable.empty();
+    // Updated while generating code for sources, which may be done concurrently (see Generate)
+    private final MutableSet<CoreInstance> processedClasses = Sets.mutable.<CoreInstance>empty().asSynchronized();
+    private final MutableSet<CoreInstance> platformEnumerations = Sets.mutable.<CoreInstance>empty().asSynchronized();
+    private final MutableSet<CoreInstance> processedMeasures = Sets.mutable.<CoreInstance>empty().asSynchronized();
+    private final MutableSet<CoreInstance> processedUnits = Sets.mutable.<CoreInstance>empty().asSynchronized();
     private final MutableSet<CoreInstance> javaSerializedClasses = Sets.mutable.empty();
     private final ListIterable<CompiledExtension> extensions;
 
@@ -43,6 +43,7 @@ import java.nio.file.Path;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import java.util.jar.JarOutputStream;
 
@@ -54,14 +55,16 @@ public class JavaStandaloneLibraryGenerator
     private final boolean addExternalAPI;
     private final String externalAPIPackage;
     private final Log log;
+    private final ForkJoinPool forkJoinPool;
 
-    private JavaStandaloneLibraryGenerator(PureRuntime runtime, Iterable<? extends CompiledExtension> extensions, boolean addExternalAPI, String externalAPIPackage, Log log)
+    private JavaStandaloneLibraryGenerator(PureRuntime runtime, Iterable<? extends CompiledExtension> extensions, boolean addExternalAPI, String externalAPIPackage, Log log, ForkJoinPool forkJoinPool)
     {
         this.runtime = runtime;
         this.extensions = extensions;
         this.addExternalAPI = addExternalAPI;
         this.externalAPIPackage = externalAPIPackage;
         this.log = log;
+        this.forkJoinPool = forkJoinPool;
     }
 
     public PureJavaCompiler compile(String repo, boolean writeJavaSourcesToDisk, Path pathToWriteTo) throws PureJavaCompileException
@@ -179,7 +182,7 @@ public class JavaStandaloneLibraryGenerator
                     log.info("  " + message);
                 }
             }
-        });
+        }, null, this.forkJoinPool);
 
         if (modularMetadataIds)
         {
@@ -221,7 +224,7 @@ public class JavaStandaloneLibraryGenerator
                     log.info("  " + message);
                 }
             }
-        });
+        }, null, this.forkJoinPool);
 
         if (modularMetadataIds)
         {
@@ -314,7 +317,12 @@ public class JavaStandaloneLibraryGenerator
 
     public static JavaStandaloneLibraryGenerator newGenerator(PureRuntime runtime, Iterable<? extends CompiledExtension> extensions, boolean addExternalAPI, String externalAPIPackage, Log log)
     {
-        return new JavaStandaloneLibraryGenerator(runtime, extensions, addExternalAPI, externalAPIPackage, log);
+        return newGenerator(runtime, extensions, addExternalAPI, externalAPIPackage, log, null);
+    }
+
+    public static JavaStandaloneLibraryGenerator newGenerator(PureRuntime runtime, Iterable<? extends CompiledExtension> extensions, boolean addExternalAPI, String externalAPIPackage, Log log, ForkJoinPool forkJoinPool)
+    {
+        return new JavaStandaloneLibraryGenerator(runtime, extensions, addExternalAPI, externalAPIPackage, log, forkJoinPool);
     }
 
     public static PureJavaCompiler compileOnly(MapIterable<? extends String, ? extends Iterable<? extends StringJavaSource>> javaSources, ListIterable<? extends StringJavaSource> externalizableSources, boolean addExternalAPI, Log log) throws PureJavaCompileException
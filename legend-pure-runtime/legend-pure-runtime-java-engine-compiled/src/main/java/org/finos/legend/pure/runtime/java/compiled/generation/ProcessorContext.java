@@ -25,10 +25,13 @@ import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.map.primitive.IntObjectMap;
 import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
 import org.eclipse.collections.api.multimap.list.MutableListMultimap;
 import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.block.factory.HashingStrategies;
 import org.eclipse.collections.impl.factory.Multimaps;
 import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMapWithHashingStrategy;
 import org.finos.legend.pure.m3.bootstrap.generator.M3ToJavaGenerator;
 import org.finos.legend.pure.m3.generator.bootstrap.M3CoreInstanceGenerator;
 import org.finos.legend.pure.m3.navigation.ProcessorSupport;
@@ -38,6 +41,7 @@ import org.finos.legend.pure.runtime.java.compiled.extension.CompiledExtension;
 import org.finos.legend.pure.runtime.java.compiled.extension.CompiledExtensionLoader;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.IdBuilder;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.NativeFunctionProcessor;
+import org.finos.legend.pure.runtime.java.compiled.generation.processors.RecursiveFunctions;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.natives.Native;
 
 import java.util.Objects;
@@ -52,6 +56,7 @@ public class ProcessorContext
     private final MutableListMultimap<String, String> functionDefinitionsBySource = Multimaps.mutable.list.empty();
     private final MutableMap<String, MutableMap<String, String>> nativeLambdaFunctionsByNameBySource = Maps.mutable.empty();
     private final MutableIntObjectMap<CoreInstance> localLambdas = IntObjectMaps.mutable.empty();
+    private final MutableObjectIntMap<CoreInstance> localLambdaIds = ObjectIntHashMapWithHashingStrategy.newMap(HashingStrategies.identityStrategy());
     private final ProcessorSupport support;
     private final NativeFunctionProcessor nativeFunctionProcessor;
 
@@ -61,6 +66,7 @@ public class ProcessorContext
     private String classImplSuffix;
     private final M3ToJavaGenerator generator;
     private final IdBuilder idBuilder;
+    private RecursiveFunctions recursiveFunctions;
 
     private int id = 0;
     private final MutableMap<String, Object> objects = Maps.mutable.empty();
@@ -111,6 +117,15 @@ public class ProcessorContext
         return this.nativeFunctionProcessor;
     }
 
+    public RecursiveFunctions getRecursiveFunctions()
+    {
+        if (this.recursiveFunctions == null)
+        {
+            this.recursiveFunctions = new RecursiveFunctions(this.support);
+        }
+        return this.recursiveFunctions;
+    }
+
     public ListIterable<Function3<CoreInstance, CoreInstance, ProcessorContext, String>> getExtraFunctionGenerator()
     {
         return extraFunctionGenerator;
@@ -219,6 +234,22 @@ public class ProcessorContext
     public void registerLocalLambdas(int id, CoreInstance function)
     {
         this.localLambdas.put(id, function);
+        this.localLambdaIds.put(function, id);
+    }
+
+    /**
+     * Register a lambda to pass to dynamically generated code, returning its id. Ids are given in order of registration
+     * (rather than derived from the identity of the lambda), so that the code generated for structurally identical
+     * value specifications is identical.
+     */
+    public int registerLocalLambda(CoreInstance function)
+    {
+        return this.localLambdaIds.getIfAbsentPut(function, () ->
+        {
+            int id = this.localLambdas.size();
+            this.localLambdas.put(id, function);
+            return id;
+        });
     }
 
     public IntObjectMap<CoreInstance> getLocalLambdas()
@@ -46,6 +46,7 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 public class JavaCodeGeneration
 {
@@ -113,6 +114,29 @@ public class JavaCodeGeneration
                             File classesDirectory,
                             File targetDirectory,
                             Log log)
+    {
+        doIt(repositories, excludedRepositories, extraRepositories, generationType, skip, addExternalAPI, externalAPIPackage, generateMetadata, useSingleDir, generateSources, generateTest, preventJavaCompilation, classesDirectory, targetDirectory, null, log);
+    }
+
+    /**
+     * If forkJoinPool is not null, Java sources are generated in parallel in it.
+     */
+    public static void doIt(Set<String> repositories,
+                            Set<String> excludedRepositories,
+                            Set<String> extraRepositories,
+                            JavaCodeGeneration.GenerationType generationType,
+                            boolean skip,
+                            boolean addExternalAPI,
+                            String externalAPIPackage,
+                            boolean generateMetadata,
+                            boolean useSingleDir,
+                            boolean generateSources,
+                            boolean generateTest,
+                            boolean preventJavaCompilation,
+                            File classesDirectory,
+                            File targetDirectory,
+                            ForkJoinPool forkJoinPool,
+                            Log log)
     {
         // DO NOT DELETE - Needed to avoid circular calls later during static initialization
         SetIterable<String> res = JavaPackageAndImportBuilder.M3_CLASSES;
@@ -131,6 +155,7 @@ public class JavaCodeGeneration
         log.info("  Extra repositories: " + extraRepositories);
         log.info("  Generation type: " + generationType);
         log.info("  Generate External API: '" + addExternalAPI + "' in package '" + externalAPIPackage + "'");
+        log.info("  Java source generation parallelism: " + ((forkJoinPool == null) ? 1 : forkJoinPool.getParallelism()));
 
         try
         {
@@ -172,7 +197,7 @@ public class JavaCodeGeneration
             }
 
             // Generate metadata and Java sources
-            Generate generate = generate(System.nanoTime(), allRepositories, selectedRepositories, distributedMetadataDirectory, codegenDirectory, generateMetadata, addExternalAPI, externalAPIPackage, generationType, generateSources, log);
+            Generate generate = generate(System.nanoTime(), allRepositories, selectedRepositories, distributedMetadataDirectory, codegenDirectory, generateMetadata, addExternalAPI, externalAPIPackage, generationType, generateSources, forkJoinPool, log);
 
             // Compile Java sources
             if (!preventJavaCompilation)
@@ -271,7 +296,7 @@ public class JavaCodeGeneration
         return selected;
     }
 
-    private static Generate generate(long start, CodeRepositorySet allRepositories, SetIterable<String> selectedRepositories, Path distributedMetadataDirectory, Path codegenDirectory, boolean generateMetadata, boolean addExternalAPI, String externalAPIPackage, GenerationType generationType, boolean generateSources, Log log)
+    private static Generate generate(long start, CodeRepositorySet allRepositories, SetIterable<String> selectedRepositories, Path distributedMetadataDirectory, Path codegenDirectory, boolean generateMetadata, boolean addExternalAPI, String externalAPIPackage, GenerationType generationType, boolean generateSources, ForkJoinPool forkJoinPool, Log log)
     {
         // Initialize runtime
         PureRuntime runtime = initializeRuntime(start, allRepositories, selectedRepositories, log);
@@ -304,7 +329,7 @@ public class JavaCodeGeneration
         Generate generate;
         try
         {
-            JavaStandaloneLibraryGenerator generator = JavaStandaloneLibraryGenerator.newGenerator(runtime, CompiledExtensionLoader.extensions(), addExternalAPI, externalAPIPackage, log);
+            JavaStandaloneLibraryGenerator generator = JavaStandaloneLibraryGenerator.newGenerator(runtime, CompiledExtensionLoader.extensions(), addExternalAPI, externalAPIPackage, log, forkJoinPool);
             switch (generationType)
             {
                 case monolithic:
@@ -46,6 +46,8 @@ public class FunctionProcessor
 
         String func = "public static " + (typeParams.isEmpty() ? "" : "<" + typeParams + "> ") + functionSignature(functionDefinition, false, true, false, "", processorContext, true) + "\n" +
                 "{\n" +
+                // Safe point for cooperative cancellation of recursions, which may run long without any loop
+                (processorContext.getRecursiveFunctions().isRecursive(functionDefinition) ? "CompiledSupport.checkCancelled(es);\n" : "") +
                 processFunctionDefinitionContent(functionDefinition, functionDefinition, true, processorContext, processorSupport) + "\n" +
                 "}";
 
@@ -0,0 +1,149 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.generation.processors;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectBooleanMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.factory.primitive.ObjectBooleanMaps;
+import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
+import org.finos.legend.pure.m3.navigation.Instance;
+import org.finos.legend.pure.m3.navigation.M3Paths;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+
+/**
+ * Finds the concrete function definitions which may call themselves, directly or through other function definitions
+ * (that is, those in a cycle of the call graph). The calls made from the lambdas in the body of a function, and the
+ * function definitions it passes as values, count as calls of that function. Results are kept, so that the call graph
+ * is only explored once.
+ */
+public class RecursiveFunctions
+{
+    private final ProcessorSupport processorSupport;
+    private final MutableObjectBooleanMap<CoreInstance> recursive = ObjectBooleanMaps.mutable.empty();
+
+    public RecursiveFunctions(ProcessorSupport processorSupport)
+    {
+        this.processorSupport = processorSupport;
+    }
+
+    public boolean isRecursive(CoreInstance functionDefinition)
+    {
+        if (!this.recursive.containsKey(functionDefinition))
+        {
+            new StronglyConnectedComponents().visit(functionDefinition);
+        }
+        return this.recursive.get(functionDefinition);
+    }
+
+    private MutableSet<CoreInstance> getCalledFunctions(CoreInstance functionDefinition)
+    {
+        MutableSet<CoreInstance> called = Sets.mutable.empty();
+        functionDefinition.getValueForMetaPropertyToMany(M3Properties.expressionSequence).forEach(expression -> collectCalledFunctions(expression, called));
+        return called;
+    }
+
+    private void collectCalledFunctions(CoreInstance value, MutableSet<CoreInstance> called)
+    {
+        if (Instance.instanceOf(value, M3Paths.ConcreteFunctionDefinition, this.processorSupport))
+        {
+            called.add(value);
+        }
+        else if (Instance.instanceOf(value, M3Paths.LambdaFunction, this.processorSupport))
+        {
+            value.getValueForMetaPropertyToMany(M3Properties.expressionSequence).forEach(expression -> collectCalledFunctions(expression, called));
+        }
+        else if (Instance.instanceOf(value, M3Paths.FunctionExpression, this.processorSupport))
+        {
+            CoreInstance function = Instance.getValueForMetaPropertyToOneResolved(value, M3Properties.func, this.processorSupport);
+            if (function != null)
+            {
+                collectCalledFunctions(function, called);
+            }
+            value.getValueForMetaPropertyToMany(M3Properties.parametersValues).forEach(parameter -> collectCalledFunctions(parameter, called));
+        }
+        else if (Instance.instanceOf(value, M3Paths.InstanceValue, this.processorSupport))
+        {
+            Instance.getValueForMetaPropertyToManyResolved(value, M3Properties.values, this.processorSupport).forEach(v -> collectCalledFunctions(v, called));
+        }
+        else if (Instance.instanceOf(value, M3Paths.KeyExpression, this.processorSupport))
+        {
+            CoreInstance expression = value.getValueForMetaPropertyToOne(M3Properties.expression);
+            if (expression != null)
+            {
+                collectCalledFunctions(expression, called);
+            }
+        }
+    }
+
+    // Tarjan's algorithm, from the functions whose recursion is not known yet: functions already known are in
+    // components found before, which cannot be part of a cycle with the functions not visited yet
+    private class StronglyConnectedComponents
+    {
+        private final MutableObjectIntMap<CoreInstance> indexes = ObjectIntMaps.mutable.empty();
+        private final MutableObjectIntMap<CoreInstance> lowLinks = ObjectIntMaps.mutable.empty();
+        private final MutableMap<CoreInstance, MutableSet<CoreInstance>> calledFunctions = Maps.mutable.empty();
+        private final MutableList<CoreInstance> stack = Lists.mutable.empty();
+        private final MutableSet<CoreInstance> onStack = Sets.mutable.empty();
+
+        private void visit(CoreInstance function)
+        {
+            int index = this.indexes.size();
+            this.indexes.put(function, index);
+            this.lowLinks.put(function, index);
+            this.stack.add(function);
+            this.onStack.add(function);
+
+            MutableSet<CoreInstance> called = this.calledFunctions.getIfAbsentPutWith(function, RecursiveFunctions.this::getCalledFunctions, function);
+            for (CoreInstance calledFunction : called)
+            {
+                if (RecursiveFunctions.this.recursive.containsKey(calledFunction))
+                {
+                    continue;
+                }
+                if (!this.indexes.containsKey(calledFunction))
+                {
+                    visit(calledFunction);
+                    this.lowLinks.put(function, Math.min(this.lowLinks.get(function), this.lowLinks.get(calledFunction)));
+                }
+                else if (this.onStack.contains(calledFunction))
+                {
+                    this.lowLinks.put(function, Math.min(this.lowLinks.get(function), this.indexes.get(calledFunction)));
+                }
+            }
+
+            if (this.lowLinks.get(function) == index)
+            {
+                // function is the root of a component: pop it
+                int start = this.stack.lastIndexOf(function);
+                MutableList<CoreInstance> component = this.stack.subList(start, this.stack.size());
+                boolean isRecursive = (component.size() > 1) || called.contains(function);
+                component.forEach(f ->
+                {
+                    this.onStack.remove(f);
+                    RecursiveFunctions.this.recursive.put(f, isRecursive);
+                });
+                component.clear();
+            }
+        }
+    }
+}
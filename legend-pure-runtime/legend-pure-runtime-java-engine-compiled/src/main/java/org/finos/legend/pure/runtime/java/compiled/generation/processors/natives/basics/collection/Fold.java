@@ -69,7 +69,7 @@ public class Fold extends AbstractNativeFunctionGeneric
         }
         CoreInstance sourceTypeO2GenericType = functionParams.get(1).getValueForMetaPropertyToOne(M3Properties.genericType);
         String functionParamTypeO2 = GenericType.isGenericTypeConcrete(sourceTypeO2GenericType, processorSupport) && "Nil".equals(sourceTypeO2GenericType.getValueForMetaPropertyToOne(M3Properties.rawType).getName()) ? functionReturnTypeWithMul : sourceTypeO2;
-        return "CompiledSupport.fold(" + list + "," + "new DefendedFunction2<" + functionParamTypeO2 + "," + sourceTypeO1 + "," + functionReturnTypeWithMul + ">(){public " + functionReturnTypeWithMul + " value(final " + functionParamTypeO2 + " _" + param2 + ", final " + sourceTypeO1 + " _" + param + "){" + FunctionProcessor.processFunctionDefinitionContent(topLevelElement, Instance.getValueForMetaPropertyToOneResolved(parametersValues.get(1), M3Properties.values, processorSupport), true, processorContext, processorSupport) + "}}" + "," + init + ")";
+        return "CompiledSupport.fold(" + list + "," + "new DefendedFunction2<" + functionParamTypeO2 + "," + sourceTypeO1 + "," + functionReturnTypeWithMul + ">(){public " + functionReturnTypeWithMul + " value(final " + functionParamTypeO2 + " _" + param2 + ", final " + sourceTypeO1 + " _" + param + "){CompiledSupport.checkCancelled(es);" + FunctionProcessor.processFunctionDefinitionContent(topLevelElement, Instance.getValueForMetaPropertyToOneResolved(parametersValues.get(1), M3Properties.values, processorSupport), true, processorContext, processorSupport) + "}}" + "," + init + ")";
     }
 
     @Override
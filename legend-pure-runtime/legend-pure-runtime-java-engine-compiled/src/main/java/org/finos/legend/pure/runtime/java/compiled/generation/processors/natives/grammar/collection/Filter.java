@@ -51,11 +51,11 @@ public class Filter extends AbstractNative implements Native
         if (isLambdaFunction)
         {
             String paramName = Instance.getValueForMetaPropertyToOneResolved(Instance.getValueForMetaPropertyToManyResolved(Instance.getValueForMetaPropertyToOneResolved(parametersValues.get(1), M3Properties.genericType, M3Properties.typeArguments, M3Properties.rawType, processorSupport), M3Properties.parameters, processorSupport).get(0), M3Properties.name, processorSupport).getName();
-            return "CompiledSupport.toPureCollection(" + list + ").select(new DefendedPredicate<" + paramTypeObject + ">(){public boolean accept(final " + paramTypeObject + " _" + paramName + "){" + FunctionProcessor.processFunctionDefinitionContent(topLevelElement, Instance.getValueForMetaPropertyToOneResolved(parametersValues.get(1), M3Properties.values, processorSupport), true, processorContext, processorSupport) + "}})";
+            return "CompiledSupport.toPureCollection(" + list + ").select(new DefendedPredicate<" + paramTypeObject + ">(){public boolean accept(final " + paramTypeObject + " _" + paramName + "){CompiledSupport.checkCancelled(es);" + FunctionProcessor.processFunctionDefinitionContent(topLevelElement, Instance.getValueForMetaPropertyToOneResolved(parametersValues.get(1), M3Properties.values, processorSupport), true, processorContext, processorSupport) + "}})";
         }
         else
         {
-            return "CompiledSupport.toPureCollection(" + list + ").select(new DefendedPredicate<" + paramTypeObject + ">(){private final PureFunction1<" + paramTypeObject + ",Boolean> func=(PureFunction1<" + paramTypeObject + ",Boolean>)CoreGen.getSharedPureFunction(" + transformedParams.get(1) + ",es); public boolean accept(final " + paramTypeObject + " _var){return func.value(_var,es);}})";
+            return "CompiledSupport.toPureCollection(" + list + ").select(new DefendedPredicate<" + paramTypeObject + ">(){private final PureFunction1<" + paramTypeObject + ",Boolean> func=(PureFunction1<" + paramTypeObject + ",Boolean>)CoreGen.getSharedPureFunction(" + transformedParams.get(1) + ",es); public boolean accept(final " + paramTypeObject + " _var){CompiledSupport.checkCancelled(es);return func.value(_var,es);}})";
         }
     }
 
@@ -68,7 +68,7 @@ public class Filter extends AbstractNative implements Native
                 "            public Object value(Object p1, Object p2, final ExecutionSupport es)\n" +
                 "            {\n" +
                 "                final " + FullJavaPaths.Function + " func = p2 instanceof java.util.List?(" + FullJavaPaths.Function + ")((java.util.List)p2).get(0):(" + FullJavaPaths.Function + ")p2;" +
-                "                return CompiledSupport.toPureCollection(p1).select(new DefendedPredicate<Object>(){PureFunction1<Object,Boolean> funcC=(PureFunction1<Object,Boolean>)CoreGen.getSharedPureFunction(func, es); public boolean accept(final Object _var){return funcC.value(_var, es);}});\n" +
+                "                return CompiledSupport.toPureCollection(p1).select(new DefendedPredicate<Object>(){PureFunction1<Object,Boolean> funcC=(PureFunction1<Object,Boolean>)CoreGen.getSharedPureFunction(func, es); public boolean accept(final Object _var){CompiledSupport.checkCancelled(es);return funcC.value(_var, es);}});\n" +
                 "            }\n" +
                 "        }";
     }
@@ -19,14 +19,11 @@ import org.eclipse.collections.api.LazyIterable;
 import org.eclipse.collections.api.RichIterable;
 import org.eclipse.collections.api.block.function.Function2;
 import org.eclipse.collections.api.factory.Lists;
-import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
-import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.map.primitive.IntObjectMap;
-import org.eclipse.collections.api.tuple.Pair;
 import org.eclipse.collections.impl.list.fixed.ArrayAdapter;
 import org.eclipse.collections.impl.utility.Iterate;
 import org.eclipse.collections.impl.utility.LazyIterate;
@@ -52,11 +49,8 @@ import org.finos.legend.pure.m4.coreinstance.SourceInformation;
 import org.finos.legend.pure.m4.coreinstance.compileState.CompileState;
 import org.finos.legend.pure.m4.coreinstance.primitive.date.PureDate;
 import org.finos.legend.pure.m4.exception.PureException;
-import org.finos.legend.pure.runtime.java.compiled.compiler.MemoryClassLoader;
+import org.finos.legend.pure.runtime.java.compiled.compiler.DynamicClassCache;
 import org.finos.legend.pure.runtime.java.compiled.compiler.MemoryFileManager;
-import org.finos.legend.pure.runtime.java.compiled.compiler.PureJavaCompileException;
-import org.finos.legend.pure.runtime.java.compiled.compiler.PureJavaCompiler;
-import org.finos.legend.pure.runtime.java.compiled.compiler.StringJavaSource;
 import org.finos.legend.pure.runtime.java.compiled.execution.CompiledExecutionSupport;
 import org.finos.legend.pure.runtime.java.compiled.execution.CompiledProcessorSupport;
 import org.finos.legend.pure.runtime.java.compiled.execution.ConsoleCompiled;
@@ -68,20 +62,20 @@ import org.finos.legend.pure.runtime.java.compiled.generation.processors.Functio
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.IdBuilder;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.coreinstance.JavaCompiledCoreInstance;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.coreinstance.ReflectiveCoreInstance;
-import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.coreinstance.ValCoreInstance;
+import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.function.PureFunction1;
+import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.function.PureFunction2;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.function.SharedPureFunction;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.map.PureMap;
-import org.finos.legend.pure.runtime.java.compiled.generation.processors.type.TypeProcessor;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.type._class.ClassProcessor;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.valuespecification.ValueSpecificationProcessor;
 import org.finos.legend.pure.runtime.java.compiled.metadata.JavaMethodWithParamsSharedPureFunction;
 import org.finos.legend.pure.runtime.java.compiled.metadata.MetadataAccessor;
+import org.finos.legend.pure.runtime.java.shared.math.BulkArithmetic;
+import org.finos.legend.pure.runtime.java.shared.sort.KeySort;
 import org.json.simple.JSONValue;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
-import javax.tools.JavaCompiler;
-import javax.tools.ToolProvider;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -647,9 +641,27 @@ public class CompiledSupport
         return result;
     }
 
+    /**
+     * Safe point for cooperative cancellation: throw if the execution has been cancelled or has passed its deadline
+     * (see {@link CompiledExecutionSupport#checkCancelled}).
+     *
+     * @param executionSupport execution support
+     */
+    public static void checkCancelled(ExecutionSupport executionSupport)
+    {
+        if (executionSupport instanceof CompiledExecutionSupport)
+        {
+            ((CompiledExecutionSupport) executionSupport).checkCancelled(null);
+        }
+    }
+
     public static <T, V> RichIterable<? extends T> mapToManyOverMany(RichIterable<? extends V> collection, BiFunction<? super V, ExecutionSupport, ? extends Iterable<? extends T>> function, ExecutionSupport executionSupport)
     {
-        return (collection == null) ? Lists.mutable.empty() : collection.flatCollect(e -> (Iterable<? extends T>) function.apply(e, executionSupport));
+        return (collection == null) ? Lists.mutable.empty() : collection.flatCollect(e ->
+        {
+            checkCancelled(executionSupport);
+            return (Iterable<? extends T>) function.apply(e, executionSupport);
+        });
     }
 
     public static <T, V> RichIterable<? extends T> mapToOneOverMany(RichIterable<? extends V> collection, BiFunction<? super V, ExecutionSupport, T> function, ExecutionSupport executionSupport)
@@ -667,6 +679,7 @@ public class CompiledSupport
         MutableList<T> result = Lists.mutable.ofInitialCapacity(collection.size());
         collection.forEach(e ->
         {
+            checkCancelled(executionSupport);
             T value = function.apply(e, executionSupport);
             if (value != null)
             {
@@ -834,6 +847,7 @@ public class CompiledSupport
      * @param <T>        collection element type
      * @return sorted collection
      */
+    @SuppressWarnings("unchecked")
     public static <T> RichIterable<T> toSorted(RichIterable<T> collection, SharedPureFunction<?> keyFn, SharedPureFunction<? extends Number> comp, ExecutionSupport es)
     {
         if (collection == null)
@@ -841,47 +855,36 @@ public class CompiledSupport
             return Lists.immutable.empty();
         }
 
-        if (keyFn == null)
+        ListIterable<T> list = (collection instanceof ListIterable) ? (ListIterable<T>) collection : collection.toList();
+        if (list.size() < 2)
         {
-            Comparator<T> comparator = (comp == null) ?
-                    CompiledSupport::compareInt :
-                    (left, right) -> comp.execute(Lists.immutable.with(left, right), es).intValue();
-            return collection.toSortedList(comparator);
+            // Nothing to compare, so neither the key function nor the comparison is called
+            return Lists.mutable.withAll(list);
         }
 
-        class ElementWithKey
+        Object[] keys = new Object[list.size()];
+        if (keyFn == null)
         {
-            private final T value;
-            private Object key;
-            private boolean keyComputed = false;
-
-            private ElementWithKey(T value)
-            {
-                this.value = value;
-            }
-
-            Object getKey()
-            {
-                if (!this.keyComputed)
-                {
-                    this.key = keyFn.execute(Lists.immutable.with(this.value), es);
-                    this.keyComputed = true;
-                }
-                return this.key;
-            }
-
-            T getValue()
-            {
-                return this.value;
-            }
+            list.forEachWithIndex((value, i) -> keys[i] = value);
+        }
+        else if (keyFn instanceof PureFunction1)
+        {
+            PureFunction1<T, ?> keyFn1 = (PureFunction1<T, ?>) keyFn;
+            list.forEachWithIndex((value, i) -> keys[i] = keyFn1.value(value, es));
+        }
+        else
+        {
+            list.forEachWithIndex((value, i) -> keys[i] = keyFn.execute(Lists.immutable.with(value), es));
         }
 
-        Comparator<ElementWithKey> comparator = (comp == null) ?
-                (left, right) -> compareInt(left.getKey(), right.getKey()) :
-                (left, right) -> comp.execute(Lists.immutable.with(left.getKey(), right.getKey()), es).intValue();
-        return collection.collect(ElementWithKey::new, Lists.mutable.empty())
-                .sortThis(comparator)
-                .collect(ElementWithKey::getValue);
+        if (comp == null)
+        {
+            return KeySort.sortByDefaultOrder(list, keys, CompiledSupport::compareInt);
+        }
+        Comparator<Object> comparator = (comp instanceof PureFunction2) ?
+                (left, right) -> ((PureFunction2<Object, Object, ? extends Number>) comp).value(left, right, es).intValue() :
+                (left, right) -> comp.execute(Lists.immutable.with(left, right), es).intValue();
+        return KeySort.sortByKeys(list, keys, comparator);
     }
 
 
@@ -1281,6 +1284,14 @@ public class CompiledSupport
     @SuppressWarnings("unchecked")
     public static <T extends Number> T plus(RichIterable<T> numbers)
     {
+        if (numbers instanceof ListIterable)
+        {
+            Number sum = BulkArithmetic.sum((ListIterable<T>) numbers, n -> n, false);
+            if (sum != null)
+            {
+                return (T) sum;
+            }
+        }
         Number sum = 0L;
         for (Number n : numbers)
         {
@@ -1382,6 +1393,14 @@ public class CompiledSupport
     @SuppressWarnings("unchecked")
     public static <T extends Number> T times(RichIterable<T> numbers)
     {
+        if (numbers instanceof ListIterable)
+        {
+            Number product = BulkArithmetic.product((ListIterable<T>) numbers, n -> n, false);
+            if (product != null)
+            {
+                return (T) product;
+            }
+        }
         Number product = 1L;
         for (Number number : numbers)
         {
@@ -1583,25 +1602,11 @@ public class CompiledSupport
                 "}";
 
         MemoryFileManager fileManager = ((CompiledExecutionSupport) es).getMemoryFileManager();
-        MutableList<StringJavaSource> javaClasses = Lists.mutable.empty();
-        javaClasses.add(StringJavaSource.newStringJavaSource("temp", name, _class));
-        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        MemoryFileManager manager = new MemoryFileManager(compiler, fileManager, null);
-
-        try
-        {
-            PureJavaCompiler.compile(compiler, javaClasses, manager);
-        }
-        catch (PureJavaCompileException e)
-        {
-            throw new RuntimeException(e);
-        }
-
-        ClassLoader cl = new MemoryClassLoader(manager, globalClassLoader);
+        DynamicClassCache dynamicClassCache = ((CompiledExecutionSupport) es).getClassCache().getDynamicClassCache();
         try
         {
-            Class<?> realClass = cl.loadClass("temp" + "." + name);
-            return realClass.getMethod("build", MutableMap.class, IntObjectMap.class).invoke(null, processorContext.getObjectToPassToDynamicallyGeneratedCode(), processorContext.getLocalLambdas());
+            Method build = dynamicClassCache.getIfAbsentCompileMethod(fileManager, globalClassLoader, "temp", name, _class, "build", MutableMap.class, IntObjectMap.class);
+            return build.invoke(null, processorContext.getObjectToPassToDynamicallyGeneratedCode(), processorContext.getLocalLambdas());
         }
         catch (Exception e)
         {
@@ -1612,108 +1617,17 @@ public class CompiledSupport
 
     public static Object dynamicallyEvaluateValueSpecification(CoreInstance valueSpecification, PureMap lambdaOpenVariablesMap, ExecutionSupport es)
     {
-        MemoryFileManager fileManager = ((CompiledExecutionSupport) es).getMemoryFileManager();
-        ClassLoader globalClassLoader = ((CompiledExecutionSupport) es).getClassLoader();
-
-        CompiledProcessorSupport compiledSupport = new CompiledProcessorSupport(globalClassLoader, ((CompiledExecutionSupport) es).getMetadata(), ((CompiledExecutionSupport) es).getExtraSupportedTypes());
-        ProcessorContext processorContext = new ProcessorContext(compiledSupport);
-
-        // Don't do anything if the ValueSpecification is already resolved ----------------
-        if (Instance.instanceOf(valueSpecification, M3Paths.InstanceValue, processorContext.getSupport()))
-        {
-            ListIterable<? extends CoreInstance> l = valueSpecification.getValueForMetaPropertyToMany(M3Properties.values);
-            if (l.noneSatisfy(instance -> Instance.instanceOf(instance, M3Paths.ValueSpecification, processorContext.getSupport()) || Instance.instanceOf(instance, M3Paths.LambdaFunction, processorContext.getSupport())))
-            {
-                ListIterable<Object> result = l.collect(instance -> instance instanceof ValCoreInstance ? ((ValCoreInstance) instance).getValue() : instance);
-                return result.size() == 1 ? result.get(0) : result;
-            }
-        }
-        //---------------------------------------------------------------------------------
-
-        processorContext.setInLineAllLambda(true);
-        String processed = ValueSpecificationProcessor.processValueSpecification(valueSpecification, true, processorContext);
-        String returnType = TypeProcessor.typeToJavaObjectWithMul(valueSpecification.getValueForMetaPropertyToOne(M3Properties.genericType), valueSpecification.getValueForMetaPropertyToOne(M3Properties.multiplicity), false, compiledSupport);
-
-        String name = "DynaClass";
-        RichIterable<Pair<String, CoreInstance>> values = lambdaOpenVariablesMap.getMap().keyValuesView();
-        MutableMap<String, Object> openVars = Maps.mutable.of();
-        String _class = JavaSourceCodeGenerator.imports + "\npublic class " + name +
-                "{\n" +
-                "   public static " + returnType + " doProcess(final MapIterable<String, Object> vars, final MutableMap<String, Object> valMap, final IntObjectMap<CoreInstance> localLambdas, final ExecutionSupport es){\n" +
-                values.collect(pair ->
-                {
-                    String name1 = pair.getOne();
-                    CoreInstance valuesCoreInstance = pair.getTwo();
-                    ListIterable<? extends CoreInstance> values1 = valuesCoreInstance.getValueForMetaPropertyToMany(M3Properties.values).select(coreInstance -> !Instance.instanceOf(coreInstance, "meta::pure::executionPlan::PlanVarPlaceHolder", compiledSupport) && !Instance.instanceOf(coreInstance, "meta::pure::executionPlan::PlanVariablePlaceHolder", compiledSupport));
-                    openVars.put(name1, valuesCoreInstance);
-                    if (values1.isEmpty())
-                    {
-                        MutableList<CoreInstance> vars = Lists.mutable.empty();
-                        collectVars(valueSpecification, vars, compiledSupport);
-                        CoreInstance found = vars.detect(v -> name1.equals(v.getValueForMetaPropertyToOne("name").getName()));
-                        if (found != null)
-                        {
-                            String type = TypeProcessor.typeToJavaObjectSingle(found.getValueForMetaPropertyToOne(M3Properties.genericType), false, compiledSupport);
-                            return "      final  " + type + "  _" + name1 + " = null;";
-                        }
-                        return "";
-                    }
-                    else
-                    {
-                        String type = TypeProcessor.pureRawTypeToJava(compiledSupport.getClassifier(values1.getFirst()), false, compiledSupport);
-                        String listImpl = JavaPackageAndImportBuilder.buildImplClassReferenceFromUserPath(M3Paths.List);
-                        return (values1.size() == 1) ? ("      final " + type + " _" + name1 + " = (" + type + ")((" + listImpl + ")vars.get(\"" + name1 + "\"))._values.getFirst();") : ("      final RichIterable<" + type + "> _" + name1 + " = ((" + listImpl + ")vars.get(\"" + name1 + "\"))._values;");
-                    }
-                }).makeString("\n") +
-                "       return " + processed + ";\n" +
-                "   }\n" +
-                "}\n";
-
-        String javaPackage = JavaPackageAndImportBuilder.buildPackageForPackageableElement(valueSpecification);
-        ListIterable<StringJavaSource> javaClasses = Lists.immutable.with(StringJavaSource.newStringJavaSource(javaPackage, name, _class));
-        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        MemoryFileManager manager = new MemoryFileManager(compiler, fileManager, null);
-
-        try
-        {
-            PureJavaCompiler.compile(compiler, javaClasses, manager);
-        }
-        catch (Exception e)
+        DynamicEvaluation evaluation = DynamicEvaluation.prepare(valueSpecification, lambdaOpenVariablesMap, es);
+        if (evaluation.isResolved())
         {
-            StringBuilder message = new StringBuilder("Error dynamically evaluating value specification");
-            SourceInformation valueSpecSourceInfo = valueSpecification.getSourceInformation();
-            if (valueSpecSourceInfo != null)
-            {
-                valueSpecSourceInfo.appendMessage(message.append(" (from ")).append(')');
-            }
-            message.append("; error compiling generated Java code:\n").append(_class);
-            throw new RuntimeException(message.toString(), e);
+            return evaluation.getResolvedValue();
         }
 
-        ClassLoader cl = new MemoryClassLoader(manager, globalClassLoader);
-        try
-        {
-            Class<?> realClass = cl.loadClass(javaPackage + "." + name);
-            return realClass.getMethod("doProcess", MapIterable.class, MutableMap.class, IntObjectMap.class, ExecutionSupport.class).invoke(null, openVars, processorContext.getObjectToPassToDynamicallyGeneratedCode(), processorContext.getLocalLambdas(), es);
-        }
-        catch (Exception e)
-        {
-            StringBuilder message = new StringBuilder("Error dynamically evaluating value specification");
-            SourceInformation valueSpecSourceInfo = valueSpecification.getSourceInformation();
-            if (valueSpecSourceInfo != null)
-            {
-                valueSpecSourceInfo.appendMessage(message.append(" (from ")).append(')');
-            }
-            String errorMessage = e.getMessage();
-            if (errorMessage != null)
-            {
-                message.append(": ").append(errorMessage);
-            }
-            throw new RuntimeException(message.toString(), e);
-        }
+        Method doProcess = evaluation.compile(es);
+        return evaluation.invoke(doProcess, es);
     }
 
-    private static void collectVars(CoreInstance valueSpecification, MutableList<CoreInstance> vars, ProcessorSupport processorSupport)
+    static void collectVars(CoreInstance valueSpecification, MutableList<CoreInstance> vars, ProcessorSupport processorSupport)
     {
         if (Instance.instanceOf(valueSpecification, M3Paths.FunctionExpression, processorSupport))
         {
@@ -0,0 +1,215 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.generation.processors.support;
+
+import com.google.common.hash.Hashing;
+import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MapIterable;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.map.primitive.IntObjectMap;
+import org.eclipse.collections.api.tuple.Pair;
+import org.finos.legend.pure.m3.execution.ExecutionSupport;
+import org.finos.legend.pure.m3.navigation.Instance;
+import org.finos.legend.pure.m3.navigation.M3Paths;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.coreinstance.SourceInformation;
+import org.finos.legend.pure.runtime.java.compiled.compiler.DynamicClassCache;
+import org.finos.legend.pure.runtime.java.compiled.compiler.PureJavaCompileException;
+import org.finos.legend.pure.runtime.java.compiled.execution.CompiledExecutionSupport;
+import org.finos.legend.pure.runtime.java.compiled.execution.CompiledProcessorSupport;
+import org.finos.legend.pure.runtime.java.compiled.generation.JavaPackageAndImportBuilder;
+import org.finos.legend.pure.runtime.java.compiled.generation.JavaSourceCodeGenerator;
+import org.finos.legend.pure.runtime.java.compiled.generation.ProcessorContext;
+import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.coreinstance.ValCoreInstance;
+import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.map.PureMap;
+import org.finos.legend.pure.runtime.java.compiled.generation.processors.type.TypeProcessor;
+import org.finos.legend.pure.runtime.java.compiled.generation.processors.valuespecification.ValueSpecificationProcessor;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Evaluation of a value specification through generated Java code: the generated class (whose static doProcess method
+ * evaluates the value specification) and the arguments to call it with. Value specifications which are already
+ * resolved need no code.
+ */
+final class DynamicEvaluation
+{
+    static final String CLASS_NAME = "DynaClass";
+    static final String METHOD_NAME = "doProcess";
+    static final Class<?>[] PARAMETER_TYPES = {MapIterable.class, MutableMap.class, IntObjectMap.class, ExecutionSupport.class};
+
+    private final CoreInstance valueSpecification;
+    private final Object resolvedValue;
+    private final String javaPackage;
+    private final String classDeclarationPrefix;
+    private final String classBody;
+    private final String className;
+    private final MutableMap<String, Object> openVars;
+    private final ProcessorContext processorContext;
+
+    private DynamicEvaluation(CoreInstance valueSpecification, Object resolvedValue, String javaPackage, String classDeclarationPrefix, String classBody, MutableMap<String, Object> openVars, ProcessorContext processorContext)
+    {
+        this.valueSpecification = valueSpecification;
+        this.resolvedValue = resolvedValue;
+        this.javaPackage = javaPackage;
+        this.classDeclarationPrefix = classDeclarationPrefix;
+        this.classBody = classBody;
+        this.className = (classBody == null) ? null : CLASS_NAME + '_' + Hashing.murmur3_128().hashString(javaPackage + '\n' + classBody, StandardCharsets.UTF_8);
+        this.openVars = openVars;
+        this.processorContext = processorContext;
+    }
+
+    static DynamicEvaluation prepare(CoreInstance valueSpecification, PureMap lambdaOpenVariablesMap, ExecutionSupport es)
+    {
+        ClassLoader globalClassLoader = ((CompiledExecutionSupport) es).getClassLoader();
+        CompiledProcessorSupport compiledSupport = new CompiledProcessorSupport(globalClassLoader, ((CompiledExecutionSupport) es).getMetadata(), ((CompiledExecutionSupport) es).getExtraSupportedTypes());
+        ProcessorContext processorContext = new ProcessorContext(compiledSupport);
+
+        // Don't do anything if the ValueSpecification is already resolved ----------------
+        if (Instance.instanceOf(valueSpecification, M3Paths.InstanceValue, processorContext.getSupport()))
+        {
+            ListIterable<? extends CoreInstance> l = valueSpecification.getValueForMetaPropertyToMany(M3Properties.values);
+            if (l.noneSatisfy(instance -> Instance.instanceOf(instance, M3Paths.ValueSpecification, processorContext.getSupport()) || Instance.instanceOf(instance, M3Paths.LambdaFunction, processorContext.getSupport())))
+            {
+                ListIterable<Object> result = l.collect(instance -> instance instanceof ValCoreInstance ? ((ValCoreInstance) instance).getValue() : instance);
+                return new DynamicEvaluation(valueSpecification, result.size() == 1 ? result.get(0) : result, null, null, null, null, null);
+            }
+        }
+        //---------------------------------------------------------------------------------
+
+        processorContext.setInLineAllLambda(true);
+        String processed = ValueSpecificationProcessor.processValueSpecification(valueSpecification, true, processorContext);
+        String returnType = TypeProcessor.typeToJavaObjectWithMul(valueSpecification.getValueForMetaPropertyToOne(M3Properties.genericType), valueSpecification.getValueForMetaPropertyToOne(M3Properties.multiplicity), false, compiledSupport);
+
+        RichIterable<Pair<String, CoreInstance>> values = lambdaOpenVariablesMap.getMap().keyValuesView();
+        MutableMap<String, Object> openVars = Maps.mutable.of();
+        String classBody = "{\n" +
+                "   public static " + returnType + " doProcess(final MapIterable<String, Object> vars, final MutableMap<String, Object> valMap, final IntObjectMap<CoreInstance> localLambdas, final ExecutionSupport es){\n" +
+                values.collect(pair ->
+                {
+                    String name1 = pair.getOne();
+                    CoreInstance valuesCoreInstance = pair.getTwo();
+                    ListIterable<? extends CoreInstance> values1 = valuesCoreInstance.getValueForMetaPropertyToMany(M3Properties.values).select(coreInstance -> !Instance.instanceOf(coreInstance, "meta::pure::executionPlan::PlanVarPlaceHolder", compiledSupport) && !Instance.instanceOf(coreInstance, "meta::pure::executionPlan::PlanVariablePlaceHolder", compiledSupport));
+                    openVars.put(name1, valuesCoreInstance);
+                    if (values1.isEmpty())
+                    {
+                        MutableList<CoreInstance> vars = Lists.mutable.empty();
+                        CompiledSupport.collectVars(valueSpecification, vars, compiledSupport);
+                        CoreInstance found = vars.detect(v -> name1.equals(v.getValueForMetaPropertyToOne("name").getName()));
+                        if (found != null)
+                        {
+                            String type = TypeProcessor.typeToJavaObjectSingle(found.getValueForMetaPropertyToOne(M3Properties.genericType), false, compiledSupport);
+                            return "      final  " + type + "  _" + name1 + " = null;";
+                        }
+                        return "";
+                    }
+                    else
+                    {
+                        String type = TypeProcessor.pureRawTypeToJava(compiledSupport.getClassifier(values1.getFirst()), false, compiledSupport);
+                        String listImpl = JavaPackageAndImportBuilder.buildImplClassReferenceFromUserPath(M3Paths.List);
+                        return (values1.size() == 1) ? ("      final " + type + " _" + name1 + " = (" + type + ")((" + listImpl + ")vars.get(\"" + name1 + "\"))._values.getFirst();") : ("      final RichIterable<" + type + "> _" + name1 + " = ((" + listImpl + ")vars.get(\"" + name1 + "\"))._values;");
+                    }
+                }).makeString("\n") +
+                "       return " + processed + ";\n" +
+                "   }\n" +
+                "}\n";
+
+        String javaPackage = JavaPackageAndImportBuilder.buildPackageForPackageableElement(valueSpecification);
+        return new DynamicEvaluation(valueSpecification, null, javaPackage, JavaSourceCodeGenerator.imports + "\npublic class ", classBody, openVars, processorContext);
+    }
+
+    boolean isResolved()
+    {
+        return this.classBody == null;
+    }
+
+    Object getResolvedValue()
+    {
+        return this.resolvedValue;
+    }
+
+    String getJavaPackage()
+    {
+        return this.javaPackage;
+    }
+
+    /**
+     * Name of the generated class, derived from its package and body alone: evaluations generating identical code get
+     * the same class (and so the same dynamic class cache entry), whether compiled on their own or in a batch.
+     */
+    String getClassName()
+    {
+        return this.className;
+    }
+
+    String getCode()
+    {
+        return this.classDeclarationPrefix + this.className + this.classBody;
+    }
+
+    /**
+     * Compile (unless the dynamic class cache already holds it) the generated class on its own.
+     */
+    Method compile(ExecutionSupport es)
+    {
+        DynamicClassCache dynamicClassCache = ((CompiledExecutionSupport) es).getClassCache().getDynamicClassCache();
+        try
+        {
+            // Structurally identical value specifications generate the same code, which is only compiled once
+            return dynamicClassCache.getIfAbsentCompileMethod(((CompiledExecutionSupport) es).getMemoryFileManager(), ((CompiledExecutionSupport) es).getClassLoader(), this.javaPackage, this.className, getCode(), METHOD_NAME, PARAMETER_TYPES);
+        }
+        catch (Exception e)
+        {
+            StringBuilder message = newErrorMessage();
+            message.append((e instanceof PureJavaCompileException) ? "; error compiling generated Java code:\n" : "; error loading generated Java code:\n").append(getCode());
+            throw new RuntimeException(message.toString(), e);
+        }
+    }
+
+    Object invoke(Method doProcess, ExecutionSupport es)
+    {
+        try
+        {
+            return doProcess.invoke(null, this.openVars, this.processorContext.getObjectToPassToDynamicallyGeneratedCode(), this.processorContext.getLocalLambdas(), es);
+        }
+        catch (Exception e)
+        {
+            StringBuilder message = newErrorMessage();
+            String errorMessage = e.getMessage();
+            if (errorMessage != null)
+            {
+                message.append(": ").append(errorMessage);
+            }
+            throw new RuntimeException(message.toString(), e);
+        }
+    }
+
+    private StringBuilder newErrorMessage()
+    {
+        StringBuilder message = new StringBuilder("Error dynamically evaluating value specification");
+        SourceInformation valueSpecSourceInfo = this.valueSpecification.getSourceInformation();
+        if (valueSpecSourceInfo != null)
+        {
+            valueSpecSourceInfo.appendMessage(message.append(" (from ")).append(')');
+        }
+        return message;
+    }
+}
@@ -21,9 +21,13 @@ import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.api.tuple.Pair;
 import org.eclipse.collections.impl.block.procedure.checked.CheckedProcedure;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+import org.eclipse.collections.impl.tuple.Tuples;
 import org.eclipse.collections.impl.utility.Iterate;
 import org.eclipse.collections.impl.utility.StringIterate;
 import org.finos.legend.pure.m3.coreinstance.Package;
@@ -78,7 +82,9 @@ import org.finos.legend.pure.runtime.java.compiled.metadata.JavaMethodWithParams
 import org.finos.legend.pure.runtime.java.compiled.metadata.MetadataAccessor;
 import org.json.simple.JSONObject;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -91,6 +97,16 @@ import java.util.function.Supplier;
 
 public class Pure
 {
+    // Getters of the properties of each Java class, bound to method handles taking and returning Object
+    private static final ClassValue<ConcurrentMutableMap<String, MethodHandle>> PROPERTY_GETTERS = new ClassValue<ConcurrentMutableMap<String, MethodHandle>>()
+    {
+        @Override
+        protected ConcurrentMutableMap<String, MethodHandle> computeValue(Class<?> type)
+        {
+            return ConcurrentHashMap.newMap();
+        }
+    };
+
     public static ListIterable<PackageableElement> elementPath(PackageableElement element)
     {
         return elementPath(element, 1);
@@ -455,6 +471,7 @@ public class Pure
                                   Bridge bridge,
                                   Object... instances)
     {
+        CompiledSupport.checkCancelled(es);
         if (func instanceof ConcreteFunctionDefinition)
         {
             SharedPureFunction<?> pureFunc = getSharedPureFunction(func, bridge, es);
@@ -486,6 +503,18 @@ public class Pure
         return reflectiveNative.execute(instances == null ? Lists.mutable.empty() : Lists.mutable.with(instances), es);
     }
 
+    private static MethodHandle getPropertyGetter(Class<?> instanceClass, String propertyName) throws ReflectiveOperationException
+    {
+        ConcurrentMutableMap<String, MethodHandle> getters = PROPERTY_GETTERS.get(instanceClass);
+        MethodHandle getter = getters.get(propertyName);
+        if (getter == null)
+        {
+            getter = MethodHandles.publicLookup().unreflect(instanceClass.getMethod("_" + propertyName)).asType(MethodType.methodType(Object.class, Object.class));
+            getters.put(propertyName, getter);
+        }
+        return getter;
+    }
+
     public static Object _evaluateToMany(ExecutionSupport es, Bridge bridge, org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.Function<?> func, ListIterable<?> paramInputs)
     {
         if (func instanceof Property)
@@ -495,27 +524,27 @@ public class Pure
                 throw new PureExecutionException(func.getSourceInformation(), "Error accessing property '" + func.getName() + "': too many arguments (expected 1, got " + paramInputs.size() + ")");
             }
             Object instance = getInstanceForPropertyEvaluate(paramInputs, func.getName(), func.getSourceInformation());
+            MethodHandle getter;
             try
             {
-                return instance.getClass().getMethod("_" + func.getName()).invoke(instance);
-            }
-            catch (InvocationTargetException e)
-            {
-                Throwable cause = e.getCause();
-                if (cause instanceof Error)
-                {
-                    throw (Error) cause;
-                }
-                if (cause instanceof PureException)
-                {
-                    throw (PureException) cause;
-                }
-                throw new PureExecutionException(func.getSourceInformation(), "Error invoking property '" + func.getName() + "'", cause);
+                getter = getPropertyGetter(instance.getClass(), func.getName());
             }
             catch (Exception e)
             {
                 throw new PureExecutionException(func.getSourceInformation(), "Error accessing property '" + func.getName() + "'", e);
             }
+            try
+            {
+                return getter.invokeExact(instance);
+            }
+            catch (Error | PureException e)
+            {
+                throw e;
+            }
+            catch (Throwable t)
+            {
+                throw new PureExecutionException(func.getSourceInformation(), "Error invoking property '" + func.getName() + "'", t);
+            }
         }
 
         RichIterable<? extends VariableExpression> params = ((FunctionType) func._classifierGenericType()._typeArguments().getAny()._rawType())._parameters();
@@ -716,12 +745,16 @@ public class Pure
         {
             Class<?> c = ((CompiledExecutionSupport) es).getClassLoader().loadClass(JavaPackageAndImportBuilder.platformJavaPackage() + "." + Pure.elementToPath(aClass, "_", true) + "_Impl");
             Any result = (Any) c.getConstructor(String.class).newInstance(name);
-            root_meta_pure_functions_lang_keyExpressions.forEach(new CheckedProcedure<KeyExpression>()
+            // Key expressions needing Java compilation are all compiled at once
+            ReactivationBatch reactivations = new ReactivationBatch(bridge, es);
+            ListIterable<Pair<KeyExpression, ReactivationBatch.Reactivation>> keyExpressions = root_meta_pure_functions_lang_keyExpressions.collect(o -> Tuples.<KeyExpression, ReactivationBatch.Reactivation>pair(o, reactivations.add(o._expression(), new PureMap(Maps.fixedSize.empty()))), Lists.mutable.empty());
+            keyExpressions.forEach(new CheckedProcedure<Pair<KeyExpression, ReactivationBatch.Reactivation>>()
             {
                 @Override
-                public void safeValue(KeyExpression o) throws Exception
+                public void safeValue(Pair<KeyExpression, ReactivationBatch.Reactivation> pair) throws Exception
                 {
-                    Object res = reactivate(o._expression(), new PureMap(Maps.fixedSize.empty()), bridge, es);
+                    KeyExpression o = pair.getOne();
+                    Object res = pair.getTwo().evaluate();
                     Method m = c.getMethod("_" + o._key()._values().getFirst(), RichIterable.class);
                     if (res instanceof RichIterable)
                     {
@@ -0,0 +1,150 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.generation.processors.support;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.valuespecification.ValueSpecification;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.router.RoutedValueSpecification;
+import org.finos.legend.pure.m3.execution.ExecutionSupport;
+import org.finos.legend.pure.runtime.java.compiled.compiler.DynamicClassCache;
+import org.finos.legend.pure.runtime.java.compiled.compiler.PureDynamicReactivateException;
+import org.finos.legend.pure.runtime.java.compiled.execution.CompiledExecutionSupport;
+import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.map.PureMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+
+/**
+ * Value specifications to reactivate together. Those which can't be reactivated without Java compilation are compiled
+ * all at once, in a single javac invocation, the first time any of them is evaluated (or when compile is called),
+ * rather than each with its own javac invocation.
+ */
+public class ReactivationBatch
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactivationBatch.class);
+
+    private final Bridge bridge;
+    private final ExecutionSupport es;
+    private final MutableList<Reactivation> toCompile = Lists.mutable.empty();
+
+    public ReactivationBatch(Bridge bridge, ExecutionSupport es)
+    {
+        this.bridge = bridge;
+        this.es = es;
+    }
+
+    public synchronized Reactivation add(ValueSpecification valueSpecification, PureMap lambdaOpenVariablesMap)
+    {
+        if (valueSpecification instanceof RoutedValueSpecification)
+        {
+            return add(((RoutedValueSpecification) valueSpecification)._value(), lambdaOpenVariablesMap);
+        }
+        if (Reactivator.canReactivateWithoutJavaCompilation(valueSpecification, this.es, lambdaOpenVariablesMap, this.bridge))
+        {
+            return new Reactivation(valueSpecification, lambdaOpenVariablesMap, null);
+        }
+        return addToCompile(valueSpecification, lambdaOpenVariablesMap);
+    }
+
+    // Also used directly by tests, as value specifications which can only be reactivated with Java compilation are rare
+    synchronized Reactivation addToCompile(ValueSpecification valueSpecification, PureMap lambdaOpenVariablesMap)
+    {
+        DynamicEvaluation evaluation = DynamicEvaluation.prepare(valueSpecification, lambdaOpenVariablesMap, this.es);
+        Reactivation reactivation = new Reactivation(valueSpecification, lambdaOpenVariablesMap, evaluation);
+        if (!evaluation.isResolved())
+        {
+            this.toCompile.add(reactivation);
+        }
+        return reactivation;
+    }
+
+    /**
+     * Compile the generated code of the value specifications added since the last compilation. Should the code fail to
+     * compile, each value specification is compiled on its own when evaluated, so that errors are reported against the
+     * value specification causing them.
+     */
+    public synchronized void compile()
+    {
+        if (this.toCompile.isEmpty())
+        {
+            return;
+        }
+        MutableList<Reactivation> batch = Lists.mutable.withAll(this.toCompile);
+        this.toCompile.clear();
+
+        // Class names derive from the code, so value specifications generating identical code share a class (within
+        // the batch, and with earlier batches and single evaluations through the dynamic class cache)
+        ListIterable<DynamicClassCache.ClassSource> sources = batch.collect(reactivation -> new DynamicClassCache.ClassSource(reactivation.evaluation.getJavaPackage(), reactivation.evaluation.getClassName(), reactivation.evaluation.getCode()));
+
+        ListIterable<Method> methods;
+        try
+        {
+            methods = ((CompiledExecutionSupport) this.es).getClassCache().getDynamicClassCache().getIfAbsentCompileMethods(((CompiledExecutionSupport) this.es).getMemoryFileManager(), ((CompiledExecutionSupport) this.es).getClassLoader(), sources, DynamicEvaluation.METHOD_NAME, DynamicEvaluation.PARAMETER_TYPES);
+        }
+        catch (Exception e)
+        {
+            // Each value specification is compiled again on its own when evaluated, reporting its own errors
+            LOGGER.debug("Error compiling a batch of {} reactivated value specifications, compiling them one by one", batch.size(), e);
+            return;
+        }
+        batch.forEachWithIndex((reactivation, i) -> reactivation.doProcess = methods.get(i));
+    }
+
+    public class Reactivation
+    {
+        private final ValueSpecification valueSpecification;
+        private final PureMap lambdaOpenVariablesMap;
+        private final DynamicEvaluation evaluation;
+        private volatile Method doProcess;
+
+        private Reactivation(ValueSpecification valueSpecification, PureMap lambdaOpenVariablesMap, DynamicEvaluation evaluation)
+        {
+            this.valueSpecification = valueSpecification;
+            this.lambdaOpenVariablesMap = lambdaOpenVariablesMap;
+            this.evaluation = evaluation;
+        }
+
+        public Object evaluate()
+        {
+            if (this.evaluation == null)
+            {
+                try
+                {
+                    return Reactivator.reactivateWithoutJavaCompilation(ReactivationBatch.this.bridge, this.valueSpecification, this.lambdaOpenVariablesMap, ReactivationBatch.this.es);
+                }
+                catch (PureDynamicReactivateException e)
+                {
+                    throw new RuntimeException("Out of sync state between can reactivate and actual reactive without Java source code", e);
+                }
+            }
+            if (this.evaluation.isResolved())
+            {
+                return this.evaluation.getResolvedValue();
+            }
+            if (this.doProcess == null)
+            {
+                ReactivationBatch.this.compile();
+                if (this.doProcess == null)
+                {
+                    this.doProcess = this.evaluation.compile(ReactivationBatch.this.es);
+                }
+            }
+            return this.evaluation.invoke(this.doProcess, ReactivationBatch.this.es);
+        }
+    }
+}
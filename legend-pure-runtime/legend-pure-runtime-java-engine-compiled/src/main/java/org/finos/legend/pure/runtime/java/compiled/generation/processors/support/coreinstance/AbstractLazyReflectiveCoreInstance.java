@@ -15,6 +15,8 @@
 package org.finos.legend.pure.runtime.java.compiled.generation.processors.support.coreinstance;
 
 import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.block.predicate.Predicate;
+import org.eclipse.collections.api.block.procedure.Procedure;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.list.ListIterable;
@@ -26,6 +28,7 @@ import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.m4.coreinstance.SourceInformation;
 import org.finos.legend.pure.runtime.java.compiled.metadata.MetadataLazy;
 import org.finos.legend.pure.runtime.java.compiled.serialization.model.Obj;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.ObjRef;
 import org.finos.legend.pure.runtime.java.compiled.serialization.model.PropertyValue;
 import org.finos.legend.pure.runtime.java.compiled.serialization.model.PropertyValueMany;
 import org.finos.legend.pure.runtime.java.compiled.serialization.model.PropertyValueOne;
@@ -148,6 +151,38 @@ public abstract class AbstractLazyReflectiveCoreInstance extends PersistentRefle
         return (RichIterable<T>) this.metadataLazy.valuesToObjects((ListIterable<RValue>) values);
     }
 
+    /**
+     * Apply the procedure to each reference to another instance in the values of the properties selected by the
+     * predicate, without loading the instances. Used to prefetch the instances (see {@link MetadataLazy#prefetch}).
+     *
+     * @param property  property name predicate
+     * @param procedure procedure
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachObjRef(Predicate<? super String> property, Procedure<? super ObjRef> procedure)
+    {
+        this.propertyValues.forEachKeyValue((name, value) ->
+        {
+            if (property.accept(name))
+            {
+                if (value instanceof ObjRef)
+                {
+                    procedure.value((ObjRef) value);
+                }
+                else if (value instanceof ListIterable)
+                {
+                    ((ListIterable<RValue>) value).forEach(v ->
+                    {
+                        if (v instanceof ObjRef)
+                        {
+                            procedure.value((ObjRef) v);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
     private static ImmutableMap<String, Object> buildPropertyValuesMap(Obj obj)
     {
         ListIterable<PropertyValue> propertyValues = obj.getPropertyValues();
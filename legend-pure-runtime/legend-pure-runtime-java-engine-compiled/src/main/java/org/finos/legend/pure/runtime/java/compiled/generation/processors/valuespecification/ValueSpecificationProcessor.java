@@ -259,7 +259,7 @@ public class ValueSpecificationProcessor
 
         String pureFunctionString = createFunctionForLambda(topLevelElement, function, processorSupport, processorContext);
         String lambdaFunctionString = (processorContext.isInLineAllLambda() ?
-                "(" + FullJavaPaths.LambdaFunction + ")localLambdas.get(" + System.identityHashCode(function) + ")" :
+                "(" + FullJavaPaths.LambdaFunction + ")localLambdas.get(" + processorContext.registerLocalLambda(function) + ")" :
                 "((CompiledExecutionSupport)es).getMetadataAccessor().getLambdaFunction(\"" + processorContext.getIdBuilder().buildId(function) + "\")");
 
         return "new PureCompiledLambda(\n(" + lambdaFunctionString + "\n), (\n" + pureFunctionString + "\n))\n";
@@ -298,7 +298,7 @@ public class ValueSpecificationProcessor
             pureFunctionString = createLambdaBody(topLevelElement, function, processorContext, notOpenVariables, functionType, params);
             if (processorContext.isInLineAllLambda())
             {
-                processorContext.registerLocalLambdas(System.identityHashCode(function), function);
+                processorContext.registerLocalLambda(function);
             }
 
         }
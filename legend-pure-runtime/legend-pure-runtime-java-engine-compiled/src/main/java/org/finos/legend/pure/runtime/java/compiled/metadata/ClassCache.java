@@ -19,6 +19,7 @@ import org.eclipse.collections.api.map.ConcurrentMutableMap;
 import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.type.Type;
 import org.finos.legend.pure.m3.navigation.PackageableElement.PackageableElement;
+import org.finos.legend.pure.runtime.java.compiled.compiler.DynamicClassCache;
 import org.finos.legend.pure.runtime.java.compiled.generation.JavaPackageAndImportBuilder;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.CompiledSupport;
 
@@ -33,11 +34,13 @@ public class ClassCache
 {
     private final ConcurrentMutableMap<Type, Class<?>> typeToJavaInterface = ConcurrentHashMap.newMap();
     private final ConcurrentMutableMap<Type, ClassAttributes> typeToJavaConstructor = ConcurrentHashMap.newMap();
+    private final DynamicClassCache dynamicClassCache;
     private final ClassLoader classLoader;
 
     public ClassCache(ClassLoader classLoader)
     {
         this.classLoader = classLoader;
+        this.dynamicClassCache = new DynamicClassCache(classLoader);
     }
 
     @Deprecated
@@ -98,12 +101,21 @@ public class ClassCache
         return this.typeToJavaConstructor.getIfAbsentPutWithKey(Objects.requireNonNull(type, "Null type"), this::getClassAttributes);
     }
 
+    /**
+     * Cache of the classes compiled at execution time against the class loader of this cache.
+     */
+    public DynamicClassCache getDynamicClassCache()
+    {
+        return this.dynamicClassCache;
+    }
+
     public void remove(Type type)
     {
         if (type != null)
         {
             this.typeToJavaInterface.remove(type);
             this.typeToJavaConstructor.remove(type);
+            this.dynamicClassCache.clear();
         }
     }
 
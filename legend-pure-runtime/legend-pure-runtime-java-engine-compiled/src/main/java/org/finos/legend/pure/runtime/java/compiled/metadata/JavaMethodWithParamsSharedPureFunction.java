@@ -22,12 +22,22 @@ import org.finos.legend.pure.m4.exception.PureException;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.CompiledSupport;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.function.SharedPureFunction;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+/**
+ * Shared function calling a static Java method. The method is bound once to a method handle, called without allocating
+ * an array of arguments for up to six parameters (reflection is only used if the method cannot be accessed through a
+ * method handle).
+ */
 public final class JavaMethodWithParamsSharedPureFunction<R> implements SharedPureFunction<R>
 {
     private final Method method;
+    private final MethodHandle methodHandle;
     private final Class<?>[] paramClasses;
     private final SourceInformation sourceInformation;
     private final boolean appendExecutionSupportParameter;
@@ -35,6 +45,7 @@ public final class JavaMethodWithParamsSharedPureFunction<R> implements SharedPu
     public JavaMethodWithParamsSharedPureFunction(Method method, Class<?>[] paramClasses, SourceInformation sourceInformation)
     {
         this.method = method;
+        this.methodHandle = toGenericMethodHandle(method);
         this.paramClasses = paramClasses;
         this.sourceInformation = sourceInformation;
         this.appendExecutionSupportParameter = (this.paramClasses.length > 0 && (this.paramClasses[paramClasses.length - 1] == ExecutionSupport.class));
@@ -49,21 +60,43 @@ public final class JavaMethodWithParamsSharedPureFunction<R> implements SharedPu
     @SuppressWarnings("unchecked")
     public R execute(ListIterable<?> vars, ExecutionSupport es)
     {
+        int arity = (this.methodHandle == null) ? -1 : this.methodHandle.type().parameterCount();
+        if ((arity < 0) || (vars.size() != (this.appendExecutionSupportParameter ? (arity - 1) : arity)))
+        {
+            // Let reflection report the problem with the arguments
+            return (R) invokeReflectively(vars, es);
+        }
         try
         {
-            return (R) this.method.invoke(null, getMethodArgs(vars, es));
+            return (R) invoke(arity, vars, es);
         }
-        catch (IllegalArgumentException e)
+        catch (ClassCastException e)
+        {
+            // Method handles report arguments of the wrong type as class cast exceptions, which the method itself may
+            // also throw
+            checkArgumentTypes(vars, e);
+            throw unexpectedError(vars, e);
+        }
+        catch (Throwable t)
         {
-            vars.forEachWithIndex((var, i) ->
+            PureException pureException = PureException.findPureException(t);
+            if (pureException != null)
             {
-                if (!this.paramClasses[i].isInstance(var))
-                {
-                    String argumentType = CompiledSupport.getPureClassName(var);
-                    String paramType = CompiledSupport.getPureClassName(this.paramClasses[i]);
-                    throw new PureExecutionException(this.sourceInformation, "Error during dynamic function evaluation. The type " + argumentType + " is not compatible with the type " + paramType, e);
-                }
-            });
+                throw pureException;
+            }
+            throw unexpectedError(vars, t);
+        }
+    }
+
+    private Object invokeReflectively(ListIterable<?> vars, ExecutionSupport es)
+    {
+        try
+        {
+            return this.method.invoke(null, getMethodArgs(vars, es));
+        }
+        catch (IllegalArgumentException e)
+        {
+            checkArgumentTypes(vars, e);
             throw e;
         }
         catch (IllegalAccessException e)
@@ -77,15 +110,78 @@ public final class JavaMethodWithParamsSharedPureFunction<R> implements SharedPu
             {
                 throw pureException;
             }
-            StringBuilder builder = new StringBuilder("Unexpected error executing function");
-            if (vars.notEmpty() && vars.anySatisfy(v -> !(v instanceof ExecutionSupport)))
+            throw unexpectedError(vars, (e instanceof InvocationTargetException) ? e.getCause() : e);
+        }
+    }
+
+    private void checkArgumentTypes(ListIterable<?> vars, RuntimeException e)
+    {
+        vars.forEachWithIndex((var, i) ->
+        {
+            if ((i < this.paramClasses.length) && !this.paramClasses[i].isInstance(var))
+            {
+                String argumentType = CompiledSupport.getPureClassName(var);
+                String paramType = CompiledSupport.getPureClassName(this.paramClasses[i]);
+                throw new PureExecutionException(this.sourceInformation, "Error during dynamic function evaluation. The type " + argumentType + " is not compatible with the type " + paramType, e);
+            }
+        });
+    }
+
+    private Object invoke(int arity, ListIterable<?> vars, ExecutionSupport es) throws Throwable
+    {
+        switch (arity)
+        {
+            case 0:
+            {
+                return this.methodHandle.invokeExact();
+            }
+            case 1:
+            {
+                return this.methodHandle.invokeExact(arg(vars, 0, es));
+            }
+            case 2:
+            {
+                return this.methodHandle.invokeExact(arg(vars, 0, es), arg(vars, 1, es));
+            }
+            case 3:
+            {
+                return this.methodHandle.invokeExact(arg(vars, 0, es), arg(vars, 1, es), arg(vars, 2, es));
+            }
+            case 4:
             {
-                vars.asLazy().reject(v -> v instanceof ExecutionSupport).appendString(builder, " with params [", ", ", "]");
+                return this.methodHandle.invokeExact(arg(vars, 0, es), arg(vars, 1, es), arg(vars, 2, es), arg(vars, 3, es));
+            }
+            case 5:
+            {
+                return this.methodHandle.invokeExact(arg(vars, 0, es), arg(vars, 1, es), arg(vars, 2, es), arg(vars, 3, es), arg(vars, 4, es));
+            }
+            case 6:
+            {
+                return this.methodHandle.invokeExact(arg(vars, 0, es), arg(vars, 1, es), arg(vars, 2, es), arg(vars, 3, es), arg(vars, 4, es), arg(vars, 5, es));
+            }
+            default:
+            {
+                return this.methodHandle.invokeWithArguments(getMethodArgs(vars, es));
             }
-            throw new PureExecutionException(this.sourceInformation, builder.toString(), (e instanceof InvocationTargetException) ? e.getCause() : e);
         }
     }
 
+    private static Object arg(ListIterable<?> vars, int index, ExecutionSupport es)
+    {
+        // The execution support, if a parameter, is the last one
+        return (index < vars.size()) ? vars.get(index) : es;
+    }
+
+    private PureExecutionException unexpectedError(ListIterable<?> vars, Throwable cause)
+    {
+        StringBuilder builder = new StringBuilder("Unexpected error executing function");
+        if (vars.notEmpty() && vars.anySatisfy(v -> !(v instanceof ExecutionSupport)))
+        {
+            vars.asLazy().reject(v -> v instanceof ExecutionSupport).appendString(builder, " with params [", ", ", "]");
+        }
+        return new PureExecutionException(this.sourceInformation, builder.toString(), cause);
+    }
+
     private Object[] getMethodArgs(ListIterable<?> vars, ExecutionSupport es)
     {
         if (!this.appendExecutionSupportParameter)
@@ -97,4 +193,17 @@ public final class JavaMethodWithParamsSharedPureFunction<R> implements SharedPu
         result[result.length - 1] = es;
         return result;
     }
+
+    private static MethodHandle toGenericMethodHandle(Method method)
+    {
+        try
+        {
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(method);
+            return handle.asType(MethodType.genericMethodType(handle.type().parameterCount()));
+        }
+        catch (IllegalAccessException | WrongMethodTypeException e)
+        {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,127 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.metadata;
+
+import org.eclipse.collections.api.block.function.Function0;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+
+/**
+ * Cache of the instances loaded by {@link MetadataLazy}, by classifier and id. A cache may drop instances to bound
+ * its size, but must never drop an instance which is still reachable: while it is, every lookup of its classifier and
+ * id must return that same instance. See {@link LazyInstanceCaches} for implementations.
+ */
+public interface LazyInstanceCache
+{
+    /**
+     * Get the cached instance, if any.
+     *
+     * @param classifier classifier path
+     * @param id         instance id
+     * @return cached instance or null
+     */
+    CoreInstance get(String classifier, String id);
+
+    /**
+     * Get the cached instance or, if there is none, create and cache one. If several threads create the instance at
+     * the same time, all get the same instance.
+     *
+     * @param classifier classifier path
+     * @param id         instance id
+     * @param factory    instance factory
+     * @return cached instance
+     */
+    CoreInstance getIfAbsentPut(String classifier, String id, Function0<? extends CoreInstance> factory);
+
+    /**
+     * Get the map of all the cached instances of a pinned classifier. Instances of pinned classifiers are never
+     * dropped, so the map is live and complete once all the instances have been loaded.
+     *
+     * @param classifier classifier path
+     * @return instances by id, or null if the classifier is not pinned
+     */
+    ConcurrentMutableMap<String, CoreInstance> getPinnedInstances(String classifier);
+
+    /**
+     * Get statistics of the cache.
+     *
+     * @return cache statistics
+     */
+    Statistics getStatistics();
+
+    class Statistics
+    {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long collectedCount;
+        private final long size;
+
+        public Statistics(long hitCount, long missCount, long evictionCount, long collectedCount, long size)
+        {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.collectedCount = collectedCount;
+            this.size = size;
+        }
+
+        /**
+         * Number of lookups which found a cached instance.
+         */
+        public long getHitCount()
+        {
+            return this.hitCount;
+        }
+
+        /**
+         * Number of lookups which did not find a cached instance.
+         */
+        public long getMissCount()
+        {
+            return this.missCount;
+        }
+
+        /**
+         * Number of instances moved out of the strongly held tier of the cache.
+         */
+        public long getEvictionCount()
+        {
+            return this.evictionCount;
+        }
+
+        /**
+         * Number of evicted instances which have been garbage collected, and so dropped from the cache.
+         */
+        public long getCollectedCount()
+        {
+            return this.collectedCount;
+        }
+
+        /**
+         * Number of strongly held instances.
+         */
+        public long getSize()
+        {
+            return this.size;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Statistics{hits=" + this.hitCount + ", misses=" + this.missCount + ", evictions=" + this.evictionCount + ", collected=" + this.collectedCount + ", size=" + this.size + "}";
+        }
+    }
+}
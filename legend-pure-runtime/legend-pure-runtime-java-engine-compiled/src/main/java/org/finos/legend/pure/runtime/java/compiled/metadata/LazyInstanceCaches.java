@@ -0,0 +1,361 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.metadata;
+
+import org.eclipse.collections.api.block.function.Function0;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
+import org.eclipse.collections.api.set.ImmutableSet;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LazyInstanceCaches
+{
+    private LazyInstanceCaches()
+    {
+    }
+
+    /**
+     * Cache which keeps every instance once loaded. All classifiers are pinned.
+     *
+     * @return unbounded cache
+     */
+    public static LazyInstanceCache unbounded()
+    {
+        return new UnboundedCache();
+    }
+
+    /**
+     * Cache which strongly holds at most maxSize instances, apart from the instances of pinned classifiers which are
+     * always kept. The least recently used instance beyond maxSize is moved to an overflow tier of soft references,
+     * from which it is dropped when the garbage collector clears it and restored if it is used again first.
+     *
+     * @param maxSize           maximum number of strongly held instances of classifiers which are not pinned
+     * @param pinnedClassifiers classifiers whose instances are always kept
+     * @return bounded cache
+     */
+    public static LazyInstanceCache bounded(int maxSize, Iterable<String> pinnedClassifiers)
+    {
+        return bounded(maxSize, false, pinnedClassifiers);
+    }
+
+    /**
+     * Cache which strongly holds at most maxSize instances, apart from the instances of pinned classifiers which are
+     * always kept. The least recently used instance beyond maxSize is moved to an overflow tier of soft (or weak)
+     * references, from which it is dropped when the garbage collector clears it and restored if it is used again
+     * first. Weak references are cleared as soon as the instance is no longer reachable, which bounds the heap more
+     * tightly at the cost of more reloading.
+     *
+     * @param maxSize           maximum number of strongly held instances of classifiers which are not pinned
+     * @param weakReferences    whether the overflow tier uses weak rather than soft references
+     * @param pinnedClassifiers classifiers whose instances are always kept
+     * @return bounded cache
+     */
+    public static LazyInstanceCache bounded(int maxSize, boolean weakReferences, Iterable<String> pinnedClassifiers)
+    {
+        if (maxSize < 0)
+        {
+            throw new IllegalArgumentException("Invalid max size: " + maxSize);
+        }
+        return new BoundedCache(maxSize, weakReferences, (pinnedClassifiers == null) ? Sets.immutable.empty() : Sets.immutable.withAll(pinnedClassifiers));
+    }
+
+    private abstract static class AbstractCache implements LazyInstanceCache
+    {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final ConcurrentMutableMap<String, ConcurrentMutableMap<String, CoreInstance>> pinned = ConcurrentHashMap.newMap();
+
+        CoreInstance getPinned(ConcurrentMutableMap<String, CoreInstance> instances, String id)
+        {
+            CoreInstance instance = instances.get(id);
+            (instance == null ? this.misses : this.hits).increment();
+            return instance;
+        }
+
+        CoreInstance getIfAbsentPutPinned(ConcurrentMutableMap<String, CoreInstance> instances, String id, Function0<? extends CoreInstance> factory)
+        {
+            CoreInstance instance = instances.get(id);
+            if (instance != null)
+            {
+                this.hits.increment();
+                return instance;
+            }
+            this.misses.increment();
+            return instances.getIfAbsentPut(id, factory);
+        }
+
+        long getPinnedSize()
+        {
+            return this.pinned.valuesView().sumOfInt(ConcurrentMutableMap::size);
+        }
+    }
+
+    private static class UnboundedCache extends AbstractCache
+    {
+        @Override
+        public CoreInstance get(String classifier, String id)
+        {
+            return getPinned(getPinnedInstances(classifier), id);
+        }
+
+        @Override
+        public CoreInstance getIfAbsentPut(String classifier, String id, Function0<? extends CoreInstance> factory)
+        {
+            return getIfAbsentPutPinned(getPinnedInstances(classifier), id, factory);
+        }
+
+        @Override
+        public ConcurrentMutableMap<String, CoreInstance> getPinnedInstances(String classifier)
+        {
+            return this.pinned.getIfAbsentPut(classifier, ConcurrentHashMap::newMap);
+        }
+
+        @Override
+        public Statistics getStatistics()
+        {
+            return new Statistics(this.hits.sum(), this.misses.sum(), 0L, 0L, getPinnedSize());
+        }
+    }
+
+    private static class BoundedCache extends AbstractCache
+    {
+        private final int maxSize;
+        private final boolean weakReferences;
+        private final ImmutableSet<String> pinnedClassifiers;
+
+        // A single lock over both tiers, rather than a Guava cache with a removal listener, so that moving an instance
+        // between the tiers is atomic with lookups and an instance is never loaded twice while it is still reachable
+        private final Object lock = new Object();
+        private final LinkedHashMap<Key, CoreInstance> strong;
+        private final Map<Key, Reference<CoreInstance>> overflow = new HashMap<>();
+        private final ReferenceQueue<CoreInstance> referenceQueue = new ReferenceQueue<>();
+
+        private long evictions = 0L;
+        private long collected = 0L;
+
+        private BoundedCache(int maxSize, boolean weakReferences, ImmutableSet<String> pinnedClassifiers)
+        {
+            this.maxSize = maxSize;
+            this.weakReferences = weakReferences;
+            this.pinnedClassifiers = pinnedClassifiers;
+            this.strong = new LinkedHashMap<Key, CoreInstance>(16, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, CoreInstance> eldest)
+                {
+                    if (size() > BoundedCache.this.maxSize)
+                    {
+                        evict(eldest.getKey(), eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        @Override
+        public CoreInstance get(String classifier, String id)
+        {
+            ConcurrentMutableMap<String, CoreInstance> pinnedInstances = getPinnedInstances(classifier);
+            if (pinnedInstances != null)
+            {
+                return getPinned(pinnedInstances, id);
+            }
+
+            CoreInstance instance;
+            synchronized (this.lock)
+            {
+                instance = getUnsynchronized(new Key(classifier, id));
+            }
+            (instance == null ? this.misses : this.hits).increment();
+            return instance;
+        }
+
+        @Override
+        public CoreInstance getIfAbsentPut(String classifier, String id, Function0<? extends CoreInstance> factory)
+        {
+            ConcurrentMutableMap<String, CoreInstance> pinnedInstances = getPinnedInstances(classifier);
+            if (pinnedInstances != null)
+            {
+                return getIfAbsentPutPinned(pinnedInstances, id, factory);
+            }
+
+            Key key = new Key(classifier, id);
+            synchronized (this.lock)
+            {
+                CoreInstance instance = getUnsynchronized(key);
+                if (instance != null)
+                {
+                    this.hits.increment();
+                    return instance;
+                }
+            }
+            this.misses.increment();
+
+            // Create the instance outside the lock, as creating it may need other instances
+            CoreInstance newInstance = factory.value();
+            synchronized (this.lock)
+            {
+                CoreInstance instance = getUnsynchronized(key);
+                if (instance != null)
+                {
+                    return instance;
+                }
+                this.strong.put(key, newInstance);
+                return newInstance;
+            }
+        }
+
+        @Override
+        public ConcurrentMutableMap<String, CoreInstance> getPinnedInstances(String classifier)
+        {
+            return this.pinnedClassifiers.contains(classifier) ? this.pinned.getIfAbsentPut(classifier, ConcurrentHashMap::newMap) : null;
+        }
+
+        @Override
+        public Statistics getStatistics()
+        {
+            synchronized (this.lock)
+            {
+                expungeClearedReferences();
+                return new Statistics(this.hits.sum(), this.misses.sum(), this.evictions, this.collected, this.strong.size() + getPinnedSize());
+            }
+        }
+
+        private CoreInstance getUnsynchronized(Key key)
+        {
+            expungeClearedReferences();
+            CoreInstance instance = this.strong.get(key);
+            if (instance == null)
+            {
+                Reference<CoreInstance> reference = this.overflow.get(key);
+                if (reference != null)
+                {
+                    instance = reference.get();
+                    if (instance != null)
+                    {
+                        // Used again before being collected: restore to the strong tier
+                        this.overflow.remove(key);
+                        this.strong.put(key, instance);
+                    }
+                }
+            }
+            return instance;
+        }
+
+        private void evict(Key key, CoreInstance instance)
+        {
+            this.overflow.put(key, this.weakReferences ? new KeyedWeakReference(key, instance, this.referenceQueue) : new KeyedSoftReference(key, instance, this.referenceQueue));
+            this.evictions++;
+        }
+
+        private void expungeClearedReferences()
+        {
+            for (Reference<? extends CoreInstance> reference = this.referenceQueue.poll(); reference != null; reference = this.referenceQueue.poll())
+            {
+                // The key may have been restored and evicted again since, with a new reference
+                if (this.overflow.remove(((KeyedReference) reference).getKey(), reference))
+                {
+                    this.collected++;
+                }
+            }
+        }
+    }
+
+    private static class Key
+    {
+        private final String classifier;
+        private final String id;
+        private final int hashCode;
+
+        private Key(String classifier, String id)
+        {
+            this.classifier = Objects.requireNonNull(classifier, "classifier may not be null");
+            this.id = Objects.requireNonNull(id, "id may not be null");
+            this.hashCode = (31 * classifier.hashCode()) + id.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (!(other instanceof Key))
+            {
+                return false;
+            }
+            Key that = (Key) other;
+            return (this.hashCode == that.hashCode) && this.id.equals(that.id) && this.classifier.equals(that.classifier);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hashCode;
+        }
+    }
+
+    private interface KeyedReference
+    {
+        Key getKey();
+    }
+
+    private static class KeyedSoftReference extends SoftReference<CoreInstance> implements KeyedReference
+    {
+        private final Key key;
+
+        private KeyedSoftReference(Key key, CoreInstance instance, ReferenceQueue<CoreInstance> queue)
+        {
+            super(instance, queue);
+            this.key = key;
+        }
+
+        @Override
+        public Key getKey()
+        {
+            return this.key;
+        }
+    }
+
+    private static class KeyedWeakReference extends WeakReference<CoreInstance> implements KeyedReference
+    {
+        private final Key key;
+
+        private KeyedWeakReference(Key key, CoreInstance instance, ReferenceQueue<CoreInstance> queue)
+        {
+            super(instance, queue);
+            this.key = key;
+        }
+
+        @Override
+        public Key getKey()
+        {
+            return this.key;
+        }
+    }
+}
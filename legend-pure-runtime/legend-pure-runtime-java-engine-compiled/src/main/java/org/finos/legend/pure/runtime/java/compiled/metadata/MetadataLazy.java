@@ -15,6 +15,7 @@
 package org.finos.legend.pure.runtime.java.compiled.metadata;
 
 import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.block.predicate.Predicate;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.factory.Sets;
@@ -25,9 +26,11 @@ import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.set.MutableSet;
 import org.eclipse.collections.impl.Counter;
+import org.eclipse.collections.impl.block.factory.Predicates;
 import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.runtime.java.compiled.generation.JavaPackageAndImportBuilder;
+import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.coreinstance.AbstractLazyReflectiveCoreInstance;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.type.EnumProcessor;
 import org.finos.legend.pure.runtime.java.compiled.serialization.binary.DistributedBinaryGraphDeserializer;
 import org.finos.legend.pure.runtime.java.compiled.serialization.binary.DistributedMetadataSpecification;
@@ -41,8 +44,12 @@ import org.finos.legend.pure.runtime.java.compiled.serialization.model.RValueVis
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
 
 public class MetadataLazy implements Metadata
 {
@@ -70,14 +77,20 @@ public class MetadataLazy implements Metadata
     private final ClassLoader classLoader;
     private final DistributedBinaryGraphDeserializer deserializer;
     private final ConcurrentMutableMap<String, Constructor<? extends CoreInstance>> constructors = ConcurrentHashMap.newMap();
-    private final ConcurrentMutableMap<String, ConcurrentMutableMap<String, CoreInstance>> instanceCache = ConcurrentHashMap.newMap();
+    private final LazyInstanceCache instanceCache;
 
     private volatile Constructor<? extends CoreInstance> enumConstructor = null; //NOSONAR we actually want to protect the pointer
 
-    private MetadataLazy(ClassLoader classLoader, DistributedBinaryGraphDeserializer deserializer)
+    private MetadataLazy(ClassLoader classLoader, DistributedBinaryGraphDeserializer deserializer, LazyInstanceCache instanceCache)
     {
         this.classLoader = classLoader;
         this.deserializer = deserializer;
+        this.instanceCache = instanceCache;
+    }
+
+    private MetadataLazy(ClassLoader classLoader, DistributedBinaryGraphDeserializer deserializer)
+    {
+        this(classLoader, deserializer, LazyInstanceCaches.unbounded());
     }
 
     @Override
@@ -118,12 +131,11 @@ public class MetadataLazy implements Metadata
             throw new RuntimeException("Cannot find enum '" + enumName + "' in enumeration '" + enumerationName + "': unknown enumeration");
         }
 
-        ConcurrentMutableMap<String, CoreInstance> cache = getClassifierInstanceCache(enumerationName);
-        CoreInstance result = cache.get(enumName);
+        CoreInstance result = this.instanceCache.get(enumerationName, enumName);
         if (result == null)
         {
             //might not have loaded yet, so request full load and try again:
-            loadAllClassifierInstances(enumerationName);
+            MutableMap<String, CoreInstance> cache = loadAllClassifierInstances(enumerationName);
             result = cache.get(enumName);
             if (result == null)
             {
@@ -189,11 +201,10 @@ public class MetadataLazy implements Metadata
         objRefsByClassifier.forEachKeyValue((classifier, objRefs) ->
         {
             MutableList<String> idsToDeserialize = Lists.mutable.withInitialCapacity(objRefs.size());
-            ConcurrentMutableMap<String, CoreInstance> classifierCache = getClassifierInstanceCache(classifier);
             objRefs.forEach(objRef ->
             {
                 String id = objRef.getId();
-                CoreInstance cachedInstance = classifierCache.get(id);
+                CoreInstance cachedInstance = this.instanceCache.get(classifier, id);
                 if (cachedInstance == null)
                 {
                     idsToDeserialize.add(id);
@@ -208,7 +219,7 @@ public class MetadataLazy implements Metadata
                 ListIterable<Obj> deserialized = getInstances(classifier, idsToDeserialize);
                 deserialized.forEach(obj ->
                 {
-                    CoreInstance cachedInstance = classifierCache.getIfAbsentPut(obj.getIdentifier(), () -> newInstance(classifier, obj));
+                    CoreInstance cachedInstance = this.instanceCache.getIfAbsentPut(classifier, obj.getIdentifier(), () -> newInstance(classifier, obj));
                     objectByRef.put(new ObjRef(obj.getClassifier(), obj.getIdentifier()), cachedInstance);
                 });
             }
@@ -235,6 +246,111 @@ public class MetadataLazy implements Metadata
         });
     }
 
+    /**
+     * Load the instances reachable from the roots through at most depth properties, so that later accesses to them
+     * find them in the instance cache. The instances at each depth are read together, in one sequential pass over
+     * each metadata file, rather than one at a time as they are accessed.
+     *
+     * @param roots root instances
+     * @param depth number of properties to follow
+     */
+    public void prefetch(Iterable<? extends CoreInstance> roots, int depth)
+    {
+        if (depth < 0)
+        {
+            throw new IllegalArgumentException("Invalid depth: " + depth);
+        }
+        prefetch(roots, depth, level -> Predicates.alwaysTrue());
+    }
+
+    /**
+     * Load the instances reachable from the roots through the given property path (for example "properties",
+     * "genericType", "rawType"), so that later accesses to them find them in the instance cache. The instances at each
+     * step of the path are read together, in one sequential pass over each metadata file.
+     *
+     * @param roots        root instances
+     * @param propertyPath property names
+     */
+    public void prefetch(Iterable<? extends CoreInstance> roots, String... propertyPath)
+    {
+        prefetch(roots, propertyPath.length, level -> Predicates.equal(propertyPath[level]));
+    }
+
+    /**
+     * Prefetch asynchronously (see {@link #prefetch(Iterable, int)}).
+     *
+     * @param roots    root instances
+     * @param depth    number of properties to follow
+     * @param executor executor for prefetching
+     * @return prefetch future
+     */
+    public CompletableFuture<Void> prefetchAsync(Iterable<? extends CoreInstance> roots, int depth, Executor executor)
+    {
+        return CompletableFuture.runAsync(() -> prefetch(roots, depth), executor);
+    }
+
+    /**
+     * Prefetch asynchronously (see {@link #prefetch(Iterable, String...)}).
+     *
+     * @param roots        root instances
+     * @param executor     executor for prefetching
+     * @param propertyPath property names
+     * @return prefetch future
+     */
+    public CompletableFuture<Void> prefetchAsync(Iterable<? extends CoreInstance> roots, Executor executor, String... propertyPath)
+    {
+        return CompletableFuture.runAsync(() -> prefetch(roots, propertyPath), executor);
+    }
+
+    private void prefetch(Iterable<? extends CoreInstance> roots, int depth, IntFunction<Predicate<? super String>> propertiesByLevel)
+    {
+        MutableSet<ObjRef> visited = Sets.mutable.empty();
+        MutableList<CoreInstance> instances = Lists.mutable.withAll(roots);
+        for (int level = 0; (level < depth) && instances.notEmpty(); level++)
+        {
+            Predicate<? super String> properties = propertiesByLevel.apply(level);
+            MutableMap<String, MutableSet<String>> idsByClassifier = Maps.mutable.empty();
+            instances.forEach(instance ->
+            {
+                if (instance instanceof AbstractLazyReflectiveCoreInstance)
+                {
+                    ((AbstractLazyReflectiveCoreInstance) instance).forEachObjRef(properties, objRef ->
+                    {
+                        if (visited.add(objRef))
+                        {
+                            idsByClassifier.getIfAbsentPut(objRef.getClassifierId(), Sets.mutable::empty).add(objRef.getId());
+                        }
+                    });
+                }
+            });
+            instances = loadInstances(idsByClassifier);
+        }
+    }
+
+    private MutableList<CoreInstance> loadInstances(MapIterable<String, ? extends RichIterable<String>> idsByClassifier)
+    {
+        MutableList<CoreInstance> instances = Lists.mutable.empty();
+        MutableMap<String, MutableList<String>> idsToDeserialize = Maps.mutable.empty();
+        idsByClassifier.forEachKeyValue((classifier, ids) -> ids.forEach(id ->
+        {
+            CoreInstance cachedInstance = this.instanceCache.get(classifier, id);
+            if (cachedInstance == null)
+            {
+                idsToDeserialize.getIfAbsentPut(classifier, Lists.mutable::empty).add(id);
+            }
+            else
+            {
+                instances.add(cachedInstance);
+            }
+        }));
+        if (idsToDeserialize.notEmpty())
+        {
+            this.deserializer.getInstancesByClassifierIfPresent(idsToDeserialize).forEachKeyValue((classifier, objs) ->
+                    objs.forEach(obj -> instances.add(this.instanceCache.getIfAbsentPut(classifier, obj.getIdentifier(), () -> newInstance(classifier, obj)))));
+        }
+        return instances;
+    }
+
     private boolean hasClassifier(String classifier)
     {
         return this.deserializer.hasClassifier(classifier);
@@ -255,30 +371,50 @@ public class MetadataLazy implements Metadata
         return this.deserializer.getInstances(classifier, instanceIds);
     }
 
-    private ConcurrentMutableMap<String, CoreInstance> loadAllClassifierInstances(String classifier)
+    private MutableMap<String, CoreInstance> loadAllClassifierInstances(String classifier)
     {
         RichIterable<String> instanceIds = getClassifierInstanceIds(classifier);
-        ConcurrentMutableMap<String, CoreInstance> classifierCache = getClassifierInstanceCache(classifier);
-        if (classifierCache.size() < instanceIds.size())
+        ConcurrentMutableMap<String, CoreInstance> classifierCache = this.instanceCache.getPinnedInstances(classifier);
+        if (classifierCache != null)
         {
-            MutableList<String> notLoadedIds = instanceIds.reject(classifierCache::containsKey, Lists.mutable.empty());
-            if (notLoadedIds.notEmpty())
+            if (classifierCache.size() < instanceIds.size())
             {
-                ListIterable<Obj> objs = getInstances(classifier, notLoadedIds);
-                objs.forEach(obj -> classifierCache.getIfAbsentPut(obj.getIdentifier(), () -> newInstance(classifier, obj)));
+                MutableList<String> notLoadedIds = instanceIds.reject(classifierCache::containsKey, Lists.mutable.empty());
+                if (notLoadedIds.notEmpty())
+                {
+                    ListIterable<Obj> objs = getInstances(classifier, notLoadedIds);
+                    objs.forEach(obj -> classifierCache.getIfAbsentPut(obj.getIdentifier(), () -> newInstance(classifier, obj)));
+                }
             }
+            return classifierCache;
         }
-        return classifierCache;
-    }
 
-    private CoreInstance toJavaObject(String classifier, String id)
-    {
-        return getClassifierInstanceCache(classifier).getIfAbsentPut(id, () -> newInstance(classifier, id));
+        // Instances of classifiers which are not pinned may be evicted, so collect them into a map of their own
+        MutableMap<String, CoreInstance> instances = Maps.mutable.withInitialCapacity(instanceIds.size());
+        MutableList<String> notLoadedIds = Lists.mutable.empty();
+        instanceIds.forEach(id ->
+        {
+            CoreInstance cachedInstance = this.instanceCache.get(classifier, id);
+            if (cachedInstance == null)
+            {
+                notLoadedIds.add(id);
+            }
+            else
+            {
+                instances.put(id, cachedInstance);
+            }
+        });
+        if (notLoadedIds.notEmpty())
+        {
+            ListIterable<Obj> objs = getInstances(classifier, notLoadedIds);
+            objs.forEach(obj -> instances.put(obj.getIdentifier(), this.instanceCache.getIfAbsentPut(classifier, obj.getIdentifier(), () -> newInstance(classifier, obj))));
+        }
+        return instances;
     }
 
-    private ConcurrentMutableMap<String, CoreInstance> getClassifierInstanceCache(String classifier)
+    private CoreInstance toJavaObject(String classifier, String id)
     {
-        return this.instanceCache.getIfAbsentPut(classifier, ConcurrentHashMap::newMap);
+        return this.instanceCache.getIfAbsentPut(classifier, id, () -> newInstance(classifier, id));
     }
 
     private CoreInstance newInstance(String classifier, String id)
@@ -360,6 +496,16 @@ public class MetadataLazy implements Metadata
         }
     }
 
+    /**
+     * Get the cache of the instances loaded by this metadata, for example to get its statistics.
+     *
+     * @return instance cache
+     */
+    public LazyInstanceCache getInstanceCache()
+    {
+        return this.instanceCache;
+    }
+
     public static MetadataLazy newMetadata(ClassLoader classLoader, DistributedBinaryGraphDeserializer deserializer)
     {
         Objects.requireNonNull(classLoader, "class loader may not be null");
@@ -367,6 +513,23 @@ public class MetadataLazy implements Metadata
         return new MetadataLazy(classLoader, deserializer);
     }
 
+    /**
+     * Lazy metadata with the given cache policy for loaded instances (see {@link LazyInstanceCaches}). The default is
+     * {@link LazyInstanceCaches#unbounded()}, which keeps every instance once loaded.
+     *
+     * @param classLoader   class loader
+     * @param deserializer  deserializer
+     * @param instanceCache instance cache
+     * @return lazy metadata
+     */
+    public static MetadataLazy newMetadata(ClassLoader classLoader, DistributedBinaryGraphDeserializer deserializer, LazyInstanceCache instanceCache)
+    {
+        Objects.requireNonNull(classLoader, "class loader may not be null");
+        Objects.requireNonNull(deserializer, "deserializer may not be null");
+        Objects.requireNonNull(instanceCache, "instance cache may not be null");
+        return new MetadataLazy(classLoader, deserializer, instanceCache);
+    }
+
     public static MetadataLazy fromClassLoader(ClassLoader classLoader)
     {
         Objects.requireNonNull(classLoader, "class loader may not be null");
@@ -403,4 +566,29 @@ public class MetadataLazy implements Metadata
         DistributedBinaryGraphDeserializer deserializer = builder.build();
         return new MetadataLazy(classLoader, deserializer);
     }
+
+    /**
+     * Lazy metadata from a class loader, with each metadata file memory mapped once on first use rather than opened
+     * (and, in jars, inflated) for each instance loaded. Metadata files in jars are extracted to the cache directory
+     * or, if there is none, read into memory (see {@link DistributedBinaryGraphDeserializer#newMemoryMappedBuilder(ClassLoader, Path)}).
+     *
+     * @param classLoader    class loader
+     * @param metadataNames  metadata names
+     * @param cacheDirectory directory for metadata files extracted from jars, may be null
+     * @return lazy metadata
+     */
+    public static MetadataLazy fromMemoryMappedClassLoader(ClassLoader classLoader, Iterable<String> metadataNames, Path cacheDirectory)
+    {
+        Objects.requireNonNull(classLoader, "class loader may not be null");
+        Objects.requireNonNull(metadataNames, "metadataNames may not be null");
+        List<DistributedMetadataSpecification> specs = DistributedMetadataSpecification.loadSpecifications(classLoader, metadataNames);
+        if (specs.isEmpty())
+        {
+            throw new IllegalArgumentException("metadata names are required");
+        }
+        DistributedBinaryGraphDeserializer.Builder builder = DistributedBinaryGraphDeserializer.newMemoryMappedBuilder(classLoader, cacheDirectory).withObjValidation();
+        specs.forEach(spec -> builder.withMetadataName(spec.getName()));
+        DistributedBinaryGraphDeserializer deserializer = builder.build();
+        return new MetadataLazy(classLoader, deserializer);
+    }
 }
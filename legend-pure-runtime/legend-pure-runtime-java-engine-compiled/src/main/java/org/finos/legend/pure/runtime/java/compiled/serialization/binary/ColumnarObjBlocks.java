@@ -0,0 +1,782 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.serialization.binary;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+import org.finos.legend.pure.m4.coreinstance.SourceInformation;
+import org.finos.legend.pure.m4.coreinstance.primitive.date.DateFunctions;
+import org.finos.legend.pure.m4.coreinstance.primitive.date.LatestDate;
+import org.finos.legend.pure.m4.coreinstance.primitive.date.PureDate;
+import org.finos.legend.pure.m4.serialization.Reader;
+import org.finos.legend.pure.m4.serialization.Writer;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.EnumRef;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.Obj;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.ObjRef;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.Primitive;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.PropertyValue;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.PropertyValueMany;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.PropertyValueOne;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.RValue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Columnar format of the instances of a classifier (see {@link DistributedMetadataSpecification.Format#COLUMNAR}).
+ * <p>
+ * The instances are sorted by identifier and split into blocks of at most {@link #MAX_BLOCK_INSTANCES}, which are
+ * compressed independently and written one after another into the classifier blocks file. The classifier index file
+ * starts with {@link #INDEX_MARKER} (never a valid instance count, so it is told apart from the row format index), and
+ * holds the position and lengths of each block and the identifiers of the instances, delta encoded.
+ * <p>
+ * Within a block, each column holds one kind of value for all instances of the block: serialization codes, names,
+ * source information, the properties of each instance, then, for each property, the shapes, value types and values of
+ * that property for all instances. Strings are encoded by their id in the string cache, and integers as variable length
+ * (zigzag) integers.
+ */
+class ColumnarObjBlocks
+{
+    static final int INDEX_MARKER = -2;
+    static final int MAX_BLOCK_INSTANCES = 128;
+
+    private ColumnarObjBlocks()
+    {
+    }
+
+    // Writing
+
+    static void writeClassifier(FileWriter fileWriter, String metadataName, String classifierId, ListIterable<Obj> objs, StringCache stringCache)
+    {
+        int blockCount = (objs.size() + MAX_BLOCK_INSTANCES - 1) / MAX_BLOCK_INSTANCES;
+        int[] blockInfos = new int[blockCount * 4];
+        if (blockCount > 0)
+        {
+            try (Writer blocksWriter = fileWriter.getWriter(DistributedMetadataHelper.getMetadataClassifierBlocksFilePath(metadataName, classifierId)))
+            {
+                int offset = 0;
+                for (int block = 0; block < blockCount; block++)
+                {
+                    int end = Math.min(objs.size(), (block + 1) * MAX_BLOCK_INSTANCES);
+                    MutableList<Obj> blockObjs = Lists.mutable.withInitialCapacity(end - (block * MAX_BLOCK_INSTANCES));
+                    for (int i = block * MAX_BLOCK_INSTANCES; i < end; i++)
+                    {
+                        blockObjs.add(objs.get(i));
+                    }
+                    byte[] bytes = encodeBlock(blockObjs, stringCache);
+                    byte[] compressed = compress(bytes);
+                    blocksWriter.writeBytes(compressed);
+                    blockInfos[block * 4] = blockObjs.size();
+                    blockInfos[(block * 4) + 1] = offset;
+                    blockInfos[(block * 4) + 2] = compressed.length;
+                    blockInfos[(block * 4) + 3] = bytes.length;
+                    offset += compressed.length;
+                    if (offset < 0)
+                    {
+                        throw new RuntimeException("Too much data for classifier " + classifierId);
+                    }
+                }
+            }
+        }
+
+        ByteOutput identifiers = new ByteOutput();
+        int previousId = 0;
+        for (Obj obj : objs)
+        {
+            int id = stringCache.getStringId(obj.getIdentifier());
+            identifiers.writeSignedVarInt(id - previousId);
+            previousId = id;
+        }
+
+        try (Writer indexWriter = fileWriter.getWriter(DistributedMetadataHelper.getMetadataClassifierIndexFilePath(metadataName, classifierId)))
+        {
+            indexWriter.writeInt(INDEX_MARKER);
+            indexWriter.writeInt(DistributedMetadataSpecification.Format.COLUMNAR.getVersion());
+            indexWriter.writeInt(objs.size());
+            indexWriter.writeInt(blockCount);
+            for (int blockInfo : blockInfos)
+            {
+                indexWriter.writeInt(blockInfo);
+            }
+            indexWriter.writeInt(identifiers.size());
+            indexWriter.writeBytes(identifiers.buffer, 0, identifiers.size());
+        }
+    }
+
+    static byte[] encodeBlock(ListIterable<Obj> objs, StringCache stringCache)
+    {
+        ByteOutput output = new ByteOutput();
+        int size = objs.size();
+        output.writeVarInt(size);
+
+        // Codes, names, source information
+        objs.forEach(obj -> output.writeByte(BinaryGraphSerializationTypes.getObjSerializationCode(obj)));
+        objs.forEach(obj ->
+        {
+            if (obj.getName() != null)
+            {
+                output.writeSignedVarInt(stringCache.getStringId(obj.getName()));
+            }
+        });
+        objs.forEach(obj ->
+        {
+            SourceInformation sourceInfo = obj.getSourceInformation();
+            if (sourceInfo != null)
+            {
+                output.writeSignedVarInt(stringCache.getStringId(sourceInfo.getSourceId()));
+                output.writeSignedVarInt(sourceInfo.getStartLine());
+                output.writeSignedVarInt(sourceInfo.getStartColumn());
+                output.writeSignedVarInt(sourceInfo.getLine() - sourceInfo.getStartLine());
+                output.writeSignedVarInt(sourceInfo.getColumn());
+                output.writeSignedVarInt(sourceInfo.getEndLine() - sourceInfo.getLine());
+                output.writeSignedVarInt(sourceInfo.getEndColumn());
+            }
+        });
+
+        // Properties, in order of first appearance, and the properties of each instance
+        MutableObjectIntMap<String> propertyIndexes = ObjectIntHashMap.newMap();
+        MutableList<String> properties = Lists.mutable.empty();
+        int[][] layouts = new int[size][];
+        for (int i = 0; i < size; i++)
+        {
+            ListIterable<PropertyValue> propertyValues = objs.get(i).getPropertyValues();
+            int[] layout = new int[propertyValues.size()];
+            for (int j = 0; j < layout.length; j++)
+            {
+                String property = propertyValues.get(j).getProperty();
+                layout[j] = propertyIndexes.getIfAbsentPut(property, properties.size());
+                if (layout[j] == properties.size())
+                {
+                    properties.add(property);
+                }
+            }
+            layouts[i] = layout;
+        }
+        output.writeVarInt(properties.size());
+        properties.forEach(property -> output.writeSignedVarInt(stringCache.getStringId(property)));
+        for (int[] layout : layouts)
+        {
+            output.writeVarInt(layout.length);
+            for (int propertyIndex : layout)
+            {
+                output.writeVarInt(propertyIndex);
+            }
+        }
+
+        // Property value columns
+        for (int p = 0; p < properties.size(); p++)
+        {
+            MutableList<RValue> values = Lists.mutable.empty();
+            for (int i = 0; i < size; i++)
+            {
+                int[] layout = layouts[i];
+                for (int j = 0; j < layout.length; j++)
+                {
+                    if (layout[j] == p)
+                    {
+                        PropertyValue propertyValue = objs.get(i).getPropertyValues().get(j);
+                        if (propertyValue instanceof PropertyValueMany)
+                        {
+                            ListIterable<RValue> manyValues = ((PropertyValueMany) propertyValue).getValues();
+                            output.writeVarInt(manyValues.size() + 1);
+                            values.addAllIterable(manyValues);
+                        }
+                        else
+                        {
+                            output.writeVarInt(0);
+                            values.add(((PropertyValueOne) propertyValue).getValue());
+                        }
+                    }
+                }
+            }
+            values.forEach(value -> output.writeByte(getValueType(value)));
+            values.forEach(value -> writeValue(output, value, stringCache));
+        }
+        return output.toByteArray();
+    }
+
+    private static byte getValueType(RValue value)
+    {
+        if (value instanceof EnumRef)
+        {
+            return BinaryGraphSerializationTypes.ENUM_REF;
+        }
+        if (value instanceof ObjRef)
+        {
+            return BinaryGraphSerializationTypes.OBJ_REF;
+        }
+        if (value instanceof Primitive)
+        {
+            Object primitive = ((Primitive) value).getValue();
+            if (primitive instanceof Boolean)
+            {
+                return BinaryGraphSerializationTypes.PRIMITIVE_BOOLEAN;
+            }
+            if (primitive instanceof Double)
+            {
+                return BinaryGraphSerializationTypes.PRIMITIVE_DOUBLE;
+            }
+            if (primitive instanceof Long)
+            {
+                return BinaryGraphSerializationTypes.PRIMITIVE_LONG;
+            }
+            if (primitive instanceof String)
+            {
+                return BinaryGraphSerializationTypes.PRIMITIVE_STRING;
+            }
+            if (primitive instanceof PureDate)
+            {
+                return BinaryGraphSerializationTypes.PRIMITIVE_DATE;
+            }
+            if (primitive instanceof BigDecimal)
+            {
+                return BinaryGraphSerializationTypes.PRIMITIVE_DECIMAL;
+            }
+            throw new UnsupportedOperationException("Unsupported primitive type: " + primitive.getClass().getSimpleName());
+        }
+        throw new UnsupportedOperationException("serialization for RValue type not supported: " + value.getClass().getName());
+    }
+
+    private static void writeValue(ByteOutput output, RValue value, StringCache stringCache)
+    {
+        if (value instanceof EnumRef)
+        {
+            EnumRef enumRef = (EnumRef) value;
+            output.writeSignedVarInt(stringCache.getStringId(enumRef.getEnumerationId()));
+            output.writeSignedVarInt(stringCache.getStringId(enumRef.getEnumName()));
+            return;
+        }
+        if (value instanceof ObjRef)
+        {
+            ObjRef objRef = (ObjRef) value;
+            output.writeSignedVarInt(stringCache.getStringId(objRef.getClassifierId()));
+            output.writeSignedVarInt(stringCache.getStringId(objRef.getId()));
+            return;
+        }
+        Object primitive = ((Primitive) value).getValue();
+        if (primitive instanceof Boolean)
+        {
+            output.writeByte((byte) (((Boolean) primitive) ? 1 : 0));
+        }
+        else if (primitive instanceof Double)
+        {
+            output.writeFixedLong(Double.doubleToRawLongBits((Double) primitive));
+        }
+        else if (primitive instanceof Long)
+        {
+            output.writeSignedVarLong((Long) primitive);
+        }
+        else if (primitive instanceof String)
+        {
+            output.writeSignedVarInt(stringCache.getStringId((String) primitive));
+        }
+        else if (primitive instanceof PureDate)
+        {
+            output.writeSignedVarInt(stringCache.getStringId(primitive.toString()));
+        }
+        else
+        {
+            byte[] bytes = ((BigDecimal) primitive).toPlainString().getBytes(StandardCharsets.UTF_8);
+            output.writeVarInt(bytes.length);
+            output.writeBytes(bytes);
+        }
+    }
+
+    static byte[] compress(byte[] bytes)
+    {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try
+        {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteOutput output = new ByteOutput(Math.max(64, bytes.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished())
+            {
+                int count = deflater.deflate(buffer);
+                output.writeBytes(buffer, 0, count);
+            }
+            return output.toByteArray();
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    // Reading
+
+    static String[] readIdentifiers(Reader reader, int instanceCount, StringIndex stringIndex)
+    {
+        int length = reader.readInt();
+        ByteInput input = new ByteInput(reader.readBytes(length));
+        String[] identifiers = new String[instanceCount];
+        int id = 0;
+        for (int i = 0; i < instanceCount; i++)
+        {
+            id += input.readSignedVarInt();
+            identifiers[i] = stringIndex.getString(id);
+        }
+        return identifiers;
+    }
+
+    static Block readBlock(byte[] compressed, int uncompressedLength, StringIndex stringIndex)
+    {
+        return new Block(new ByteInput(decompress(compressed, uncompressedLength)), stringIndex, -1);
+    }
+
+    /**
+     * Read the instance at a position of a block. The whole block is decompressed, but only the values of that instance
+     * are decoded: the values of the other instances are skipped, without looking up their strings.
+     */
+    static Obj readObj(byte[] compressed, int uncompressedLength, int position, String identifier, String classifierId, StringIndex stringIndex)
+    {
+        return new Block(new ByteInput(decompress(compressed, uncompressedLength)), stringIndex, position).getObj(position, identifier, classifierId);
+    }
+
+    private static byte[] decompress(byte[] compressed, int uncompressedLength)
+    {
+        Inflater inflater = new Inflater(true);
+        try
+        {
+            inflater.setInput(compressed);
+            byte[] bytes = new byte[uncompressedLength];
+            int count = 0;
+            while (count < uncompressedLength)
+            {
+                int inflated = inflater.inflate(bytes, count, uncompressedLength - count);
+                if ((inflated == 0) && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    throw new RuntimeException("Truncated metadata block: expected " + uncompressedLength + " bytes, got " + count);
+                }
+                count += inflated;
+            }
+            return bytes;
+        }
+        catch (DataFormatException e)
+        {
+            throw new RuntimeException("Invalid metadata block", e);
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+
+    /**
+     * A decoded block, from which instances are built given their identifier. A block may be decoded for a single
+     * position only, in which case the instances at other positions cannot be built from it.
+     */
+    static class Block
+    {
+        private final int decodedPosition;
+        private final byte[] codes;
+        private final String[] names;
+        private final SourceInformation[] sourceInfos;
+        private final PropertyValue[][] propertyValues;
+
+        private Block(ByteInput input, StringIndex stringIndex, int decodedPosition)
+        {
+            this.decodedPosition = decodedPosition;
+            int size = input.readVarInt();
+            this.codes = input.readBytes(size);
+
+            this.names = new String[size];
+            for (int i = 0; i < size; i++)
+            {
+                if (BinaryGraphSerializationTypes.hasName(this.codes[i]))
+                {
+                    int nameId = input.readSignedVarInt();
+                    if (isDecoded(i))
+                    {
+                        this.names[i] = stringIndex.getString(nameId);
+                    }
+                }
+            }
+
+            this.sourceInfos = new SourceInformation[size];
+            for (int i = 0; i < size; i++)
+            {
+                if (BinaryGraphSerializationTypes.hasSourceInfo(this.codes[i]))
+                {
+                    int sourceId = input.readSignedVarInt();
+                    int startLine = input.readSignedVarInt();
+                    int startColumn = input.readSignedVarInt();
+                    int line = startLine + input.readSignedVarInt();
+                    int column = input.readSignedVarInt();
+                    int endLine = line + input.readSignedVarInt();
+                    int endColumn = input.readSignedVarInt();
+                    if (isDecoded(i))
+                    {
+                        this.sourceInfos[i] = new SourceInformation(stringIndex.getString(sourceId), startLine, startColumn, line, column, endLine, endColumn);
+                    }
+                }
+            }
+
+            int[] propertyIds = new int[input.readVarInt()];
+            for (int p = 0; p < propertyIds.length; p++)
+            {
+                propertyIds[p] = input.readSignedVarInt();
+            }
+            int[][] layouts = new int[size][];
+            for (int i = 0; i < size; i++)
+            {
+                int[] layout = new int[input.readVarInt()];
+                for (int j = 0; j < layout.length; j++)
+                {
+                    layout[j] = input.readVarInt();
+                }
+                layouts[i] = layout;
+            }
+
+            this.propertyValues = new PropertyValue[size][];
+            for (int i = 0; i < size; i++)
+            {
+                if (isDecoded(i))
+                {
+                    this.propertyValues[i] = new PropertyValue[layouts[i].length];
+                }
+            }
+            for (int p = 0; p < propertyIds.length; p++)
+            {
+                // Shapes: -1 for one value, otherwise the number of values
+                IntArrayList instancePositions = new IntArrayList();
+                IntArrayList propertyPositions = new IntArrayList();
+                IntArrayList shapes = new IntArrayList();
+                int valueCount = 0;
+                for (int i = 0; i < size; i++)
+                {
+                    int[] layout = layouts[i];
+                    for (int j = 0; j < layout.length; j++)
+                    {
+                        if (layout[j] == p)
+                        {
+                            int shape = input.readVarInt() - 1;
+                            instancePositions.add(i);
+                            propertyPositions.add(j);
+                            shapes.add(shape);
+                            valueCount += (shape < 0) ? 1 : shape;
+                        }
+                    }
+                }
+                byte[] types = input.readBytes(valueCount);
+
+                // Values are in the same order as the shapes
+                String property = null;
+                int v = 0;
+                for (int k = 0; k < shapes.size(); k++)
+                {
+                    int shape = shapes.get(k);
+                    int instancePosition = instancePositions.get(k);
+                    if (!isDecoded(instancePosition))
+                    {
+                        for (int end = v + ((shape < 0) ? 1 : shape); v < end; v++)
+                        {
+                            skipValue(input, types[v]);
+                        }
+                        continue;
+                    }
+
+                    if (property == null)
+                    {
+                        property = stringIndex.getString(propertyIds[p]);
+                    }
+                    PropertyValue propertyValue;
+                    if (shape < 0)
+                    {
+                        propertyValue = new PropertyValueOne(property, readValue(input, types[v++], stringIndex));
+                    }
+                    else
+                    {
+                        RValue[] values = new RValue[shape];
+                        for (int j = 0; j < shape; j++)
+                        {
+                            values[j] = readValue(input, types[v++], stringIndex);
+                        }
+                        propertyValue = new PropertyValueMany(property, (shape == 0) ? Lists.immutable.empty() : Lists.immutable.with(values));
+                    }
+                    this.propertyValues[instancePosition][propertyPositions.get(k)] = propertyValue;
+                }
+            }
+        }
+
+        private boolean isDecoded(int position)
+        {
+            return (this.decodedPosition < 0) || (this.decodedPosition == position);
+        }
+
+        Obj getObj(int position, String identifier, String classifierId)
+        {
+            if (!isDecoded(position))
+            {
+                throw new IllegalArgumentException("Instance '" + identifier + "' at position " + position + " not decoded: only decoded position " + this.decodedPosition);
+            }
+            byte code = this.codes[position];
+            return Obj.newObj(classifierId, identifier, this.names[position], Lists.immutable.with(this.propertyValues[position]), this.sourceInfos[position], BinaryGraphSerializationTypes.isEnum(code));
+        }
+
+        private static RValue readValue(ByteInput input, byte type, StringIndex stringIndex)
+        {
+            switch (type)
+            {
+                case BinaryGraphSerializationTypes.OBJ_REF:
+                {
+                    String classifierId = stringIndex.getString(input.readSignedVarInt());
+                    return new ObjRef(classifierId, stringIndex.getString(input.readSignedVarInt()));
+                }
+                case BinaryGraphSerializationTypes.ENUM_REF:
+                {
+                    String enumerationId = stringIndex.getString(input.readSignedVarInt());
+                    return new EnumRef(enumerationId, stringIndex.getString(input.readSignedVarInt()));
+                }
+                case BinaryGraphSerializationTypes.PRIMITIVE_BOOLEAN:
+                {
+                    return new Primitive(input.readByte() != 0);
+                }
+                case BinaryGraphSerializationTypes.PRIMITIVE_DOUBLE:
+                {
+                    return new Primitive(Double.longBitsToDouble(input.readFixedLong()));
+                }
+                case BinaryGraphSerializationTypes.PRIMITIVE_LONG:
+                {
+                    return new Primitive(input.readSignedVarLong());
+                }
+                case BinaryGraphSerializationTypes.PRIMITIVE_STRING:
+                {
+                    return new Primitive(stringIndex.getString(input.readSignedVarInt()));
+                }
+                case BinaryGraphSerializationTypes.PRIMITIVE_DATE:
+                {
+                    String dateString = stringIndex.getString(input.readSignedVarInt());
+                    return new Primitive(LatestDate.isLatestDateString(dateString) ? LatestDate.instance : DateFunctions.parsePureDate(dateString));
+                }
+                case BinaryGraphSerializationTypes.PRIMITIVE_DECIMAL:
+                {
+                    byte[] bytes = input.readBytes(input.readVarInt());
+                    return new Primitive(new BigDecimal(new String(bytes, StandardCharsets.UTF_8)));
+                }
+                default:
+                {
+                    throw new UnsupportedOperationException("serialization for RValue type not supported: " + type);
+                }
+            }
+        }
+
+        private static void skipValue(ByteInput input, byte type)
+        {
+            switch (type)
+            {
+                case BinaryGraphSerializationTypes.OBJ_REF:
+                case BinaryGraphSerializationTypes.ENUM_REF:
+                {
+                    input.readVarInt();
+                    input.readVarInt();
+                    break;
+                }
+                case BinaryGraphSerializationTypes.PRIMITIVE_BOOLEAN:
+                {
+                    input.readByte();
+                    break;
+                }
+                case BinaryGraphSerializationTypes.PRIMITIVE_DOUBLE:
+                {
+                    input.skipBytes(8);
+                    break;
+                }
+                case BinaryGraphSerializationTypes.PRIMITIVE_LONG:
+                case BinaryGraphSerializationTypes.PRIMITIVE_STRING:
+                case BinaryGraphSerializationTypes.PRIMITIVE_DATE:
+                {
+                    input.readVarLong();
+                    break;
+                }
+                case BinaryGraphSerializationTypes.PRIMITIVE_DECIMAL:
+                {
+                    input.skipBytes(input.readVarInt());
+                    break;
+                }
+                default:
+                {
+                    throw new UnsupportedOperationException("serialization for RValue type not supported: " + type);
+                }
+            }
+        }
+    }
+
+    // Bytes
+
+    private static class ByteOutput
+    {
+        private byte[] buffer;
+        private int count = 0;
+
+        private ByteOutput(int initialCapacity)
+        {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        private ByteOutput()
+        {
+            this(256);
+        }
+
+        int size()
+        {
+            return this.count;
+        }
+
+        void writeByte(byte b)
+        {
+            ensureCapacity(1);
+            this.buffer[this.count++] = b;
+        }
+
+        void writeBytes(byte[] bytes)
+        {
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        void writeBytes(byte[] bytes, int offset, int length)
+        {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, this.buffer, this.count, length);
+            this.count += length;
+        }
+
+        void writeVarInt(int i)
+        {
+            writeVarLong(i & 0xFFFF_FFFFL);
+        }
+
+        void writeSignedVarInt(int i)
+        {
+            writeVarInt((i << 1) ^ (i >> 31));
+        }
+
+        void writeSignedVarLong(long l)
+        {
+            writeVarLong((l << 1) ^ (l >> 63));
+        }
+
+        void writeFixedLong(long l)
+        {
+            for (int shift = 56; shift >= 0; shift -= 8)
+            {
+                writeByte((byte) (l >>> shift));
+            }
+        }
+
+        private void writeVarLong(long l)
+        {
+            while ((l & ~0x7FL) != 0)
+            {
+                writeByte((byte) ((l & 0x7F) | 0x80));
+                l >>>= 7;
+            }
+            writeByte((byte) l);
+        }
+
+        byte[] toByteArray()
+        {
+            return Arrays.copyOf(this.buffer, this.count);
+        }
+
+        private void ensureCapacity(int extra)
+        {
+            if (this.count + extra > this.buffer.length)
+            {
+                this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.count + extra));
+            }
+        }
+    }
+
+    private static class ByteInput
+    {
+        private final byte[] bytes;
+        private int position = 0;
+
+        private ByteInput(byte[] bytes)
+        {
+            this.bytes = bytes;
+        }
+
+        byte readByte()
+        {
+            return this.bytes[this.position++];
+        }
+
+        void skipBytes(int length)
+        {
+            this.position += length;
+        }
+
+        byte[] readBytes(int length)
+        {
+            byte[] result = Arrays.copyOfRange(this.bytes, this.position, this.position + length);
+            this.position += length;
+            return result;
+        }
+
+        int readVarInt()
+        {
+            return (int) readVarLong();
+        }
+
+        int readSignedVarInt()
+        {
+            int i = readVarInt();
+            return (i >>> 1) ^ -(i & 1);
+        }
+
+        long readSignedVarLong()
+        {
+            long l = readVarLong();
+            return (l >>> 1) ^ -(l & 1);
+        }
+
+        long readFixedLong()
+        {
+            long l = 0;
+            for (int i = 0; i < 8; i++)
+            {
+                l = (l << 8) | (readByte() & 0xFF);
+            }
+            return l;
+        }
+
+        private long readVarLong()
+        {
+            long result = 0;
+            int shift = 0;
+            byte b;
+            do
+            {
+                b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while ((b & 0x80) != 0);
+            return result;
+        }
+    }
+}
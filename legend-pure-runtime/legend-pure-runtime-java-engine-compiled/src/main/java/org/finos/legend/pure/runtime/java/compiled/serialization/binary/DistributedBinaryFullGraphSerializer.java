@@ -30,6 +30,11 @@ class DistributedBinaryFullGraphSerializer extends DistributedBinaryGraphSeriali
         super(runtime, null);
     }
 
+    DistributedBinaryFullGraphSerializer(PureRuntime runtime, DistributedMetadataSpecification.Format format)
+    {
+        super(runtime, null, format);
+    }
+
     @Override
     protected void collectInstancesForSerialization(SerializationCollector serializationCollector)
     {
@@ -15,6 +15,8 @@
 package org.finos.legend.pure.runtime.java.compiled.serialization.binary;
 
 import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.block.function.Function;
+import org.eclipse.collections.api.block.procedure.Procedure;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.factory.Sets;
@@ -25,6 +27,8 @@ import org.eclipse.collections.api.map.ImmutableMap;
 import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.tuple.Tuples;
 import org.eclipse.collections.impl.utility.ArrayIterate;
 import org.eclipse.collections.impl.utility.Iterate;
 import org.finos.legend.pure.m4.serialization.Reader;
@@ -75,6 +79,37 @@ public abstract class DistributedBinaryGraphDeserializer
 
     protected abstract ListIterable<Obj> getInstances(String classifierId, Iterable<String> instanceIds, boolean throwIfNotFound);
 
+    /**
+     * Get instances of several classifiers at once. Instances are read in one pass over each metadata file, in file
+     * order, whatever their classifier.
+     *
+     * @param instanceIdsByClassifier instance ids by classifier id
+     * @return instances by classifier id
+     */
+    public final MapIterable<String, ? extends ListIterable<Obj>> getInstancesByClassifier(MapIterable<String, ? extends Iterable<String>> instanceIdsByClassifier)
+    {
+        return getInstancesByClassifier(instanceIdsByClassifier, true);
+    }
+
+    public final MapIterable<String, ? extends ListIterable<Obj>> getInstancesByClassifierIfPresent(MapIterable<String, ? extends Iterable<String>> instanceIdsByClassifier)
+    {
+        return getInstancesByClassifier(instanceIdsByClassifier, false);
+    }
+
+    protected MapIterable<String, ? extends ListIterable<Obj>> getInstancesByClassifier(MapIterable<String, ? extends Iterable<String>> instanceIdsByClassifier, boolean throwIfNotFound)
+    {
+        MutableMap<String, ListIterable<Obj>> result = Maps.mutable.withInitialCapacity(instanceIdsByClassifier.size());
+        instanceIdsByClassifier.forEachKeyValue((classifierId, instanceIds) ->
+        {
+            ListIterable<Obj> objs = getInstances(classifierId, instanceIds, throwIfNotFound);
+            if (objs.notEmpty())
+            {
+                result.put(classifierId, objs);
+            }
+        });
+        return result;
+    }
+
     public static void setSourceCoordinateMapProvider(SourceCoordinateMapProvider provider)
     {
         sourceCoordinateMapProvider = provider;
@@ -192,6 +227,43 @@ public abstract class DistributedBinaryGraphDeserializer
         return newBuilder(FileReaders.fromInMemoryByteArrays(fileBytes));
     }
 
+    /**
+     * Builder for a deserializer reading from memory mapped metadata files in the given directory.
+     *
+     * @param directory metadata directory
+     * @return builder
+     */
+    public static Builder newMemoryMappedBuilder(Path directory)
+    {
+        return newBuilder(FileReaders.fromMemoryMappedDirectory(directory));
+    }
+
+    /**
+     * Builder for a deserializer reading from memory mapped metadata files from the given class loader. Files in jars
+     * are extracted to the cache directory, or read into memory if it is null.
+     *
+     * @param classLoader    class loader
+     * @param cacheDirectory directory for files extracted from jars, may be null
+     * @return builder
+     */
+    public static Builder newMemoryMappedBuilder(ClassLoader classLoader, Path cacheDirectory)
+    {
+        return newBuilder(FileReaders.fromMemoryMappedClassLoader(classLoader, cacheDirectory));
+    }
+
+    /**
+     * Builder for a deserializer reading from memory mapped metadata files from the given jar. Files are extracted to
+     * the cache directory, or read into memory if it is null.
+     *
+     * @param zipFile        jar or zip file
+     * @param cacheDirectory directory for extracted files, may be null
+     * @return builder
+     */
+    public static Builder newMemoryMappedBuilder(ZipFile zipFile, Path cacheDirectory)
+    {
+        return newBuilder(FileReaders.fromMemoryMappedJar(zipFile, cacheDirectory));
+    }
+
     public static class Builder
     {
         private final FileReader fileReader;
@@ -294,13 +366,23 @@ public abstract class DistributedBinaryGraphDeserializer
         private final String filePath;
         private final int offset;
         private final int length;
+        // Columnar format only: position in the block at offset, and the uncompressed length of the block
+        private final int blockPosition;
+        private final int blockLength;
 
-        private SourceCoordinates(String identifier, String filePath, int offset, int length)
+        private SourceCoordinates(String identifier, String filePath, int offset, int length, int blockPosition, int blockLength)
         {
             this.identifier = identifier;
             this.filePath = filePath;
             this.offset = offset;
             this.length = length;
+            this.blockPosition = blockPosition;
+            this.blockLength = blockLength;
+        }
+
+        private SourceCoordinates(String identifier, String filePath, int offset, int length)
+        {
+            this(identifier, filePath, offset, length, -1, -1);
         }
 
         private String getFilePath()
@@ -310,7 +392,38 @@ public abstract class DistributedBinaryGraphDeserializer
 
         private Obj getObj(FileReader fileReader, StringIndex stringIndex, String classifierId)
         {
-            return getObj(getBytes(fileReader), stringIndex, classifierId);
+            try (Reader reader = fileReader.getReader(this.filePath, this.offset, this.length))
+            {
+                // For a single instance, only decode its own position of the block
+                return isInBlock() ?
+                        ColumnarObjBlocks.readObj(reader.readBytes(this.length), this.blockLength, this.blockPosition, this.identifier, classifierId, stringIndex) :
+                        getDeserializer(stringIndex, classifierId).deserialize(reader);
+            }
+        }
+
+        private boolean isInBlock()
+        {
+            return this.blockPosition >= 0;
+        }
+
+        private boolean isInSameBlock(SourceCoordinates other)
+        {
+            return (other != null) && isInBlock() && other.isInBlock() && (this.offset == other.offset) && this.filePath.equals(other.filePath);
+        }
+
+        private ColumnarObjBlocks.Block getBlock(Reader reader, long currentOffset, StringIndex stringIndex)
+        {
+            return getBlock(getBytes(reader, currentOffset), stringIndex);
+        }
+
+        private ColumnarObjBlocks.Block getBlock(byte[] bytes, StringIndex stringIndex)
+        {
+            return ColumnarObjBlocks.readBlock(bytes, this.blockLength, stringIndex);
+        }
+
+        private Obj getObj(ColumnarObjBlocks.Block block, String classifierId)
+        {
+            return block.getObj(this.blockPosition, this.identifier, classifierId);
         }
 
         private Obj getObj(Reader reader, long currentOffset, StringIndex stringIndex, String classifierId)
@@ -331,15 +444,6 @@ public abstract class DistributedBinaryGraphDeserializer
             return new BinaryObjDeserializerWithStringIndexAndImplicitIdentifiers(stringIndex, this.identifier, classifierId);
         }
 
-        private byte[] getBytes(FileReader fileReader)
-        {
-            try (Reader reader = fileReader.getReader(this.filePath))
-            {
-                reader.skipBytes(this.offset);
-                return reader.readBytes(this.length);
-            }
-        }
-
         private byte[] getBytes(Reader reader, long currentOffset)
         {
             if (this.offset < currentOffset)
@@ -357,7 +461,8 @@ public abstract class DistributedBinaryGraphDeserializer
 
         private static int compareByOffset(SourceCoordinates one, SourceCoordinates another)
         {
-            return Integer.compare(one.offset, another.offset);
+            int cmp = Integer.compare(one.offset, another.offset);
+            return (cmp == 0) ? Integer.compare(one.blockPosition, another.blockPosition) : cmp;
         }
     }
 
@@ -515,21 +620,91 @@ public abstract class DistributedBinaryGraphDeserializer
             }
 
             MutableList<Obj> objs = Lists.mutable.withInitialCapacity(size);
+            String indexClassifierId = classifierIndex.getClassifierId();
             sourceCoordinatesByFile.forEachKeyValue((filePath, fileSourceCoordinates) ->
             {
                 fileSourceCoordinates.sortThis(SourceCoordinates::compareByOffset);
-                try (Reader reader = this.fileReader.getReader(filePath))
+                readObjs(filePath, fileSourceCoordinates, sc -> indexClassifierId, objs::add);
+            });
+            return objs;
+        }
+
+        @Override
+        protected MapIterable<String, ? extends ListIterable<Obj>> getInstancesByClassifier(MapIterable<String, ? extends Iterable<String>> instanceIdsByClassifier, boolean throwIfNotFound)
+        {
+            MutableMap<String, MutableList<Pair<ClassifierIndex, SourceCoordinates>>> sourceCoordinatesByFile = Maps.mutable.empty();
+            instanceIdsByClassifier.forEachKeyValue((classifierId, instanceIds) ->
+            {
+                ClassifierIndex classifierIndex = getClassifierIndex(classifierId);
+                if (classifierIndex == null)
+                {
+                    if (throwIfNotFound)
+                    {
+                        throw new UnknownClassifierException(classifierId);
+                    }
+                    return;
+                }
+                for (String instanceId : instanceIds)
                 {
-                    int offset = 0;
-                    for (SourceCoordinates sourceCoordinates : fileSourceCoordinates)
+                    SourceCoordinates sourceCoordinates = classifierIndex.getSourceCoordinates(instanceId);
+                    if (sourceCoordinates != null)
+                    {
+                        sourceCoordinatesByFile.getIfAbsentPut(sourceCoordinates.getFilePath(), Lists.mutable::empty).add(Tuples.pair(classifierIndex, sourceCoordinates));
+                    }
+                    else if (throwIfNotFound)
                     {
-                        Obj obj = possiblyValidate(sourceCoordinates.getObj(reader, offset, this.stringIndex, classifierIndex.getClassifierId()));
-                        offset = sourceCoordinates.getOffsetAfterReading();
-                        objs.add(obj);
+                        throw new UnknownInstanceException(classifierId, instanceId);
                     }
                 }
             });
-            return objs;
+
+            MutableMap<String, MutableList<Obj>> objsByClassifier = Maps.mutable.empty();
+            sourceCoordinatesByFile.forEachKeyValue((filePath, fileSourceCoordinates) ->
+            {
+                fileSourceCoordinates.sortThis((one, another) -> SourceCoordinates.compareByOffset(one.getTwo(), another.getTwo()));
+                MutableMap<SourceCoordinates, String> classifierIds = Maps.mutable.withInitialCapacity(fileSourceCoordinates.size());
+                fileSourceCoordinates.forEach(pair -> classifierIds.put(pair.getTwo(), pair.getOne().getClassifierId()));
+                readObjs(filePath, fileSourceCoordinates.collect(Pair::getTwo), classifierIds::get, obj -> objsByClassifier.getIfAbsentPut(obj.getClassifier(), Lists.mutable::empty).add(obj));
+            });
+            return objsByClassifier;
+        }
+
+        /**
+         * Read the objs at the given source coordinates of a file, which must be sorted by offset. Instances requested
+         * more than once are only read once, and each block of the columnar format is only decoded once.
+         */
+        private void readObjs(String filePath, ListIterable<SourceCoordinates> fileSourceCoordinates, Function<? super SourceCoordinates, String> classifierIds, Procedure<? super Obj> consumer)
+        {
+            try (Reader reader = this.fileReader.getReader(filePath))
+            {
+                int offset = 0;
+                SourceCoordinates previous = null;
+                ColumnarObjBlocks.Block block = null;
+                for (SourceCoordinates sourceCoordinates : fileSourceCoordinates)
+                {
+                    if (sourceCoordinates != previous)
+                    {
+                        String classifierId = classifierIds.valueOf(sourceCoordinates);
+                        Obj obj;
+                        if (!sourceCoordinates.isInBlock())
+                        {
+                            obj = sourceCoordinates.getObj(reader, offset, this.stringIndex, classifierId);
+                            offset = sourceCoordinates.getOffsetAfterReading();
+                        }
+                        else
+                        {
+                            if (!sourceCoordinates.isInSameBlock(previous))
+                            {
+                                block = sourceCoordinates.getBlock(reader, offset, this.stringIndex);
+                                offset = sourceCoordinates.getOffsetAfterReading();
+                            }
+                            obj = sourceCoordinates.getObj(block, classifierId);
+                        }
+                        consumer.value(possiblyValidate(obj));
+                        previous = sourceCoordinates;
+                    }
+                }
+            }
         }
 
         private ClassifierIndex getClassifierIndex(String classifierId)
@@ -543,6 +718,10 @@ public abstract class DistributedBinaryGraphDeserializer
             try (Reader reader = this.fileReader.getReader(indexFilePath))
             {
                 int instanceCount = reader.readInt();
+                if (instanceCount == ColumnarObjBlocks.INDEX_MARKER)
+                {
+                    return readColumnarInstanceIndex(classifier, reader);
+                }
                 MutableMap<String, SourceCoordinates> index = sourceCoordinateMapProvider.getMap(instanceCount, classifier);
 
                 int instancePartition = reader.readInt();
@@ -570,6 +749,40 @@ public abstract class DistributedBinaryGraphDeserializer
             }
         }
 
+        private MapIterable<String, SourceCoordinates> readColumnarInstanceIndex(String classifier, Reader reader)
+        {
+            int version = reader.readInt();
+            if (version != DistributedMetadataSpecification.Format.COLUMNAR.getVersion())
+            {
+                throw new RuntimeException("Unsupported metadata format version for " + classifier + ": " + version);
+            }
+            int instanceCount = reader.readInt();
+            int blockCount = reader.readInt();
+            int[] blockInfos = new int[blockCount * 4];
+            for (int i = 0; i < blockInfos.length; i++)
+            {
+                blockInfos[i] = reader.readInt();
+            }
+            String[] identifiers = ColumnarObjBlocks.readIdentifiers(reader, instanceCount, this.stringIndex);
+
+            MutableMap<String, SourceCoordinates> index = sourceCoordinateMapProvider.getMap(instanceCount, classifier);
+            String filePath = DistributedMetadataHelper.getMetadataClassifierBlocksFilePath(this.metadataName, classifier);
+            int instance = 0;
+            for (int block = 0; block < blockCount; block++)
+            {
+                int blockInstanceCount = blockInfos[block * 4];
+                int offset = blockInfos[(block * 4) + 1];
+                int length = blockInfos[(block * 4) + 2];
+                int blockLength = blockInfos[(block * 4) + 3];
+                for (int position = 0; position < blockInstanceCount; position++, instance++)
+                {
+                    String identifier = identifiers[instance];
+                    index.put(identifier, new SourceCoordinates(identifier, filePath, offset, length, position, blockLength));
+                }
+            }
+            return index;
+        }
+
         private Obj possiblyValidate(Obj obj)
         {
             if (this.validateObjs)
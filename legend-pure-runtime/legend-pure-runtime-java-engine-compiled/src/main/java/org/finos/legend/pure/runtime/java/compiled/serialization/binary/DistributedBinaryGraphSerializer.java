@@ -44,14 +44,21 @@ public abstract class DistributedBinaryGraphSerializer
     private static final int MAX_BIN_FILE_BYTES = 512 * 1024;
 
     private final DistributedMetadataSpecification metadataSpecification;
+    private final DistributedMetadataSpecification.Format format;
     protected final PureRuntime runtime;
     protected final ProcessorSupport processorSupport;
     private final IdBuilder idBuilder;
     private final GraphSerializer.ClassifierCaches classifierCaches;
 
     protected DistributedBinaryGraphSerializer(PureRuntime runtime, DistributedMetadataSpecification metadataSpecification)
+    {
+        this(runtime, metadataSpecification, (metadataSpecification == null) ? DistributedMetadataSpecification.Format.ROW : metadataSpecification.getFormat());
+    }
+
+    protected DistributedBinaryGraphSerializer(PureRuntime runtime, DistributedMetadataSpecification metadataSpecification, DistributedMetadataSpecification.Format format)
     {
         this.metadataSpecification = metadataSpecification;
+        this.format = format;
         this.runtime = runtime;
         this.processorSupport = runtime.getProcessorSupport();
         this.idBuilder = newIdBuilder(this.metadataSpecification, this.processorSupport);
@@ -92,6 +99,17 @@ public abstract class DistributedBinaryGraphSerializer
         // Write string cache
         stringCache.write(getMetadataName(), fileWriter);
 
+        if (this.format == DistributedMetadataSpecification.Format.COLUMNAR)
+        {
+            // Write instances in blocks per classifier
+            for (String classifierId : stringCache.getClassifierIds().toSortedList())
+            {
+                ListIterable<Obj> classifierObjs = getClassifierObjs(serializationCollector.instancesForSerialization.remove(classifierId), serializationCollector.objUpdates.remove(classifierId));
+                ColumnarObjBlocks.writeClassifier(fileWriter, getMetadataName(), classifierId, classifierObjs, stringCache);
+            }
+            return;
+        }
+
         // Write instances
         int partition = 0;
         int partitionTotalBytes = 0;
@@ -253,7 +271,17 @@ public abstract class DistributedBinaryGraphSerializer
         return new DistributedBinaryFullGraphSerializer(runtime);
     }
 
+    public static DistributedBinaryGraphSerializer newSerializer(PureRuntime runtime, DistributedMetadataSpecification.Format format)
+    {
+        return new DistributedBinaryFullGraphSerializer(runtime, format);
+    }
+
     public static DistributedBinaryGraphSerializer newSerializer(PureRuntime runtime, String repositoryName)
+    {
+        return newSerializer(runtime, repositoryName, DistributedMetadataSpecification.Format.ROW);
+    }
+
+    public static DistributedBinaryGraphSerializer newSerializer(PureRuntime runtime, String repositoryName, DistributedMetadataSpecification.Format format)
     {
         MutableRepositoryCodeStorage codeStorage = runtime.getCodeStorage();
         CodeRepository repository = codeStorage.getRepository(repositoryName);
@@ -271,7 +299,7 @@ public abstract class DistributedBinaryGraphSerializer
             throw new IllegalArgumentException(builder.toString());
         }
         MutableSet<String> directDependencies = allRepositories.collectIf(r -> (r != repository) && repository.isVisible(r), CodeRepository::getName, Sets.mutable.empty());
-        DistributedMetadataSpecification metadataSpecification = DistributedMetadataSpecification.newSpecification(repositoryName, directDependencies);
+        DistributedMetadataSpecification metadataSpecification = DistributedMetadataSpecification.newSpecification(repositoryName, directDependencies).withFormat(format);
         return new DistributedBinaryRepositorySerializer(metadataSpecification, runtime);
     }
 
@@ -24,6 +24,7 @@ class DistributedMetadataHelper
 
     private static final String BIN_FILE_EXTENSION = ".bin";
     private static final String INDEX_FILE_EXTENSION = ".idx";
+    private static final String BLOCKS_FILE_EXTENSION = ".blk";
     private static final String METADATA_SPEC_FILE_EXTENSION = ".json";
 
     // Metadata name
@@ -143,6 +144,13 @@ class DistributedMetadataHelper
                 (CLASSIFIERS_DIRNAME + metadataName + "/" + classifierName.replace("::", "/") + INDEX_FILE_EXTENSION);
     }
 
+    static String getMetadataClassifierBlocksFilePath(String metadataName, String classifierName)
+    {
+        return (metadataName == null) ?
+                (BINARIES_DIRNAME + classifierName.replace("::", "/") + BLOCKS_FILE_EXTENSION) :
+                (BINARIES_DIRNAME + metadataName + "/" + classifierName.replace("::", "/") + BLOCKS_FILE_EXTENSION);
+    }
+
     static String getMetadataPartitionBinFilePath(String metadataName, int partitionId)
     {
         return (metadataName == null) ?
@@ -15,6 +15,8 @@
 package org.finos.legend.pure.runtime.java.compiled.serialization.binary;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.StreamReadFeature;
@@ -54,6 +56,7 @@ import java.util.Deque;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.jar.JarEntry;
@@ -64,11 +67,18 @@ public class DistributedMetadataSpecification
 {
     private final String name;
     private final Set<String> dependencies;
+    private final Format format;
 
-    private DistributedMetadataSpecification(String name, Set<String> dependencies)
+    private DistributedMetadataSpecification(String name, Set<String> dependencies, Format format)
     {
         this.name = name;
         this.dependencies = dependencies;
+        this.format = format;
+    }
+
+    private DistributedMetadataSpecification(String name, Set<String> dependencies)
+    {
+        this(name, dependencies, Format.ROW);
     }
 
     /**
@@ -91,6 +101,37 @@ public class DistributedMetadataSpecification
         return this.dependencies;
     }
 
+    /**
+     * Get the format of the metadata files.
+     *
+     * @return metadata format
+     */
+    @JsonIgnore
+    public Format getFormat()
+    {
+        return this.format;
+    }
+
+    /**
+     * Get a copy of this specification with the given metadata format.
+     *
+     * @param format metadata format
+     * @return specification with the given format
+     */
+    public DistributedMetadataSpecification withFormat(Format format)
+    {
+        Objects.requireNonNull(format, "format may not be null");
+        return (format == this.format) ? this : new DistributedMetadataSpecification(this.name, this.dependencies, format);
+    }
+
+    // The default format is left out, so that existing specifications are unchanged
+    @JsonProperty("format")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String getFormatForJson()
+    {
+        return (this.format == Format.ROW) ? null : this.format.getName();
+    }
+
     @Override
     public boolean equals(Object other)
     {
@@ -103,7 +144,7 @@ public class DistributedMetadataSpecification
             return false;
         }
         DistributedMetadataSpecification that = (DistributedMetadataSpecification) other;
-        return this.name.equals(that.name) && this.dependencies.equals(that.dependencies);
+        return this.name.equals(that.name) && this.dependencies.equals(that.dependencies) && (this.format == that.format);
     }
 
     @Override
@@ -115,7 +156,7 @@ public class DistributedMetadataSpecification
     @Override
     public String toString()
     {
-        return getClass().getSimpleName() + "{name=\"" + this.name + "\", dependencies=" + this.dependencies + "}";
+        return getClass().getSimpleName() + "{name=\"" + this.name + "\", dependencies=" + this.dependencies + ((this.format == Format.ROW) ? "" : (", format=" + this.format.getName())) + "}";
     }
 
     public String writeSpecification(Path baseDirectory)
@@ -143,14 +184,20 @@ public class DistributedMetadataSpecification
         return newSpecification(name, Sets.immutable.with(dependencies).castToSet());
     }
 
-    @JsonCreator
-    public static DistributedMetadataSpecification newSpecification(@JsonProperty("name") String name, @JsonProperty("dependencies") Iterable<String> dependencies)
+    public static DistributedMetadataSpecification newSpecification(String name, Iterable<String> dependencies)
     {
         return (dependencies == null) ?
                 newSpecification(name) :
                 newSpecification(name, (dependencies instanceof Set) ? (Set<String>) dependencies : Sets.immutable.withAll(dependencies).castToSet());
     }
 
+    @JsonCreator
+    private static DistributedMetadataSpecification newSpecification(@JsonProperty("name") String name, @JsonProperty("dependencies") Iterable<String> dependencies, @JsonProperty("format") String format)
+    {
+        DistributedMetadataSpecification specification = newSpecification(name, dependencies);
+        return (format == null) ? specification : specification.withFormat(Format.fromName(format));
+    }
+
     private static DistributedMetadataSpecification newSpecification(String name, Set<String> dependencies)
     {
         if (dependencies.isEmpty())
@@ -179,6 +226,48 @@ public class DistributedMetadataSpecification
         return new DistributedMetadataSpecification(DistributedMetadataHelper.validateMetadataName(name), (dependencies instanceof ImmutableSet) ? dependencies : Collections.unmodifiableSet(dependencies));
     }
 
+    /**
+     * Format of the metadata files. In the row format, instances are written one after another into partition files
+     * shared by all classifiers. In the columnar format, the instances of each classifier are written in compressed
+     * blocks, each holding the values of one property for all of its instances together, with a block index.
+     */
+    public enum Format
+    {
+        ROW("row", 1),
+        COLUMNAR("columnar", 2);
+
+        private final String name;
+        private final int version;
+
+        Format(String name, int version)
+        {
+            this.name = name;
+            this.version = version;
+        }
+
+        public String getName()
+        {
+            return this.name;
+        }
+
+        public int getVersion()
+        {
+            return this.version;
+        }
+
+        public static Format fromName(String name)
+        {
+            for (Format format : values())
+            {
+                if (format.name.equals(name))
+                {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown metadata format: \"" + name + "\"");
+        }
+    }
+
     // Writing specifications
 
     public static String writeSpecification(Path directory, DistributedMetadataSpecification metadata)
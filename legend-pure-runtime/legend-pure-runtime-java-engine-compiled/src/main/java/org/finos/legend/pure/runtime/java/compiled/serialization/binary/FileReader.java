@@ -15,8 +15,28 @@
 package org.finos.legend.pure.runtime.java.compiled.serialization.binary;
 
 import org.finos.legend.pure.m4.serialization.Reader;
+import org.finos.legend.pure.m4.serialization.binary.BinaryReaders;
 
 interface FileReader
 {
     Reader getReader(String path);
+
+    /**
+     * Get a reader for length bytes of the file at path, starting at offset.
+     *
+     * @param path   file path
+     * @param offset offset of the first byte
+     * @param length number of bytes
+     * @return reader
+     */
+    default Reader getReader(String path, int offset, int length)
+    {
+        byte[] bytes;
+        try (Reader reader = getReader(path))
+        {
+            reader.skipBytes(offset);
+            bytes = reader.readBytes(length);
+        }
+        return BinaryReaders.newBinaryReader(bytes);
+    }
 }
@@ -21,14 +21,22 @@ import org.finos.legend.pure.m4.serialization.Reader;
 import org.finos.legend.pure.m4.serialization.binary.BinaryReaders;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLConnection;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.util.Collections;
 import java.util.Map;
 import java.util.function.Function;
@@ -72,6 +80,139 @@ public class FileReaders
         return new ZipFileReader(zipFile);
     }
 
+    /**
+     * Reader of the files in a directory, each memory mapped once on first use. Readers of parts of a file are
+     * views of its mapping, so reading from a file does not open it or copy its bytes.
+     *
+     * @param directory directory
+     * @return memory mapped file reader
+     */
+    public static FileReader fromMemoryMappedDirectory(Path directory)
+    {
+        return new MemoryMappedFileReader(path -> mapFile(directory.resolve(path)));
+    }
+
+    /**
+     * Reader of the files in a jar (or zip), each memory mapped once on first use. Entries are extracted to the cache
+     * directory, where they are reused if the jar has not changed; if there is no cache directory, each entry is
+     * instead read into memory once.
+     *
+     * @param zipFile        jar or zip file
+     * @param cacheDirectory directory for extracted entries, or null to read entries into memory
+     * @return memory mapped file reader
+     */
+    public static FileReader fromMemoryMappedJar(ZipFile zipFile, Path cacheDirectory)
+    {
+        return new MemoryMappedFileReader(path ->
+        {
+            ZipEntry entry = zipFile.getEntry(path);
+            if (entry == null)
+            {
+                throw new RuntimeException("Cannot find file '" + path + "'");
+            }
+            return mapStream(path, () -> zipFile.getInputStream(entry), entry.getSize(), entry.getTime(), cacheDirectory);
+        });
+    }
+
+    /**
+     * Reader of resource files from a class loader, each memory mapped once on first use. Resources in directories
+     * are mapped in place; resources in jars are extracted to the cache directory, where they are reused if the jar
+     * has not changed, or read into memory once if there is no cache directory.
+     *
+     * @param classLoader    class loader
+     * @param cacheDirectory directory for extracted resources, or null to read them into memory
+     * @return memory mapped file reader
+     */
+    public static FileReader fromMemoryMappedClassLoader(ClassLoader classLoader, Path cacheDirectory)
+    {
+        return new MemoryMappedFileReader(path ->
+        {
+            URL url = classLoader.getResource(path);
+            if (url == null)
+            {
+                throw new RuntimeException("Cannot find resource file '" + path + "'");
+            }
+            if ("file".equalsIgnoreCase(url.getProtocol()))
+            {
+                try
+                {
+                    return mapFile(Paths.get(url.toURI()));
+                }
+                catch (URISyntaxException e)
+                {
+                    // fall back to the general case
+                }
+            }
+            URLConnection connection = url.openConnection();
+            return mapStream(path, connection::getInputStream, connection.getContentLengthLong(), connection.getLastModified(), cacheDirectory);
+        });
+    }
+
+    private static ByteBuffer mapFile(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            // The mapping remains valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static ByteBuffer mapStream(String path, StreamSupplier streamSupplier, long size, long lastModified, Path cacheDirectory) throws IOException
+    {
+        if (cacheDirectory == null)
+        {
+            try (InputStream stream = streamSupplier.get())
+            {
+                return ByteBuffer.wrap(readAllBytes(stream));
+            }
+        }
+
+        Path cachedFile = cacheDirectory.resolve(path);
+        if (!isCached(cachedFile, size, lastModified))
+        {
+            Files.createDirectories(cachedFile.getParent());
+            Path tmpFile = Files.createTempFile(cachedFile.getParent(), cachedFile.getFileName().toString(), ".tmp");
+            try
+            {
+                try (InputStream stream = streamSupplier.get())
+                {
+                    Files.copy(stream, tmpFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+                if (lastModified > 0)
+                {
+                    Files.setLastModifiedTime(tmpFile, FileTime.fromMillis(lastModified));
+                }
+                // Other processes may be extracting the same file: each replaces it with the same content
+                Files.move(tmpFile, cachedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally
+            {
+                Files.deleteIfExists(tmpFile);
+            }
+        }
+        return mapFile(cachedFile);
+    }
+
+    private static boolean isCached(Path cachedFile, long size, long lastModified) throws IOException
+    {
+        // Without both the size and time of the source, it cannot be known whether the cached file is up to date
+        return (size >= 0) && (lastModified > 0) && Files.isRegularFile(cachedFile) &&
+                (Files.size(cachedFile) == size) &&
+                (Files.getLastModifiedTime(cachedFile).toMillis() == FileTime.fromMillis(lastModified).toMillis());
+    }
+
+    private static byte[] readAllBytes(InputStream stream) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = stream.read(buffer)) != -1)
+        {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+
     private static class ClassLoaderFileReader implements FileReader
     {
         private final ClassLoader classLoader;
@@ -184,6 +325,64 @@ public class FileReaders
         }
     }
 
+    private static class MemoryMappedFileReader implements FileReader
+    {
+        private final FileMapper mapper;
+        private final ConcurrentMutableMap<String, ByteBuffer> buffers = ConcurrentHashMap.newMap();
+
+        private MemoryMappedFileReader(FileMapper mapper)
+        {
+            this.mapper = mapper;
+        }
+
+        @Override
+        public Reader getReader(String path)
+        {
+            return BinaryReaders.newBinaryReader(getBuffer(path).duplicate());
+        }
+
+        @Override
+        public Reader getReader(String path, int offset, int length)
+        {
+            ByteBuffer buffer = getBuffer(path).duplicate();
+            if ((offset < 0) || (length < 0) || (offset > (buffer.limit() - length)))
+            {
+                throw new RuntimeException("Cannot read " + length + " bytes at offset " + offset + " of file '" + path + "' of " + buffer.limit() + " bytes");
+            }
+            ((Buffer) buffer).position(offset);
+            ((Buffer) buffer).limit(offset + length);
+            return BinaryReaders.newBinaryReader(buffer);
+        }
+
+        private ByteBuffer getBuffer(String path)
+        {
+            ByteBuffer buffer = this.buffers.get(path);
+            return (buffer == null) ? this.buffers.getIfAbsentPut(path, () -> map(path)) : buffer;
+        }
+
+        private ByteBuffer map(String path)
+        {
+            try
+            {
+                return this.mapper.map(path);
+            }
+            catch (IOException e)
+            {
+                throw new RuntimeException("Error accessing file '" + path + "'", e);
+            }
+        }
+    }
+
+    private interface FileMapper
+    {
+        ByteBuffer map(String path) throws IOException;
+    }
+
+    private interface StreamSupplier
+    {
+        InputStream get() throws IOException;
+    }
+
     private static class ZipFileReader implements FileReader
     {
         private final ZipFile zipFile;
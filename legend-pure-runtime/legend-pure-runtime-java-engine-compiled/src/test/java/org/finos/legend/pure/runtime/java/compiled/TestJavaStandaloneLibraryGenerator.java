@@ -16,6 +16,7 @@ package org.finos.legend.pure.runtime.java.compiled;
 
 import org.eclipse.collections.api.RichIterable;
 import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.impl.utility.Iterate;
 import org.eclipse.collections.impl.utility.ListIterate;
 import org.finos.legend.pure.m3.execution.ExecutionSupport;
@@ -28,6 +29,7 @@ import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.empty.E
 import org.finos.legend.pure.m3.statelistener.VoidExecutionActivityListener;
 import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiled;
 import org.finos.legend.pure.runtime.java.compiled.compiler.JavaCompilerState;
+import org.finos.legend.pure.runtime.java.compiled.compiler.StringJavaSource;
 import org.finos.legend.pure.runtime.java.compiled.execution.CompiledExecutionSupport;
 import org.finos.legend.pure.runtime.java.compiled.execution.CompiledProcessorSupport;
 import org.finos.legend.pure.runtime.java.compiled.execution.ConsoleCompiled;
@@ -53,6 +55,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -191,4 +194,27 @@ public class TestJavaStandaloneLibraryGenerator extends AbstractPureTestWithCore
         Pattern pattern = Pattern.compile("org/finos/legend/pure/generated/((CoreGen|PureEnum|LambdaZero|PureCompiledLambda|PureEnum_LazyImpl)|(test_\\w++)|(Root_test_\\w++))\\.java");
         Assert.assertEquals(Lists.fixedSize.empty(), ListIterate.reject(files, f -> pattern.matcher(Iterate.makeString(sourcesDir.relativize(f), "/")).matches()));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGenerateOnly_parallel()
+    {
+        Generate serial = JavaStandaloneLibraryGenerator.newGenerator(runtime, CompiledExtensionLoader.extensions(), false, null, new VoidLog()).generateOnly(true, false, null);
+
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try
+        {
+            Generate parallel = JavaStandaloneLibraryGenerator.newGenerator(runtime, CompiledExtensionLoader.extensions(), false, null, new VoidLog(), forkJoinPool).generateOnly(true, false, null);
+            Assert.assertEquals(serial.getJavaSourcesByGroup().keysView().toList(), parallel.getJavaSourcesByGroup().keysView().toList());
+            serial.getJavaSourcesByGroup().forEachKeyValue((group, serialSources) ->
+            {
+                ImmutableList<StringJavaSource> parallelSources = parallel.getJavaSourcesByGroup().get(group);
+                Assert.assertEquals(group, serialSources.collect(StringJavaSource::getName), parallelSources.collect(StringJavaSource::getName));
+                Assert.assertEquals(group, serialSources.collect(StringJavaSource::getCode), parallelSources.collect(StringJavaSource::getCode));
+            });
+        }
+        finally
+        {
+            forkJoinPool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.compiler;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import javax.tools.ToolProvider;
+
+public class TestDynamicClassCache
+{
+    private final ClassLoader classLoader = TestDynamicClassCache.class.getClassLoader();
+    private final MemoryFileManager fileManager = new MemoryFileManager(ToolProvider.getSystemJavaCompiler());
+
+    @Test
+    public void testIdenticalSourceIsCompiledOnce() throws Exception
+    {
+        DynamicClassCache cache = new DynamicClassCache(this.classLoader);
+        Method first = getMethod(cache, this.classLoader, "return x + 1;");
+        Method second = getMethod(cache, this.classLoader, "return x + 1;");
+        Assert.assertSame(first, second);
+        Assert.assertEquals(2, second.invoke(null, 1));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertTrue(cache.getTotalCompileTime() > 0);
+
+        Method other = getMethod(cache, this.classLoader, "return x + 2;");
+        Assert.assertNotSame(first, other);
+        Assert.assertEquals(3, other.invoke(null, 1));
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws Exception
+    {
+        DynamicClassCache cache = new DynamicClassCache(this.classLoader, 1);
+        Method first = getMethod(cache, this.classLoader, "return x + 1;");
+        getMethod(cache, this.classLoader, "return x + 2;");
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertNotSame(first, getMethod(cache, this.classLoader, "return x + 1;"));
+        Assert.assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testOtherClassLoaderIsNotCached() throws Exception
+    {
+        DynamicClassCache cache = new DynamicClassCache(this.classLoader);
+        ClassLoader otherClassLoader = new ClassLoader(this.classLoader)
+        {
+        };
+        Method first = getMethod(cache, otherClassLoader, "return x + 1;");
+        Method second = getMethod(cache, otherClassLoader, "return x + 1;");
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(otherClassLoader, first.getDeclaringClass().getClassLoader().getParent());
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    public void testBatchCompilation() throws Exception
+    {
+        DynamicClassCache cache = new DynamicClassCache(this.classLoader);
+        Method cached = getMethod(cache, this.classLoader, "return x + 1;");
+        ListIterable<Method> methods = cache.getIfAbsentCompileMethods(this.fileManager, this.classLoader, Lists.immutable.with(
+                classSource("Dyna", "return x + 1;"),
+                classSource("Dyna0", "return x + 2;"),
+                classSource("Dyna1", "return x + 3;"),
+                classSource("Dyna0", "return x + 2;")), "apply", int.class);
+        Assert.assertSame(cached, methods.get(0));
+        Assert.assertSame(methods.get(1), methods.get(3));
+        Assert.assertSame(methods.get(1).getDeclaringClass().getClassLoader(), methods.get(2).getDeclaringClass().getClassLoader());
+        Assert.assertEquals(Lists.immutable.with(2, 3, 4, 3), methods.collect(m -> invoke(m, 1)));
+        Assert.assertEquals(3, cache.size());
+        Assert.assertSame(methods.get(2), getMethod(cache, this.classLoader, "Dyna1", "return x + 3;"));
+    }
+
+    @Test
+    public void testCompilationError()
+    {
+        DynamicClassCache cache = new DynamicClassCache(this.classLoader);
+        Assert.assertThrows(PureJavaCompileException.class, () -> getMethod(cache, this.classLoader, "return y;"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private Method getMethod(DynamicClassCache cache, ClassLoader classLoader, String body) throws Exception
+    {
+        return getMethod(cache, classLoader, "Dyna", body);
+    }
+
+    private Method getMethod(DynamicClassCache cache, ClassLoader classLoader, String className, String body) throws Exception
+    {
+        return cache.getIfAbsentCompileMethod(this.fileManager, classLoader, "temp", className, code(className, body), "apply", int.class);
+    }
+
+    private static DynamicClassCache.ClassSource classSource(String className, String body)
+    {
+        return new DynamicClassCache.ClassSource("temp", className, code(className, body));
+    }
+
+    private static String code(String className, String body)
+    {
+        return "public class " + className + "\n" +
+                "{\n" +
+                "    public static int apply(int x)\n" +
+                "    {\n" +
+                "        " + body + "\n" +
+                "    }\n" +
+                "}\n";
+    }
+
+    private static Object invoke(Method method, int x)
+    {
+        try
+        {
+            return method.invoke(null, x);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+}
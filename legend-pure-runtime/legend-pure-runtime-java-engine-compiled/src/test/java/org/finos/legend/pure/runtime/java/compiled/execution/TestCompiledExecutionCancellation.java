@@ -0,0 +1,143 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.execution;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.finos.legend.pure.m3.execution.FunctionExecution;
+import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiled;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.exception.PureException;
+import org.finos.legend.pure.runtime.java.compiled.factory.JavaModelFactoryRegistryLoader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class TestCompiledExecutionCancellation extends AbstractPureTestWithCoreCompiled
+{
+    // Far too long to complete: only stops at the safe points of the filter loop
+    private static final String SPIN_SOURCE = "function test::spin():Integer[1]\n" +
+            "{\n" +
+            "  range(1000000)->map(i | range(100000)->filter(j | $j == $i)->size())->size()\n" +
+            "}\n";
+
+    // Far too long to complete, without any loop: only stops at the safe point on entry of the recursive function
+    private static final String RECURSION_SOURCE = "function test::fib(n:Integer[1]):Integer[1]\n" +
+            "{\n" +
+            "  if($n < 2, |$n, |test::fib($n - 1) + test::fib($n - 2))\n" +
+            "}\n" +
+            "\n" +
+            "function test::spinRecursion():Integer[1]\n" +
+            "{\n" +
+            "  test::fib(100)\n" +
+            "}\n";
+
+    @BeforeClass
+    public static void setUp()
+    {
+        setUpRuntime(getFunctionExecution(), JavaModelFactoryRegistryLoader.loader());
+    }
+
+    @After
+    public void cleanRuntime()
+    {
+        ((FunctionExecutionCompiled) functionExecution).setExecutionTimeout(0L);
+        runtime.delete("/test/testSource.pure");
+        runtime.compile();
+    }
+
+    @Test
+    public void testDeadline()
+    {
+        compileTestSource("/test/testSource.pure", SPIN_SOURCE);
+        CoreInstance func = runtime.getFunction("test::spin():Integer[1]");
+        ((FunctionExecutionCompiled) functionExecution).setExecutionTimeout(200L);
+
+        Exception e = Assert.assertThrows(Exception.class, () -> functionExecution.start(func, Lists.immutable.empty()));
+        assertStoppedWith("Execution deadline exceeded!", e);
+    }
+
+    @Test
+    public void testRecursionDeadline()
+    {
+        compileTestSource("/test/testSource.pure", RECURSION_SOURCE);
+        CoreInstance func = runtime.getFunction("test::spinRecursion():Integer[1]");
+        ((FunctionExecutionCompiled) functionExecution).setExecutionTimeout(200L);
+
+        Exception e = Assert.assertThrows(Exception.class, () -> functionExecution.start(func, Lists.immutable.empty()));
+        assertStoppedWith("Execution deadline exceeded!", e);
+    }
+
+    @Test
+    public void testCancel() throws Exception
+    {
+        compileTestSource("/test/testSource.pure", SPIN_SOURCE);
+        CoreInstance func = runtime.getFunction("test::spin():Integer[1]");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<CoreInstance> future = executor.submit(() -> functionExecution.start(func, Lists.immutable.empty()));
+            long giveUpAt = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+            while (true)
+            {
+                // Cancelling before the execution has started has no effect, so keep cancelling until it stops
+                ((FunctionExecutionCompiled) functionExecution).cancelExecution();
+                try
+                {
+                    future.get(50L, TimeUnit.MILLISECONDS);
+                    Assert.fail("Expected the execution to be cancelled");
+                }
+                catch (ExecutionException ee)
+                {
+                    assertStoppedWith("Execution cancelled!", ee.getCause());
+                    break;
+                }
+                catch (TimeoutException te)
+                {
+                    Assert.assertTrue("Execution not cancelled", System.nanoTime() < giveUpAt);
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertStoppedWith(String expectedInfo, Throwable t)
+    {
+        for (Throwable cause = t; cause != null; cause = cause.getCause())
+        {
+            if ((cause instanceof PureException) && expectedInfo.equals(((PureException) cause).getInfo()))
+            {
+                return;
+            }
+        }
+        throw new AssertionError("Expected an execution stopped with: " + expectedInfo, t);
+    }
+
+    protected static FunctionExecution getFunctionExecution()
+    {
+        return new FunctionExecutionCompiledBuilder().build();
+    }
+}
@@ -0,0 +1,72 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.execution;
+
+import org.finos.legend.pure.m3.exception.PureExecutionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TestExecutionCancellation
+{
+    @Test
+    public void testNotCancelled()
+    {
+        ExecutionCancellation cancellation = new ExecutionCancellation();
+        cancellation.check(null);
+        Assert.assertFalse(cancellation.isCancelled());
+        Assert.assertFalse(cancellation.hasDeadline());
+        Assert.assertEquals(Long.MAX_VALUE, cancellation.getRemainingTime(TimeUnit.SECONDS));
+        Assert.assertEquals(-1L, cancellation.getStopLatencyNanos());
+    }
+
+    @Test
+    public void testCancel()
+    {
+        ExecutionCancellation cancellation = new ExecutionCancellation();
+        cancellation.cancel();
+        Assert.assertTrue(cancellation.isCancelled());
+        PureExecutionException e = Assert.assertThrows(PureExecutionException.class, () -> cancellation.check(null));
+        Assert.assertEquals("Execution cancelled!", e.getInfo());
+        Assert.assertTrue(cancellation.getStopLatencyNanos() >= 0L);
+
+        // Later safe points keep stopping the execution
+        Assert.assertThrows(PureExecutionException.class, () -> cancellation.check(null));
+    }
+
+    @Test
+    public void testDeadline()
+    {
+        ExecutionCancellation cancellation = new ExecutionCancellation();
+        cancellation.setTimeout(1, TimeUnit.HOURS);
+        cancellation.check(null);
+        Assert.assertTrue(cancellation.hasDeadline());
+        Assert.assertFalse(cancellation.isDeadlineExceeded());
+        Assert.assertTrue(cancellation.getRemainingTime(TimeUnit.MINUTES) > 0L);
+
+        cancellation.setTimeout(0, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(cancellation.isDeadlineExceeded());
+        PureExecutionException e = Assert.assertThrows(PureExecutionException.class, () -> cancellation.check(null));
+        Assert.assertEquals("Execution deadline exceeded!", e.getInfo());
+        Assert.assertEquals(0L, cancellation.getRemainingTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testInvalidTimeout()
+    {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ExecutionCancellation().setTimeout(-1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,65 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.execution.sourceInformation;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.finos.legend.pure.runtime.java.compiled.generation.JavaPackageAndImportBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestCompiledPureStackSampler
+{
+    private static final String GENERATED_CLASS = JavaPackageAndImportBuilder.rootPackage() + ".CoreGen";
+
+    private final CompiledPureStackSampler sampler = new CompiledPureStackSampler();
+
+    @Test
+    public void testGeneratedFunctionFramesOutermostFirst()
+    {
+        StackTraceElement[] stackTrace = {
+                frame(GENERATED_CLASS, "Root_test_inner__String_1_"),
+                frame("org.finos.legend.pure.runtime.java.compiled.generation.processors.support.CompiledSupport", "toOne"),
+                frame(GENERATED_CLASS, "Root_test_outer__String_1_"),
+                frame("java.lang.Thread", "run")
+        };
+        Assert.assertEquals(Lists.mutable.with("Root_test_outer__String_1_", "Root_test_inner__String_1_"), this.sampler.sample(stackTrace));
+    }
+
+    @Test
+    public void testOtherFramesSkipped()
+    {
+        StackTraceElement[] stackTrace = {
+                // helper of a generated class, not a Pure function
+                frame(GENERATED_CLASS, "doProcess"),
+                // method named like a Pure function outside the generated package
+                frame("org.example.Root_like", "Root_test_outer__String_1_"),
+                frame("java.lang.Thread", "run")
+        };
+        Assert.assertEquals(Lists.mutable.empty(), this.sampler.sample(stackTrace));
+        Assert.assertEquals(Lists.mutable.empty(), this.sampler.sample(new StackTraceElement[0]));
+    }
+
+    @Test
+    public void testSampleLiveThread()
+    {
+        // No generated code runs in this thread
+        Assert.assertEquals(Lists.mutable.empty(), this.sampler.sample(Thread.currentThread()));
+    }
+
+    private static StackTraceElement frame(String className, String methodName)
+    {
+        return new StackTraceElement(className, methodName, null, -1);
+    }
+}
@@ -0,0 +1,149 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.generation.processors.support;
+
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.list.ListIterable;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.valuespecification.ValueSpecification;
+import org.finos.legend.pure.m3.execution.FunctionExecution;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiled;
+import org.finos.legend.pure.runtime.java.compiled.compiler.DynamicClassCache;
+import org.finos.legend.pure.runtime.java.compiled.execution.CompiledExecutionSupport;
+import org.finos.legend.pure.runtime.java.compiled.execution.FunctionExecutionCompiled;
+import org.finos.legend.pure.runtime.java.compiled.execution.FunctionExecutionCompiledBuilder;
+import org.finos.legend.pure.runtime.java.compiled.factory.JavaModelFactoryRegistryLoader;
+import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.map.PureMap;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestReactivationBatch extends AbstractPureTestWithCoreCompiled
+{
+    private static final String SOURCE_ID = "/test/reactivationBatch.pure";
+
+    private CompiledExecutionSupport executionSupport;
+    private DynamicClassCache dynamicClassCache;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        setUpRuntime(getFunctionExecution(), JavaModelFactoryRegistryLoader.loader());
+        compileTestSource(SOURCE_ID,
+                "function test::expressions():Integer[1]\n" +
+                        "{\n" +
+                        "  1 + 2;\n" +
+                        "  1 + 2;\n" +
+                        "  3 * 4;\n" +
+                        "}\n" +
+                        "\n" +
+                        "function test::unboundVariable(a:Integer[1]):Integer[1]\n" +
+                        "{\n" +
+                        "  $a + 3;\n" +
+                        "}\n");
+    }
+
+    @AfterClass
+    public static void cleanUp()
+    {
+        runtime.delete(SOURCE_ID);
+        runtime.compile();
+    }
+
+    @Before
+    public void setUpExecutionSupport()
+    {
+        this.executionSupport = ((FunctionExecutionCompiled) functionExecution).getExecutionSupport();
+        this.dynamicClassCache = this.executionSupport.getClassCache().getDynamicClassCache();
+        this.dynamicClassCache.clear();
+    }
+
+    @Test
+    public void testIdenticalCodeSharesClass()
+    {
+        ListIterable<ValueSpecification> expressions = getExpressions("test::expressions():Integer[1]");
+        ReactivationBatch batch = new ReactivationBatch(null, this.executionSupport);
+        ListIterable<ReactivationBatch.Reactivation> reactivations = expressions.collect(e -> batch.addToCompile(e, newOpenVariables()));
+        batch.compile();
+
+        // The two 1 + 2 share a class
+        Assert.assertEquals(2, this.dynamicClassCache.size());
+        Assert.assertEquals(3L, reactivations.get(0).evaluate());
+        Assert.assertEquals(3L, reactivations.get(1).evaluate());
+        Assert.assertEquals(12L, reactivations.get(2).evaluate());
+        Assert.assertEquals(2, this.dynamicClassCache.size());
+    }
+
+    @Test
+    public void testCacheHitOnLaterCompilation()
+    {
+        ListIterable<ValueSpecification> expressions = getExpressions("test::expressions():Integer[1]");
+        ReactivationBatch first = new ReactivationBatch(null, this.executionSupport);
+        first.addToCompile(expressions.get(0), newOpenVariables());
+        first.compile();
+        Assert.assertEquals(1, this.dynamicClassCache.size());
+        long hitCount = this.dynamicClassCache.getHitCount();
+
+        // Identical code gets the same class name, whichever batch it is in
+        ReactivationBatch second = new ReactivationBatch(null, this.executionSupport);
+        ReactivationBatch.Reactivation reactivation = second.addToCompile(expressions.get(1), newOpenVariables());
+        second.compile();
+        Assert.assertEquals(1, this.dynamicClassCache.size());
+        Assert.assertEquals(hitCount + 1, this.dynamicClassCache.getHitCount());
+        Assert.assertEquals(3L, reactivation.evaluate());
+
+        // and when evaluated on its own
+        Assert.assertEquals(3L, CompiledSupport.dynamicallyEvaluateValueSpecification(expressions.get(0), newOpenVariables(), this.executionSupport));
+        Assert.assertEquals(1, this.dynamicClassCache.size());
+        Assert.assertEquals(hitCount + 2, this.dynamicClassCache.getHitCount());
+    }
+
+    @Test
+    public void testFallbackWhenBatchFailsToCompile()
+    {
+        ValueSpecification valid = getExpressions("test::expressions():Integer[1]").get(2);
+        ValueSpecification invalid = getExpressions("test::unboundVariable(Integer[1]):Integer[1]").get(0);
+        ReactivationBatch batch = new ReactivationBatch(null, this.executionSupport);
+        ReactivationBatch.Reactivation validReactivation = batch.addToCompile(valid, newOpenVariables());
+        ReactivationBatch.Reactivation invalidReactivation = batch.addToCompile(invalid, newOpenVariables());
+        batch.compile();
+        Assert.assertEquals(0, this.dynamicClassCache.size());
+
+        // Each is compiled on its own: the valid one is unaffected, and the error is reported against the invalid one
+        Assert.assertEquals(12L, validReactivation.evaluate());
+        Assert.assertEquals(1, this.dynamicClassCache.size());
+        RuntimeException e = Assert.assertThrows(RuntimeException.class, invalidReactivation::evaluate);
+        Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Error dynamically evaluating value specification"));
+        Assert.assertTrue(e.getMessage(), e.getMessage().contains("error compiling generated Java code"));
+        Assert.assertEquals(1, this.dynamicClassCache.size());
+    }
+
+    private static ListIterable<ValueSpecification> getExpressions(String function)
+    {
+        return runtime.getFunction(function).getValueForMetaPropertyToMany(M3Properties.expressionSequence).collect(ValueSpecification.class::cast);
+    }
+
+    private static PureMap newOpenVariables()
+    {
+        return new PureMap(Maps.mutable.empty());
+    }
+
+    protected static FunctionExecution getFunctionExecution()
+    {
+        return new FunctionExecutionCompiledBuilder().build();
+    }
+}
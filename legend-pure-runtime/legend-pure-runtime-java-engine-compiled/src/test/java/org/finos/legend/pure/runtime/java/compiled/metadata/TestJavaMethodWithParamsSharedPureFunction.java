@@ -0,0 +1,103 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.metadata;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.finos.legend.pure.m3.exception.PureExecutionException;
+import org.finos.legend.pure.m3.execution.ExecutionSupport;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestJavaMethodWithParamsSharedPureFunction
+{
+    private static final ExecutionSupport EXECUTION_SUPPORT = new ExecutionSupport()
+    {
+    };
+
+    @Test
+    public void testArities() throws Exception
+    {
+        Assert.assertEquals("", newFunction("concat0").execute(Lists.immutable.empty(), EXECUTION_SUPPORT));
+        Assert.assertEquals("a", newFunction("concat1", String.class).execute(Lists.immutable.with("a"), EXECUTION_SUPPORT));
+        Assert.assertEquals("abc", newFunction("concat3", String.class, String.class, String.class).execute(Lists.immutable.with("a", "b", "c"), EXECUTION_SUPPORT));
+        Assert.assertEquals("abcdefg", newFunction("concat7", String.class, String.class, String.class, String.class, String.class, String.class, String.class).execute(Lists.immutable.with("a", "b", "c", "d", "e", "f", "g"), EXECUTION_SUPPORT));
+    }
+
+    @Test
+    public void testExecutionSupportParameter() throws Exception
+    {
+        Assert.assertEquals("a:true", newFunction("withExecutionSupport", String.class, ExecutionSupport.class).execute(Lists.immutable.with("a"), EXECUTION_SUPPORT));
+    }
+
+    @Test
+    public void testIncompatibleArgument() throws Exception
+    {
+        JavaMethodWithParamsSharedPureFunction<?> function = newFunction("concat1", String.class);
+        PureExecutionException e = Assert.assertThrows(PureExecutionException.class, () -> function.execute(Lists.immutable.with(1L), EXECUTION_SUPPORT));
+        Assert.assertTrue(e.getInfo(), e.getInfo().startsWith("Error during dynamic function evaluation. The type "));
+    }
+
+    @Test
+    public void testErrorInFunction() throws Exception
+    {
+        JavaMethodWithParamsSharedPureFunction<?> function = newFunction("fail", String.class);
+        PureExecutionException e = Assert.assertThrows(PureExecutionException.class, () -> function.execute(Lists.immutable.with("a"), EXECUTION_SUPPORT));
+        Assert.assertEquals("Unexpected error executing function with params [a]", e.getInfo());
+        Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+
+        PureExecutionException pureException = Assert.assertThrows(PureExecutionException.class, () -> newFunction("failWithPureException").execute(Lists.immutable.empty(), EXECUTION_SUPPORT));
+        Assert.assertEquals("pure failure", pureException.getInfo());
+    }
+
+    private static JavaMethodWithParamsSharedPureFunction<?> newFunction(String name, Class<?>... paramClasses) throws NoSuchMethodException
+    {
+        return new JavaMethodWithParamsSharedPureFunction<>(TestJavaMethodWithParamsSharedPureFunction.class.getMethod(name, paramClasses), paramClasses, null);
+    }
+
+    public static String concat0()
+    {
+        return "";
+    }
+
+    public static String concat1(String a)
+    {
+        return a;
+    }
+
+    public static String concat3(String a, String b, String c)
+    {
+        return a + b + c;
+    }
+
+    public static String concat7(String a, String b, String c, String d, String e, String f, String g)
+    {
+        return a + b + c + d + e + f + g;
+    }
+
+    public static String withExecutionSupport(String a, ExecutionSupport es)
+    {
+        return a + ":" + (es == EXECUTION_SUPPORT);
+    }
+
+    public static String fail(String a)
+    {
+        throw new IllegalStateException(a);
+    }
+
+    public static String failWithPureException()
+    {
+        throw new PureExecutionException("pure failure");
+    }
+}
@@ -0,0 +1,96 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.metadata;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.map.MutableMap;
+import org.finos.legend.pure.m4.ModelRepository;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestLazyInstanceCaches
+{
+    private final ModelRepository repository = new ModelRepository();
+
+    @Test
+    public void testUnbounded()
+    {
+        LazyInstanceCache cache = LazyInstanceCaches.unbounded();
+        Assert.assertNull(cache.get("meta::A", "a1"));
+
+        CoreInstance a1 = newInstance("a1");
+        Assert.assertSame(a1, cache.getIfAbsentPut("meta::A", "a1", () -> a1));
+        Assert.assertSame(a1, cache.getIfAbsentPut("meta::A", "a1", () -> newInstance("other")));
+        Assert.assertSame(a1, cache.get("meta::A", "a1"));
+        Assert.assertEquals(Maps.mutable.with("a1", a1), cache.getPinnedInstances("meta::A"));
+
+        LazyInstanceCache.Statistics statistics = cache.getStatistics();
+        Assert.assertEquals(2L, statistics.getHitCount());
+        Assert.assertEquals(2L, statistics.getMissCount());
+        Assert.assertEquals(0L, statistics.getEvictionCount());
+        Assert.assertEquals(1L, statistics.getSize());
+    }
+
+    @Test
+    public void testBoundedKeepsReachableInstances()
+    {
+        LazyInstanceCache cache = LazyInstanceCaches.bounded(2, true, Lists.immutable.empty());
+        Assert.assertNull(cache.getPinnedInstances("meta::A"));
+
+        MutableMap<String, CoreInstance> instances = Maps.mutable.empty();
+        for (int i = 0; i < 5; i++)
+        {
+            String id = "a" + i;
+            instances.put(id, cache.getIfAbsentPut("meta::A", id, () -> newInstance(id)));
+        }
+        Assert.assertEquals(3L, cache.getStatistics().getEvictionCount());
+        Assert.assertEquals(2L, cache.getStatistics().getSize());
+
+        // Evicted instances are still reachable from the test, so they must be found again as the same instances
+        instances.forEachKeyValue((id, instance) -> Assert.assertSame(id, instance, cache.getIfAbsentPut("meta::A", id, () -> newInstance(id))));
+        Assert.assertEquals(2L, cache.getStatistics().getSize());
+        Assert.assertEquals(0L, cache.getStatistics().getCollectedCount());
+    }
+
+    @Test
+    public void testBoundedPinnedClassifiers()
+    {
+        LazyInstanceCache cache = LazyInstanceCaches.bounded(0, Lists.immutable.with("meta::Pinned"));
+        CoreInstance pinned = cache.getIfAbsentPut("meta::Pinned", "p", () -> newInstance("p"));
+        cache.getIfAbsentPut("meta::A", "a", () -> newInstance("a"));
+
+        Assert.assertEquals(Maps.mutable.with("p", pinned), cache.getPinnedInstances("meta::Pinned"));
+        Assert.assertNull(cache.getPinnedInstances("meta::A"));
+
+        LazyInstanceCache.Statistics statistics = cache.getStatistics();
+        Assert.assertEquals(1L, statistics.getEvictionCount());
+        Assert.assertEquals(1L, statistics.getSize());
+        Assert.assertEquals(2L, statistics.getMissCount());
+    }
+
+    @Test
+    public void testInvalidMaxSize()
+    {
+        IllegalArgumentException e = Assert.assertThrows(IllegalArgumentException.class, () -> LazyInstanceCaches.bounded(-1, null));
+        Assert.assertEquals("Invalid max size: -1", e.getMessage());
+    }
+
+    private CoreInstance newInstance(String name)
+    {
+        return this.repository.newEphemeralUnknownTypeCoreInstance(name, null);
+    }
+}
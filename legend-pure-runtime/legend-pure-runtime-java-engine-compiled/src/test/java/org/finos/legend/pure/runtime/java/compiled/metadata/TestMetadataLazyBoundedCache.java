@@ -0,0 +1,125 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.metadata;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.map.MapIterable;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.impl.factory.Maps;
+import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiled;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.runtime.java.compiled.factory.JavaModelFactoryRegistryLoader;
+import org.finos.legend.pure.runtime.java.compiled.serialization.binary.DistributedBinaryGraphDeserializer;
+import org.finos.legend.pure.runtime.java.compiled.serialization.binary.DistributedBinaryGraphSerializer;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestMetadataLazyBoundedCache extends AbstractPureTestWithCoreCompiled
+{
+    private static final String CLASS = "meta::pure::metamodel::type::Class";
+    private static final String AGGREGATION_KIND = "meta::pure::metamodel::function::property::AggregationKind";
+
+    private static DistributedBinaryGraphDeserializer deserializer;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        setUpRuntime(getFunctionExecution(), JavaModelFactoryRegistryLoader.loader());
+        MutableMap<String, byte[]> fileBytes = Maps.mutable.empty();
+        DistributedBinaryGraphSerializer.newSerializer(runtime).serializeToInMemoryByteArrays(fileBytes);
+        deserializer = DistributedBinaryGraphDeserializer.newBuilder(fileBytes).build();
+    }
+
+    @Test
+    public void testGetEnum()
+    {
+        MetadataLazy metadata = newMetadata(LazyInstanceCaches.bounded(1, true, Lists.immutable.empty()));
+        CoreInstance none = metadata.getEnum(AGGREGATION_KIND, "None");
+        Assert.assertEquals("None", none.getName());
+
+        // Loading the other values evicts None, which is still reachable so it is found again as the same instance
+        CoreInstance shared = metadata.getEnum(AGGREGATION_KIND, "Shared");
+        Assert.assertEquals("Shared", shared.getName());
+        Assert.assertTrue(metadata.getInstanceCache().getStatistics().getEvictionCount() > 0L);
+        Assert.assertSame(none, metadata.getEnum(AGGREGATION_KIND, "None"));
+        Assert.assertSame(shared, metadata.getEnum(AGGREGATION_KIND, "Shared"));
+
+        RuntimeException e = Assert.assertThrows(RuntimeException.class, () -> metadata.getEnum(AGGREGATION_KIND, "Unknown"));
+        Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Cannot find enum 'Unknown' in enumeration '" + AGGREGATION_KIND + "' unknown enum value (known values: "));
+    }
+
+    @Test
+    public void testGetMetadataForClassifier()
+    {
+        MetadataLazy metadata = newMetadata(LazyInstanceCaches.bounded(1, true, Lists.immutable.empty()));
+        MapIterable<String, CoreInstance> values = metadata.getMetadata(AGGREGATION_KIND);
+
+        // All the instances are returned, even though the cache only holds one of them
+        Assert.assertEquals(deserializer.getClassifierInstanceIds(AGGREGATION_KIND).toSet(), values.keysView().toSet());
+        Assert.assertTrue(values.size() > 1);
+        Assert.assertEquals(1L, metadata.getInstanceCache().getStatistics().getSize());
+        values.forEachKeyValue((id, instance) ->
+        {
+            Assert.assertEquals(id, instance.getName());
+            Assert.assertSame(id, instance, metadata.getEnum(AGGREGATION_KIND, id));
+            Assert.assertSame(id, instance, metadata.getMetadata(AGGREGATION_KIND, id));
+        });
+        Assert.assertEquals(values, metadata.getMetadata(AGGREGATION_KIND));
+    }
+
+    @Test
+    public void testReloadAfterEviction()
+    {
+        MetadataLazy metadata = newMetadata(LazyInstanceCaches.bounded(1, true, Lists.immutable.empty()));
+        String classId = "Root::meta::pure::metamodel::type::Class";
+        String propertyId = "Root::meta::pure::metamodel::function::property::Property";
+        Assert.assertEquals("Class", metadata.getMetadata(CLASS, classId).getName());
+        Assert.assertEquals("Property", metadata.getMetadata(CLASS, propertyId).getName());
+        Assert.assertEquals(1L, metadata.getInstanceCache().getStatistics().getEvictionCount());
+
+        // The evicted instance is only weakly referenced: once collected, it is deserialized again
+        for (int i = 0; (i < 10) && (metadata.getInstanceCache().getStatistics().getCollectedCount() == 0L); i++)
+        {
+            System.gc();
+        }
+        long collected = metadata.getInstanceCache().getStatistics().getCollectedCount();
+        long missesBefore = metadata.getInstanceCache().getStatistics().getMissCount();
+        CoreInstance reloaded = metadata.getMetadata(CLASS, classId);
+        Assert.assertEquals("Class", reloaded.getName());
+        if (collected > 0L)
+        {
+            Assert.assertEquals(missesBefore + 1L, metadata.getInstanceCache().getStatistics().getMissCount());
+        }
+
+        // Reloaded instances are cached again
+        Assert.assertSame(reloaded, metadata.getMetadata(CLASS, classId));
+    }
+
+    @Test
+    public void testPinnedClassifierNotEvicted()
+    {
+        MetadataLazy metadata = newMetadata(LazyInstanceCaches.bounded(0, Lists.immutable.with(AGGREGATION_KIND)));
+        MapIterable<String, CoreInstance> values = metadata.getMetadata(AGGREGATION_KIND);
+        Assert.assertSame(values.get("None"), metadata.getEnum(AGGREGATION_KIND, "None"));
+        Assert.assertEquals(values.size(), metadata.getInstanceCache().getStatistics().getSize());
+        Assert.assertEquals(0L, metadata.getInstanceCache().getStatistics().getEvictionCount());
+    }
+
+    private static MetadataLazy newMetadata(LazyInstanceCache cache)
+    {
+        return MetadataLazy.newMetadata(Thread.currentThread().getContextClassLoader(), deserializer, cache);
+    }
+}
@@ -0,0 +1,140 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.serialization.binary;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.finos.legend.pure.m3.navigation.M3Paths;
+import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiled;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.coreinstance.SourceInformation;
+import org.finos.legend.pure.m4.coreinstance.primitive.date.DateFunctions;
+import org.finos.legend.pure.m4.tools.GraphNodeIterable;
+import org.finos.legend.pure.runtime.java.compiled.factory.JavaModelFactoryRegistryLoader;
+import org.finos.legend.pure.runtime.java.compiled.generation.processors.IdBuilder;
+import org.finos.legend.pure.runtime.java.compiled.serialization.GraphSerializer;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.EnumRef;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.Obj;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.ObjRef;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.Primitive;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.PropertyValue;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.PropertyValueMany;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.PropertyValueOne;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.RValue;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+public class TestColumnarObjBlocks extends AbstractPureTestWithCoreCompiled
+{
+    @BeforeClass
+    public static void setUp()
+    {
+        setUpRuntime(getFunctionExecution(), JavaModelFactoryRegistryLoader.loader());
+    }
+
+    @Test
+    public void testReadObjFromRuntime()
+    {
+        CoreInstance propertyClass = processorSupport.package_getByUserPath(M3Paths.Property);
+        IdBuilder idBuilder = IdBuilder.newIdBuilder(processorSupport);
+        GraphSerializer.ClassifierCaches classifierCaches = new GraphSerializer.ClassifierCaches(processorSupport);
+        MutableList<Obj> properties = GraphNodeIterable.fromModelRepository(repository)
+                .select(i -> i.getClassifier() == propertyClass)
+                .collect(i -> GraphSerializer.buildObj(i, idBuilder, classifierCaches, processorSupport), Lists.mutable.empty())
+                .sortThisBy(Obj::getIdentifier);
+        Assert.assertTrue(properties.size() >= ColumnarObjBlocks.MAX_BLOCK_INSTANCES);
+        assertReadObj(properties.subList(0, ColumnarObjBlocks.MAX_BLOCK_INSTANCES));
+    }
+
+    @Test
+    public void testReadObjAllValueTypes()
+    {
+        String classifier = "test::Values";
+        SourceInformation sourceInfo = new SourceInformation("/test/values.pure", 1, 1, 2, 3, 4, 5);
+        MutableList<Obj> objs = Lists.mutable.empty();
+        for (int i = 0; i < 5; i++)
+        {
+            MutableList<PropertyValue> propertyValues = Lists.mutable.with(
+                    new PropertyValueOne("boolean", new Primitive(i % 2 == 0)),
+                    new PropertyValueOne("double", new Primitive(i + 0.5)),
+                    new PropertyValueOne("long", new Primitive((long) -i)),
+                    new PropertyValueOne("string", new Primitive("string " + i)),
+                    new PropertyValueOne("date", new Primitive(DateFunctions.parsePureDate("2020-01-0" + (i + 1)))),
+                    new PropertyValueOne("decimal", new Primitive(new BigDecimal(i + ".25"))),
+                    new PropertyValueOne("enum", new EnumRef("test::Enum", "VALUE_" + i)),
+                    new PropertyValueMany("refs", Lists.immutable.<RValue>with(new ObjRef(classifier, "ref_" + i), new ObjRef(classifier, "other_ref_" + i))),
+                    new PropertyValueMany("empty", Lists.immutable.empty()));
+            if (i % 2 == 1)
+            {
+                // Properties only some instances have
+                propertyValues.add(new PropertyValueOne("odd", new Primitive((long) i)));
+            }
+            objs.add(Obj.newObj(classifier, "test::values_" + i, "values_" + i, propertyValues, (i == 2) ? null : sourceInfo, false));
+        }
+        assertReadObj(objs);
+    }
+
+    private void assertReadObj(ListIterable<Obj> objs)
+    {
+        StringCache stringCache = SimpleStringCache.newBuilder().withObjs(objs).build();
+        byte[] bytes = ColumnarObjBlocks.encodeBlock(objs, stringCache);
+        byte[] compressed = ColumnarObjBlocks.compress(bytes);
+
+        CountingStringIndex stringIndex = new CountingStringIndex(stringCache);
+        ColumnarObjBlocks.Block block = ColumnarObjBlocks.readBlock(compressed, bytes.length, stringIndex);
+        int blockLookups = stringIndex.reset();
+        for (int position = 0; position < objs.size(); position++)
+        {
+            Obj expected = objs.get(position);
+            Assert.assertEquals(expected.getIdentifier(), expected, block.getObj(position, expected.getIdentifier(), expected.getClassifier()));
+
+            stringIndex.reset();
+            Assert.assertEquals(expected.getIdentifier(), expected, ColumnarObjBlocks.readObj(compressed, bytes.length, position, expected.getIdentifier(), expected.getClassifier(), stringIndex));
+            // Only the strings of the requested instance are looked up
+            int lookups = stringIndex.reset();
+            Assert.assertTrue(expected.getIdentifier() + ": " + lookups + " >= " + blockLookups, lookups < blockLookups);
+        }
+    }
+
+    private static class CountingStringIndex extends StringIndex
+    {
+        private final String[] otherStrings;
+        private int lookups = 0;
+
+        private CountingStringIndex(StringCache stringCache)
+        {
+            super(stringCache.getClassifierStringArray());
+            this.otherStrings = stringCache.getOtherStringsArray();
+        }
+
+        @Override
+        protected String getOtherString(int index)
+        {
+            this.lookups++;
+            return this.otherStrings[index];
+        }
+
+        int reset()
+        {
+            int count = this.lookups;
+            this.lookups = 0;
+            return count;
+        }
+    }
+}
@@ -17,8 +17,10 @@ package org.finos.legend.pure.runtime.java.compiled.serialization.binary;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.multimap.list.ListMultimap;
 import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.api.tuple.Pair;
 import org.eclipse.collections.impl.list.fixed.ArrayAdapter;
 import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiled;
 import org.finos.legend.pure.m3.navigation.M3Paths;
@@ -50,6 +52,13 @@ public abstract class TestDistributedBinaryGraphSerialization extends AbstractPu
         testSerialization(DistributedBinaryGraphSerializer.newSerializer(runtime), expectedObjs);
     }
 
+    @Test
+    public void testFromRuntimeColumnar() throws IOException
+    {
+        ListIterable<Obj> expectedObjs = getExpectedObjsFromRuntime();
+        testSerialization(DistributedBinaryGraphSerializer.newSerializer(runtime, DistributedMetadataSpecification.Format.COLUMNAR), expectedObjs);
+    }
+
     private ListIterable<Obj> getExpectedObjsFromRuntime()
     {
         MutableSet<CoreInstance> ignoredClassifiers = PrimitiveUtilities.getPrimitiveTypes(repository).toSet();
@@ -92,6 +101,14 @@ public abstract class TestDistributedBinaryGraphSerialization extends AbstractPu
             Assert.assertEquals(classifierId, instances, deserializer.getInstances(classifierId, instanceIds).toSortedListBy(Obj::getIdentifier));
         }
 
+        // Validate instances of all classifiers at once
+        MapIterable<String, ? extends ListIterable<Obj>> instancesByClassifier = deserializer.getInstancesByClassifier(objsByClassifier.keyMultiValuePairsView().toMap(Pair::getOne, p -> p.getTwo().collect(Obj::getIdentifier)));
+        Assert.assertEquals(objsByClassifier.keysView().toSortedList(), instancesByClassifier.keysView().toSortedList());
+        for (String classifierId : objsByClassifier.keysView())
+        {
+            Assert.assertEquals(classifierId, objsByClassifier.get(classifierId).toSortedListBy(Obj::getIdentifier), instancesByClassifier.get(classifierId).toSortedListBy(Obj::getIdentifier));
+        }
+
         // Validate all individual objs
         for (Obj obj : expectedObjs)
         {
@@ -26,6 +26,7 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -114,6 +115,27 @@ public class TestDistributedMetadataSpecification
         }
     }
 
+    @Test
+    public void testFormat() throws IOException
+    {
+        DistributedMetadataSpecification row = DistributedMetadataSpecification.newSpecification("abc", "def");
+        DistributedMetadataSpecification columnar = row.withFormat(DistributedMetadataSpecification.Format.COLUMNAR);
+        Assert.assertEquals(DistributedMetadataSpecification.Format.ROW, row.getFormat());
+        Assert.assertEquals(DistributedMetadataSpecification.Format.COLUMNAR, columnar.getFormat());
+        Assert.assertSame(row, row.withFormat(DistributedMetadataSpecification.Format.ROW));
+        Assert.assertNotEquals(row, columnar);
+
+        Path directory = TMP.newFolder().toPath();
+        DistributedMetadataSpecification.writeSpecification(directory, row);
+        Path file = directory.resolve(Paths.get("metadata", "specs", "abc.json"));
+        Assert.assertFalse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains("format"));
+        Assert.assertEquals(row, DistributedMetadataSpecification.readSpecification(file));
+
+        DistributedMetadataSpecification.writeSpecification(directory, columnar);
+        Assert.assertTrue(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains("\"format\" : \"columnar\""));
+        Assert.assertEquals(columnar, DistributedMetadataSpecification.readSpecification(file));
+    }
+
     @Test
     public void testLoadMetadata_CurrentClassLoader()
     {
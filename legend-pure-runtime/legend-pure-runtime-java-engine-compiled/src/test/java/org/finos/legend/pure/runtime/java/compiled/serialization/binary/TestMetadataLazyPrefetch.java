@@ -0,0 +1,254 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.compiled.serialization.binary;
+
+import org.eclipse.collections.api.block.predicate.Predicate;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.impl.block.factory.Predicates;
+import org.eclipse.collections.impl.factory.Maps;
+import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiled;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.serialization.Reader;
+import org.finos.legend.pure.runtime.java.compiled.factory.JavaModelFactoryRegistryLoader;
+import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.coreinstance.AbstractLazyReflectiveCoreInstance;
+import org.finos.legend.pure.runtime.java.compiled.metadata.MetadataLazy;
+import org.finos.legend.pure.runtime.java.compiled.serialization.model.ObjRef;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestMetadataLazyPrefetch extends AbstractPureTestWithCoreCompiled
+{
+    private static final String CLASS = "meta::pure::metamodel::type::Class";
+    private static final String SOURCE_ID = "/test/prefetch.pure";
+
+    private static final MutableMap<String, byte[]> fileBytes = Maps.mutable.empty();
+
+    private CountingFileReader fileReader;
+    private DistributedBinaryGraphDeserializer deserializer;
+    private MetadataLazy metadata;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        setUpRuntime(getFunctionExecution(), JavaModelFactoryRegistryLoader.loader());
+        // A and B refer to each other, and each property refers back to its owner
+        compileTestSource(SOURCE_ID,
+                "Class test::A\n" +
+                        "{\n" +
+                        "  b : test::B[0..1];\n" +
+                        "}\n" +
+                        "\n" +
+                        "Class test::B\n" +
+                        "{\n" +
+                        "  a : test::A[0..1];\n" +
+                        "}\n");
+        DistributedBinaryGraphSerializer.newSerializer(runtime).serializeToInMemoryByteArrays(fileBytes);
+    }
+
+    @AfterClass
+    public static void cleanUp()
+    {
+        fileBytes.clear();
+        runtime.delete(SOURCE_ID);
+        runtime.compile();
+    }
+
+    @Before
+    public void setUpMetadata()
+    {
+        this.fileReader = new CountingFileReader(FileReaders.fromInMemoryByteArrays(fileBytes));
+        this.deserializer = DistributedBinaryGraphDeserializer.newBuilder(this.fileReader).build();
+        this.metadata = MetadataLazy.newMetadata(Thread.currentThread().getContextClassLoader(), this.deserializer);
+    }
+
+    @Test
+    public void testAccessWithoutPrefetchReads()
+    {
+        CoreInstance a = getClass("A");
+        this.fileReader.reset();
+        Assert.assertEquals(1, loadReferenced(Lists.immutable.with(a), Predicates.equal("properties")).size());
+        Assert.assertTrue(this.fileReader.getReadCount() > 0);
+    }
+
+    @Test
+    public void testPrefetchToDepth()
+    {
+        CoreInstance a = getClass("A");
+        this.metadata.prefetch(Lists.immutable.with(a), 2);
+
+        this.fileReader.reset();
+        ListIterable<CoreInstance> level1 = loadReferenced(Lists.immutable.with(a), Predicates.alwaysTrue());
+        ListIterable<CoreInstance> level2 = loadReferenced(level1, Predicates.alwaysTrue());
+        Assert.assertTrue(level1.notEmpty());
+        Assert.assertTrue(level2.notEmpty());
+        Assert.assertEquals(0, this.fileReader.getReadCount());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> this.metadata.prefetch(Lists.immutable.with(a), -1));
+    }
+
+    @Test
+    public void testPrefetchPropertyPath()
+    {
+        CoreInstance a = getClass("A");
+        this.metadata.prefetch(Lists.immutable.with(a), "properties");
+
+        this.fileReader.reset();
+        ListIterable<? extends CoreInstance> properties = a.getValueForMetaPropertyToMany("properties");
+        Assert.assertEquals(Lists.mutable.with("b"), properties.collect(CoreInstance::getName, Lists.mutable.empty()));
+        Assert.assertEquals(0, this.fileReader.getReadCount());
+
+        // Only the properties on the path are followed
+        MutableList<ObjRef> otherRefs = collectObjRefs(a, Predicates.notEqual("properties"))
+                .select(ref -> this.deserializer.hasInstance(ref.getClassifierId(), ref.getId()) && !"Root::test::A".equals(ref.getId()));
+        Assert.assertTrue(otherRefs.notEmpty());
+        otherRefs.forEach(ref -> Assert.assertNull(ref.getId(), this.metadata.getInstanceCache().get(ref.getClassifierId(), ref.getId())));
+    }
+
+    @Test
+    public void testPrefetchCycle()
+    {
+        // Following the path beyond the cycle reads nothing more, as the instances on it have been visited already
+        CoreInstance a = getClass("A");
+        this.fileReader.reset();
+        this.metadata.prefetch(Lists.immutable.with(a), "properties", "owner");
+        int readCount = this.fileReader.getReadCount();
+        Assert.assertTrue(readCount > 0);
+
+        setUpMetadata();
+        CoreInstance a2 = getClass("A");
+        this.fileReader.reset();
+        this.metadata.prefetch(Lists.immutable.with(a2), "properties", "owner", "properties", "owner", "properties", "owner");
+        Assert.assertEquals(readCount, this.fileReader.getReadCount());
+
+        this.fileReader.reset();
+        ListIterable<CoreInstance> owners = loadReferenced(loadReferenced(Lists.immutable.with(a2), Predicates.equal("properties")), Predicates.equal("owner"));
+        Assert.assertEquals(1, owners.size());
+        Assert.assertSame(a2, owners.get(0));
+        Assert.assertEquals(0, this.fileReader.getReadCount());
+    }
+
+    @Test
+    public void testPrefetchAsync()
+    {
+        CoreInstance a = getClass("A");
+        CoreInstance b = getClass("B");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            this.metadata.prefetchAsync(Lists.immutable.with(a), 1, executor).join();
+            this.metadata.prefetchAsync(Lists.immutable.with(b), executor, "properties").join();
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        this.fileReader.reset();
+        Assert.assertTrue(loadReferenced(Lists.immutable.with(a), Predicates.alwaysTrue()).notEmpty());
+        Assert.assertEquals(Lists.mutable.with("a"), loadReferenced(Lists.immutable.with(b), Predicates.equal("properties")).collect(CoreInstance::getName, Lists.mutable.empty()));
+        Assert.assertEquals(0, this.fileReader.getReadCount());
+    }
+
+    @Test
+    public void testForEachObjRef()
+    {
+        CoreInstance a = getClass("A");
+        long cacheSize = this.metadata.getInstanceCache().getStatistics().getSize();
+        this.fileReader.reset();
+
+        MutableList<ObjRef> propertyRefs = collectObjRefs(a, Predicates.equal("properties"));
+        Assert.assertEquals(1, propertyRefs.size());
+        Assert.assertEquals(Lists.mutable.empty(), collectObjRefs(a, Predicates.alwaysFalse()));
+        Assert.assertTrue(collectObjRefs(a, Predicates.alwaysTrue()).containsAll(propertyRefs));
+
+        // References are collected without loading the instances they refer to
+        Assert.assertEquals(0, this.fileReader.getReadCount());
+        Assert.assertEquals(cacheSize, this.metadata.getInstanceCache().getStatistics().getSize());
+        Assert.assertEquals("b", this.metadata.getMetadata(propertyRefs.get(0).getClassifierId(), propertyRefs.get(0).getId()).getName());
+    }
+
+    private CoreInstance getClass(String name)
+    {
+        return this.metadata.getMetadata(CLASS, "Root::test::" + name);
+    }
+
+    private ListIterable<CoreInstance> loadReferenced(Iterable<? extends CoreInstance> instances, Predicate<? super String> properties)
+    {
+        MutableList<CoreInstance> referenced = Lists.mutable.empty();
+        instances.forEach(instance -> collectObjRefs(instance, properties).forEach(ref ->
+        {
+            if (this.deserializer.hasInstance(ref.getClassifierId(), ref.getId()))
+            {
+                referenced.add(this.metadata.getMetadata(ref.getClassifierId(), ref.getId()));
+            }
+        }));
+        return referenced;
+    }
+
+    private static MutableList<ObjRef> collectObjRefs(CoreInstance instance, Predicate<? super String> properties)
+    {
+        MutableList<ObjRef> refs = Lists.mutable.empty();
+        if (instance instanceof AbstractLazyReflectiveCoreInstance)
+        {
+            ((AbstractLazyReflectiveCoreInstance) instance).forEachObjRef(properties, refs::add);
+        }
+        return refs;
+    }
+
+    private static class CountingFileReader implements FileReader
+    {
+        private final FileReader delegate;
+        private final AtomicInteger readCount = new AtomicInteger();
+
+        private CountingFileReader(FileReader delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Reader getReader(String path)
+        {
+            this.readCount.incrementAndGet();
+            return this.delegate.getReader(path);
+        }
+
+        @Override
+        public Reader getReader(String path, int offset, int length)
+        {
+            this.readCount.incrementAndGet();
+            return this.delegate.getReader(path, offset, length);
+        }
+
+        int getReadCount()
+        {
+            return this.readCount.get();
+        }
+
+        void reset()
+        {
+            this.readCount.set(0);
+        }
+    }
+}
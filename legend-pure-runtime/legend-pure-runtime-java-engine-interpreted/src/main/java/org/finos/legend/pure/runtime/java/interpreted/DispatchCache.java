@@ -0,0 +1,294 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.interpreted;
+
+import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
+import org.eclipse.collections.api.map.MapIterable;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+import org.finos.legend.pure.m3.navigation.Instance;
+import org.finos.legend.pure.m3.navigation.M3Paths;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
+import org.finos.legend.pure.m3.serialization.runtime.CompilerEventHandler;
+import org.finos.legend.pure.m3.serialization.runtime.Source;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.runtime.java.interpreted.natives.NativeFunction;
+
+import java.util.SortedMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inline caches of the interpreter's dispatch decisions: the executor for each type of value specification, for each
+ * function executed its kind and (for native functions) its implementation, and for each function type the names of
+ * its parameters. These only depend on the compiled model, so all are cleared whenever the runtime compiles or
+ * invalidates anything, or a native function is added. Only functions (and function types) of the compiled graph are
+ * cached, those created at runtime having no source information, so the caches are bounded by the size of the graph.
+ * Clearing also discards the invocation counts and compiled implementations of concrete function definitions kept for
+ * tiered compilation, which are only kept while it is enabled.
+ */
+final class DispatchCache implements CompilerEventHandler
+{
+    private static final FunctionDispatch PROPERTY = new FunctionDispatch(FunctionKind.PROPERTY, null, false);
+    private static final FunctionDispatch DEFINITION = new FunctionDispatch(FunctionKind.DEFINITION, null, false);
+    private static final FunctionDispatch OTHER = new FunctionDispatch(FunctionKind.OTHER, null, false);
+
+    private final ConcurrentMutableMap<CoreInstance, Executor> executorsByClassifier = ConcurrentHashMap.newMap();
+    private final ConcurrentMutableMap<CoreInstance, FunctionDispatch> dispatchesByFunction = ConcurrentHashMap.newMap();
+    private final ConcurrentMutableMap<CoreInstance, String[]> parameterNamesByFunctionType = ConcurrentHashMap.newMap();
+    private volatile boolean countInvocations = false;
+
+    /**
+     * Get the executor for the given value specification, or null if it is of an unknown type.
+     */
+    Executor getExecutor(CoreInstance valueSpecification, ProcessorSupport processorSupport)
+    {
+        CoreInstance classifier = processorSupport.getClassifier(valueSpecification);
+        Executor executor = this.executorsByClassifier.get(classifier);
+        if (executor == null)
+        {
+            executor = findExecutor(classifier, valueSpecification, processorSupport);
+            if (executor != null)
+            {
+                this.executorsByClassifier.put(classifier, executor);
+            }
+        }
+        return executor;
+    }
+
+    FunctionDispatch getFunctionDispatch(CoreInstance function, MapIterable<String, NativeFunction> nativeFunctions, ProcessorSupport processorSupport)
+    {
+        if (function instanceof LambdaWithContext)
+        {
+            // A new one is created each time a lambda is evaluated, so there is no point caching it
+            return DEFINITION;
+        }
+        if (function.getSourceInformation() == null)
+        {
+            // Not part of the compiled graph (created at runtime, by dynamicNew for instance): not cached, so that the
+            // cache does not keep alive every such function ever executed
+            return newFunctionDispatch(function, nativeFunctions, processorSupport);
+        }
+        FunctionDispatch dispatch = this.dispatchesByFunction.get(function);
+        if (dispatch == null)
+        {
+            dispatch = newFunctionDispatch(function, nativeFunctions, processorSupport);
+            this.dispatchesByFunction.put(function, dispatch);
+        }
+        return dispatch;
+    }
+
+    /**
+     * Get the names of the parameters of the given function type, in order, or null if two parameters have the same
+     * name.
+     */
+    String[] getParameterNames(CoreInstance functionType, ListIterable<? extends CoreInstance> parameters, ProcessorSupport processorSupport)
+    {
+        String[] names = this.parameterNamesByFunctionType.get(functionType);
+        if (names == null)
+        {
+            names = computeParameterNames(parameters, processorSupport);
+            if (functionType.getSourceInformation() != null)
+            {
+                this.parameterNamesByFunctionType.put(functionType, names);
+            }
+        }
+        return (names.length == parameters.size()) ? names : null;
+    }
+
+    /**
+     * Whether to count the invocations of concrete function definitions, for tiered compilation. Clears the caches.
+     */
+    void setCountInvocations(boolean countInvocations)
+    {
+        this.countInvocations = countInvocations;
+        clear();
+    }
+
+    void clear()
+    {
+        this.executorsByClassifier.clear();
+        this.dispatchesByFunction.clear();
+        this.parameterNamesByFunctionType.clear();
+    }
+
+    @Override
+    public void finishedCompilingCore(RichIterable<? extends Source> compiledSources)
+    {
+        clear();
+    }
+
+    @Override
+    public void compiled(SortedMap<String, RichIterable<? extends Source>> compiledSourcesByRepo, RichIterable<? extends CoreInstance> consolidatedCoreInstances)
+    {
+        clear();
+    }
+
+    @Override
+    public void invalidate(RichIterable<? extends CoreInstance> consolidatedCoreInstances)
+    {
+        clear();
+    }
+
+    @Override
+    public boolean isInitialized()
+    {
+        return true;
+    }
+
+    @Override
+    public void reset()
+    {
+        clear();
+    }
+
+    private static Executor findExecutor(CoreInstance classifier, CoreInstance valueSpecification, ProcessorSupport processorSupport)
+    {
+        if ("NonExecutableValueSpecification".equals(classifier.getName()))
+        {
+            return NonExecutableValueSpecificationExecutor.INSTANCE;
+        }
+        if (Instance.instanceOf(valueSpecification, M3Paths.FunctionExpression, processorSupport))
+        {
+            return FunctionExpressionExecutor.INSTANCE;
+        }
+        if (Instance.instanceOf(valueSpecification, M3Paths.VariableExpression, processorSupport))
+        {
+            return VariableExpressionExecutor.INSTANCE;
+        }
+        if (Instance.instanceOf(valueSpecification, M3Paths.InstanceValue, processorSupport))
+        {
+            return InstanceValueExecutor.INSTANCE;
+        }
+        if (Instance.instanceOf(valueSpecification, M3Paths.ClusteredValueSpecification, processorSupport))
+        {
+            return ClusteredValueSpecificationExecutor.INSTANCE;
+        }
+        if (Instance.instanceOf(valueSpecification, M3Paths.RoutedValueSpecification, processorSupport))
+        {
+            return RoutedValueSpecificationExecutor.INSTANCE;
+        }
+        return null;
+    }
+
+    private static String[] computeParameterNames(ListIterable<? extends CoreInstance> parameters, ProcessorSupport processorSupport)
+    {
+        MutableSet<String> distinctNames = Sets.mutable.ofInitialCapacity(parameters.size());
+        String[] names = new String[parameters.size()];
+        for (int i = 0; i < names.length; i++)
+        {
+            CoreInstance name = Instance.getValueForMetaPropertyToOneResolved(parameters.get(i), M3Properties.name, processorSupport);
+            names[i] = (name == null) ? "Unknown" : name.getName();
+            if (!distinctNames.add(names[i]))
+            {
+                // Recorded as an empty array, so the caller falls back to registering the parameters one by one and
+                // reports the conflict
+                return new String[0];
+            }
+        }
+        return names;
+    }
+
+    private FunctionDispatch newFunctionDispatch(CoreInstance function, MapIterable<String, NativeFunction> nativeFunctions, ProcessorSupport processorSupport)
+    {
+        if (Instance.instanceOf(function, M3Paths.NativeFunction, processorSupport))
+        {
+            return new FunctionDispatch(FunctionKind.NATIVE, nativeFunctions.get(function.getName()), false);
+        }
+        if (Instance.instanceOf(function, M3Paths.Property, processorSupport))
+        {
+            return PROPERTY;
+        }
+        if (this.countInvocations && Instance.instanceOf(function, M3Paths.ConcreteFunctionDefinition, processorSupport))
+        {
+            // Concrete function definitions get their own dispatch, to count invocations for tiered compilation
+            return new FunctionDispatch(FunctionKind.DEFINITION, null, true);
+        }
+        if (Instance.instanceOf(function, M3Paths.FunctionDefinition, processorSupport))
+        {
+            return DEFINITION;
+        }
+        return OTHER;
+    }
+
+    enum FunctionKind
+    {
+        NATIVE, PROPERTY, DEFINITION, OTHER
+    }
+
+    static final class FunctionDispatch
+    {
+        private final FunctionKind kind;
+        private final NativeFunction nativeFunction;
+        private volatile boolean countInvocations;
+        private final AtomicInteger invocationCount = new AtomicInteger();
+        private volatile TieredFunctionCompiler.CompiledFunction compiledFunction;
+
+        private FunctionDispatch(FunctionKind kind, NativeFunction nativeFunction, boolean countInvocations)
+        {
+            this.kind = kind;
+            this.nativeFunction = nativeFunction;
+            this.countInvocations = countInvocations;
+        }
+
+        FunctionKind getKind()
+        {
+            return this.kind;
+        }
+
+        /**
+         * Implementation of the function if it is a native function supported by this execution platform, else null.
+         */
+        NativeFunction getNativeFunction()
+        {
+            return this.nativeFunction;
+        }
+
+        boolean deferParameterExecution()
+        {
+            return (this.nativeFunction != null) && this.nativeFunction.deferParameterExecution();
+        }
+
+        /**
+         * Count an invocation of a concrete function definition. Returns true only for the invocation which reaches
+         * the threshold, after which invocations are no longer counted.
+         */
+        boolean countInvocation(int threshold)
+        {
+            if (this.countInvocations && (this.invocationCount.incrementAndGet() == threshold))
+            {
+                this.countInvocations = false;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Compiled implementation of the function, once tiered compilation has produced one, else null.
+         */
+        TieredFunctionCompiler.CompiledFunction getCompiledFunction()
+        {
+            return this.compiledFunction;
+        }
+
+        void setCompiledFunction(TieredFunctionCompiler.CompiledFunction compiledFunction)
+        {
+            this.compiledFunction = compiledFunction;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import org.finos.legend.pure.m3.execution.FunctionExecution;
 import org.finos.legend.pure.m3.execution.OutputWriter;
 import org.finos.legend.pure.m3.navigation.*;
 import org.finos.legend.pure.m3.navigation.function.Function;
+import org.finos.legend.pure.m3.navigation.function.FunctionDescriptor;
 import org.finos.legend.pure.m3.navigation.multiplicity.Multiplicity;
 import org.finos.legend.pure.m3.navigation.valuespecification.ValueSpecification;
 import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.RepositoryCodeStorage;
@@ -70,17 +71,25 @@ import org.finos.legend.pure.runtime.java.interpreted.natives.grammar.multiplici
 import org.finos.legend.pure.runtime.java.interpreted.natives.grammar.multiplicity.ToOneMany;
 import org.finos.legend.pure.runtime.java.interpreted.natives.grammar.string.JoinStrings;
 import org.finos.legend.pure.runtime.java.interpreted.profiler.Profiler;
+import org.finos.legend.pure.runtime.java.interpreted.profiler.PureCallStack;
 import org.finos.legend.pure.runtime.java.interpreted.profiler.VoidProfiler;
+import org.finos.legend.pure.runtime.java.shared.profiler.SamplingProfiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @ExecutionPlatform(name = "Interpreted")
 public class FunctionExecutionInterpreted implements FunctionExecution
 {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FunctionExecutionInterpreted.class);
+
     private static final int DEFAULT_MAX_SQL_ROWS = 200;
 
     private final AtomicBoolean cancelExecution = new AtomicBoolean(false);
@@ -95,6 +104,12 @@ public class FunctionExecutionInterpreted implements FunctionExecution
     private Message message;
 
     private MutableMap<String, NativeFunction> nativeFunctions;
+    private final DispatchCache dispatchCache = new DispatchCache();
+    private volatile PureCallStack sampledCallStack;
+    private SamplingProfiler samplingProfiler;
+    private volatile TieredFunctionCompiler tieredFunctionCompiler;
+    private int tieredCompilationThreshold;
+    private java.util.concurrent.Executor tieredCompilationExecutor;
     private final int maxSQLRows;
     private MutableList<InterpretedExtension> extensions;
 
@@ -129,6 +144,8 @@ public class FunctionExecutionInterpreted implements FunctionExecution
         this.processorSupport = new M3ProcessorSupport(this.runtime.getContext(), this.runtime.getModelRepository());
 
         this.nativeFunctions = UnifiedMap.newMap();
+        this.dispatchCache.clear();
+        runtime.getIncrementalCompiler().addCompilerEventHandler(this.dispatchCache);
 
         ModelRepository repository = runtime.getModelRepository();
         this.storage = runtime.getCodeStorage();
@@ -309,6 +326,7 @@ public class FunctionExecutionInterpreted implements FunctionExecution
     public void addNativeFunction(String signature, NativeFunction function)
     {
         this.nativeFunctions.put(signature, function);
+        this.dispatchCache.clear();
     }
 
     @Override
@@ -365,6 +383,125 @@ public class FunctionExecutionInterpreted implements FunctionExecution
         return this.nativeFunctions.get(functionName);
     }
 
+    DispatchCache.FunctionDispatch getFunctionDispatch(CoreInstance function)
+    {
+        return this.dispatchCache.getFunctionDispatch(function, this.nativeFunctions, this.runtime.getProcessorSupport());
+    }
+
+    /**
+     * Start sampling the Pure functions executed by the given thread. Only functions entered after this call are seen
+     * by the profiler.
+     *
+     * @param thread         thread to profile
+     * @param intervalMillis sampling interval in milliseconds
+     */
+    public synchronized void startSamplingProfiler(Thread thread, long intervalMillis)
+    {
+        if (this.samplingProfiler != null)
+        {
+            throw new IllegalStateException("Sampling profiler already started");
+        }
+        PureCallStack callStack = new PureCallStack(thread);
+        this.samplingProfiler = new SamplingProfiler(thread, callStack, intervalMillis);
+        this.sampledCallStack = callStack;
+        this.samplingProfiler.start();
+    }
+
+    /**
+     * Stop the sampling profiler, if started, and return it with the samples collected.
+     *
+     * @return stopped profiler, or null if it was not started
+     */
+    public synchronized SamplingProfiler stopSamplingProfiler()
+    {
+        SamplingProfiler profiler = this.samplingProfiler;
+        if (profiler != null)
+        {
+            profiler.stop();
+            this.samplingProfiler = null;
+            this.sampledCallStack = null;
+        }
+        return profiler;
+    }
+
+    /**
+     * Call stack kept while the sampling profiler is started, else null.
+     */
+    PureCallStack getSampledCallStack()
+    {
+        return this.sampledCallStack;
+    }
+
+    /**
+     * Enable tiered compilation: once a concrete function definition has been interpreted the given number of times,
+     * it is compiled in the background with the given compiler and the compiled implementation is used from then on.
+     * No compiler is provided with the interpreted engine (see {@link TieredFunctionCompiler}).
+     *
+     * @param compiler  tiered function compiler
+     * @param threshold number of interpreted invocations before compiling a function
+     */
+    public void enableTieredCompilation(TieredFunctionCompiler compiler, int threshold)
+    {
+        enableTieredCompilation(compiler, threshold, Executors.newSingleThreadExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "Pure tiered compilation");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    synchronized void enableTieredCompilation(TieredFunctionCompiler compiler, int threshold, java.util.concurrent.Executor executor)
+    {
+        if (threshold <= 0)
+        {
+            throw new IllegalArgumentException("Tiered compilation threshold must be positive: " + threshold);
+        }
+        disableTieredCompilation();
+        this.tieredCompilationThreshold = threshold;
+        this.tieredCompilationExecutor = executor;
+        this.tieredFunctionCompiler = compiler;
+        this.dispatchCache.setCountInvocations(true);
+    }
+
+    /**
+     * Disable tiered compilation, going back to interpreting all functions.
+     */
+    public synchronized void disableTieredCompilation()
+    {
+        if (this.tieredFunctionCompiler != null)
+        {
+            this.tieredFunctionCompiler = null;
+            if (this.tieredCompilationExecutor instanceof ExecutorService)
+            {
+                ((ExecutorService) this.tieredCompilationExecutor).shutdownNow();
+            }
+            this.tieredCompilationExecutor = null;
+            this.dispatchCache.setCountInvocations(false);
+        }
+    }
+
+    private synchronized void scheduleTieredCompilation(TieredFunctionCompiler compiler, CoreInstance function, DispatchCache.FunctionDispatch dispatch)
+    {
+        if (this.tieredFunctionCompiler != compiler)
+        {
+            // Disabled or re-enabled in the meantime
+            return;
+        }
+        ProcessorSupport processorSupport = this.runtime.getProcessorSupport();
+        this.tieredCompilationExecutor.execute(() ->
+        {
+            try
+            {
+                dispatch.setCompiledFunction(compiler.compile(function, processorSupport));
+            }
+            catch (Exception e)
+            {
+                // Invocations are no longer counted, so the function stays interpreted until the next compilation
+                LOGGER.warn("Tiered compilation of {} failed, it stays interpreted", FunctionDescriptor.getFunctionDescriptor(function, processorSupport), e);
+            }
+        });
+    }
+
     public String printStack(Stack<MutableMap<String, CoreInstance>> resolvedTypeParameters, final ProcessorSupport processorSupport)
     {
         int size = resolvedTypeParameters.size();
@@ -430,6 +567,24 @@ public class FunctionExecutionInterpreted implements FunctionExecution
     }
 
     public CoreInstance executeFunction(boolean limitScope, org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.Function<CoreInstance> function, ListIterable<? extends CoreInstance> params, final Stack<MutableMap<String, CoreInstance>> resolvedTypeParameters, final Stack<MutableMap<String, CoreInstance>> resolvedMultiplicityParameters, final VariableContext varContext, final CoreInstance functionExpressionToUseInStack, final Profiler profiler, final InstantiationContext instantiationContext, final ExecutionSupport executionSupport)
+    {
+        PureCallStack callStack = this.sampledCallStack;
+        if ((callStack == null) || !callStack.isOwnedByCurrentThread())
+        {
+            return this.executeFunctionInternal(limitScope, function, params, resolvedTypeParameters, resolvedMultiplicityParameters, varContext, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport);
+        }
+        callStack.push(function);
+        try
+        {
+            return this.executeFunctionInternal(limitScope, function, params, resolvedTypeParameters, resolvedMultiplicityParameters, varContext, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport);
+        }
+        finally
+        {
+            callStack.pop();
+        }
+    }
+
+    private CoreInstance executeFunctionInternal(boolean limitScope, org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.Function<CoreInstance> function, ListIterable<? extends CoreInstance> params, final Stack<MutableMap<String, CoreInstance>> resolvedTypeParameters, final Stack<MutableMap<String, CoreInstance>> resolvedMultiplicityParameters, final VariableContext varContext, final CoreInstance functionExpressionToUseInStack, final Profiler profiler, final InstantiationContext instantiationContext, final ExecutionSupport executionSupport)
     {
         try
         {
@@ -439,7 +594,8 @@ public class FunctionExecutionInterpreted implements FunctionExecution
             }
 
             final ProcessorSupport processorSupport = this.runtime.getProcessorSupport();
-            ListIterable<? extends CoreInstance> signatureVars = Instance.getValueForMetaPropertyToManyResolved(processorSupport.function_getFunctionType(function), M3Properties.parameters, processorSupport);
+            CoreInstance functionType = processorSupport.function_getFunctionType(function);
+            ListIterable<? extends CoreInstance> signatureVars = Instance.getValueForMetaPropertyToManyResolved(functionType, M3Properties.parameters, processorSupport);
             if (signatureVars.size() != params.size())
             {
                 StringBuilder builder = new StringBuilder();
@@ -455,7 +611,7 @@ public class FunctionExecutionInterpreted implements FunctionExecution
                 throw new PureExecutionException(functionExpressionToUseInStack == null ? null : functionExpressionToUseInStack.getSourceInformation(), message);
             }
 
-            final VariableContext variableContext = this.moveParametersIntoVariableContext(varContext, signatureVars, params, functionExpressionToUseInStack);
+            final VariableContext variableContext = this.moveParametersIntoVariableContext(varContext, functionType, signatureVars, params, functionExpressionToUseInStack);
             if (limitScope)
             {
                 variableContext.markVariableScopeBoundary();
@@ -477,32 +633,46 @@ public class FunctionExecutionInterpreted implements FunctionExecution
 
             // Execute
             CoreInstance result = null;
-            if (Instance.instanceOf(function, M3Paths.NativeFunction, processorSupport))
+            DispatchCache.FunctionDispatch dispatch = this.dispatchCache.getFunctionDispatch(function, this.nativeFunctions, processorSupport);
+            if (dispatch.getKind() == DispatchCache.FunctionKind.NATIVE)
             {
-                org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.NativeFunction function1 = NativeFunctionCoreInstanceWrapper.toNativeFunction(function);
-                NativeFunction nativeFunction = this.nativeFunctions.get(function1.getName());
+                NativeFunction nativeFunction = dispatch.getNativeFunction();
                 if (nativeFunction == null)
                 {
-                    throw new PureExecutionException(functionExpressionToUseInStack.getSourceInformation(), "The function '" + function1.getName() + "' is not supported by this execution platform");
+                    throw new PureExecutionException(functionExpressionToUseInStack.getSourceInformation(), "The function '" + function.getName() + "' is not supported by this execution platform");
                 }
                 result = nativeFunction.execute(params, resolvedTypeParameters, resolvedMultiplicityParameters, variableContext, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport, this.runtime.getContext(), this.runtime.getProcessorSupport());
             }
-            else if (Instance.instanceOf(function, M3Paths.Property, processorSupport))
+            else if (dispatch.getKind() == DispatchCache.FunctionKind.PROPERTY)
             {
                 result = this.executeProperty(PropertyCoreInstanceWrapper.toProperty(function), true, resolvedTypeParameters, resolvedMultiplicityParameters, varContext, profiler, params, functionExpressionToUseInStack, instantiationContext, executionSupport);
             }
             //Qualified properties also go here
-            else if (Instance.instanceOf(function, M3Paths.FunctionDefinition, processorSupport))
+            else if (dispatch.getKind() == DispatchCache.FunctionKind.DEFINITION)
             {
-                RichIterable<? extends CoreInstance> expressions = FunctionDefinitionCoreInstanceWrapper.toFunctionDefinition(function)._expressionSequence();
-
-                CoreInstance returnVal = null;
-                for (CoreInstance expression : expressions)
+                TieredFunctionCompiler.CompiledFunction compiledFunction = dispatch.getCompiledFunction();
+                if (compiledFunction != null)
                 {
-                    Executor executor = findValueSpecificationExecutor(expression, functionExpressionToUseInStack, processorSupport, this);
-                    returnVal = executor.execute(expression, resolvedTypeParameters, resolvedMultiplicityParameters, functionExpressionToUseInStack, variableContext, profiler, instantiationContext, executionSupport, this, processorSupport);
+                    result = compiledFunction.execute(params, executionSupport);
+                }
+                else
+                {
+                    TieredFunctionCompiler compiler = this.tieredFunctionCompiler;
+                    if ((compiler != null) && dispatch.countInvocation(this.tieredCompilationThreshold))
+                    {
+                        this.scheduleTieredCompilation(compiler, function, dispatch);
+                    }
+
+                    RichIterable<? extends CoreInstance> expressions = FunctionDefinitionCoreInstanceWrapper.toFunctionDefinition(function)._expressionSequence();
+
+                    CoreInstance returnVal = null;
+                    for (CoreInstance expression : expressions)
+                    {
+                        Executor executor = findValueSpecificationExecutor(expression, functionExpressionToUseInStack, processorSupport, this);
+                        returnVal = executor.execute(expression, resolvedTypeParameters, resolvedMultiplicityParameters, functionExpressionToUseInStack, variableContext, profiler, instantiationContext, executionSupport, this, processorSupport);
+                    }
+                    result = returnVal;
                 }
-                result = returnVal;
             }
             List<CoreInstance> instances = this.extensions.collect(x -> x.getExtraFunctionExecution(function, params, resolvedTypeParameters, resolvedMultiplicityParameters, variableContext, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport, processorSupport, this)).select(x -> x != null);
 
@@ -667,46 +837,34 @@ public class FunctionExecutionInterpreted implements FunctionExecution
 
     public static Executor findValueSpecificationExecutor(CoreInstance instance, CoreInstance functionExpressionToUseInStack, ProcessorSupport processorSupport, FunctionExecutionInterpreted functionExecutionInterpreted) throws PureExecutionException
     {
-        if (!ValueSpecification.isExecutable(instance, processorSupport))
+        Executor executor = functionExecutionInterpreted.dispatchCache.getExecutor(instance, processorSupport);
+        if (executor == NonExecutableValueSpecificationExecutor.INSTANCE)
         {
-            return NonExecutableValueSpecificationExecutor.INSTANCE;
+            return executor;
         }
         if (functionExecutionInterpreted.cancelExecution.compareAndSet(true, false))
         {
             throw new PureExecutionException("Execution cancelled!");
         }
-        if (Instance.instanceOf(instance, M3Paths.FunctionExpression, processorSupport))
-        {
-            return FunctionExpressionExecutor.INSTANCE;
-        }
-        if (Instance.instanceOf(instance, M3Paths.VariableExpression, processorSupport))
-        {
-            return VariableExpressionExecutor.INSTANCE;
-        }
-        if (Instance.instanceOf(instance, M3Paths.InstanceValue, processorSupport))
-        {
-            return InstanceValueExecutor.INSTANCE;
-        }
-        if (Instance.instanceOf(instance, M3Paths.ClusteredValueSpecification, processorSupport))
-        {
-            return ClusteredValueSpecificationExecutor.INSTANCE;
-        }
-        if (Instance.instanceOf(instance, M3Paths.RoutedValueSpecification, processorSupport))
-        {
-            return RoutedValueSpecificationExecutor.INSTANCE;
-        }
-        else
+        if (executor == null)
         {
             throw new PureExecutionException(functionExpressionToUseInStack.getSourceInformation(), "A new type (" + processorSupport.getClassifier(instance).getName() + ") must have been introduced in the ValueSpecification tree.");
         }
+        return executor;
     }
 
-    private VariableContext moveParametersIntoVariableContext(VariableContext variableContext, ListIterable<? extends CoreInstance> signatureVars, ListIterable<? extends CoreInstance> parameters, CoreInstance functionExpressionToUseInStack)
+    private VariableContext moveParametersIntoVariableContext(VariableContext variableContext, CoreInstance functionType, ListIterable<? extends CoreInstance> signatureVars, ListIterable<? extends CoreInstance> parameters, CoreInstance functionExpressionToUseInStack)
     {
+        ProcessorSupport processorSupport = this.runtime.getProcessorSupport();
+        String[] parameterNames = this.dispatchCache.getParameterNames(functionType, signatureVars, processorSupport);
+        if (parameterNames != null)
+        {
+            return VariableContext.newVariableContextWith(variableContext, parameterNames, parameters);
+        }
+
         VariableContext newVarContext = VariableContext.newVariableContext(variableContext);
         try
         {
-            ProcessorSupport processorSupport = this.runtime.getProcessorSupport();
             for (int i = 0, length = signatureVars.size(); i < length; i++)
             {
                 CoreInstance varName = Instance.getValueForMetaPropertyToOneResolved(signatureVars.get(i), M3Properties.name, processorSupport);
@@ -729,6 +887,7 @@ public class FunctionExecutionInterpreted implements FunctionExecution
     @Override
     public void resetEventHandlers()
     {
+        this.runtime.getIncrementalCompiler().removeCompilerEventHandler(this.dispatchCache);
     }
 
     @Override
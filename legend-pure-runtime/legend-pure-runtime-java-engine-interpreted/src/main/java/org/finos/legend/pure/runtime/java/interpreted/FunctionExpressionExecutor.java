@@ -55,7 +55,7 @@ class FunctionExpressionExecutor implements Executor
         MutableMap<String, CoreInstance> localResolvedTypeParameters = Maps.mutable.empty();
         MutableMap<String, CoreInstance> localResolvedMultiplicityParameters = Maps.mutable.empty();
         this.resolveLocalTypeAndMultiplicityParams(functionExpression, instance, processorSupport, params, function, localResolvedTypeParameters, localResolvedMultiplicityParameters);
-        boolean deferExecution = Instance.instanceOf(function, M3Paths.NativeFunction, processorSupport) && functionExecutionInterpreted.getNativeFunction(function.getName()) != null && functionExecutionInterpreted.getNativeFunction(function.getName()).deferParameterExecution();
+        boolean deferExecution = functionExecutionInterpreted.getFunctionDispatch(function).deferParameterExecution();
 
         ListIterable<? extends CoreInstance> parameters;
         if (deferExecution || params.isEmpty())
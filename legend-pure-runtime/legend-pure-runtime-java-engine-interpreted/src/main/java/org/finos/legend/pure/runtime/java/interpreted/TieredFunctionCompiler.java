@@ -0,0 +1,58 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.interpreted;
+
+import org.eclipse.collections.api.list.ListIterable;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+
+/**
+ * Compiler for the tiered execution of hot function definitions. Once a concrete function definition has been
+ * interpreted a given number of times, the interpreter asks this compiler, on a background thread, for a faster
+ * implementation, which it then calls instead of interpreting the function. Compiled implementations are discarded
+ * whenever the runtime compiles or invalidates anything, and functions are then interpreted again until hot. Invocations
+ * are only counted while tiered compilation is enabled, and only until the threshold is reached.
+ * <p>
+ * This is an extension point only: no implementation is provided with the interpreted engine, which does not depend on
+ * any other engine. An implementation backed by another engine has to convert the interpreted parameters and result
+ * (value specifications) to and from its own representation.
+ *
+ * @see FunctionExecutionInterpreted#enableTieredCompilation(TieredFunctionCompiler, int)
+ */
+public interface TieredFunctionCompiler
+{
+    /**
+     * Compile the given concrete function definition. Returns null if the function cannot be compiled, in which case
+     * it stays interpreted until the runtime next compiles something. Exceptions are logged and handled the same way.
+     *
+     * @param function         concrete function definition
+     * @param processorSupport processor support
+     * @return compiled function, or null
+     */
+    CompiledFunction compile(CoreInstance function, ProcessorSupport processorSupport);
+
+    interface CompiledFunction
+    {
+        /**
+         * Execute the function with the given (evaluated) parameters, returning its result as a value specification,
+         * as the interpreter would.
+         *
+         * @param parameters       evaluated parameters
+         * @param executionSupport execution support
+         * @return result
+         */
+        CoreInstance execute(ListIterable<? extends CoreInstance> parameters, ExecutionSupport executionSupport);
+    }
+}
@@ -14,29 +14,43 @@
 
 package org.finos.legend.pure.runtime.java.interpreted;
 
-import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.set.MutableSet;
-import org.eclipse.collections.impl.factory.Maps;
 import org.eclipse.collections.impl.factory.Sets;
+import org.eclipse.collections.impl.utility.ArrayIterate;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 
 import java.io.PrintStream;
+import java.util.Arrays;
 
+/**
+ * Variables in scope during interpreted execution. Each context is a frame holding its variables in arrays of names
+ * and values, with its parent frame searched on lookup. Frames are small, so scanning them is cheaper than hashing
+ * the names. Function parameters are moved into a new frame in one go, with the names laid out once per function
+ * type (see {@link #newVariableContextWith(VariableContext, String[], ListIterable)}).
+ */
 public class VariableContext
 {
+    private static final String[] NO_NAMES = new String[0];
+    private static final CoreInstance[] NO_VALUES = new CoreInstance[0];
+
     private final VariableContext parent;
-    private MutableMap<String, CoreInstance> mapping;
+    private String[] names;
+    private CoreInstance[] values;
+    private int size;
     private boolean functionScopeLimitMarker = false;
 
     private VariableContext(VariableContext parent)
     {
-        this.parent = parent;
+        this(parent, NO_NAMES, NO_VALUES, 0);
     }
 
-    private VariableContext(VariableContext parent, String name, CoreInstance value)
+    private VariableContext(VariableContext parent, String[] names, CoreInstance[] values, int size)
     {
-        this(parent);
-        this.mapping = Maps.mutable.with(name, value);
+        this.parent = parent;
+        this.names = names;
+        this.values = values;
+        this.size = size;
     }
 
     /**
@@ -49,8 +63,20 @@ public class VariableContext
      */
     public CoreInstance getValue(String name)
     {
-        CoreInstance value = getLocalValue(name);
-        return ((value != null) || (this.parent == null) || this.functionScopeLimitMarker) ? value : this.parent.getValue(name);
+        VariableContext context = this;
+        while (true)
+        {
+            CoreInstance value = context.getLocalValue(name);
+            if (value != null)
+            {
+                return value;
+            }
+            if ((context.parent == null) || context.functionScopeLimitMarker)
+            {
+                return null;
+            }
+            context = context.parent;
+        }
     }
 
     public void markVariableScopeBoundary()
@@ -68,7 +94,8 @@ public class VariableContext
      */
     public CoreInstance getLocalValue(String name)
     {
-        return (this.mapping == null) ? null : this.mapping.get(name);
+        int index = indexOf(name);
+        return (index < 0) ? null : this.values[index];
     }
 
     /**
@@ -82,19 +109,39 @@ public class VariableContext
      */
     public void registerValue(String name, CoreInstance value) throws VariableNameConflictException
     {
-        if (this.mapping == null)
+        int index = indexOf(name);
+        if (index >= 0)
+        {
+            if (this.values[index] != null)
+            {
+                throw new VariableNameConflictException(name);
+            }
+            this.values[index] = value;
+            return;
+        }
+        if (this.size == this.names.length)
         {
-            this.mapping = Maps.mutable.with(name, value);
+            // The names may be shared with other frames of the same function, so they are copied rather than
+            // written to
+            int newLength = Math.max(4, this.size * 2);
+            this.names = Arrays.copyOf(this.names, newLength);
+            this.values = Arrays.copyOf(this.values, newLength);
         }
-        else
+        this.names[this.size] = name;
+        this.values[this.size] = value;
+        this.size++;
+    }
+
+    private int indexOf(String name)
+    {
+        for (int i = 0; i < this.size; i++)
         {
-            CoreInstance previous = this.mapping.put(name, value);
-            if (previous != null)
+            if (name.equals(this.names[i]))
             {
-                this.mapping.put(name, previous);
-                throw new VariableNameConflictException(name);
+                return i;
             }
         }
+        return -1;
     }
 
     /**
@@ -123,10 +170,7 @@ public class VariableContext
         else
         {
             MutableSet<String> names = this.parent.getVariableNames();
-            if (this.mapping != null)
-            {
-                names.addAllIterable(this.mapping.keysView());
-            }
+            names.addAll(Arrays.asList(this.names).subList(0, this.size));
             return names;
         }
     }
@@ -140,15 +184,15 @@ public class VariableContext
      */
     public MutableSet<String> getLocalVariableNames()
     {
-        return (this.mapping == null) ? Sets.mutable.<String>with() : Sets.mutable.withAll(this.mapping.keysView());
+        return Sets.mutable.withAll(Arrays.asList(this.names).subList(0, this.size));
     }
 
     public void print(PrintStream printStream)
     {
-        if (this.mapping != null)
+        if (this.size > 0)
         {
-            printStream.println("   " + this.mapping.keysView().makeString(",") + ":freeze:" + this.functionScopeLimitMarker);
-            if (this.parent != null && this.parent.mapping != null)
+            printStream.println("   " + ArrayIterate.makeString(Arrays.copyOf(this.names, this.size), ",") + ":freeze:" + this.functionScopeLimitMarker);
+            if (this.parent != null && this.parent.size > 0)
             {
                 printStream.print("   parent:");
                 this.parent.print(printStream);
@@ -189,7 +233,27 @@ public class VariableContext
      */
     public static VariableContext newVariableContextWith(VariableContext parent, String name, CoreInstance value)
     {
-        return new VariableContext(parent, name, value);
+        return new VariableContext(parent, new String[]{name}, new CoreInstance[]{value}, 1);
+    }
+
+    /**
+     * Return a new variable context with the given parent, and register
+     * the given variable values.  The names must be distinct; they are
+     * not copied, so they can be shared by all the frames of a function.
+     *
+     * @param parent parent variable context
+     * @param names  variable names
+     * @param values variable values, in the same order as the names
+     * @return new variable context
+     */
+    static VariableContext newVariableContextWith(VariableContext parent, String[] names, ListIterable<? extends CoreInstance> values)
+    {
+        CoreInstance[] valueArray = new CoreInstance[names.length];
+        for (int i = 0; i < valueArray.length; i++)
+        {
+            valueArray[i] = values.get(i);
+        }
+        return new VariableContext(parent, names, valueArray, names.length);
     }
 
     /**
@@ -18,8 +18,8 @@ import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.map.MutableMap;
-import org.eclipse.collections.api.tuple.Pair;
-import org.eclipse.collections.impl.tuple.Tuples;
+import org.eclipse.collections.impl.block.factory.HashingStrategies;
+import org.eclipse.collections.impl.map.strategy.mutable.UnifiedMapWithHashingStrategy;
 import org.finos.legend.pure.m3.compiler.Context;
 import org.finos.legend.pure.m3.exception.PureExecutionException;
 import org.finos.legend.pure.m3.navigation.Instance;
@@ -29,6 +29,12 @@ import org.finos.legend.pure.m3.navigation.ProcessorSupport;
 import org.finos.legend.pure.m3.navigation.ValueSpecificationBootstrap;
 import org.finos.legend.pure.m3.navigation.valuespecification.ValueSpecification;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.coreinstance.primitive.DateCoreInstance;
+import org.finos.legend.pure.m4.coreinstance.primitive.DecimalCoreInstance;
+import org.finos.legend.pure.m4.coreinstance.primitive.FloatCoreInstance;
+import org.finos.legend.pure.m4.coreinstance.primitive.IntegerCoreInstance;
+import org.finos.legend.pure.m4.coreinstance.primitive.PrimitiveCoreInstance;
+import org.finos.legend.pure.m4.coreinstance.primitive.StringCoreInstance;
 import org.finos.legend.pure.runtime.java.interpreted.ExecutionSupport;
 import org.finos.legend.pure.runtime.java.interpreted.FunctionExecutionInterpreted;
 import org.finos.legend.pure.runtime.java.interpreted.VariableContext;
@@ -36,8 +42,8 @@ import org.finos.legend.pure.runtime.java.interpreted.natives.InstantiationConte
 import org.finos.legend.pure.runtime.java.interpreted.natives.NativeFunction;
 import org.finos.legend.pure.runtime.java.interpreted.natives.grammar.lang.Compare;
 import org.finos.legend.pure.runtime.java.interpreted.profiler.Profiler;
+import org.finos.legend.pure.runtime.java.shared.sort.KeySort;
 
-import java.util.Comparator;
 import java.util.Stack;
 
 public class Sort extends NativeFunction
@@ -62,26 +68,49 @@ public class Sort extends NativeFunction
 
     private <T extends CoreInstance> MutableList<T> sort(ListIterable<T> collection, CoreInstance key, CoreInstance comparison, Stack<MutableMap<String, CoreInstance>> resolvedTypeParameters, Stack<MutableMap<String, CoreInstance>> resolvedMultiplicityParameters, VariableContext variableContext, CoreInstance functionExpressionToUseInStack, Profiler profiler, ProcessorSupport processorSupport, InstantiationContext instantiationContext, ExecutionSupport executionSupport)
     {
-        Comparator<CoreInstance> comparator = (comparison == null) ?
-                (left, right) -> Compare.compare(left, right, processorSupport) :
-                (left, right) ->
-                {
-                    if (left == right)
-                    {
-                        return 0;
-                    }
+        int size = collection.size();
+        CoreInstance[] keys = new CoreInstance[size];
+        for (int i = 0; i < size; i++)
+        {
+            keys[i] = (key == null) ? collection.get(i) : executeKey(key, collection.get(i), resolvedTypeParameters, resolvedMultiplicityParameters, getParentOrEmptyVariableContext(variableContext), functionExpressionToUseInStack, profiler, processorSupport, instantiationContext, executionSupport);
+        }
 
-                    return PrimitiveUtilities.getIntegerValue(Instance.getValueForMetaPropertyToOneResolved(this.functionExecution.executeLambdaFromNative(comparison, Lists.immutable.with(ValueSpecificationBootstrap.wrapValueSpecification(left, true, processorSupport), ValueSpecificationBootstrap.wrapValueSpecification(right, true, processorSupport)), resolvedTypeParameters, resolvedMultiplicityParameters, variableContext, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport), M3Properties.values, processorSupport)).intValue();
-                };
+        if (comparison == null)
+        {
+            Object[] primitiveKeys = new Object[size];
+            for (int i = 0; i < size; i++)
+            {
+                primitiveKeys[i] = getPrimitiveValue(keys[i]);
+            }
+            return KeySort.sortByDefaultOrder(collection, primitiveKeys, keys, (left, right) -> Compare.compare((CoreInstance) left, (CoreInstance) right, processorSupport));
+        }
 
-        if (key == null)
+        // Keys are wrapped once, rather than on every comparison, and the same key always gets the same wrapper so
+        // that identical keys are recognised without calling the comparison
+        MutableMap<CoreInstance, CoreInstance> wrappers = UnifiedMapWithHashingStrategy.newMap(HashingStrategies.identityStrategy());
+        Object[] wrappedKeys = new Object[size];
+        for (int i = 0; i < size; i++)
         {
-            return collection.toSortedList(comparator);
+            wrappedKeys[i] = wrappers.getIfAbsentPutWithKey(keys[i], k -> ValueSpecificationBootstrap.wrapValueSpecification(k, true, processorSupport));
         }
+        return KeySort.sortByKeys(collection, wrappedKeys, (left, right) ->
+        {
+            if (left == right)
+            {
+                return 0;
+            }
+            return PrimitiveUtilities.getIntegerValue(Instance.getValueForMetaPropertyToOneResolved(this.functionExecution.executeLambdaFromNative(comparison, Lists.immutable.with((CoreInstance) left, (CoreInstance) right), resolvedTypeParameters, resolvedMultiplicityParameters, variableContext, functionExpressionToUseInStack, profiler, instantiationContext, executionSupport), M3Properties.values, processorSupport)).intValue();
+        });
+    }
 
-        return collection.collect(e -> Tuples.pair(executeKey(key, e, resolvedTypeParameters, resolvedMultiplicityParameters, getParentOrEmptyVariableContext(variableContext), functionExpressionToUseInStack, profiler, processorSupport, instantiationContext, executionSupport), e), Lists.mutable.empty())
-                .sortThis((left, right) -> comparator.compare(left.getOne(), right.getOne()))
-                .collect(Pair::getTwo);
+    private static Object getPrimitiveValue(CoreInstance instance)
+    {
+        // Only the primitives for which the default order is their Java natural order
+        if ((instance instanceof IntegerCoreInstance) || (instance instanceof FloatCoreInstance) || (instance instanceof DecimalCoreInstance) || (instance instanceof StringCoreInstance) || (instance instanceof DateCoreInstance))
+        {
+            return ((PrimitiveCoreInstance<?>) instance).getValue();
+        }
+        return null;
     }
 
     private CoreInstance executeKey(CoreInstance key, CoreInstance instance, Stack<MutableMap<String, CoreInstance>> resolvedTypeParameters, Stack<MutableMap<String, CoreInstance>> resolvedMultiplicityParameters, VariableContext variableContext, CoreInstance functionExpressionToUseInStack, Profiler profiler, ProcessorSupport processorSupport, InstantiationContext instantiationContext, ExecutionSupport executionSupport)
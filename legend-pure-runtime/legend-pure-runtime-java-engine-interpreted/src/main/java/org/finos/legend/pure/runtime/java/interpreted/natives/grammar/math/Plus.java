@@ -29,7 +29,9 @@ import org.finos.legend.pure.runtime.java.interpreted.natives.InstantiationConte
 import org.finos.legend.pure.runtime.java.interpreted.natives.NativeFunction;
 import org.finos.legend.pure.runtime.java.interpreted.natives.NumericUtilities;
 import org.finos.legend.pure.runtime.java.interpreted.profiler.Profiler;
+import org.finos.legend.pure.runtime.java.shared.math.BulkArithmetic;
 
+import java.math.BigDecimal;
 import java.util.Stack;
 
 public class Plus extends NativeFunction
@@ -58,13 +60,19 @@ public class Plus extends NativeFunction
             }
             default:
             {
-                NumericAccumulator accumulator = NumericAccumulator.newAccumulator(NumericUtilities.toJavaNumber(numbers.get(0), processorSupport));
-                boolean bigDecimalToPureDecimal = numbers.anySatisfy(NumericUtilities.IS_DECIMAL_CORE_INSTANCE(processorSupport));
-                for (int i = 1; i < size; i++)
+                Number result = BulkArithmetic.sum(numbers, n -> NumericUtilities.toJavaNumber(n, processorSupport), true);
+                if (result == null)
                 {
-                    accumulator.add(NumericUtilities.toJavaNumber(numbers.get(i), processorSupport));
+                    NumericAccumulator accumulator = NumericAccumulator.newAccumulator(NumericUtilities.toJavaNumber(numbers.get(0), processorSupport));
+                    for (int i = 1; i < size; i++)
+                    {
+                        accumulator.add(NumericUtilities.toJavaNumber(numbers.get(i), processorSupport));
+                    }
+                    result = accumulator.getValue();
                 }
-                return NumericUtilities.toPureNumberValueExpression(accumulator.getValue(), bigDecimalToPureDecimal, this.repository, processorSupport);
+                // Only BigDecimal results can be Decimals
+                boolean bigDecimalToPureDecimal = (result instanceof BigDecimal) && numbers.anySatisfy(NumericUtilities.IS_DECIMAL_CORE_INSTANCE(processorSupport));
+                return NumericUtilities.toPureNumberValueExpression(result, bigDecimalToPureDecimal, this.repository, processorSupport);
             }
         }
     }
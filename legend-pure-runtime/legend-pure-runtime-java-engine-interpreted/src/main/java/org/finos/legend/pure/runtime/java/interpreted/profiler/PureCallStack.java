@@ -0,0 +1,101 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.interpreted.profiler;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m3.navigation.PackageableElement.PackageableElement;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.coreinstance.SourceInformation;
+import org.finos.legend.pure.runtime.java.shared.profiler.PureStackSampler;
+
+import java.util.Arrays;
+
+/**
+ * Stack of the functions executed by the interpreter on one thread, kept while sampling. Interpreter frames on the
+ * Java stack do not identify Pure functions, so the interpreter pushes each function it executes here instead. The
+ * stack is written by its thread only and read without locking by the sampler, which may therefore see a slightly
+ * stale stack.
+ */
+public class PureCallStack implements PureStackSampler
+{
+    private final Thread thread;
+    private volatile CoreInstance[] functions = new CoreInstance[64];
+    private volatile int size = 0;
+
+    public PureCallStack(Thread thread)
+    {
+        this.thread = thread;
+    }
+
+    public boolean isOwnedByCurrentThread()
+    {
+        return Thread.currentThread() == this.thread;
+    }
+
+    public void push(CoreInstance function)
+    {
+        CoreInstance[] current = this.functions;
+        int index = this.size;
+        if (index == current.length)
+        {
+            current = Arrays.copyOf(current, index * 2);
+            this.functions = current;
+        }
+        current[index] = function;
+        this.size = index + 1;
+    }
+
+    public void pop()
+    {
+        int index = this.size - 1;
+        this.functions[index] = null;
+        this.size = index;
+    }
+
+    @Override
+    public ListIterable<String> sample(Thread thread)
+    {
+        if (thread != this.thread)
+        {
+            return Lists.immutable.empty();
+        }
+        CoreInstance[] current = this.functions;
+        int currentSize = Math.min(this.size, current.length);
+        MutableList<String> names = Lists.mutable.ofInitialCapacity(currentSize);
+        for (int i = 0; i < currentSize; i++)
+        {
+            CoreInstance function = current[i];
+            if (function != null)
+            {
+                names.add(getFunctionName(function));
+            }
+        }
+        return names;
+    }
+
+    private static String getFunctionName(CoreInstance function)
+    {
+        if (function.getValueForMetaPropertyToOne(M3Properties._package) != null)
+        {
+            return PackageableElement.getUserPathForPackageableElement(function);
+        }
+        // Lambdas and properties are not packaged, so they are named after their source
+        SourceInformation sourceInfo = function.getSourceInformation();
+        return (sourceInfo == null) ? function.getName() : (function.getName() + "@" + sourceInfo.getSourceId() + ":" + sourceInfo.getLine());
+    }
+}
@@ -0,0 +1,134 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.interpreted;
+
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.map.MutableMap;
+import org.finos.legend.pure.m3.compiler.Context;
+import org.finos.legend.pure.m3.navigation.M3Paths;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
+import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiled;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.runtime.java.interpreted.natives.InstantiationContext;
+import org.finos.legend.pure.runtime.java.interpreted.natives.NativeFunction;
+import org.finos.legend.pure.runtime.java.interpreted.profiler.Profiler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Stack;
+
+public class TestDispatchCache extends AbstractPureTestWithCoreCompiled
+{
+    private static final String SIZE = "meta::pure::functions::collection::size(Any[*]):Integer[1]";
+    private static final String SIZE_NATIVE = "size_Any_MANY__Integer_1_";
+
+    private static final FunctionExecutionInterpreted functionExecution = new FunctionExecutionInterpreted();
+
+    @BeforeClass
+    public static void setUp()
+    {
+        setUpRuntime(functionExecution);
+    }
+
+    @After
+    public void cleanRuntime()
+    {
+        runtime.delete("fromString.pure");
+        runtime.compile();
+    }
+
+    @Test
+    public void testCacheHits()
+    {
+        compileTestSource("fromString.pure", "function testFn():String[1] { 'a' }");
+
+        CoreInstance size = runtime.getFunction(SIZE);
+        DispatchCache.FunctionDispatch sizeDispatch = functionExecution.getFunctionDispatch(size);
+        Assert.assertEquals(DispatchCache.FunctionKind.NATIVE, sizeDispatch.getKind());
+        Assert.assertSame(functionExecution.getNativeFunction(SIZE_NATIVE), sizeDispatch.getNativeFunction());
+        Assert.assertSame(sizeDispatch, functionExecution.getFunctionDispatch(size));
+
+        CoreInstance testFn = runtime.getFunction("testFn():String[1]");
+        DispatchCache.FunctionDispatch testFnDispatch = functionExecution.getFunctionDispatch(testFn);
+        Assert.assertEquals(DispatchCache.FunctionKind.DEFINITION, testFnDispatch.getKind());
+        Assert.assertNull(testFnDispatch.getNativeFunction());
+        Assert.assertSame(testFnDispatch, functionExecution.getFunctionDispatch(testFn));
+    }
+
+    @Test
+    public void testFunctionsNotInGraphAreNotCached()
+    {
+        CoreInstance function = processorSupport.newAnonymousCoreInstance(null, M3Paths.ConcreteFunctionDefinition);
+        DispatchCache.FunctionDispatch dispatch = functionExecution.getFunctionDispatch(function);
+        Assert.assertEquals(DispatchCache.FunctionKind.DEFINITION, dispatch.getKind());
+        Assert.assertNotSame(dispatch, functionExecution.getFunctionDispatch(function));
+    }
+
+    @Test
+    public void testInvalidatedByCompilation()
+    {
+        CoreInstance size = runtime.getFunction(SIZE);
+        DispatchCache.FunctionDispatch dispatch = functionExecution.getFunctionDispatch(size);
+        Assert.assertSame(dispatch, functionExecution.getFunctionDispatch(size));
+
+        compileTestSource("fromString.pure", "function testFn():String[1] { 'a' }");
+        DispatchCache.FunctionDispatch recompiledDispatch = functionExecution.getFunctionDispatch(size);
+        Assert.assertNotSame(dispatch, recompiledDispatch);
+        Assert.assertSame(recompiledDispatch, functionExecution.getFunctionDispatch(size));
+    }
+
+    @Test
+    public void testInvalidatedBySourceChange()
+    {
+        compileTestSource("fromString.pure", "function testFn():String[1] { 'a' }");
+        CoreInstance size = runtime.getFunction(SIZE);
+        DispatchCache.FunctionDispatch sizeDispatch = functionExecution.getFunctionDispatch(size);
+        DispatchCache.FunctionDispatch testFnDispatch = functionExecution.getFunctionDispatch(runtime.getFunction("testFn():String[1]"));
+
+        runtime.modify("fromString.pure", "function testFn():String[1] { 'b' }");
+        runtime.compile();
+        Assert.assertNotSame(sizeDispatch, functionExecution.getFunctionDispatch(size));
+        Assert.assertNotSame(testFnDispatch, functionExecution.getFunctionDispatch(runtime.getFunction("testFn():String[1]")));
+    }
+
+    @Test
+    public void testInvalidatedByAddNativeFunction()
+    {
+        CoreInstance size = runtime.getFunction(SIZE);
+        NativeFunction original = functionExecution.getNativeFunction(SIZE_NATIVE);
+        Assert.assertSame(original, functionExecution.getFunctionDispatch(size).getNativeFunction());
+
+        NativeFunction replacement = new NativeFunction()
+        {
+            @Override
+            public CoreInstance execute(ListIterable<? extends CoreInstance> params, Stack<MutableMap<String, CoreInstance>> resolvedTypeParameters, Stack<MutableMap<String, CoreInstance>> resolvedMultiplicityParameters, VariableContext variableContext, CoreInstance functionExpressionToUseInStack, Profiler profiler, InstantiationContext instantiationContext, ExecutionSupport executionSupport, Context context, ProcessorSupport processorSupport)
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+        try
+        {
+            functionExecution.addNativeFunction(SIZE_NATIVE, replacement);
+            Assert.assertSame(replacement, functionExecution.getFunctionDispatch(size).getNativeFunction());
+        }
+        finally
+        {
+            functionExecution.addNativeFunction(SIZE_NATIVE, original);
+        }
+        Assert.assertSame(original, functionExecution.getFunctionDispatch(size).getNativeFunction());
+    }
+}
@@ -0,0 +1,147 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.interpreted;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.finos.legend.pure.m3.compiler.Context;
+import org.finos.legend.pure.m3.exception.PureExecutionException;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
+import org.finos.legend.pure.m3.navigation.ValueSpecificationBootstrap;
+import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiled;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.runtime.java.interpreted.natives.InstantiationContext;
+import org.finos.legend.pure.runtime.java.interpreted.natives.NativeFunction;
+import org.finos.legend.pure.runtime.java.interpreted.profiler.Profiler;
+import org.finos.legend.pure.runtime.java.interpreted.profiler.PureCallStack;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Stack;
+
+public class TestSampledCallStack extends AbstractPureTestWithCoreCompiled
+{
+    private static final FunctionExecutionInterpreted functionExecution = new FunctionExecutionInterpreted();
+
+    private static final MutableList<ListIterable<String>> probedStacks = Lists.mutable.empty();
+
+    @BeforeClass
+    public static void setUp()
+    {
+        setUpRuntime(functionExecution);
+        // Record the call stack seen from within the execution
+        functionExecution.addNativeFunction("probe__String_1_", new NativeFunction()
+        {
+            @Override
+            public CoreInstance execute(ListIterable<? extends CoreInstance> params, Stack<MutableMap<String, CoreInstance>> resolvedTypeParameters, Stack<MutableMap<String, CoreInstance>> resolvedMultiplicityParameters, VariableContext variableContext, CoreInstance functionExpressionToUseInStack, Profiler profiler, InstantiationContext instantiationContext, ExecutionSupport executionSupport, Context context, ProcessorSupport processorSupport)
+            {
+                PureCallStack callStack = functionExecution.getSampledCallStack();
+                probedStacks.add((callStack == null) ? Lists.immutable.empty() : callStack.sample(Thread.currentThread()));
+                return ValueSpecificationBootstrap.newStringLiteral(repository, "probed", processorSupport);
+            }
+        });
+        functionExecution.addNativeFunction("fail__String_1_", new NativeFunction()
+        {
+            @Override
+            public CoreInstance execute(ListIterable<? extends CoreInstance> params, Stack<MutableMap<String, CoreInstance>> resolvedTypeParameters, Stack<MutableMap<String, CoreInstance>> resolvedMultiplicityParameters, VariableContext variableContext, CoreInstance functionExpressionToUseInStack, Profiler profiler, InstantiationContext instantiationContext, ExecutionSupport executionSupport, Context context, ProcessorSupport processorSupport)
+            {
+                throw new PureExecutionException("failed");
+            }
+        });
+    }
+
+    @After
+    public void cleanRuntime()
+    {
+        functionExecution.stopSamplingProfiler();
+        probedStacks.clear();
+        runtime.delete("fromString.pure");
+        runtime.compile();
+    }
+
+    @Test
+    public void testPushAndPop()
+    {
+        compileTestSource("fromString.pure",
+                "native function test::probe():String[1];\n" +
+                        "function test::inner():String[1] { test::probe() }\n" +
+                        "function test::outer():String[1] { test::inner() + test::probe() }\n");
+        functionExecution.startSamplingProfiler(Thread.currentThread(), 60_000L);
+        PureCallStack callStack = functionExecution.getSampledCallStack();
+
+        Assert.assertEquals("probedprobed", execute("test::outer():String[1]"));
+        Assert.assertEquals(
+                Lists.mutable.with(
+                        Lists.mutable.with("test::outer", "test::inner", "test::probe"),
+                        Lists.mutable.with("test::outer", "test::probe")),
+                probedStacks);
+        Assert.assertEquals(Lists.mutable.empty(), callStack.sample(Thread.currentThread()));
+    }
+
+    @Test
+    public void testPoppedOnException()
+    {
+        compileTestSource("fromString.pure",
+                "native function test::probe():String[1];\n" +
+                        "native function test::fail():String[1];\n" +
+                        "function test::inner():String[1] { test::fail() }\n" +
+                        "function test::outer():String[1] { test::inner() }\n" +
+                        "function test::probed():String[1] { test::probe() }\n");
+        functionExecution.startSamplingProfiler(Thread.currentThread(), 60_000L);
+        PureCallStack callStack = functionExecution.getSampledCallStack();
+
+        Assert.assertThrows(PureExecutionException.class, () -> execute("test::outer():String[1]"));
+        Assert.assertEquals(Lists.mutable.empty(), callStack.sample(Thread.currentThread()));
+
+        // Execution goes on from an empty stack
+        Assert.assertEquals("probed", execute("test::probed():String[1]"));
+        Assert.assertEquals(Lists.mutable.with(Lists.mutable.with("test::probed", "test::probe")), probedStacks);
+    }
+
+    @Test
+    public void testOtherThreadsNotTracked()
+    {
+        compileTestSource("fromString.pure",
+                "native function test::probe():String[1];\n" +
+                        "function test::probed():String[1] { test::probe() }\n");
+        Thread other = new Thread(() -> { });
+        functionExecution.startSamplingProfiler(other, 60_000L);
+
+        Assert.assertEquals("probed", execute("test::probed():String[1]"));
+        Assert.assertEquals(Lists.mutable.with(Lists.mutable.empty()), probedStacks);
+        Assert.assertEquals(Lists.mutable.empty(), functionExecution.getSampledCallStack().sample(other));
+    }
+
+    @Test
+    public void testNotTrackedWhenNotSampling()
+    {
+        compileTestSource("fromString.pure",
+                "native function test::probe():String[1];\n" +
+                        "function test::probed():String[1] { test::probe() }\n");
+
+        Assert.assertEquals("probed", execute("test::probed():String[1]"));
+        Assert.assertEquals(Lists.mutable.with(Lists.mutable.empty()), probedStacks);
+    }
+
+    private static String execute(String functionDescriptor)
+    {
+        return functionExecution.start(runtime.getFunction(functionDescriptor), Lists.immutable.empty()).getValueForMetaPropertyToOne(M3Properties.values).getName();
+    }
+}
@@ -0,0 +1,144 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.interpreted;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m3.navigation.ValueSpecificationBootstrap;
+import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiled;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestTieredCompilation extends AbstractPureTestWithCoreCompiled
+{
+    private static final FunctionExecutionInterpreted functionExecution = new FunctionExecutionInterpreted();
+
+    @BeforeClass
+    public static void setUp()
+    {
+        setUpRuntime(functionExecution);
+    }
+
+    @After
+    public void cleanRuntime()
+    {
+        functionExecution.disableTieredCompilation();
+        runtime.delete("fromString.pure");
+        runtime.compile();
+    }
+
+    @Test
+    public void testHotFunctionSwitchesToCompiled()
+    {
+        compileTestSource("fromString.pure", "function testFn():String[1] { 'interpreted' }");
+        CoreInstance func = runtime.getFunction("testFn():String[1]");
+        AtomicInteger compilations = new AtomicInteger();
+        // Compile in the calling thread, so the compiled function is in place as soon as the threshold is reached
+        functionExecution.enableTieredCompilation((function, processorSupport) ->
+        {
+            compilations.incrementAndGet();
+            return (parameters, executionSupport) -> ValueSpecificationBootstrap.newStringLiteral(repository, "compiled", processorSupport);
+        }, 2, Runnable::run);
+
+        Assert.assertEquals("interpreted", execute(func));
+        Assert.assertEquals(0, compilations.get());
+        Assert.assertEquals("interpreted", execute(func));
+        Assert.assertEquals(1, compilations.get());
+        Assert.assertEquals("compiled", execute(func));
+        Assert.assertEquals("compiled", execute(func));
+        Assert.assertEquals(1, compilations.get());
+
+        // Changing sources discards compiled functions
+        runtime.modify("fromString.pure", "function testFn():String[1] { 'interpreted again' }");
+        runtime.compile();
+        Assert.assertEquals("interpreted again", execute(runtime.getFunction("testFn():String[1]")));
+    }
+
+    @Test
+    public void testFunctionWhichCannotBeCompiledStaysInterpreted()
+    {
+        compileTestSource("fromString.pure", "function testFn():String[1] { 'interpreted' }");
+        CoreInstance func = runtime.getFunction("testFn():String[1]");
+        AtomicInteger compilations = new AtomicInteger();
+        functionExecution.enableTieredCompilation((function, processorSupport) ->
+        {
+            compilations.incrementAndGet();
+            return null;
+        }, 1, Runnable::run);
+
+        Assert.assertEquals("interpreted", execute(func));
+        Assert.assertEquals(1, compilations.get());
+        Assert.assertEquals("interpreted", execute(func));
+        Assert.assertEquals(1, compilations.get());
+    }
+
+    @Test
+    public void testFailedCompilationDisablesTieringForTheFunctionOnly()
+    {
+        compileTestSource("fromString.pure",
+                "function testFn1():String[1] { 'interpreted 1' }\n" +
+                        "function testFn2():String[1] { 'interpreted 2' }");
+        CoreInstance func1 = runtime.getFunction("testFn1():String[1]");
+        CoreInstance func2 = runtime.getFunction("testFn2():String[1]");
+        AtomicInteger compilations = new AtomicInteger();
+        functionExecution.enableTieredCompilation((function, processorSupport) ->
+        {
+            compilations.incrementAndGet();
+            if (function == func1)
+            {
+                throw new RuntimeException("Cannot compile " + function.getName());
+            }
+            return (parameters, executionSupport) -> ValueSpecificationBootstrap.newStringLiteral(repository, "compiled 2", processorSupport);
+        }, 1, Runnable::run);
+
+        Assert.assertEquals("interpreted 1", execute(func1));
+        Assert.assertEquals(1, compilations.get());
+        for (int i = 0; i < 5; i++)
+        {
+            Assert.assertEquals("interpreted 1", execute(func1));
+        }
+        Assert.assertEquals(1, compilations.get());
+
+        Assert.assertEquals("interpreted 2", execute(func2));
+        Assert.assertEquals(2, compilations.get());
+        Assert.assertEquals("compiled 2", execute(func2));
+    }
+
+    @Test
+    public void testNoCountingWhenDisabled()
+    {
+        compileTestSource("fromString.pure", "function testFn():String[1] { 'interpreted' }");
+        CoreInstance func = runtime.getFunction("testFn():String[1]");
+        Assert.assertEquals("interpreted", execute(func));
+        Assert.assertFalse(functionExecution.getFunctionDispatch(func).countInvocation(1));
+
+        functionExecution.enableTieredCompilation((function, processorSupport) -> null, 1, Runnable::run);
+        Assert.assertTrue(functionExecution.getFunctionDispatch(func).countInvocation(1));
+        Assert.assertFalse(functionExecution.getFunctionDispatch(func).countInvocation(1));
+
+        functionExecution.disableTieredCompilation();
+        Assert.assertFalse(functionExecution.getFunctionDispatch(func).countInvocation(1));
+    }
+
+    private static String execute(CoreInstance func)
+    {
+        return functionExecution.start(func, Lists.immutable.empty()).getValueForMetaPropertyToOne(M3Properties.values).getName();
+    }
+}
@@ -0,0 +1,75 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.interpreted;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Sets;
+import org.finos.legend.pure.m4.ModelRepository;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestVariableContext
+{
+    private final ModelRepository repository = new ModelRepository();
+    private final CoreInstance a = this.repository.newEphemeralUnknownTypeCoreInstance("a", null);
+    private final CoreInstance b = this.repository.newEphemeralUnknownTypeCoreInstance("b", null);
+    private final CoreInstance c = this.repository.newEphemeralUnknownTypeCoreInstance("c", null);
+
+    @Test
+    public void testLookupThroughParents() throws Exception
+    {
+        VariableContext parent = VariableContext.newVariableContextWith(null, "x", this.a);
+        VariableContext child = VariableContext.newVariableContext(parent);
+        child.registerValue("y", this.b);
+
+        Assert.assertSame(this.a, child.getValue("x"));
+        Assert.assertSame(this.b, child.getValue("y"));
+        Assert.assertNull(child.getLocalValue("x"));
+        Assert.assertNull(child.getValue("z"));
+        Assert.assertEquals(Sets.mutable.with("x", "y"), child.getVariableNames());
+        Assert.assertEquals(Sets.mutable.with("y"), child.getLocalVariableNames());
+
+        child.markVariableScopeBoundary();
+        Assert.assertNull(child.getValue("x"));
+    }
+
+    @Test
+    public void testFrameWithNames() throws Exception
+    {
+        String[] names = {"x", "y"};
+        VariableContext first = VariableContext.newVariableContextWith(null, names, Lists.immutable.with(this.a, this.b));
+        VariableContext second = VariableContext.newVariableContextWith(null, names, Lists.immutable.with(this.b, this.a));
+
+        Assert.assertSame(this.a, first.getValue("x"));
+        Assert.assertSame(this.b, first.getValue("y"));
+        Assert.assertSame(this.b, second.getValue("x"));
+
+        // Registering more variables must not affect other frames sharing the names
+        first.registerValue("z", this.c);
+        Assert.assertSame(this.c, first.getValue("z"));
+        Assert.assertNull(second.getValue("z"));
+        Assert.assertArrayEquals(new String[]{"x", "y"}, names);
+    }
+
+    @Test
+    public void testNameConflict() throws Exception
+    {
+        VariableContext context = VariableContext.newVariableContextWith(null, new String[]{"x"}, Lists.immutable.with(this.a));
+        VariableContext.VariableNameConflictException e = Assert.assertThrows(VariableContext.VariableNameConflictException.class, () -> context.registerValue("x", this.b));
+        Assert.assertEquals("'x' has already been defined!", e.getMessage());
+        Assert.assertSame(this.a, context.getValue("x"));
+    }
+}
@@ -0,0 +1,280 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.shared.math;
+
+import org.eclipse.collections.api.block.function.Function;
+import org.eclipse.collections.api.list.ListIterable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Sums and products of whole lists of numbers, shared by the plus and times natives of the execution engines. The
+ * kind of the numbers is determined once for the list; if they are all integers (Long or Integer), all floats (Double
+ * or Float) or all decimals (BigDecimal), they are accumulated in a primitive loop of that kind. Otherwise, null is
+ * returned and the caller falls back to its general arithmetic.
+ * <p>
+ * When promoting on overflow, an integer result which overflows a long continues as a BigInteger and a float result
+ * which overflows a double continues as a BigDecimal. Otherwise, integers wrap around and floats become infinite, as
+ * in Java.
+ */
+public class BulkArithmetic
+{
+    private BulkArithmetic()
+    {
+    }
+
+    /**
+     * Sum the numbers for the given values.
+     *
+     * @param values             values
+     * @param toNumber           number for each value
+     * @param promoteOnOverflow  whether to promote to a wider type on overflow
+     * @param <T>                value type
+     * @return sum, or null if the numbers are not all of the same kind
+     */
+    public static <T> Number sum(ListIterable<T> values, Function<? super T, ? extends Number> toNumber, boolean promoteOnOverflow)
+    {
+        Number[] numbers = toNumbers(values, toNumber);
+        switch (getKind(numbers))
+        {
+            case INTEGER:
+            {
+                return sumIntegers(numbers, promoteOnOverflow);
+            }
+            case FLOAT:
+            {
+                return sumFloats(numbers, promoteOnOverflow);
+            }
+            case DECIMAL:
+            {
+                return sumDecimals(numbers);
+            }
+            case EMPTY:
+            {
+                return 0L;
+            }
+            default:
+            {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Multiply the numbers for the given values.
+     *
+     * @param values             values
+     * @param toNumber           number for each value
+     * @param promoteOnOverflow  whether to promote to a wider type on overflow
+     * @param <T>                value type
+     * @return product, or null if the numbers are not all of the same kind
+     */
+    public static <T> Number product(ListIterable<T> values, Function<? super T, ? extends Number> toNumber, boolean promoteOnOverflow)
+    {
+        Number[] numbers = toNumbers(values, toNumber);
+        switch (getKind(numbers))
+        {
+            case INTEGER:
+            {
+                return multiplyIntegers(numbers, promoteOnOverflow);
+            }
+            case FLOAT:
+            {
+                return multiplyFloats(numbers, promoteOnOverflow);
+            }
+            case DECIMAL:
+            {
+                return multiplyDecimals(numbers);
+            }
+            case EMPTY:
+            {
+                return 1L;
+            }
+            default:
+            {
+                return null;
+            }
+        }
+    }
+
+    private static <T> Number[] toNumbers(ListIterable<T> values, Function<? super T, ? extends Number> toNumber)
+    {
+        int size = values.size();
+        Number[] numbers = new Number[size];
+        for (int i = 0; i < size; i++)
+        {
+            numbers[i] = toNumber.valueOf(values.get(i));
+        }
+        return numbers;
+    }
+
+    private static Kind getKind(Number[] numbers)
+    {
+        if (numbers.length == 0)
+        {
+            return Kind.EMPTY;
+        }
+        Kind kind = getKind(numbers[0]);
+        for (int i = 1; (kind != Kind.OTHER) && (i < numbers.length); i++)
+        {
+            if (getKind(numbers[i]) != kind)
+            {
+                kind = Kind.OTHER;
+            }
+        }
+        return kind;
+    }
+
+    private static Kind getKind(Number number)
+    {
+        if ((number instanceof Long) || (number instanceof Integer))
+        {
+            return Kind.INTEGER;
+        }
+        if ((number instanceof Double) || (number instanceof Float))
+        {
+            return Kind.FLOAT;
+        }
+        if (number instanceof BigDecimal)
+        {
+            return Kind.DECIMAL;
+        }
+        return Kind.OTHER;
+    }
+
+    private static Number sumIntegers(Number[] numbers, boolean promoteOnOverflow)
+    {
+        long sum = numbers[0].longValue();
+        for (int i = 1; i < numbers.length; i++)
+        {
+            long number = numbers[i].longValue();
+            long newSum = sum + number;
+            // Overflow if both operands have a different sign from the result
+            if (promoteOnOverflow && (((sum ^ newSum) & (number ^ newSum)) < 0))
+            {
+                BigInteger bigSum = BigInteger.valueOf(sum).add(BigInteger.valueOf(number));
+                for (int j = i + 1; j < numbers.length; j++)
+                {
+                    bigSum = bigSum.add(BigInteger.valueOf(numbers[j].longValue()));
+                }
+                return bigSum;
+            }
+            sum = newSum;
+        }
+        return sum;
+    }
+
+    private static Number multiplyIntegers(Number[] numbers, boolean promoteOnOverflow)
+    {
+        long product = numbers[0].longValue();
+        for (int i = 1; i < numbers.length; i++)
+        {
+            long number = numbers[i].longValue();
+            if (promoteOnOverflow && !isMultiplicationSafe(product, number))
+            {
+                BigInteger bigProduct = BigInteger.valueOf(product).multiply(BigInteger.valueOf(number));
+                for (int j = i + 1; j < numbers.length; j++)
+                {
+                    bigProduct = bigProduct.multiply(BigInteger.valueOf(numbers[j].longValue()));
+                }
+                return bigProduct;
+            }
+            product *= number;
+        }
+        return product;
+    }
+
+    private static Number sumFloats(Number[] numbers, boolean promoteOnOverflow)
+    {
+        // Start from zero rather than the first number, so that the sum of negative zeros is zero, as in Java
+        double sum = 0.0;
+        for (int i = 0; i < numbers.length; i++)
+        {
+            double number = numbers[i].doubleValue();
+            double newSum = sum + number;
+            if (promoteOnOverflow && Double.isInfinite(newSum) && !Double.isInfinite(sum) && !Double.isInfinite(number))
+            {
+                BigDecimal bigSum = BigDecimal.valueOf(sum).add(BigDecimal.valueOf(number));
+                for (int j = i + 1; j < numbers.length; j++)
+                {
+                    bigSum = bigSum.add(BigDecimal.valueOf(numbers[j].doubleValue()));
+                }
+                return bigSum;
+            }
+            sum = newSum;
+        }
+        return sum;
+    }
+
+    private static Number multiplyFloats(Number[] numbers, boolean promoteOnOverflow)
+    {
+        double product = 1.0;
+        for (int i = 0; i < numbers.length; i++)
+        {
+            double number = numbers[i].doubleValue();
+            double newProduct = product * number;
+            if (promoteOnOverflow && Double.isInfinite(newProduct) && !Double.isInfinite(product) && !Double.isInfinite(number))
+            {
+                BigDecimal bigProduct = BigDecimal.valueOf(product).multiply(BigDecimal.valueOf(number));
+                for (int j = i + 1; j < numbers.length; j++)
+                {
+                    bigProduct = bigProduct.multiply(BigDecimal.valueOf(numbers[j].doubleValue()));
+                }
+                return bigProduct;
+            }
+            product = newProduct;
+        }
+        return product;
+    }
+
+    private static BigDecimal sumDecimals(Number[] numbers)
+    {
+        BigDecimal sum = (BigDecimal) numbers[0];
+        for (int i = 1; i < numbers.length; i++)
+        {
+            sum = sum.add((BigDecimal) numbers[i]);
+        }
+        return sum;
+    }
+
+    private static BigDecimal multiplyDecimals(Number[] numbers)
+    {
+        BigDecimal product = (BigDecimal) numbers[0];
+        for (int i = 1; i < numbers.length; i++)
+        {
+            product = product.multiply((BigDecimal) numbers[i]);
+        }
+        return product;
+    }
+
+    private static boolean isMultiplicationSafe(long x, long y)
+    {
+        if ((x == 0) || (y == 0))
+        {
+            return true;
+        }
+        if (x > 0)
+        {
+            return (y > 0) ? (x <= (Long.MAX_VALUE / y)) : (x <= (Long.MIN_VALUE / y));
+        }
+        return (y > 0) ? (x >= (Long.MIN_VALUE / y)) : (x >= (Long.MAX_VALUE / y));
+    }
+
+    private enum Kind
+    {
+        INTEGER, FLOAT, DECIMAL, EMPTY, OTHER
+    }
+}
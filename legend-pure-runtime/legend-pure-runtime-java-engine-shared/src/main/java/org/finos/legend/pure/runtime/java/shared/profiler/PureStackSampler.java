@@ -0,0 +1,32 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.shared.profiler;
+
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Source of samples of the Pure functions executing on a thread, for the {@link SamplingProfiler}.
+ */
+public interface PureStackSampler
+{
+    /**
+     * Sample the names of the Pure functions currently executing on the given thread, outermost first. This is called
+     * from the profiler's own thread, while the sampled thread keeps running.
+     *
+     * @param thread sampled thread
+     * @return Pure function names, possibly empty
+     */
+    ListIterable<String> sample(Thread thread);
+}
@@ -0,0 +1,221 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.shared.profiler;
+
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.map.primitive.MutableObjectLongMap;
+import org.eclipse.collections.api.map.primitive.ObjectLongMap;
+import org.eclipse.collections.api.tuple.primitive.ObjectLongPair;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectLongHashMap;
+import org.finos.legend.pure.m4.tools.SafeAppendable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Comparator;
+
+/**
+ * Profiler which periodically samples the Pure functions executing on a thread, rather than instrumenting each call.
+ * Samples are aggregated as collapsed stacks (one line per distinct stack, with frames separated by semicolons and
+ * followed by the number of samples), which is the input format of the usual flame graph tools. When the JVM supports
+ * it, the bytes allocated by the thread between two samples are attributed to the innermost function of the later
+ * sample.
+ */
+public class SamplingProfiler
+{
+    public static final long DEFAULT_INTERVAL_MILLIS = 10L;
+
+    private final Thread thread;
+    private final PureStackSampler sampler;
+    private final long intervalMillis;
+    private final com.sun.management.ThreadMXBean allocationBean;
+
+    private final MutableObjectLongMap<String> samplesByStack = ObjectLongHashMap.newMap();
+    private final MutableObjectLongMap<String> allocatedBytesByFunction = ObjectLongHashMap.newMap();
+    private long sampleCount = 0L;
+    private long lastAllocatedBytes = -1L;
+
+    private Thread samplingThread;
+
+    public SamplingProfiler(Thread thread, PureStackSampler sampler, long intervalMillis)
+    {
+        if (intervalMillis <= 0L)
+        {
+            throw new IllegalArgumentException("Sampling interval must be positive: " + intervalMillis);
+        }
+        this.thread = thread;
+        this.sampler = sampler;
+        this.intervalMillis = intervalMillis;
+        this.allocationBean = getAllocationBean();
+    }
+
+    public SamplingProfiler(Thread thread, PureStackSampler sampler)
+    {
+        this(thread, sampler, DEFAULT_INTERVAL_MILLIS);
+    }
+
+    public Thread getThread()
+    {
+        return this.thread;
+    }
+
+    public synchronized void start()
+    {
+        if (this.samplingThread != null)
+        {
+            throw new IllegalStateException("Sampling profiler already started");
+        }
+        this.lastAllocatedBytes = getAllocatedBytes();
+        this.samplingThread = new Thread(this::run, "Pure sampling profiler (" + this.thread.getName() + ")");
+        this.samplingThread.setDaemon(true);
+        this.samplingThread.start();
+    }
+
+    public void stop()
+    {
+        Thread toStop;
+        synchronized (this)
+        {
+            toStop = this.samplingThread;
+            this.samplingThread = null;
+        }
+        if (toStop != null)
+        {
+            toStop.interrupt();
+            try
+            {
+                toStop.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public synchronized boolean isRunning()
+    {
+        return this.samplingThread != null;
+    }
+
+    public synchronized long getSampleCount()
+    {
+        return this.sampleCount;
+    }
+
+    /**
+     * Number of samples for each distinct stack, keyed by collapsed stack.
+     *
+     * @return samples by collapsed stack
+     */
+    public synchronized ObjectLongMap<String> getSamplesByStack()
+    {
+        return new ObjectLongHashMap<>(this.samplesByStack);
+    }
+
+    /**
+     * Bytes allocated while each function was the innermost one sampled. This is empty if the JVM does not support
+     * measuring thread allocation.
+     *
+     * @return allocated bytes by function name
+     */
+    public synchronized ObjectLongMap<String> getAllocatedBytesByFunction()
+    {
+        return new ObjectLongHashMap<>(this.allocatedBytesByFunction);
+    }
+
+    /**
+     * Write the samples in collapsed stack format, one stack per line.
+     *
+     * @param appendable appendable to write to
+     * @param <T>        appendable type
+     * @return appendable
+     */
+    public <T extends Appendable> T writeCollapsedStacks(T appendable)
+    {
+        SafeAppendable safeAppendable = SafeAppendable.wrap(appendable);
+        getSamplesByStack().keyValuesView().toSortedListBy(ObjectLongPair::getOne)
+                .forEach(pair -> safeAppendable.append(pair.getOne()).append(' ').append(pair.getTwo()).append('\n'));
+        return appendable;
+    }
+
+    /**
+     * Write the allocated bytes by function, one function per line, largest first.
+     *
+     * @param appendable appendable to write to
+     * @param <T>        appendable type
+     * @return appendable
+     */
+    public <T extends Appendable> T writeAllocations(T appendable)
+    {
+        SafeAppendable safeAppendable = SafeAppendable.wrap(appendable);
+        getAllocatedBytesByFunction().keyValuesView().toSortedList(Comparator.comparingLong(ObjectLongPair<String>::getTwo).reversed().thenComparing(ObjectLongPair::getOne))
+                .forEach(pair -> safeAppendable.append(pair.getOne()).append(' ').append(pair.getTwo()).append('\n'));
+        return appendable;
+    }
+
+    void takeSample()
+    {
+        ListIterable<String> stack = this.sampler.sample(this.thread);
+        long allocatedBytes = getAllocatedBytes();
+        synchronized (this)
+        {
+            if (stack.notEmpty())
+            {
+                this.sampleCount++;
+                this.samplesByStack.addToValue(stack.makeString(";"), 1L);
+                if ((allocatedBytes >= 0L) && (this.lastAllocatedBytes >= 0L))
+                {
+                    this.allocatedBytesByFunction.addToValue(stack.getLast(), allocatedBytes - this.lastAllocatedBytes);
+                }
+            }
+            this.lastAllocatedBytes = allocatedBytes;
+        }
+    }
+
+    private void run()
+    {
+        while (!Thread.currentThread().isInterrupted() && this.thread.isAlive())
+        {
+            try
+            {
+                Thread.sleep(this.intervalMillis);
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+            takeSample();
+        }
+    }
+
+    private long getAllocatedBytes()
+    {
+        return (this.allocationBean == null) ? -1L : this.allocationBean.getThreadAllocatedBytes(this.thread.getId());
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationBean()
+    {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+        {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+            if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled())
+            {
+                return allocationBean;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,199 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.shared.sort;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.finos.legend.pure.m4.coreinstance.primitive.date.PureDate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Stable sort of values by precomputed keys, shared by the sort natives of the execution engines. Keys are computed
+ * once per value rather than once per comparison. When sorting by the default Pure order and all keys are Integers,
+ * Floats, Strings or Dates, they are compared directly rather than through the general comparison, and large
+ * collections are sorted with a parallel merge sort.
+ */
+public class KeySort
+{
+    public static final int PARALLEL_THRESHOLD = 8192;
+
+    private KeySort()
+    {
+    }
+
+    /**
+     * Sort values by their keys with the given comparator. The comparator may run Pure code, so this is always
+     * sequential.
+     *
+     * @param values     values to sort
+     * @param keys       key of each value
+     * @param comparator key comparator
+     * @param <T>        value type
+     * @return sorted values
+     */
+    public static <T> MutableList<T> sortByKeys(ListIterable<? extends T> values, Object[] keys, Comparator<Object> comparator)
+    {
+        return sort(values, keys, (left, right) -> comparator.compare(left.key, right.key), false);
+    }
+
+    /**
+     * Sort values by their keys in the default Pure order. If all keys are of the same primitive type, they are
+     * compared directly; otherwise, they are compared with the given comparator, which must implement the default
+     * order.
+     *
+     * @param values            values to sort
+     * @param keys              key of each value, as Java values for primitives
+     * @param defaultComparator comparator implementing the default order for keys of mixed types
+     * @param <T>               value type
+     * @return sorted values
+     */
+    public static <T> MutableList<T> sortByDefaultOrder(ListIterable<? extends T> values, Object[] keys, Comparator<Object> defaultComparator)
+    {
+        return sortByDefaultOrder(values, keys, keys, defaultComparator);
+    }
+
+    /**
+     * Sort values by their keys in the default Pure order, for engines whose keys are not Java values. If all the
+     * primitive keys are of the same primitive type, they are compared directly; otherwise, the keys are compared with
+     * the given comparator, which must implement the default order.
+     *
+     * @param values            values to sort
+     * @param primitiveKeys     Java value of the key of each value, or null if the key is not a primitive
+     * @param keys              key of each value
+     * @param defaultComparator comparator implementing the default order for keys
+     * @param <T>               value type
+     * @return sorted values
+     */
+    public static <T> MutableList<T> sortByDefaultOrder(ListIterable<? extends T> values, Object[] primitiveKeys, Object[] keys, Comparator<Object> defaultComparator)
+    {
+        switch (getKeyType(primitiveKeys))
+        {
+            case INTEGER:
+            {
+                return sort(values, primitiveKeys, (left, right) -> Long.compare(left.longKey, right.longKey), true);
+            }
+            case FLOAT:
+            {
+                return sort(values, primitiveKeys, (left, right) -> Double.compare(left.doubleKey, right.doubleKey), true);
+            }
+            case COMPARABLE:
+            {
+                return sort(values, primitiveKeys, KeySort::compareComparable, true);
+            }
+            default:
+            {
+                return sortByKeys(values, keys, defaultComparator);
+            }
+        }
+    }
+
+    private static <T> MutableList<T> sort(ListIterable<? extends T> values, Object[] keys, Comparator<Entry> comparator, boolean parallel)
+    {
+        int size = values.size();
+        Entry[] entries = new Entry[size];
+        for (int i = 0; i < size; i++)
+        {
+            entries[i] = new Entry(keys[i], i);
+        }
+        // Both sorts are stable merge sorts
+        if (parallel && (size >= PARALLEL_THRESHOLD))
+        {
+            Arrays.parallelSort(entries, comparator);
+        }
+        else
+        {
+            Arrays.sort(entries, comparator);
+        }
+        MutableList<T> result = Lists.mutable.ofInitialCapacity(size);
+        for (Entry entry : entries)
+        {
+            result.add(values.get(entry.index));
+        }
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareComparable(Entry left, Entry right)
+    {
+        return ((Comparable) left.key).compareTo(right.key);
+    }
+
+    private static KeyType getKeyType(Object[] keys)
+    {
+        if (keys.length == 0)
+        {
+            return KeyType.OTHER;
+        }
+        KeyType type = getKeyType(keys[0]);
+        Class<?> comparableClass = getComparableClass(keys[0]);
+        for (int i = 1; (type != KeyType.OTHER) && (i < keys.length); i++)
+        {
+            Object key = keys[i];
+            if ((getKeyType(key) != type) || (getComparableClass(key) != comparableClass))
+            {
+                type = KeyType.OTHER;
+            }
+        }
+        return type;
+    }
+
+    private static KeyType getKeyType(Object key)
+    {
+        if ((key instanceof Long) || (key instanceof Integer))
+        {
+            return KeyType.INTEGER;
+        }
+        if (key instanceof Double)
+        {
+            return KeyType.FLOAT;
+        }
+        if ((key instanceof String) || (key instanceof PureDate) || (key instanceof BigDecimal))
+        {
+            return KeyType.COMPARABLE;
+        }
+        return KeyType.OTHER;
+    }
+
+    private static Class<?> getComparableClass(Object key)
+    {
+        // Dates of different precisions are different classes, but are comparable with each other
+        return (key instanceof PureDate) ? PureDate.class : ((key instanceof String) || (key instanceof BigDecimal)) ? key.getClass() : null;
+    }
+
+    private enum KeyType
+    {
+        INTEGER, FLOAT, COMPARABLE, OTHER
+    }
+
+    private static class Entry
+    {
+        private final Object key;
+        private final long longKey;
+        private final double doubleKey;
+        private final int index;
+
+        private Entry(Object key, int index)
+        {
+            this.key = key;
+            this.longKey = (key instanceof Long || key instanceof Integer) ? ((Number) key).longValue() : 0L;
+            this.doubleKey = (key instanceof Double) ? (Double) key : 0.0;
+            this.index = index;
+        }
+    }
+}
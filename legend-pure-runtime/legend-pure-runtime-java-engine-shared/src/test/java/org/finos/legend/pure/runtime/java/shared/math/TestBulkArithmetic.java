@@ -0,0 +1,82 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.shared.math;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+public class TestBulkArithmetic
+{
+    @Test
+    public void testIntegers()
+    {
+        Assert.assertEquals(6L, sum(Lists.immutable.with(1L, 2, 3L), true));
+        Assert.assertEquals(-24L, product(Lists.immutable.with(2L, -3, 4L), true));
+        Assert.assertEquals(0L, sum(Lists.immutable.empty(), true));
+        Assert.assertEquals(1L, product(Lists.immutable.empty(), true));
+    }
+
+    @Test
+    public void testIntegerOverflow()
+    {
+        ListIterable<Number> numbers = Lists.immutable.with(Long.MAX_VALUE, 1L, 1L);
+        Assert.assertEquals(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.valueOf(2L)), sum(numbers, true));
+        Assert.assertEquals(Long.MIN_VALUE + 1L, sum(numbers, false));
+
+        ListIterable<Number> factors = Lists.immutable.with(Long.MAX_VALUE, 2L, -1L);
+        Assert.assertEquals(BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(-2L)), product(factors, true));
+        Assert.assertEquals(Long.MAX_VALUE * -2L, product(factors, false));
+    }
+
+    @Test
+    public void testFloats()
+    {
+        Assert.assertEquals(3.75, sum(Lists.immutable.with(1.5, 2.25), true));
+        Assert.assertEquals(0.0, sum(Lists.immutable.with(-0.0, -0.0), true));
+        Assert.assertEquals(-6.0, product(Lists.immutable.with(1.5, -4.0f), true));
+        Assert.assertEquals(Double.POSITIVE_INFINITY, sum(Lists.immutable.with(Double.MAX_VALUE, Double.MAX_VALUE), false));
+        Assert.assertEquals(BigDecimal.valueOf(Double.MAX_VALUE).multiply(BigDecimal.valueOf(2L)), sum(Lists.immutable.with(Double.MAX_VALUE, Double.MAX_VALUE), true));
+    }
+
+    @Test
+    public void testDecimals()
+    {
+        Assert.assertEquals(new BigDecimal("3.75"), sum(Lists.immutable.with(new BigDecimal("1.5"), new BigDecimal("2.25")), true));
+        Assert.assertEquals(new BigDecimal("3.375"), product(Lists.immutable.with(new BigDecimal("1.5"), new BigDecimal("2.25")), true));
+    }
+
+    @Test
+    public void testMixedKinds()
+    {
+        Assert.assertNull(sum(Lists.immutable.with(1L, 2.0), true));
+        Assert.assertNull(product(Lists.immutable.with(1.0, BigDecimal.ONE), true));
+        Assert.assertNull(sum(Lists.immutable.with(BigInteger.ONE, BigInteger.ONE), true));
+    }
+
+    private static Number sum(ListIterable<? extends Number> numbers, boolean promoteOnOverflow)
+    {
+        return BulkArithmetic.sum(numbers, n -> n, promoteOnOverflow);
+    }
+
+    private static Number product(ListIterable<? extends Number> numbers, boolean promoteOnOverflow)
+    {
+        return BulkArithmetic.product(numbers, n -> n, promoteOnOverflow);
+    }
+}
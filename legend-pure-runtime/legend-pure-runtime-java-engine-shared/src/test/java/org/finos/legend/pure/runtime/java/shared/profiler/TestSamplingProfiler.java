@@ -0,0 +1,78 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.shared.profiler;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.ListIterable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Iterator;
+
+public class TestSamplingProfiler
+{
+    @Test
+    public void testCollapsedStacks()
+    {
+        ImmutableList<ListIterable<String>> samples = Lists.immutable.with(
+                Lists.immutable.with("main", "f", "g"),
+                Lists.immutable.with("main", "f"),
+                Lists.immutable.empty(),
+                Lists.immutable.with("main", "f", "g"));
+        Iterator<ListIterable<String>> iterator = samples.iterator();
+        SamplingProfiler profiler = new SamplingProfiler(Thread.currentThread(), thread -> iterator.next());
+        samples.forEach(s -> profiler.takeSample());
+
+        Assert.assertEquals(3L, profiler.getSampleCount());
+        Assert.assertEquals(2L, profiler.getSamplesByStack().get("main;f;g"));
+        Assert.assertEquals(1L, profiler.getSamplesByStack().get("main;f"));
+        Assert.assertEquals("main;f 1\nmain;f;g 2\n", profiler.writeCollapsedStacks(new StringBuilder()).toString());
+    }
+
+    @Test
+    public void testAllocationsAttributedToInnermostFunction()
+    {
+        SamplingProfiler profiler = new SamplingProfiler(Thread.currentThread(), thread -> Lists.immutable.with("main", "allocate"));
+        profiler.takeSample();
+        long[] garbage = new long[1024];
+        profiler.takeSample();
+        Assert.assertEquals(1024, garbage.length);
+        Assert.assertFalse(profiler.getAllocatedBytesByFunction().containsKey("main"));
+        if (profiler.getAllocatedBytesByFunction().notEmpty())
+        {
+            Assert.assertTrue(profiler.getAllocatedBytesByFunction().get("allocate") >= 8 * 1024);
+        }
+    }
+
+    @Test
+    public void testStartAndStop() throws Exception
+    {
+        SamplingProfiler profiler = new SamplingProfiler(Thread.currentThread(), thread -> Lists.immutable.with("main"), 1L);
+        profiler.start();
+        Assert.assertTrue(profiler.isRunning());
+        Assert.assertThrows(IllegalStateException.class, profiler::start);
+        Thread.sleep(50L);
+        profiler.stop();
+        Assert.assertFalse(profiler.isRunning());
+        Assert.assertTrue(profiler.getSampleCount() > 0L);
+    }
+
+    @Test
+    public void testInvalidInterval()
+    {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new SamplingProfiler(Thread.currentThread(), thread -> Lists.immutable.empty(), 0L));
+    }
+}
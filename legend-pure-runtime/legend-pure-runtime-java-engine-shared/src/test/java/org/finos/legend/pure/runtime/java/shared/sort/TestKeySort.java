@@ -0,0 +1,103 @@
+// Copyright 2020 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.runtime.java.shared.sort;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.list.Interval;
+import org.finos.legend.pure.m4.coreinstance.primitive.date.DateFunctions;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestKeySort
+{
+    private static final Comparator<Object> FAIL = (left, right) ->
+    {
+        throw new AssertionError("Default comparator should not be used");
+    };
+
+    @Test
+    public void testIntegerKeys()
+    {
+        MutableList<String> values = Lists.mutable.with("c", "a", "b", "a2");
+        Object[] keys = {3L, 1L, 2L, 1L};
+        Assert.assertEquals(Lists.mutable.with("a", "a2", "b", "c"), KeySort.sortByDefaultOrder(values, keys, FAIL));
+    }
+
+    @Test
+    public void testFloatKeys()
+    {
+        MutableList<String> values = Lists.mutable.with("c", "a", "b");
+        Object[] keys = {3.5, -1.0, 2.25};
+        Assert.assertEquals(Lists.mutable.with("a", "b", "c"), KeySort.sortByDefaultOrder(values, keys, FAIL));
+    }
+
+    @Test
+    public void testStringAndDateKeys()
+    {
+        Assert.assertEquals(Lists.mutable.with("x", "y", "z"), KeySort.sortByDefaultOrder(Lists.mutable.with("z", "x", "y"), new Object[]{"c", "a", "b"}, FAIL));
+
+        Object[] dates = {DateFunctions.newPureDate(2020, 5, 1), DateFunctions.newPureDate(2019), DateFunctions.newPureDate(2020, 1)};
+        Assert.assertEquals(Lists.mutable.with("b", "c", "a"), KeySort.sortByDefaultOrder(Lists.mutable.with("a", "b", "c"), dates, FAIL));
+    }
+
+    @Test
+    public void testMixedKeysUseDefaultComparator()
+    {
+        AtomicInteger comparisons = new AtomicInteger();
+        Comparator<Object> comparator = (left, right) ->
+        {
+            comparisons.incrementAndGet();
+            return Double.compare(((Number) left).doubleValue(), ((Number) right).doubleValue());
+        };
+        Object[] keys = {2L, 1.5, 0L};
+        Assert.assertEquals(Lists.mutable.with("c", "b", "a"), KeySort.sortByDefaultOrder(Lists.mutable.with("a", "b", "c"), keys, comparator));
+        Assert.assertTrue(comparisons.get() > 0);
+
+        Object[] primitiveKeys = {2L, null, 0L};
+        Assert.assertEquals(Lists.mutable.with("c", "b", "a"), KeySort.sortByDefaultOrder(Lists.mutable.with("a", "b", "c"), primitiveKeys, keys, comparator));
+    }
+
+    @Test
+    public void testCustomComparatorIsStable()
+    {
+        MutableList<String> values = Lists.mutable.with("b1", "a1", "b2", "a2");
+        Object[] keys = {"b", "a", "b", "a"};
+        Comparator<Object> reversed = (left, right) -> ((String) right).compareTo((String) left);
+        Assert.assertEquals(Lists.mutable.with("b1", "b2", "a1", "a2"), KeySort.sortByKeys(values, keys, reversed));
+    }
+
+    @Test
+    public void testLargeSortIsStable()
+    {
+        int size = KeySort.PARALLEL_THRESHOLD * 4;
+        MutableList<Integer> values = Interval.zeroTo(size - 1).toList();
+        Object[] keys = new Object[size];
+        for (int i = 0; i < size; i++)
+        {
+            keys[i] = (long) ((size - i) % 10);
+        }
+        MutableList<Integer> sorted = KeySort.sortByDefaultOrder(values, keys, FAIL);
+        for (int i = 1; i < size; i++)
+        {
+            long previousKey = (Long) keys[sorted.get(i - 1)];
+            long key = (Long) keys[sorted.get(i)];
+            Assert.assertTrue(previousKey < key || (previousKey == key && sorted.get(i - 1) < sorted.get(i)));
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.finos.legend.pure.m3.tools.MetricsRecorder;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.m4.coreinstance.SourceInformation;
 import org.finos.legend.pure.runtime.java.compiled.execution.CompiledExecutionSupport;
+import org.finos.legend.pure.runtime.java.compiled.execution.ExecutionCancellation;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.natives.ResultLazyIterable;
 import org.finos.legend.pure.runtime.java.extension.store.relational.compiled.RelationalNativeImplementation;
 import org.finos.legend.pure.runtime.java.extension.store.relational.shared.ConnectionWithDataSourceInfo;
@@ -39,6 +40,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.GregorianCalendar;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -73,7 +75,7 @@ public class ResultSetRowIterableProvider
 
             if (!PureConnectionUtils.isPureConnectionType(pureConnection, "Hive"))
             {
-                statement.setQueryTimeout(queryTimeoutInSeconds);
+                statement.setQueryTimeout(getQueryTimeoutInSeconds(queryTimeoutInSeconds, executionSupport.getCancellation()));
             }
 
             int actualFetchSize = maxRows > 0 ? Math.min(fetchSize, maxRows) : fetchSize;
@@ -116,6 +118,7 @@ public class ResultSetRowIterableProvider
                             boolean showCheckMaxRows = shouldThrowIfMaxRowsExceeded && maxRows > 0;
                             while (rs.next())
                             {
+                                executionSupport.checkCancelled(sourceInformation);
                                 rowCount++;
                                 CoreInstance row = processRowFunction.apply(RelationalNativeImplementation.processRow(rs, handlers, sqlNull, calendar));
                                 results.add(row);
@@ -196,6 +199,16 @@ public class ResultSetRowIterableProvider
         }
     }
 
+    // The query must not outlive the deadline of the execution; a timeout of 0 means no timeout
+    private static int getQueryTimeoutInSeconds(int queryTimeoutInSeconds, ExecutionCancellation cancellation)
+    {
+        if (!cancellation.hasDeadline())
+        {
+            return queryTimeoutInSeconds;
+        }
+        int remaining = (int) Math.min(Integer.MAX_VALUE, Math.max(1L, cancellation.getRemainingTime(TimeUnit.SECONDS)));
+        return (queryTimeoutInSeconds <= 0) ? remaining : Math.min(queryTimeoutInSeconds, remaining);
+    }
 
     public static class ResultSetIterableContainer
     {